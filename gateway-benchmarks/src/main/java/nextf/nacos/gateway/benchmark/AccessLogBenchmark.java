@@ -0,0 +1,92 @@
+package nextf.nacos.gateway.benchmark;
+
+import nextf.nacos.gateway.config.AccessLogConfig;
+import nextf.nacos.gateway.logging.AccessLogContext;
+import nextf.nacos.gateway.logging.AccessLogEvent;
+import nextf.nacos.gateway.logging.AccessLogLayout;
+import nextf.nacos.gateway.metrics.PhaseMetrics;
+import nextf.nacos.gateway.metrics.RequestPhases;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Access log line formatting for one request, through AccessLogLayout.doLayout as the appender calls it
+ * The pattern format runs AccessLogPatternFormatter.format on the default pattern plus two phase
+ * placeholders, the json format runs the layout's JSON writer (formatAsJson). "phases" adds the phase
+ * breakdown of server.phaseTimings to the request.
+ * Lines are formatted by the single async appender thread, so one thread is measured; run with
+ * -prof gc, the allocation per line is what the access log costs the GC.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccessLogBenchmark {
+
+    private static final String PATTERN =
+            "%h - - [%t] \"%m %U %H\" %s %b %D \"%{User-Agent}i\" \"%{Referer}i\" %{connect}P %{transfer}P%n";
+
+    @Param({"pattern", "json"})
+    public String format;
+
+    @Param({"false", "true"})
+    public boolean phases;
+
+    private AccessLogLayout layout;
+    private AccessLogEvent event;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        AccessLogConfig config = new AccessLogConfig();
+        config.setFormat(format);
+        config.setPattern(PATTERN);
+        layout = new AccessLogLayout(config);
+
+        RequestPhases requestPhases = null;
+        if (phases) {
+            requestPhases = new PhaseMetrics(true).start();
+            for (RequestPhases.Phase phase : RequestPhases.Phase.values()) {
+                requestPhases.mark(phase);
+            }
+            requestPhases.finish();
+        }
+
+        AccessLogContext context = AccessLogContext.builder()
+                .timestamp(Instant.now())
+                .method("GET")
+                .uri("/nacos/v1/ns/instance/list")
+                .queryString("serviceName=DEFAULT_GROUP%40%40order-service&healthyOnly=true")
+                .protocol("HTTP/1.1")
+                .status(200)
+                .bytesSent(1834)
+                .durationMs(12)
+                .clientIp("192.168.10.24")
+                .backend("nacos-cluster")
+                .endpoint("10.0.0.12:8848")
+                .phases(requestPhases)
+                .addRequestHeader("User-Agent", "Nacos-Java-Client:v2.3.2")
+                .addRequestHeader("Referer", "-")
+                .build();
+        event = new AccessLogEvent(context);
+    }
+
+    @Benchmark
+    public String layout() {
+        return layout.doLayout(event);
+    }
+}
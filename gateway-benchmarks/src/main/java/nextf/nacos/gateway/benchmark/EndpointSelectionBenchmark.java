@@ -0,0 +1,104 @@
+package nextf.nacos.gateway.benchmark;
+
+import nextf.nacos.gateway.config.BackendConfig;
+import nextf.nacos.gateway.config.EndpointConfig;
+import nextf.nacos.gateway.loadbalance.EndpointSelector;
+import nextf.nacos.gateway.loadbalance.LoadBalancer;
+import nextf.nacos.gateway.model.Backend;
+import nextf.nacos.gateway.model.Endpoint;
+import nextf.nacos.gateway.model.EndpointSnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Endpoint selection for every load balancer strategy, from a single endpoint to a 200 endpoint backend
+ * select() is EndpointSelector.select(backend, key) as the proxy calls it (healthy snapshot, priority group,
+ * load balancer); request() is the load balancer alone with the request start and completion callbacks
+ * the stateful strategies (least-connection, p2c-least-loaded, peak-ewma) keep their load from.
+ * Keys are client IPs for consistent-hash. The backend is shared by all threads like by the event loops:
+ * run with -t 1,4,16,64 for the contention, and with -prof gc for the allocation per selection.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EndpointSelectionBenchmark {
+
+    private static final int KEYS = 1024;
+    private static final long LATENCY_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
+    @Param({"round-robin", "weighted-round-robin", "random", "least-connection",
+            "p2c-least-loaded", "peak-ewma", "consistent-hash"})
+    public String strategy;
+
+    @Param({"1", "10", "50", "200"})
+    public int endpoints;
+
+    private final EndpointSelector endpointSelector = new EndpointSelector();
+    private Backend backend;
+    private LoadBalancer loadBalancer;
+    private EndpointSnapshot snapshot;
+    private String[] keys;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next = ThreadLocalRandom.current().nextInt();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        List<EndpointConfig> endpointConfigs = new ArrayList<>(endpoints);
+        for (int i = 0; i < endpoints; i++) {
+            EndpointConfig endpointConfig = new EndpointConfig();
+            endpointConfig.setHost("10.0." + (i >> 8) + "." + (i & 0xff));
+            endpointConfig.setWeight(1 + i % 3);
+            endpointConfigs.add(endpointConfig);
+        }
+        BackendConfig.BackendPortsConfig ports = new BackendConfig.BackendPortsConfig();
+        ports.setApiV1(8848);
+        BackendConfig backendConfig = new BackendConfig();
+        backendConfig.setName("benchmark");
+        backendConfig.setLoadBalance(strategy);
+        backendConfig.setPorts(ports);
+        backendConfig.setEndpoints(endpointConfigs);
+
+        backend = Backend.from(backendConfig);
+        loadBalancer = backend.getLoadBalancer();
+        snapshot = backend.getHealthySnapshot();
+
+        keys = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = "192.168." + (i >> 8) + "." + (i & 0xff);
+        }
+    }
+
+    @Benchmark
+    public Endpoint select(Cursor cursor) {
+        return endpointSelector.select(backend, keys[cursor.next++ & (KEYS - 1)]);
+    }
+
+    @Benchmark
+    public Endpoint request(Cursor cursor) {
+        Endpoint endpoint = loadBalancer.select(snapshot, keys[cursor.next++ & (KEYS - 1)]);
+        loadBalancer.onRequestStart(endpoint);
+        loadBalancer.onRequestComplete(endpoint, LATENCY_NANOS, true);
+        return endpoint;
+    }
+}
@@ -0,0 +1,174 @@
+package nextf.nacos.gateway.benchmark;
+
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.http.HttpVersion;
+import io.vertx.core.http.PoolOptions;
+import io.vertx.core.http.RequestOptions;
+import nextf.nacos.gateway.benchmark.legacy.LegacyGrpcProxyHandler;
+import nextf.nacos.gateway.config.BackendConfig;
+import nextf.nacos.gateway.config.EndpointConfig;
+import nextf.nacos.gateway.config.PortType;
+import nextf.nacos.gateway.config.RouteConfig;
+import nextf.nacos.gateway.model.Backend;
+import nextf.nacos.gateway.proxy.GrpcProxyHandler;
+import nextf.nacos.gateway.proxy.ProxyConnection;
+import nextf.nacos.gateway.proxy.ProxyHandler;
+import nextf.nacos.gateway.route.Route;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end gRPC relay benchmark: client -> gateway handler -> backend over h2c
+ * Compares the current GrpcProxyHandler with the pre-rewrite LegacyGrpcProxyHandler.
+ * Each operation sends a batch of concurrent unary calls multiplexed on one connection.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GrpcProxyBenchmark {
+
+    @Param({"legacy", "relay"})
+    public String handler;
+
+    @Param({"1024", "65536"})
+    public int payloadBytes;
+
+    @Param({"16"})
+    public int concurrency;
+
+    private Vertx vertx;
+    private Context context;
+    private HttpServer backendServer;
+    private HttpServer gatewayServer;
+    private HttpClient upstreamClient;
+    private HttpClient client;
+    private Buffer payload;
+    private int gatewayPort;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        vertx = Vertx.vertx();
+        context = vertx.getOrCreateContext();
+        payload = Buffer.buffer(new byte[payloadBytes]);
+
+        // Backend: echoes the request message size back as a unary gRPC response with trailers
+        backendServer = vertx.createHttpServer();
+        backendServer.requestHandler(request -> request.body().onSuccess(body -> request.response()
+                .putHeader("content-type", "application/grpc")
+                .putTrailer("grpc-status", "0")
+                .putTrailer("grpc-message", "OK")
+                .end(body)));
+        int backendPort = await(backendServer.listen(0)).actualPort();
+
+        // Gateway: one upstream h2c connection, handler picked by parameter
+        upstreamClient = vertx.createHttpClient(new HttpClientOptions()
+                .setProtocolVersion(HttpVersion.HTTP_2)
+                .setHttp2ClearTextUpgrade(false)
+                .setHttp2MultiplexingLimit(1000),
+                new PoolOptions().setHttp2MaxSize(1));
+        ProxyConnection proxyConnection = proxyConnection(backendPort, upstreamClient);
+        ProxyHandler proxyHandler = "legacy".equals(handler)
+                ? new LegacyGrpcProxyHandler(proxyConnection, null)
+                : new GrpcProxyHandler(proxyConnection, null);
+        gatewayServer = vertx.createHttpServer();
+        gatewayServer.requestHandler(proxyHandler::handle);
+        gatewayPort = await(gatewayServer.listen(0)).actualPort();
+
+        // Client: one multiplexed h2c connection to the gateway
+        client = vertx.createHttpClient(new HttpClientOptions()
+                .setProtocolVersion(HttpVersion.HTTP_2)
+                .setHttp2ClearTextUpgrade(false)
+                .setHttp2MultiplexingLimit(1000),
+                new PoolOptions().setHttp2MaxSize(1));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        await(vertx.close());
+    }
+
+    @Benchmark
+    public int unaryCalls() throws Exception {
+        // Calls are issued from an event loop context: responses completed on a foreign thread can
+        // deliver their body before the body() handler is attached
+        CompletableFuture<Integer> done = new CompletableFuture<>();
+        context.runOnContext(v -> {
+            List<Future<Buffer>> calls = new ArrayList<>(concurrency);
+            for (int i = 0; i < concurrency; i++) {
+                calls.add(client.request(new RequestOptions()
+                                .setMethod(HttpMethod.POST)
+                                .setHost("localhost")
+                                .setPort(gatewayPort)
+                                .setURI("/Request/request")
+                                .putHeader("content-type", "application/grpc")
+                                .putHeader("te", "trailers"))
+                        .compose(request -> request.send(payload))
+                        .compose(HttpClientResponse::body));
+            }
+            Future.all(calls).onComplete(ar -> {
+                if (ar.failed()) {
+                    done.completeExceptionally(ar.cause());
+                    return;
+                }
+                int bytes = 0;
+                for (Future<Buffer> call : calls) {
+                    bytes += call.result().length();
+                }
+                done.complete(bytes);
+            });
+        });
+        return done.get(30, TimeUnit.SECONDS);
+    }
+
+    private static ProxyConnection proxyConnection(int backendPort, HttpClient upstreamClient) {
+        EndpointConfig endpointConfig = new EndpointConfig();
+        endpointConfig.setHost("localhost");
+
+        BackendConfig.BackendPortsConfig ports = new BackendConfig.BackendPortsConfig();
+        ports.setApiV2(backendPort);
+
+        BackendConfig backendConfig = new BackendConfig();
+        backendConfig.setName("benchmark");
+        backendConfig.setPorts(ports);
+        backendConfig.setEndpoints(List.of(endpointConfig));
+        Backend backend = Backend.from(backendConfig);
+
+        RouteConfig routeConfig = new RouteConfig();
+        routeConfig.setHost("localhost");
+        routeConfig.setBackend("benchmark");
+
+        return new ProxyConnection(null, new Route(routeConfig), backend.getEndpoints().get(0), backend,
+                upstreamClient, false, PortType.API_V2, "127.0.0.1");
+    }
+
+    private <T> T await(Future<T> future) throws Exception {
+        return future.toCompletionStage().toCompletableFuture().get(30, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,51 @@
+package nextf.nacos.gateway.benchmark;
+
+import nextf.nacos.gateway.route.HostMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single host pattern check, the unit of work of the linear route scan and of the index fallback
+ * Exact patterns compare ignoring case, wildcard patterns run a regex; the regex Matcher is
+ * allocated on every call, run with -prof gc to see it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HostMatcherBenchmark {
+
+    @Param({"api.tenant-42.example.com", "*.tenant-42.example.com", "api.*.example.com"})
+    public String pattern;
+
+    private HostMatcher hostMatcher;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        hostMatcher = new HostMatcher(pattern);
+    }
+
+    @Benchmark
+    public boolean hit() {
+        return hostMatcher.matches("api.tenant-42.example.com");
+    }
+
+    @Benchmark
+    public boolean miss() {
+        return hostMatcher.matches("api.tenant-43.example.com");
+    }
+}
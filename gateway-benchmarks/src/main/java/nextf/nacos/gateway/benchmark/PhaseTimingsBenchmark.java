@@ -0,0 +1,58 @@
+package nextf.nacos.gateway.benchmark;
+
+import nextf.nacos.gateway.metrics.PhaseMetrics;
+import nextf.nacos.gateway.metrics.RequestPhases;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of the phase latency breakdown: what GatewayServer and the proxy handlers do for one
+ * request (start, five marks, finish into the shared histograms), with phase timings switched on and off.
+ * All threads record into the same histograms, as the event loops do. Run with -prof gc for the allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class PhaseTimingsBenchmark {
+
+    @Param({"false", "true"})
+    public boolean enabled;
+
+    private PhaseMetrics phaseMetrics;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        phaseMetrics = new PhaseMetrics(enabled);
+    }
+
+    @Benchmark
+    public RequestPhases request() {
+        RequestPhases phases = phaseMetrics.start();
+        if (phases != null) {
+            phases.mark(RequestPhases.Phase.ROUTE);
+            phases.mark(RequestPhases.Phase.LIMIT);
+            phases.mark(RequestPhases.Phase.CONNECT);
+            phases.mark(RequestPhases.Phase.FIRST_BYTE);
+            phases.mark(RequestPhases.Phase.TRANSFER);
+            phases.finish();
+        }
+        return phases;
+    }
+}
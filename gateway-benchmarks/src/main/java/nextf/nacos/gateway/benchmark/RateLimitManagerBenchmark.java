@@ -0,0 +1,121 @@
+package nextf.nacos.gateway.benchmark;
+
+import nextf.nacos.gateway.config.BackendConfig;
+import nextf.nacos.gateway.config.GatewayConfig;
+import nextf.nacos.gateway.config.RateLimitConfig;
+import nextf.nacos.gateway.config.RouteConfig;
+import nextf.nacos.gateway.config.ServerConfig;
+import nextf.nacos.gateway.ratelimit.RateLimitManager;
+import nextf.nacos.gateway.route.Route;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request QPS admission as GatewayServer does it: RateLimitManager.tryAcquire(route, clientIp)
+ * with the chains bound ahead of time. "global" only limits the server tier, "all" also limits every
+ * route, every backend and every client, so each call walks the whole chain and looks up the client
+ * limiter. Limits are far above the measured rate, every call takes the admit path and updates shared
+ * state. Threads walk the routes and clients from random offsets; run with -t 1,4,16,64 to see
+ * the contention of the shared tiers, and with -prof gc for the allocation per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class RateLimitManagerBenchmark {
+
+    private static final int UNLIMITED_QPS = 100_000_000;
+    private static final int BACKENDS = 100;
+
+    @Param({"global", "all"})
+    public String limits;
+
+    @Param({"1000", "50000"})
+    public int routes;
+
+    @Param({"1", "10000"})
+    public int clients;
+
+    private RateLimitManager rateLimitManager;
+    private Route[] routeArray;
+    private String[] clientIps;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next = ThreadLocalRandom.current().nextInt();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        boolean all = "all".equals(limits);
+
+        ServerConfig serverConfig = new ServerConfig();
+        serverConfig.setRateLimit(limit(all));
+        GatewayConfig config = new GatewayConfig();
+        config.setServer(serverConfig);
+        rateLimitManager = new RateLimitManager(config);
+
+        if (all) {
+            for (int i = 0; i < BACKENDS; i++) {
+                BackendConfig backendConfig = new BackendConfig();
+                backendConfig.setName("backend-" + i);
+                backendConfig.setRateLimit(limit(true));
+                rateLimitManager.updateBackendLimiter(backendConfig.getName(), backendConfig);
+            }
+        }
+
+        List<Route> routeList = new ArrayList<>(routes);
+        for (int i = 0; i < routes; i++) {
+            RouteConfig routeConfig = new RouteConfig();
+            routeConfig.setHost("svc-" + i + ".example.com");
+            routeConfig.setBackend("backend-" + (i % BACKENDS));
+            if (all) {
+                routeConfig.setRateLimit(limit(true));
+            }
+            Route route = new Route(routeConfig);
+            rateLimitManager.updateRouteLimiter(route.getId(), routeConfig);
+            routeList.add(route);
+        }
+        rateLimitManager.bindRoutes(routeList);
+        routeArray = routeList.toArray(new Route[0]);
+
+        clientIps = new String[clients];
+        for (int i = 0; i < clients; i++) {
+            clientIps[i] = "10." + (i >> 16 & 0xff) + "." + (i >> 8 & 0xff) + "." + (i & 0xff);
+        }
+    }
+
+    private static RateLimitConfig limit(boolean perClient) {
+        RateLimitConfig rateLimit = new RateLimitConfig();
+        rateLimit.setMaxQps(UNLIMITED_QPS);
+        if (perClient) {
+            rateLimit.setMaxQpsPerClient(UNLIMITED_QPS);
+        }
+        return rateLimit;
+    }
+
+    @Benchmark
+    public boolean tryAcquire(Cursor cursor) {
+        int next = cursor.next++ & Integer.MAX_VALUE;
+        return rateLimitManager.tryAcquire(routeArray[next % routeArray.length], clientIps[next % clientIps.length]);
+    }
+}
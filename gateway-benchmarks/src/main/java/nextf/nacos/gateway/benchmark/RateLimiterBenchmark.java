@@ -0,0 +1,58 @@
+package nextf.nacos.gateway.benchmark;
+
+import nextf.nacos.gateway.benchmark.legacy.LegacyQpsRateLimiter;
+import nextf.nacos.gateway.ratelimit.QpsRateLimiter;
+import nextf.nacos.gateway.ratelimit.RateLimiter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * QPS limiter hot path under heavy contention: all threads share one limiter, as for the global limit
+ * Compares the fixed-window LegacyQpsRateLimiter, the exact GCRA QpsRateLimiter and the striped one.
+ * Run with -t 1,4,16,64 to see how each scales with the number of event loops.
+ * A low maxQps exercises the reject path, a very high one the admit path (every call updates shared state).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    @Param({"legacy", "gcra", "striped"})
+    public String limiter;
+
+    @Param({"1000", "100000000"})
+    public int maxQps;
+
+    private RateLimiter rateLimiter;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        switch (limiter) {
+            case "legacy" -> rateLimiter = new LegacyQpsRateLimiter(maxQps);
+            case "striped" -> rateLimiter = QpsRateLimiter.striped(maxQps, -1, -1, 20);
+            default -> rateLimiter = new QpsRateLimiter(maxQps);
+        }
+    }
+
+    @Benchmark
+    public boolean tryAcquire() {
+        return rateLimiter.tryAcquire();
+    }
+}
@@ -0,0 +1,85 @@
+package nextf.nacos.gateway.benchmark;
+
+import nextf.nacos.gateway.config.RouteConfig;
+import nextf.nacos.gateway.route.HostRouteIndex;
+import nextf.nacos.gateway.route.Route;
+import nextf.nacos.gateway.route.RouteMatcher;
+import nextf.nacos.gateway.route.RouteMatcherImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Host routing at tenant scale: the linear RouteMatcherImpl against the HostRouteIndex the registry uses
+ * Half of the routes are exact hosts (svc-N.tenant.example.com), half single leading wildcards
+ * (*.zone-N.example.com). Lookups cycle through 1024 random hosts hitting an exact route, a wildcard
+ * route or no route at all. Lookups do not write shared state, so one thread is enough; run with
+ * -prof gc to check that matching stays allocation free.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RouteMatcherBenchmark {
+
+    private static final int HOSTS = 1024;
+
+    @Param({"linear", "index"})
+    public String matcher;
+
+    @Param({"1000", "10000", "50000"})
+    public int routes;
+
+    @Param({"exact", "wildcard", "miss"})
+    public String lookup;
+
+    private RouteMatcher routeMatcher;
+    private String[] hosts;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        List<Route> routeList = new ArrayList<>(routes);
+        for (int i = 0; i < routes; i++) {
+            RouteConfig config = new RouteConfig();
+            config.setHost(i % 2 == 0 ? "svc-" + i + ".tenant.example.com" : "*.zone-" + i + ".example.com");
+            config.setBackend("backend");
+            routeList.add(new Route(config));
+        }
+        routeMatcher = "linear".equals(matcher) ? new RouteMatcherImpl(routeList) : new HostRouteIndex(routeList);
+
+        Random random = new Random(42);
+        hosts = new String[HOSTS];
+        for (int i = 0; i < HOSTS; i++) {
+            int route = random.nextInt(routes / 2) * 2;
+            switch (lookup) {
+                case "exact" -> hosts[i] = "svc-" + route + ".tenant.example.com";
+                case "wildcard" -> hosts[i] = "node-" + i + ".zone-" + (route + 1) + ".example.com";
+                default -> hosts[i] = "svc-" + route + ".tenant.example.org";
+            }
+        }
+    }
+
+    @Benchmark
+    public Optional<Route> match() {
+        String host = hosts[next++ & (HOSTS - 1)];
+        return routeMatcher.match(host);
+    }
+}
@@ -0,0 +1,56 @@
+package nextf.nacos.gateway.benchmark.legacy;
+
+import nextf.nacos.gateway.ratelimit.RateLimiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Copy of the fixed-window QpsRateLimiter before the GCRA rewrite, kept as benchmark baseline
+ */
+public class LegacyQpsRateLimiter implements RateLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(LegacyQpsRateLimiter.class);
+
+    private final int maxQps;
+    private final static long WINDOW_SIZE_MS = 1_000L;
+    private final AtomicInteger counter = new AtomicInteger(0);
+    private final AtomicLong counterWindow = new AtomicLong(0);
+
+    public LegacyQpsRateLimiter(int maxQps) {
+        this.maxQps = maxQps;
+    }
+
+    @Override
+    public boolean tryAcquire() {
+        if (maxQps == -1) {
+            return true;  // No limit
+        }
+        if (maxQps == 0) {
+            return false;  // Reject all
+        }
+        do {
+            long window = System.currentTimeMillis() / WINDOW_SIZE_MS;
+            long counterWindowVal = counterWindow.get();
+            if (counterWindowVal != window) {
+                if (counterWindow.compareAndSet(counterWindowVal, window)) {
+                    counter.set(0);
+                } else {
+                    continue;
+                }
+            }
+            int current = counter.incrementAndGet();
+            if (current > maxQps) {
+                log.debug("QPS limit exceeded: {}/{}", current, maxQps);
+                return false;
+            }
+            return true;
+        } while (true);
+    }
+
+    public int getMaxQps() {
+        return maxQps;
+    }
+}
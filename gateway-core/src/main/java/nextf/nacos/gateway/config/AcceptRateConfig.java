@@ -0,0 +1,109 @@
+package nextf.nacos.gateway.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Objects;
+
+/**
+ * New connection rate limit of the data-plane ports
+ * Spreads reconnect storms (gateway restart, Nacos node flapping) over time: connections beyond the rate
+ * are closed as soon as they are accepted, before any HTTP or TLS work is done for them.
+ *
+ * Value semantics:
+ * - maxPerSecond / maxPerSecondPerClient -1: no limit, > 0: new connections per second
+ * - burst / burstPerClient -1: same as the rate (one second of connections), > 0: bucket capacity
+ */
+public class AcceptRateConfig {
+
+    // New connections per second accepted by the gateway as a whole
+    @JsonProperty("maxPerSecond")
+    private int maxPerSecond = -1;
+
+    @JsonProperty("burst")
+    private int burst = -1;
+
+    // New connections per second accepted from one client IP
+    @JsonProperty("maxPerSecondPerClient")
+    private int maxPerSecondPerClient = -1;
+
+    @JsonProperty("burstPerClient")
+    private int burstPerClient = -1;
+
+    // Client IPs tracked at once; new IPs beyond it are only subject to the global rate
+    @JsonProperty("maxClients")
+    private int maxClients = 10_000;
+
+    public int getMaxPerSecond() {
+        return maxPerSecond;
+    }
+
+    public void setMaxPerSecond(int maxPerSecond) {
+        this.maxPerSecond = maxPerSecond;
+    }
+
+    public int getBurst() {
+        return burst;
+    }
+
+    public void setBurst(int burst) {
+        this.burst = burst;
+    }
+
+    public int getMaxPerSecondPerClient() {
+        return maxPerSecondPerClient;
+    }
+
+    public void setMaxPerSecondPerClient(int maxPerSecondPerClient) {
+        this.maxPerSecondPerClient = maxPerSecondPerClient;
+    }
+
+    public int getBurstPerClient() {
+        return burstPerClient;
+    }
+
+    public void setBurstPerClient(int burstPerClient) {
+        this.burstPerClient = burstPerClient;
+    }
+
+    public int getMaxClients() {
+        return maxClients;
+    }
+
+    public void setMaxClients(int maxClients) {
+        this.maxClients = maxClients;
+    }
+
+    /**
+     * @return true if neither the global nor the per-client rate is limited
+     */
+    public boolean isUnlimited() {
+        return maxPerSecond == -1 && maxPerSecondPerClient == -1;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof AcceptRateConfig that)) return false;
+        return maxPerSecond == that.maxPerSecond &&
+                burst == that.burst &&
+                maxPerSecondPerClient == that.maxPerSecondPerClient &&
+                burstPerClient == that.burstPerClient &&
+                maxClients == that.maxClients;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(maxPerSecond, burst, maxPerSecondPerClient, burstPerClient, maxClients);
+    }
+
+    @Override
+    public String toString() {
+        return "AcceptRateConfig{" +
+                "maxPerSecond=" + maxPerSecond +
+                ", burst=" + burst +
+                ", maxPerSecondPerClient=" + maxPerSecondPerClient +
+                ", burstPerClient=" + burstPerClient +
+                ", maxClients=" + maxClients +
+                '}';
+    }
+}
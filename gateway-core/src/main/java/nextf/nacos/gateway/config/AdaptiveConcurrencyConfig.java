@@ -0,0 +1,112 @@
+package nextf.nacos.gateway.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Objects;
+
+/**
+ * Adaptive concurrency limit of a backend
+ * Bounds the requests waiting for upstream response headers. The limit follows the measured upstream
+ * latency (Vegas style): it grows while the latency stays near the lowest seen and shrinks once the
+ * latency shows requests queueing in the backend, or when upstream requests fail.
+ */
+public class AdaptiveConcurrencyConfig {
+
+    @JsonProperty("enabled")
+    private boolean enabled = false;
+
+    // Limit used until the first latency samples arrive
+    @JsonProperty("initialLimit")
+    private int initialLimit = 20;
+
+    @JsonProperty("minLimit")
+    private int minLimit = 5;
+
+    @JsonProperty("maxLimit")
+    private int maxLimit = 1000;
+
+    // Latency samples are averaged over windows of this length before the limit is adjusted
+    @JsonProperty("windowMillis")
+    private int windowMillis = 100;
+
+    // The no-load latency is measured again after this many seconds, so it can follow a slower backend
+    @JsonProperty("probeIntervalSeconds")
+    private int probeIntervalSeconds = 30;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    public void setInitialLimit(int initialLimit) {
+        this.initialLimit = initialLimit;
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public void setMinLimit(int minLimit) {
+        this.minLimit = minLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public void setMaxLimit(int maxLimit) {
+        this.maxLimit = maxLimit;
+    }
+
+    public int getWindowMillis() {
+        return windowMillis;
+    }
+
+    public void setWindowMillis(int windowMillis) {
+        this.windowMillis = windowMillis;
+    }
+
+    public int getProbeIntervalSeconds() {
+        return probeIntervalSeconds;
+    }
+
+    public void setProbeIntervalSeconds(int probeIntervalSeconds) {
+        this.probeIntervalSeconds = probeIntervalSeconds;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof AdaptiveConcurrencyConfig that)) return false;
+        return enabled == that.enabled &&
+                initialLimit == that.initialLimit &&
+                minLimit == that.minLimit &&
+                maxLimit == that.maxLimit &&
+                windowMillis == that.windowMillis &&
+                probeIntervalSeconds == that.probeIntervalSeconds;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(enabled, initialLimit, minLimit, maxLimit, windowMillis, probeIntervalSeconds);
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptiveConcurrencyConfig{" +
+                "enabled=" + enabled +
+                ", initialLimit=" + initialLimit +
+                ", minLimit=" + minLimit +
+                ", maxLimit=" + maxLimit +
+                ", windowMillis=" + windowMillis +
+                ", probeIntervalSeconds=" + probeIntervalSeconds +
+                '}';
+    }
+}
@@ -14,6 +14,10 @@ public class BackendConfig {
     @JsonProperty("loadBalance")
     private String loadBalance = "round-robin";
 
+    // Key for consistent-hash: client-ip, tenant (Nacos tenant/namespaceId parameter) or header:<name>
+    @JsonProperty("hashKey")
+    private String hashKey = "client-ip";
+
     @JsonProperty("ports")
     private BackendPortsConfig ports;
 
@@ -23,6 +27,9 @@ public class BackendConfig {
     @JsonProperty("rateLimit")
     private RateLimitConfig rateLimit = new RateLimitConfig();
 
+    @JsonProperty("adaptiveConcurrency")
+    private AdaptiveConcurrencyConfig adaptiveConcurrency;
+
     @JsonProperty("endpoints")
     private List<EndpointConfig> endpoints;
 
@@ -42,6 +49,14 @@ public class BackendConfig {
         this.loadBalance = loadBalance;
     }
 
+    public String getHashKey() {
+        return hashKey;
+    }
+
+    public void setHashKey(String hashKey) {
+        this.hashKey = hashKey;
+    }
+
     public BackendPortsConfig getPorts() {
         return ports;
     }
@@ -66,6 +81,14 @@ public class BackendConfig {
         this.rateLimit = rateLimit;
     }
 
+    public AdaptiveConcurrencyConfig getAdaptiveConcurrency() {
+        return adaptiveConcurrency;
+    }
+
+    public void setAdaptiveConcurrency(AdaptiveConcurrencyConfig adaptiveConcurrency) {
+        this.adaptiveConcurrency = adaptiveConcurrency;
+    }
+
     public List<EndpointConfig> getEndpoints() {
         return endpoints;
     }
@@ -79,9 +102,11 @@ public class BackendConfig {
         return "BackendConfig{" +
                 "name='" + name + '\'' +
                 ", loadBalance='" + loadBalance + '\'' +
+                ", hashKey='" + hashKey + '\'' +
                 ", ports=" + ports +
                 ", probe=" + probe +
                 ", rateLimit=" + rateLimit +
+                ", adaptiveConcurrency=" + adaptiveConcurrency +
                 ", endpoints=" + endpoints +
                 '}';
     }
@@ -0,0 +1,98 @@
+package nextf.nacos.gateway.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Per-client rate limiter store configuration
+ * Bounds the number of client limiters kept in memory so that scanning or spoofed source IPs
+ * cannot grow the heap without limit.
+ *
+ * In approximate mode a fixed-size Count-Min Sketch counts requests of every client and exact
+ * per-client QPS limiters are only created for clients that may be near maxQpsPerClient.
+ */
+public class ClientLimiterConfig {
+
+    // Maximum client limiters kept; clients holding connections are never evicted
+    @JsonProperty("maxSize")
+    private int maxSize = 100_000;
+
+    // Client limiters without connections are dropped after this many idle seconds
+    @JsonProperty("idleSeconds")
+    private int idleSeconds = 300;
+
+    // Create per-client QPS limiters only for heavy hitters flagged by the sketch
+    @JsonProperty("approximate")
+    private boolean approximate = false;
+
+    // Counters per sketch row (rounded up to a power of two)
+    @JsonProperty("sketchWidth")
+    private int sketchWidth = 4096;
+
+    // Sketch rows (independent hash functions)
+    @JsonProperty("sketchDepth")
+    private int sketchDepth = 4;
+
+    // Clients listed by the top clients view
+    @JsonProperty("topK")
+    private int topK = 20;
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public int getIdleSeconds() {
+        return idleSeconds;
+    }
+
+    public void setIdleSeconds(int idleSeconds) {
+        this.idleSeconds = idleSeconds;
+    }
+
+    public boolean isApproximate() {
+        return approximate;
+    }
+
+    public void setApproximate(boolean approximate) {
+        this.approximate = approximate;
+    }
+
+    public int getSketchWidth() {
+        return sketchWidth;
+    }
+
+    public void setSketchWidth(int sketchWidth) {
+        this.sketchWidth = sketchWidth;
+    }
+
+    public int getSketchDepth() {
+        return sketchDepth;
+    }
+
+    public void setSketchDepth(int sketchDepth) {
+        this.sketchDepth = sketchDepth;
+    }
+
+    public int getTopK() {
+        return topK;
+    }
+
+    public void setTopK(int topK) {
+        this.topK = topK;
+    }
+
+    @Override
+    public String toString() {
+        return "ClientLimiterConfig{" +
+                "maxSize=" + maxSize +
+                ", idleSeconds=" + idleSeconds +
+                ", approximate=" + approximate +
+                ", sketchWidth=" + sketchWidth +
+                ", sketchDepth=" + sketchDepth +
+                ", topK=" + topK +
+                '}';
+    }
+}
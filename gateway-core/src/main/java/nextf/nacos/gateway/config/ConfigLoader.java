@@ -3,6 +3,8 @@ package nextf.nacos.gateway.config;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import nextf.nacos.gateway.loadbalance.HashKeyExtractor;
+import nextf.nacos.gateway.loadbalance.LoadBalancerFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -78,6 +80,102 @@ public class ConfigLoader {
         validatePort(ports.getApiV2(), "server.apiV2", usedServerPorts);
         validatePort(ports.getApiConsole(), "server.apiConsole", usedServerPorts);
 
+        // Validate event loop / verticle sizing (0 = default)
+        if (serverConfig.getEventLoopPoolSize() < 0) {
+            throw new IOException("Server event loop pool size must be >= 0");
+        }
+        if (serverConfig.getWorkerPoolSize() < 0) {
+            throw new IOException("Server worker pool size must be >= 0");
+        }
+        if (serverConfig.getInstances() < 0) {
+            throw new IOException("Server instances must be >= 0");
+        }
+
+        // Validate upstream connection pool config
+        UpstreamPoolConfig upstreamPool = serverConfig.getUpstreamPool();
+        if (upstreamPool != null) {
+            if (upstreamPool.getMaxSize() < 1) {
+                throw new IOException("Upstream pool max size must be >= 1");
+            }
+            if (upstreamPool.getKeepAliveTimeoutSeconds() < 0) {
+                throw new IOException("Upstream pool keep-alive timeout must be >= 0");
+            }
+            if (upstreamPool.getCleanerPeriodMillis() < 0) {
+                throw new IOException("Upstream pool cleaner period must be >= 0");
+            }
+            if (upstreamPool.getMaxWaitQueueSize() < -1) {
+                throw new IOException("Upstream pool max wait queue size must be >= -1");
+            }
+        }
+
+        // Validate client limiter store config
+        ClientLimiterConfig clientLimiters = serverConfig.getClientLimiters();
+        if (clientLimiters != null) {
+            if (clientLimiters.getMaxSize() < 1) {
+                throw new IOException("Client limiter max size must be >= 1");
+            }
+            if (clientLimiters.getIdleSeconds() < 1) {
+                throw new IOException("Client limiter idle seconds must be >= 1");
+            }
+            if (clientLimiters.getSketchWidth() < 64 || clientLimiters.getSketchWidth() > (1 << 20)) {
+                throw new IOException("Client limiter sketch width must be between 64 and 1048576");
+            }
+            if (clientLimiters.getSketchDepth() < 1 || clientLimiters.getSketchDepth() > 8) {
+                throw new IOException("Client limiter sketch depth must be between 1 and 8");
+            }
+            if (clientLimiters.getTopK() < 1) {
+                throw new IOException("Client limiter top K must be >= 1");
+            }
+        }
+
+        // Validate new connection rate limit config
+        AcceptRateConfig acceptRate = serverConfig.getAcceptRate();
+        if (acceptRate != null) {
+            if (acceptRate.getMaxPerSecond() != -1 && acceptRate.getMaxPerSecond() <= 0) {
+                throw new IOException("Accept rate max per second must be -1 or positive");
+            }
+            if (acceptRate.getBurst() != -1 && acceptRate.getBurst() <= 0) {
+                throw new IOException("Accept rate burst must be -1 or positive");
+            }
+            if (acceptRate.getMaxPerSecondPerClient() != -1 && acceptRate.getMaxPerSecondPerClient() <= 0) {
+                throw new IOException("Accept rate max per second per client must be -1 or positive");
+            }
+            if (acceptRate.getBurstPerClient() != -1 && acceptRate.getBurstPerClient() <= 0) {
+                throw new IOException("Accept rate burst per client must be -1 or positive");
+            }
+            if (acceptRate.getMaxClients() < 1) {
+                throw new IOException("Accept rate max clients must be >= 1");
+            }
+        }
+
+        // Validate TCP passthrough config
+        TcpPassthroughConfig tcpPassthrough = serverConfig.getTcpPassthrough();
+        if (tcpPassthrough != null && tcpPassthrough.getDefaultHost() != null
+                && tcpPassthrough.getDefaultHost().trim().isEmpty()) {
+            throw new IOException("TCP passthrough default host must not be empty");
+        }
+
+        // Validate management listener and metrics endpoint config
+        ManagementConfig management = config.getManagement();
+        if (management != null) {
+            validatePort(management.getPort(), "management", usedServerPorts);
+            if (management.getHost() == null || management.getHost().trim().isEmpty()) {
+                throw new IOException("Management host must not be empty");
+            }
+            if (management.getMetrics() != null && management.getMetrics().getMaxSeries() < 1) {
+                throw new IOException("Metrics max series must be >= 1");
+            }
+            ManagementConfig.FlightRecorderEndpointConfig flightRecorder = management.getFlightRecorder();
+            if (flightRecorder != null && flightRecorder.isEnabled()) {
+                if (flightRecorder.getDirectory() == null || flightRecorder.getDirectory().trim().isEmpty()) {
+                    throw new IOException("Flight recorder directory must not be empty");
+                }
+                if (flightRecorder.getMaxAgeSeconds() < 1) {
+                    throw new IOException("Flight recorder max age must be >= 1 second");
+                }
+            }
+        }
+
         // Validate server rate limit config (now under server section)
         if (serverConfig.getRateLimit() != null) {
             RateLimitConfig rateLimit = serverConfig.getRateLimit();
@@ -95,6 +193,24 @@ public class ConfigLoader {
             if (rateLimit.getMaxConnectionsPerClient() < -1) {
                 throw new IOException("Server max connections per client must be >= -1");
             }
+            if (rateLimit.getBurst() < -1 || rateLimit.getBurst() == 0) {
+                throw new IOException("Server burst must be -1 or positive");
+            }
+            if (rateLimit.getBurstPerClient() < -1 || rateLimit.getBurstPerClient() == 0) {
+                throw new IOException("Server burst per client must be -1 or positive");
+            }
+            if (rateLimit.getLeaseSize() < -1 || rateLimit.getLeaseSize() == 0) {
+                throw new IOException("Server lease size must be -1 or positive");
+            }
+            if (rateLimit.getLeaseMillis() <= 0) {
+                throw new IOException("Server lease millis must be positive");
+            }
+            if (rateLimit.getMaxBytesPerSecond() < -1 || rateLimit.getMaxBytesPerSecond() == 0) {
+                throw new IOException("Server max bytes per second must be -1 or positive");
+            }
+            if (rateLimit.getMaxBytesPerSecondPerClient() < -1 || rateLimit.getMaxBytesPerSecondPerClient() == 0) {
+                throw new IOException("Server max bytes per second per client must be -1 or positive");
+            }
         }
 
         // Validate routes
@@ -143,15 +259,22 @@ public class ConfigLoader {
                     throw new IOException("Endpoint host is required for backend '" + backend.getName() + "'");
                 }
                 // Port validation removed - port is at backend level now
+                if (endpoint.getWeight() < 1 || endpoint.getWeight() > 100) {
+                    throw new IOException("Endpoint weight must be between 1 and 100 for backend '"
+                            + backend.getName() + "': " + endpoint.getWeight());
+                }
             }
 
             // Validate load balance strategy
             String loadBalance = backend.getLoadBalance();
-            if (loadBalance == null || (!loadBalance.equals("round-robin") &&
-                    !loadBalance.equals("random") &&
-                    !loadBalance.equals("least-connection"))) {
+            if (!LoadBalancerFactory.isSupported(loadBalance)) {
                 throw new IOException("Invalid load balance strategy for backend '" + backend.getName() + "': " + loadBalance);
             }
+            try {
+                HashKeyExtractor.parse(backend.getHashKey());
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Invalid hash key for backend '" + backend.getName() + "': " + backend.getHashKey());
+            }
 
             // Validate backend rate limit config (if configured)
             RateLimitConfig backendRateLimit = backend.getRateLimit();
@@ -170,6 +293,51 @@ public class ConfigLoader {
                 if (backendRateLimit.getMaxConnectionsPerClient() < -1) {
                     throw new IOException("Backend max connections per client must be >= -1 for backend '" + backend.getName() + "'");
                 }
+                if (backendRateLimit.getBurst() < -1 || backendRateLimit.getBurst() == 0) {
+                    throw new IOException("Backend burst must be -1 or positive for backend '" + backend.getName() + "'");
+                }
+                if (backendRateLimit.getBurstPerClient() < -1 || backendRateLimit.getBurstPerClient() == 0) {
+                    throw new IOException("Backend burst per client must be -1 or positive for backend '" + backend.getName() + "'");
+                }
+                if (backendRateLimit.getLeaseSize() < -1 || backendRateLimit.getLeaseSize() == 0) {
+                    throw new IOException("Backend lease size must be -1 or positive for backend '" + backend.getName() + "'");
+                }
+                if (backendRateLimit.getLeaseMillis() <= 0) {
+                    throw new IOException("Backend lease millis must be positive for backend '" + backend.getName() + "'");
+                }
+                if (backendRateLimit.getMaxBytesPerSecond() < -1 || backendRateLimit.getMaxBytesPerSecond() == 0) {
+                    throw new IOException("Backend max bytes per second must be -1 or positive for backend '" + backend.getName() + "'");
+                }
+                if (backendRateLimit.getMaxBytesPerSecondPerClient() < -1 || backendRateLimit.getMaxBytesPerSecondPerClient() == 0) {
+                    throw new IOException("Backend max bytes per second per client must be -1 or positive for backend '" + backend.getName() + "'");
+                }
+                if (backendRateLimit.getQueueDepth() < 0) {
+                    throw new IOException("Backend queue depth must be >= 0 for backend '" + backend.getName() + "'");
+                }
+                if (backendRateLimit.getQueueTimeoutMillis() <= 0) {
+                    throw new IOException("Backend queue timeout millis must be positive for backend '" + backend.getName() + "'");
+                }
+            }
+
+            // Validate adaptive concurrency config (if enabled)
+            AdaptiveConcurrencyConfig concurrency = backend.getAdaptiveConcurrency();
+            if (concurrency != null && concurrency.isEnabled()) {
+                if (concurrency.getMinLimit() < 1) {
+                    throw new IOException("Adaptive concurrency min limit must be positive for backend '" + backend.getName() + "'");
+                }
+                if (concurrency.getMaxLimit() < concurrency.getMinLimit()) {
+                    throw new IOException("Adaptive concurrency max limit must be >= min limit for backend '" + backend.getName() + "'");
+                }
+                if (concurrency.getInitialLimit() < concurrency.getMinLimit()
+                        || concurrency.getInitialLimit() > concurrency.getMaxLimit()) {
+                    throw new IOException("Adaptive concurrency initial limit must be between min and max limit for backend '" + backend.getName() + "'");
+                }
+                if (concurrency.getWindowMillis() <= 0) {
+                    throw new IOException("Adaptive concurrency window millis must be positive for backend '" + backend.getName() + "'");
+                }
+                if (concurrency.getProbeIntervalSeconds() <= 0) {
+                    throw new IOException("Adaptive concurrency probe interval must be positive for backend '" + backend.getName() + "'");
+                }
             }
         }
 
@@ -184,6 +352,33 @@ public class ConfigLoader {
             if (!backendNames.contains(route.getBackend())) {
                 throw new IOException("Route references unknown backend '" + route.getBackend() + "' for host: " + route.getHost());
             }
+            RateLimitConfig routeRateLimit = route.getRateLimit();
+            if (routeRateLimit != null) {
+                if (routeRateLimit.getBurst() < -1 || routeRateLimit.getBurst() == 0) {
+                    throw new IOException("Route burst must be -1 or positive for host: " + route.getHost());
+                }
+                if (routeRateLimit.getBurstPerClient() < -1 || routeRateLimit.getBurstPerClient() == 0) {
+                    throw new IOException("Route burst per client must be -1 or positive for host: " + route.getHost());
+                }
+                if (routeRateLimit.getLeaseSize() < -1 || routeRateLimit.getLeaseSize() == 0) {
+                    throw new IOException("Route lease size must be -1 or positive for host: " + route.getHost());
+                }
+                if (routeRateLimit.getLeaseMillis() <= 0) {
+                    throw new IOException("Route lease millis must be positive for host: " + route.getHost());
+                }
+                if (routeRateLimit.getMaxBytesPerSecond() < -1 || routeRateLimit.getMaxBytesPerSecond() == 0) {
+                    throw new IOException("Route max bytes per second must be -1 or positive for host: " + route.getHost());
+                }
+                if (routeRateLimit.getMaxBytesPerSecondPerClient() < -1 || routeRateLimit.getMaxBytesPerSecondPerClient() == 0) {
+                    throw new IOException("Route max bytes per second per client must be -1 or positive for host: " + route.getHost());
+                }
+                if (routeRateLimit.getQueueDepth() < 0) {
+                    throw new IOException("Route queue depth must be >= 0 for host: " + route.getHost());
+                }
+                if (routeRateLimit.getQueueTimeoutMillis() <= 0) {
+                    throw new IOException("Route queue timeout millis must be positive for host: " + route.getHost());
+                }
+            }
         }
 
         // Validate timeout config
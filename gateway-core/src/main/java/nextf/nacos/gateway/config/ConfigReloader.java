@@ -3,11 +3,16 @@ package nextf.nacos.gateway.config;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import nextf.nacos.gateway.config.reader.ConfigFileReader;
+import nextf.nacos.gateway.jfr.ConfigReloadEvent;
+import nextf.nacos.gateway.metrics.PhaseMetrics;
 import nextf.nacos.gateway.proxy.ConnectionManager;
 import nextf.nacos.gateway.ratelimit.RateLimitManager;
 import nextf.nacos.gateway.registry.GatewayRegistry;
 import nextf.nacos.gateway.logging.AccessLogger;
 
+import java.util.HashSet;
+import java.util.Set;
+
 /**
  * Configuration reloader for hot reloading
  * Responsibility: Coordinate ConfigFileReader and ConfigLoader to complete configuration hot reload
@@ -21,6 +26,7 @@ public class ConfigReloader {
     private final RateLimitManager rateLimitManager;
     private final ConfigFileReader configFileReader;
     private final AccessLogger accessLogger;
+    private final PhaseMetrics phaseMetrics;
 
     private GatewayConfig currentConfig;
 
@@ -28,12 +34,14 @@ public class ConfigReloader {
                          GatewayRegistry registry,
                          RateLimitManager rateLimitManager,
                          ConfigFileReader configFileReader,
-                         AccessLogger accessLogger) {
+                         AccessLogger accessLogger,
+                         PhaseMetrics phaseMetrics) {
         this.configLoader = configLoader;
         this.registry = registry;
         this.rateLimitManager = rateLimitManager;
         this.configFileReader = configFileReader;
         this.accessLogger = accessLogger;
+        this.phaseMetrics = phaseMetrics;
     }
 
     public void setCurrentConfig(GatewayConfig config) {
@@ -44,6 +52,9 @@ public class ConfigReloader {
      * Reload configuration (no parameters, read through ConfigFileReader)
      */
     public synchronized void reload() {
+        ConfigReloadEvent event = new ConfigReloadEvent();
+        event.begin();
+        event.setSource(configFileReader.getSourceDescription());
         try {
             // 1. Read latest configuration content through ConfigFileReader
             String configContent = configFileReader.readConfig();
@@ -74,14 +85,21 @@ public class ConfigReloader {
             // 7. Update access log configuration
             updateAccessLogger(newConfig);
 
-            // 8. Update current configuration
+            // 8. Switch phase timings on or off
+            updatePhaseTimings(newConfig);
+
+            // 9. Update current configuration
             currentConfig = newConfig;
 
             log.info("Configuration reloaded successfully");
+            event.setSuccess(true);
 
         } catch (Exception e) {
             log.error("Failed to reload configuration: {}", e.getMessage(), e);
+            event.setError(e.getMessage());
             throw new RuntimeException("Configuration reload failed", e);
+        } finally {
+            event.commit();
         }
     }
 
@@ -106,37 +124,41 @@ public class ConfigReloader {
     /**
      * Update rate limiters
      * This stays in ConfigReloader as it's not managed by the registry
+     * Limiters are reconciled rather than rebuilt: unchanged limits keep their live state, changed limits
+     * carry over their QPS state and connection counts, and only limiters of removed entries are dropped.
      */
     private void updateRateLimiters(GatewayConfig newConfig) {
-        boolean updated = false;
-
         // 1. Update server-level rate limit config (hot reload support)
         // Always call update when server config exists, even if rateLimit is null (to support reset to unlimited)
         if (newConfig.getServer() != null) {
             rateLimitManager.updateServerRateLimitConfig(newConfig.getServer().getRateLimit());
-            updated = true;
+            rateLimitManager.updateClientLimiterConfig(newConfig.getServer().getClientLimiters());
+            rateLimitManager.updateAcceptRateConfig(newConfig.getServer().getAcceptRate());
         }
 
         // 2. Update backend rate limiters
         if (newConfig.getBackends() != null) {
+            Set<String> backendNames = new HashSet<>();
             for (BackendConfig backendConfig : newConfig.getBackends()) {
                 rateLimitManager.updateBackendLimiter(backendConfig.getName(), backendConfig);
+                backendNames.add(backendConfig.getName());
             }
-            updated = true;
+            rateLimitManager.retainBackendLimiters(backendNames);
         }
 
         // 3. Update route rate limiters
         if (newConfig.getRoutes() != null) {
+            Set<String> routeIds = new HashSet<>();
             for (RouteConfig routeConfig : newConfig.getRoutes()) {
                 String routeId = routeConfig.getHost(); // Route.getId() returns hostPattern
                 rateLimitManager.updateRouteLimiter(routeId, routeConfig);
+                routeIds.add(routeId);
             }
-            updated = true;
+            rateLimitManager.retainRouteLimiters(routeIds);
         }
 
-        if (updated) {
-            rateLimitManager.clearClientLimiters();
-        }
+        // 4. Resolve the limiter chains of the new routes
+        rateLimitManager.bindRoutes(registry.getRoutes().values());
         log.info("Updated rate limiters (server, backend and route level)");
     }
 
@@ -151,6 +173,17 @@ public class ConfigReloader {
         }
     }
 
+    /**
+     * Switch the per-phase latency breakdown, requests already in flight keep their timings
+     */
+    private void updatePhaseTimings(GatewayConfig newConfig) {
+        if (phaseMetrics != null && newConfig.getServer() != null
+                && phaseMetrics.isEnabled() != newConfig.getServer().isPhaseTimings()) {
+            phaseMetrics.setEnabled(newConfig.getServer().isPhaseTimings());
+            log.info("Phase timings {}", phaseMetrics.isEnabled() ? "enabled" : "disabled");
+        }
+    }
+
     public GatewayConfig getCurrentConfig() {
         return currentConfig;
     }
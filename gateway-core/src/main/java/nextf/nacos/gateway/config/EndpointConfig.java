@@ -14,6 +14,10 @@ public class EndpointConfig {
     @JsonProperty("priority")
     private int priority = 10;
 
+    // Relative share within the priority group for weighted-round-robin (1-100)
+    @JsonProperty("weight")
+    private int weight = 1;
+
     public String getHost() {
         return host;
     }
@@ -30,11 +34,20 @@ public class EndpointConfig {
         this.priority = priority;
     }
 
+    public int getWeight() {
+        return weight;
+    }
+
+    public void setWeight(int weight) {
+        this.weight = weight;
+    }
+
     @Override
     public String toString() {
         return "EndpointConfig{" +
                 "host='" + host + '\'' +
                 ", priority=" + priority +
+                ", weight=" + weight +
                 '}';
     }
 }
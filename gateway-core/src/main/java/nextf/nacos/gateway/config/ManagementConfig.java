@@ -4,12 +4,34 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 
 /**
  * Management endpoint configuration
+ * The endpoints are served on a dedicated listener, never on the proxy ports
  */
 public class ManagementConfig {
 
+    @JsonProperty("host")
+    private String host = "0.0.0.0";
+
+    @JsonProperty("port")
+    private int port = 18081;
+
     @JsonProperty("health")
     private HealthEndpointConfig health;
 
+    @JsonProperty("topClients")
+    private TopClientsEndpointConfig topClients;
+
+    @JsonProperty("admissionQueues")
+    private AdmissionQueuesEndpointConfig admissionQueues;
+
+    @JsonProperty("concurrencyLimits")
+    private ConcurrencyLimitsEndpointConfig concurrencyLimits;
+
+    @JsonProperty("metrics")
+    private MetricsEndpointConfig metrics;
+
+    @JsonProperty("flightRecorder")
+    private FlightRecorderEndpointConfig flightRecorder;
+
     public static class HealthEndpointConfig {
         @JsonProperty("enabled")
         private boolean enabled = true;
@@ -42,6 +64,236 @@ public class ManagementConfig {
         }
     }
 
+    /**
+     * Top clients view of the heavy-hitter sketch, disabled by default
+     */
+    public static class TopClientsEndpointConfig {
+        @JsonProperty("enabled")
+        private boolean enabled = false;
+
+        @JsonProperty("path")
+        private String path = "/admin/top-clients";
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        @Override
+        public String toString() {
+            return "TopClientsEndpointConfig{" +
+                    "enabled=" + enabled +
+                    ", path='" + path + '\'' +
+                    '}';
+        }
+    }
+
+    /**
+     * Depth and wait-time histograms of the rate limit admission queues, disabled by default
+     */
+    public static class AdmissionQueuesEndpointConfig {
+        @JsonProperty("enabled")
+        private boolean enabled = false;
+
+        @JsonProperty("path")
+        private String path = "/admin/admission-queues";
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        @Override
+        public String toString() {
+            return "AdmissionQueuesEndpointConfig{" +
+                    "enabled=" + enabled +
+                    ", path='" + path + '\'' +
+                    '}';
+        }
+    }
+
+    /**
+     * Current adaptive concurrency limits of the backends, disabled by default
+     */
+    public static class ConcurrencyLimitsEndpointConfig {
+        @JsonProperty("enabled")
+        private boolean enabled = false;
+
+        @JsonProperty("path")
+        private String path = "/admin/concurrency-limits";
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        @Override
+        public String toString() {
+            return "ConcurrencyLimitsEndpointConfig{" +
+                    "enabled=" + enabled +
+                    ", path='" + path + '\'' +
+                    '}';
+        }
+    }
+
+    /**
+     * Prometheus metrics, disabled by default; requests are only measured while it is enabled
+     */
+    public static class MetricsEndpointConfig {
+        @JsonProperty("enabled")
+        private boolean enabled = false;
+
+        @JsonProperty("path")
+        private String path = "/metrics";
+
+        // Label values kept per label (routes, backends, endpoints of a backend), the rest share one series
+        @JsonProperty("maxSeries")
+        private int maxSeries = 1000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        public int getMaxSeries() {
+            return maxSeries;
+        }
+
+        public void setMaxSeries(int maxSeries) {
+            this.maxSeries = maxSeries;
+        }
+
+        @Override
+        public String toString() {
+            return "MetricsEndpointConfig{" +
+                    "enabled=" + enabled +
+                    ", path='" + path + '\'' +
+                    ", maxSeries=" + maxSeries +
+                    '}';
+        }
+    }
+
+    /**
+     * On-demand JFR recordings, disabled by default
+     */
+    public static class FlightRecorderEndpointConfig {
+        @JsonProperty("enabled")
+        private boolean enabled = false;
+
+        @JsonProperty("path")
+        private String path = "/admin/jfr";
+
+        // Directory the recordings are dumped to, on the gateway host
+        @JsonProperty("directory")
+        private String directory = "logs/jfr";
+
+        // Recorded data older than this is discarded while the recording runs
+        @JsonProperty("maxAgeSeconds")
+        private long maxAgeSeconds = 3600;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public long getMaxAgeSeconds() {
+            return maxAgeSeconds;
+        }
+
+        public void setMaxAgeSeconds(long maxAgeSeconds) {
+            this.maxAgeSeconds = maxAgeSeconds;
+        }
+
+        @Override
+        public String toString() {
+            return "FlightRecorderEndpointConfig{" +
+                    "enabled=" + enabled +
+                    ", path='" + path + '\'' +
+                    ", directory='" + directory + '\'' +
+                    ", maxAgeSeconds=" + maxAgeSeconds +
+                    '}';
+        }
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public void setHost(String host) {
+        this.host = host;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public void setPort(int port) {
+        this.port = port;
+    }
+
     public HealthEndpointConfig getHealth() {
         return health;
     }
@@ -50,10 +302,57 @@ public class ManagementConfig {
         this.health = health;
     }
 
+    public TopClientsEndpointConfig getTopClients() {
+        return topClients;
+    }
+
+    public void setTopClients(TopClientsEndpointConfig topClients) {
+        this.topClients = topClients;
+    }
+
+    public AdmissionQueuesEndpointConfig getAdmissionQueues() {
+        return admissionQueues;
+    }
+
+    public void setAdmissionQueues(AdmissionQueuesEndpointConfig admissionQueues) {
+        this.admissionQueues = admissionQueues;
+    }
+
+    public ConcurrencyLimitsEndpointConfig getConcurrencyLimits() {
+        return concurrencyLimits;
+    }
+
+    public void setConcurrencyLimits(ConcurrencyLimitsEndpointConfig concurrencyLimits) {
+        this.concurrencyLimits = concurrencyLimits;
+    }
+
+    public MetricsEndpointConfig getMetrics() {
+        return metrics;
+    }
+
+    public void setMetrics(MetricsEndpointConfig metrics) {
+        this.metrics = metrics;
+    }
+
+    public FlightRecorderEndpointConfig getFlightRecorder() {
+        return flightRecorder;
+    }
+
+    public void setFlightRecorder(FlightRecorderEndpointConfig flightRecorder) {
+        this.flightRecorder = flightRecorder;
+    }
+
     @Override
     public String toString() {
         return "ManagementConfig{" +
-                "health=" + health +
+                "host='" + host + '\'' +
+                ", port=" + port +
+                ", health=" + health +
+                ", topClients=" + topClients +
+                ", admissionQueues=" + admissionQueues +
+                ", concurrencyLimits=" + concurrencyLimits +
+                ", metrics=" + metrics +
+                ", flightRecorder=" + flightRecorder +
                 '}';
     }
 }
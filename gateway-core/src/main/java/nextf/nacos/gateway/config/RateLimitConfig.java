@@ -10,6 +10,21 @@ import com.fasterxml.jackson.annotation.JsonProperty;
  * - -1: no limit (unlimited)
  * - 0: reject all access (most extreme restriction)
  * - > 0: normal limit
+ *
+ * Burst semantics (burst / burstPerClient):
+ * - -1: same as the QPS limit (one second of traffic)
+ * - > 0: maximum requests admitted back to back before the QPS limit applies
+ *
+ * Striping (striped / leaseSize / leaseMillis) applies to maxQps only, not to the per-client limit:
+ * event loops lease leaseSize permits at once and keep unused ones for at most leaseMillis.
+ *
+ * Bandwidth (maxBytesPerSecond / maxBytesPerSecondPerClient), response body bytes relayed to clients:
+ * - -1: no limit
+ * - > 0: sustained bytes per second, with bursts of up to one second of traffic
+ *
+ * Admission queue (queueDepth / queueTimeoutMillis, route and backend level only):
+ * - queueDepth 0: disabled, a request over the limit gets 429 at once
+ * - queueDepth > 0: up to queueDepth requests over the limit wait at most queueTimeoutMillis for a permit
  */
 public class RateLimitConfig {
 
@@ -25,6 +40,33 @@ public class RateLimitConfig {
     @JsonProperty("maxConnectionsPerClient")
     private int maxConnectionsPerClient = -1;
 
+    @JsonProperty("burst")
+    private int burst = -1;
+
+    @JsonProperty("burstPerClient")
+    private int burstPerClient = -1;
+
+    @JsonProperty("maxBytesPerSecond")
+    private long maxBytesPerSecond = -1;
+
+    @JsonProperty("maxBytesPerSecondPerClient")
+    private long maxBytesPerSecondPerClient = -1;
+
+    @JsonProperty("striped")
+    private boolean striped = false;
+
+    @JsonProperty("leaseSize")
+    private int leaseSize = -1;
+
+    @JsonProperty("leaseMillis")
+    private int leaseMillis = 20;
+
+    @JsonProperty("queueDepth")
+    private int queueDepth = 0;
+
+    @JsonProperty("queueTimeoutMillis")
+    private int queueTimeoutMillis = 100;
+
     public int getMaxQps() {
         return maxQps;
     }
@@ -57,6 +99,78 @@ public class RateLimitConfig {
         this.maxConnectionsPerClient = maxConnectionsPerClient;
     }
 
+    public int getBurst() {
+        return burst;
+    }
+
+    public void setBurst(int burst) {
+        this.burst = burst;
+    }
+
+    public int getBurstPerClient() {
+        return burstPerClient;
+    }
+
+    public void setBurstPerClient(int burstPerClient) {
+        this.burstPerClient = burstPerClient;
+    }
+
+    public long getMaxBytesPerSecond() {
+        return maxBytesPerSecond;
+    }
+
+    public void setMaxBytesPerSecond(long maxBytesPerSecond) {
+        this.maxBytesPerSecond = maxBytesPerSecond;
+    }
+
+    public long getMaxBytesPerSecondPerClient() {
+        return maxBytesPerSecondPerClient;
+    }
+
+    public void setMaxBytesPerSecondPerClient(long maxBytesPerSecondPerClient) {
+        this.maxBytesPerSecondPerClient = maxBytesPerSecondPerClient;
+    }
+
+    public boolean isStriped() {
+        return striped;
+    }
+
+    public void setStriped(boolean striped) {
+        this.striped = striped;
+    }
+
+    public int getLeaseSize() {
+        return leaseSize;
+    }
+
+    public void setLeaseSize(int leaseSize) {
+        this.leaseSize = leaseSize;
+    }
+
+    public int getLeaseMillis() {
+        return leaseMillis;
+    }
+
+    public void setLeaseMillis(int leaseMillis) {
+        this.leaseMillis = leaseMillis;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public void setQueueDepth(int queueDepth) {
+        this.queueDepth = queueDepth;
+    }
+
+    public int getQueueTimeoutMillis() {
+        return queueTimeoutMillis;
+    }
+
+    public void setQueueTimeoutMillis(int queueTimeoutMillis) {
+        this.queueTimeoutMillis = queueTimeoutMillis;
+    }
+
     // Helper methods
     // Note: 0 means "reject all", -1 means "no limit", >0 means "limited"
     public boolean isQpsLimited() { return maxQps != -1; }
@@ -65,14 +179,19 @@ public class RateLimitConfig {
     public boolean isConnectionsPerClientLimited() { return maxConnectionsPerClient != -1; }
     public boolean isQpsRejected() { return maxQps == 0; }
     public boolean isConnectionsRejected() { return maxConnections == 0; }
+    public boolean isBytesLimited() { return maxBytesPerSecond != -1; }
+    public boolean isBytesPerClientLimited() { return maxBytesPerSecondPerClient != -1; }
+    public boolean isQueued() { return queueDepth > 0; }
 
     /**
-     * Check if this config is exactly the default (all -1, unlimited)
-     * @return true if all fields are -1
+     * Check if this config is exactly the default (all -1, unlimited, no admission queue)
+     * @return true if all limits are -1 and the queue is disabled
      */
     public boolean isDefaultUnlimited() {
         return maxQps == -1 && maxConnections == -1 &&
-               maxQpsPerClient == -1 && maxConnectionsPerClient == -1;
+               maxQpsPerClient == -1 && maxConnectionsPerClient == -1 &&
+               maxBytesPerSecond == -1 && maxBytesPerSecondPerClient == -1 &&
+               queueDepth == 0;
     }
 
     @Override
@@ -82,6 +201,15 @@ public class RateLimitConfig {
                 ", maxConnections=" + maxConnections +
                 ", maxQpsPerClient=" + maxQpsPerClient +
                 ", maxConnectionsPerClient=" + maxConnectionsPerClient +
+                ", burst=" + burst +
+                ", burstPerClient=" + burstPerClient +
+                ", maxBytesPerSecond=" + maxBytesPerSecond +
+                ", maxBytesPerSecondPerClient=" + maxBytesPerSecondPerClient +
+                ", striped=" + striped +
+                ", leaseSize=" + leaseSize +
+                ", leaseMillis=" + leaseMillis +
+                ", queueDepth=" + queueDepth +
+                ", queueTimeoutMillis=" + queueTimeoutMillis +
                 '}';
     }
 }
@@ -18,6 +18,34 @@ public class ServerConfig {
     @JsonProperty("rateLimit")
     private RateLimitConfig rateLimit = new RateLimitConfig();
 
+    // Vert.x event loop threads (0 = Vert.x default, 2 * available processors)
+    @JsonProperty("eventLoopPoolSize")
+    private int eventLoopPoolSize = 0;
+
+    // Vert.x worker pool threads (0 = Vert.x default)
+    @JsonProperty("workerPoolSize")
+    private int workerPoolSize = 0;
+
+    // Server verticle instances deployed per port (0 = one per event loop)
+    @JsonProperty("instances")
+    private int instances = 0;
+
+    @JsonProperty("upstreamPool")
+    private UpstreamPoolConfig upstreamPool = new UpstreamPoolConfig();
+
+    @JsonProperty("tcpPassthrough")
+    private TcpPassthroughConfig tcpPassthrough = new TcpPassthroughConfig();
+
+    @JsonProperty("clientLimiters")
+    private ClientLimiterConfig clientLimiters = new ClientLimiterConfig();
+
+    @JsonProperty("acceptRate")
+    private AcceptRateConfig acceptRate = new AcceptRateConfig();
+
+    // Per-phase latency breakdown of proxied requests, hot reloadable
+    @JsonProperty("phaseTimings")
+    private boolean phaseTimings = false;
+
     public PortsConfig getPorts() {
         return ports;
     }
@@ -34,6 +62,77 @@ public class ServerConfig {
         this.rateLimit = rateLimit;
     }
 
+    public int getEventLoopPoolSize() {
+        return eventLoopPoolSize;
+    }
+
+    public void setEventLoopPoolSize(int eventLoopPoolSize) {
+        this.eventLoopPoolSize = eventLoopPoolSize;
+    }
+
+    public int getWorkerPoolSize() {
+        return workerPoolSize;
+    }
+
+    public void setWorkerPoolSize(int workerPoolSize) {
+        this.workerPoolSize = workerPoolSize;
+    }
+
+    public int getInstances() {
+        return instances;
+    }
+
+    public void setInstances(int instances) {
+        this.instances = instances;
+    }
+
+    public UpstreamPoolConfig getUpstreamPool() {
+        return upstreamPool;
+    }
+
+    public void setUpstreamPool(UpstreamPoolConfig upstreamPool) {
+        this.upstreamPool = upstreamPool;
+    }
+
+    public TcpPassthroughConfig getTcpPassthrough() {
+        return tcpPassthrough;
+    }
+
+    public void setTcpPassthrough(TcpPassthroughConfig tcpPassthrough) {
+        this.tcpPassthrough = tcpPassthrough;
+    }
+
+    public ClientLimiterConfig getClientLimiters() {
+        return clientLimiters;
+    }
+
+    public void setClientLimiters(ClientLimiterConfig clientLimiters) {
+        this.clientLimiters = clientLimiters;
+    }
+
+    public AcceptRateConfig getAcceptRate() {
+        return acceptRate;
+    }
+
+    public void setAcceptRate(AcceptRateConfig acceptRate) {
+        this.acceptRate = acceptRate;
+    }
+
+    public boolean isPhaseTimings() {
+        return phaseTimings;
+    }
+
+    public void setPhaseTimings(boolean phaseTimings) {
+        this.phaseTimings = phaseTimings;
+    }
+
+    /**
+     * Check if the gRPC port runs in TCP passthrough mode
+     */
+    public boolean isTcpPassthroughEnabled() {
+        return tcpPassthrough != null && tcpPassthrough.isEnabled();
+    }
+
     /**
      * Get port number for specific port type
      * @param portType the port type (e.g., "apiV1", "apiV2", "apiConsole")
@@ -91,6 +190,14 @@ public class ServerConfig {
         return "ServerConfig{" +
                 "ports=" + ports +
                 ", rateLimit=" + rateLimit +
+                ", eventLoopPoolSize=" + eventLoopPoolSize +
+                ", workerPoolSize=" + workerPoolSize +
+                ", instances=" + instances +
+                ", upstreamPool=" + upstreamPool +
+                ", tcpPassthrough=" + tcpPassthrough +
+                ", clientLimiters=" + clientLimiters +
+                ", acceptRate=" + acceptRate +
+                ", phaseTimings=" + phaseTimings +
                 '}';
     }
 
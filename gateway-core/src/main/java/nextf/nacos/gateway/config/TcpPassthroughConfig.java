@@ -0,0 +1,42 @@
+package nextf.nacos.gateway.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * TCP passthrough configuration for the gRPC port (apiV2)
+ * When enabled, client connections are spliced byte for byte to the selected endpoint
+ * instead of being decoded and re-encoded as HTTP/2.
+ */
+public class TcpPassthroughConfig {
+
+    @JsonProperty("enabled")
+    private boolean enabled = false;
+
+    // Host used for route matching when the client sends no TLS SNI (e.g. plaintext gRPC)
+    @JsonProperty("defaultHost")
+    private String defaultHost;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getDefaultHost() {
+        return defaultHost;
+    }
+
+    public void setDefaultHost(String defaultHost) {
+        this.defaultHost = defaultHost;
+    }
+
+    @Override
+    public String toString() {
+        return "TcpPassthroughConfig{" +
+                "enabled=" + enabled +
+                ", defaultHost='" + defaultHost + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,83 @@
+package nextf.nacos.gateway.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Upstream connection pool configuration
+ * Applies to the HTTP/1 ports (apiV1, apiConsole), whose backend connections are pooled
+ * per endpoint and per event loop and shared between client connections.
+ * The gRPC port (apiV2) always keeps one dedicated backend connection per client connection.
+ */
+public class UpstreamPoolConfig {
+
+    // Maximum pooled connections per endpoint and per event loop
+    @JsonProperty("maxSize")
+    private int maxSize = 32;
+
+    // Reuse backend connections between requests
+    @JsonProperty("keepAlive")
+    private boolean keepAlive = true;
+
+    // Idle pooled connections are evicted after this many seconds (0 = never)
+    @JsonProperty("keepAliveTimeoutSeconds")
+    private int keepAliveTimeoutSeconds = 60;
+
+    // Interval of the pool cleaner that evicts expired connections (0 = disabled)
+    @JsonProperty("cleanerPeriodMillis")
+    private int cleanerPeriodMillis = 1000;
+
+    // Maximum requests waiting for a pooled connection (-1 = unbounded)
+    @JsonProperty("maxWaitQueueSize")
+    private int maxWaitQueueSize = -1;
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public boolean isKeepAlive() {
+        return keepAlive;
+    }
+
+    public void setKeepAlive(boolean keepAlive) {
+        this.keepAlive = keepAlive;
+    }
+
+    public int getKeepAliveTimeoutSeconds() {
+        return keepAliveTimeoutSeconds;
+    }
+
+    public void setKeepAliveTimeoutSeconds(int keepAliveTimeoutSeconds) {
+        this.keepAliveTimeoutSeconds = keepAliveTimeoutSeconds;
+    }
+
+    public int getCleanerPeriodMillis() {
+        return cleanerPeriodMillis;
+    }
+
+    public void setCleanerPeriodMillis(int cleanerPeriodMillis) {
+        this.cleanerPeriodMillis = cleanerPeriodMillis;
+    }
+
+    public int getMaxWaitQueueSize() {
+        return maxWaitQueueSize;
+    }
+
+    public void setMaxWaitQueueSize(int maxWaitQueueSize) {
+        this.maxWaitQueueSize = maxWaitQueueSize;
+    }
+
+    @Override
+    public String toString() {
+        return "UpstreamPoolConfig{" +
+                "maxSize=" + maxSize +
+                ", keepAlive=" + keepAlive +
+                ", keepAliveTimeoutSeconds=" + keepAliveTimeoutSeconds +
+                ", cleanerPeriodMillis=" + cleanerPeriodMillis +
+                ", maxWaitQueueSize=" + maxWaitQueueSize +
+                '}';
+    }
+}
@@ -4,6 +4,8 @@ import io.vertx.core.Vertx;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.function.Supplier;
+
 /**
  * Configuration file reader factory
  * Returns corresponding reader instance based on configuration path protocol
@@ -19,6 +21,16 @@ public class ConfigFileReaderFactory {
      * @return ConfigFileReader instance
      */
     public static ConfigFileReader getReader(String configPath, Vertx vertx) throws Exception {
+        return getReader(configPath, () -> vertx);
+    }
+
+    /**
+     * Get corresponding reader based on configuration path
+     * @param configPath Configuration path (supports file://, classpath://, nacos:// protocols)
+     * @param vertxSupplier Supplier of the Vertx instance, resolved when the file protocol starts watching
+     * @return ConfigFileReader instance
+     */
+    public static ConfigFileReader getReader(String configPath, Supplier<Vertx> vertxSupplier) throws Exception {
         if (configPath == null || configPath.trim().isEmpty()) {
             throw new IllegalArgumentException("Config path cannot be null or empty");
         }
@@ -27,7 +39,7 @@ public class ConfigFileReaderFactory {
 
         // Determine protocol type
         if (configPath.startsWith("file://")) {
-            return new FileConfigReader(vertx, configPath);
+            return new FileConfigReader(vertxSupplier, configPath, FileConfigReader.DEFAULT_CHECK_INTERVAL_MS);
 
         } else if (configPath.startsWith("classpath://")) {
             return new ClasspathConfigReader(configPath);
@@ -38,7 +50,7 @@ public class ConfigFileReaderFactory {
         } else {
             // Default to file:// protocol (backward compatible)
             log.debug("No protocol specified, defaulting to file:// protocol");
-            return new FileConfigReader(vertx, "file://" + configPath);
+            return new FileConfigReader(vertxSupplier, "file://" + configPath, FileConfigReader.DEFAULT_CHECK_INTERVAL_MS);
         }
     }
 }
@@ -8,6 +8,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 /**
  * File system configuration reader
@@ -17,18 +18,28 @@ public class FileConfigReader implements ConfigFileReader {
 
     private static final Logger log = LoggerFactory.getLogger(FileConfigReader.class);
 
-    private final Vertx vertx;
+    static final long DEFAULT_CHECK_INTERVAL_MS = 1000; // Default 1 second check interval
+
+    private final Supplier<Vertx> vertxSupplier;
     private final Path configPath;
     private final AtomicLong lastModified = new AtomicLong(0);
     private long timerId;
     private final long checkIntervalMs;
 
     public FileConfigReader(Vertx vertx, String configPath) {
-        this(vertx, configPath, 1000); // Default 1 second check interval
+        this(vertx, configPath, DEFAULT_CHECK_INTERVAL_MS);
     }
 
     public FileConfigReader(Vertx vertx, String configPath, long checkIntervalMs) {
-        this.vertx = vertx;
+        this(() -> vertx, configPath, checkIntervalMs);
+    }
+
+    /**
+     * Constructor with a lazily resolved Vert.x instance
+     * The instance is only needed once watching starts, so the configuration can be read before Vert.x is created
+     */
+    public FileConfigReader(Supplier<Vertx> vertxSupplier, String configPath, long checkIntervalMs) {
+        this.vertxSupplier = vertxSupplier;
         this.configPath = Path.of(removeProtocolPrefix(configPath));
         this.checkIntervalMs = checkIntervalMs;
 
@@ -53,6 +64,7 @@ public class FileConfigReader implements ConfigFileReader {
     public void watchConfig(Runnable callback) {
         log.info("Starting file watcher for: {}", configPath);
 
+        Vertx vertx = vertxSupplier.get();
         timerId = vertx.setPeriodic(checkIntervalMs, id -> {
             vertx.executeBlocking(() -> {
                 checkForUpdates(callback);
@@ -66,7 +78,7 @@ public class FileConfigReader implements ConfigFileReader {
     @Override
     public void stopWatching() {
         if (timerId != 0) {
-            vertx.cancelTimer(timerId);
+            vertxSupplier.get().cancelTimer(timerId);
             timerId = 0;
             log.info("File watcher stopped");
         }
@@ -71,14 +71,13 @@ public class HealthCheckManager {
      * Updates the endpoint's health status directly in the cache
      */
     public void startChecking(Endpoint endpoint, HealthProbeConfig config) {
-        HealthCheckTask existingTask = tasks.get(endpoint);
+        HealthCheckTask task = new HealthCheckTask(vertx, endpoint, config);
+        HealthCheckTask existingTask = tasks.putIfAbsent(endpoint, task);
         if (existingTask != null) {
             log.debug("Health check already running for endpoint: {}", endpoint.getAddress());
             return;
         }
 
-        HealthCheckTask task = new HealthCheckTask(vertx, endpoint, config);
-        tasks.put(endpoint, task);
         task.start();
         log.info("Started health check for endpoint: {}", endpoint.getAddress());
     }
@@ -5,6 +5,8 @@ import io.vertx.core.http.HttpClient;
 import io.vertx.core.http.HttpClientResponse;
 import io.vertx.core.http.HttpMethod;
 import nextf.nacos.gateway.config.HealthProbeConfig;
+import nextf.nacos.gateway.config.PortType;
+import nextf.nacos.gateway.jfr.EndpointHealthChangedEvent;
 import nextf.nacos.gateway.model.Endpoint;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -128,6 +130,7 @@ public class HealthCheckTask {
 
         if (successes >= config.getSuccessThreshold() && !endpoint.isHealthy()) {
             endpoint.setHealthy(true); // Sync to registry
+            EndpointHealthChangedEvent.commit(endpoint.getAddress(PortType.API_V1), config.getType(), true, successes);
             log.info("Endpoint {} is now healthy", endpoint.getAddress());
         }
     }
@@ -137,6 +140,7 @@ public class HealthCheckTask {
         consecutiveSuccesses.set(0);
         if (failures >= config.getFailureThreshold() && endpoint.isHealthy()) {
             endpoint.setHealthy(false); // Sync to registry
+            EndpointHealthChangedEvent.commit(endpoint.getAddress(PortType.API_V1), config.getType(), false, failures);
             log.warn("Endpoint {} is now unhealthy", endpoint.getAddress());
         }
     }
@@ -0,0 +1,40 @@
+package nextf.nacos.gateway.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Configuration hot reload, from reading the source to the last component updated
+ */
+@Name("nextf.nacos.gateway.ConfigReload")
+@Label("Config Reload")
+@Category({"Nacos Gateway", "Configuration"})
+@Description("Configuration hot reload")
+@StackTrace(false)
+public final class ConfigReloadEvent extends Event {
+
+    @Label("Source")
+    private String source;
+
+    @Label("Success")
+    private boolean success;
+
+    @Label("Error")
+    private String error;
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
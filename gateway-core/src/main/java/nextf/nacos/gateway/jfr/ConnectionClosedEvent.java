@@ -0,0 +1,58 @@
+package nextf.nacos.gateway.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Client connection removed from ConnectionManager, its permits released
+ */
+@Name("nextf.nacos.gateway.ConnectionClosed")
+@Label("Connection Closed")
+@Category({"Nacos Gateway", "Connection"})
+@Description("Client connection closed and its backend resources released")
+@StackTrace(false)
+public final class ConnectionClosedEvent extends Event {
+
+    @Label("Port Type")
+    private String portType;
+
+    @Label("Passthrough")
+    @Description("TCP passthrough connection rather than an HTTP one")
+    private boolean passthrough;
+
+    @Label("Client IP")
+    private String clientIp;
+
+    @Label("Backend")
+    private String backend;
+
+    @Label("Endpoint")
+    private String endpoint;
+
+    @Label("Lifetime")
+    @Timespan(Timespan.MILLISECONDS)
+    private long lifetime;
+
+    @Label("Open Connections")
+    private int openConnections;
+
+    public static void commit(String portType, boolean passthrough, String clientIp, String backend,
+                              String endpoint, long lifetimeMillis, int openConnections) {
+        ConnectionClosedEvent event = new ConnectionClosedEvent();
+        if (event.shouldCommit()) {
+            event.portType = portType;
+            event.passthrough = passthrough;
+            event.clientIp = clientIp;
+            event.backend = backend;
+            event.endpoint = endpoint;
+            event.lifetime = lifetimeMillis;
+            event.openConnections = openConnections;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package nextf.nacos.gateway.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Client connection registered with ConnectionManager, after it passed the connection limits
+ */
+@Name("nextf.nacos.gateway.ConnectionOpened")
+@Label("Connection Opened")
+@Category({"Nacos Gateway", "Connection"})
+@Description("Client connection bound to a backend endpoint")
+@StackTrace(false)
+public final class ConnectionOpenedEvent extends Event {
+
+    @Label("Port Type")
+    private String portType;
+
+    @Label("Passthrough")
+    @Description("TCP passthrough connection rather than an HTTP one")
+    private boolean passthrough;
+
+    @Label("Client IP")
+    private String clientIp;
+
+    @Label("Route")
+    private String route;
+
+    @Label("Backend")
+    private String backend;
+
+    @Label("Endpoint")
+    private String endpoint;
+
+    @Label("Open Connections")
+    private int openConnections;
+
+    public static void commit(String portType, boolean passthrough, String clientIp, String route,
+                              String backend, String endpoint, int openConnections) {
+        ConnectionOpenedEvent event = new ConnectionOpenedEvent();
+        if (event.shouldCommit()) {
+            event.portType = portType;
+            event.passthrough = passthrough;
+            event.clientIp = clientIp;
+            event.route = route;
+            event.backend = backend;
+            event.endpoint = endpoint;
+            event.openConnections = openConnections;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package nextf.nacos.gateway.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Backend endpoint marked healthy or unhealthy by its health check
+ */
+@Name("nextf.nacos.gateway.EndpointHealthChanged")
+@Label("Endpoint Health Changed")
+@Category({"Nacos Gateway", "Health Check"})
+@Description("Health state flip of a backend endpoint")
+@StackTrace(false)
+public final class EndpointHealthChangedEvent extends Event {
+
+    @Label("Endpoint")
+    private String endpoint;
+
+    @Label("Probe Type")
+    private String probeType;
+
+    @Label("Healthy")
+    private boolean healthy;
+
+    @Label("Consecutive Results")
+    @Description("Consecutive successes or failures that crossed the threshold")
+    private int consecutive;
+
+    public static void commit(String endpoint, String probeType, boolean healthy, int consecutive) {
+        EndpointHealthChangedEvent event = new EndpointHealthChangedEvent();
+        if (event.shouldCommit()) {
+            event.endpoint = endpoint;
+            event.probeType = probeType;
+            event.healthy = healthy;
+            event.consecutive = consecutive;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package nextf.nacos.gateway.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * On-demand flight recording of the gateway process
+ * At most one recording runs at a time; it can be dumped while running and is dumped once more when
+ * stopped. Dumps are written to the configured directory as nacos-gateway-&lt;timestamp&gt;.jfr.
+ * Methods may block on disk IO, call them off the event loop.
+ */
+public class FlightRecorderSession {
+
+    private static final Logger log = LoggerFactory.getLogger(FlightRecorderSession.class);
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    private final Path directory;
+    private final Duration maxAge;
+
+    private Recording recording;
+    private String settings;
+    private Instant startTime;
+
+    /**
+     * @param directory directory dumps are written to, created when needed
+     * @param maxAgeSeconds how long recorded data is kept while the recording runs
+     */
+    public FlightRecorderSession(String directory, long maxAgeSeconds) {
+        this.directory = Paths.get(directory);
+        this.maxAge = Duration.ofSeconds(maxAgeSeconds);
+    }
+
+    /**
+     * Start a recording
+     * @param settings JFR settings name, "default" (low overhead) or "profile"
+     * @throws IllegalStateException if a recording is already running
+     * @throws IllegalArgumentException if the settings are unknown
+     */
+    public synchronized void start(String settings) {
+        if (recording != null) {
+            throw new IllegalStateException("A recording is already running");
+        }
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settings);
+        } catch (IOException | ParseException e) {
+            throw new IllegalArgumentException("Unknown JFR settings: " + settings, e);
+        }
+
+        Recording started = new Recording(configuration);
+        started.setName("nacos-gateway");
+        started.setMaxAge(maxAge);
+        started.setToDisk(true);
+        started.start();
+
+        this.recording = started;
+        this.settings = settings;
+        this.startTime = Instant.now();
+        log.info("Flight recording started with {} settings", settings);
+    }
+
+    /**
+     * Write the data recorded so far to a new file, the recording keeps running
+     * @return the file written
+     * @throws IllegalStateException if no recording is running
+     */
+    public synchronized Path dump() throws IOException {
+        if (recording == null) {
+            throw new IllegalStateException("No recording is running");
+        }
+        return dumpTo(recording);
+    }
+
+    /**
+     * Stop the recording and write its data to a new file
+     * @return the file written
+     * @throws IllegalStateException if no recording is running
+     */
+    public synchronized Path stop() throws IOException {
+        if (recording == null) {
+            throw new IllegalStateException("No recording is running");
+        }
+        Recording stopped = recording;
+        recording = null;
+        settings = null;
+        startTime = null;
+        try {
+            stopped.stop();
+            Path file = dumpTo(stopped);
+            log.info("Flight recording stopped");
+            return file;
+        } finally {
+            stopped.close();
+        }
+    }
+
+    /**
+     * Stop the recording without writing it, used on shutdown
+     */
+    public synchronized void close() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+            settings = null;
+            startTime = null;
+        }
+    }
+
+    private Path dumpTo(Recording source) throws IOException {
+        Files.createDirectories(directory);
+        Path file = directory.resolve("nacos-gateway-" + LocalDateTime.now().format(FILE_TIMESTAMP) + ".jfr");
+        source.dump(file);
+        log.info("Flight recording dumped to {}", file.toAbsolutePath());
+        return file;
+    }
+
+    public synchronized boolean isRunning() {
+        return recording != null;
+    }
+
+    /**
+     * @return settings of the running recording, null if none
+     */
+    public synchronized String getSettings() {
+        return settings;
+    }
+
+    /**
+     * @return start time of the running recording, null if none
+     */
+    public synchronized Instant getStartTime() {
+        return startTime;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+}
@@ -0,0 +1,114 @@
+package nextf.nacos.gateway.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+import nextf.nacos.gateway.metrics.RequestPhases;
+
+/**
+ * One request proxied to a backend, from the start of proxying to the end of the response
+ * Phase durations are only set while phase timings (server.phaseTimings) are enabled, and stay 0
+ * for phases the request did not reach.
+ */
+@Name("nextf.nacos.gateway.ProxiedRequest")
+@Label("Proxied Request")
+@Category({"Nacos Gateway", "Proxy"})
+@Description("Request proxied to a backend endpoint")
+@StackTrace(false)
+public final class ProxiedRequestEvent extends Event {
+
+    private static final EventType TYPE = EventType.getEventType(ProxiedRequestEvent.class);
+
+    @Label("Route")
+    private String route;
+
+    @Label("Backend")
+    private String backend;
+
+    @Label("Endpoint")
+    private String endpoint;
+
+    @Label("Method")
+    private String method;
+
+    @Label("Path")
+    private String path;
+
+    @Label("Status")
+    @Description("HTTP status sent to the client, 0 if the request failed without one")
+    private int status;
+
+    @Label("Bytes Sent")
+    @DataAmount
+    private long bytesSent;
+
+    @Label("Route Phase")
+    @Timespan
+    private long routeNanos;
+
+    @Label("Limit Phase")
+    @Timespan
+    private long limitNanos;
+
+    @Label("Connect Phase")
+    @Timespan
+    private long connectNanos;
+
+    @Label("First Byte Phase")
+    @Timespan
+    private long firstByteNanos;
+
+    @Label("Transfer Phase")
+    @Timespan
+    private long transferNanos;
+
+    /**
+     * Start timing a request
+     * @return the started event, null unless a recording enables this event (no allocation then)
+     */
+    public static ProxiedRequestEvent begin(String method, String path) {
+        if (!TYPE.isEnabled()) {
+            return null;
+        }
+        ProxiedRequestEvent event = new ProxiedRequestEvent();
+        event.method = method;
+        event.path = path;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * End and commit the event if it passes the recording's threshold
+     * @param phases phase timestamps of the request, null if phase timings are disabled
+     */
+    public void end(String route, String backend, String endpoint, int status, long bytesSent,
+                    RequestPhases phases) {
+        end();
+        if (!shouldCommit()) {
+            return;
+        }
+        this.route = route;
+        this.backend = backend;
+        this.endpoint = endpoint;
+        this.status = status;
+        this.bytesSent = bytesSent;
+        if (phases != null) {
+            this.routeNanos = nanos(phases, RequestPhases.Phase.ROUTE);
+            this.limitNanos = nanos(phases, RequestPhases.Phase.LIMIT);
+            this.connectNanos = nanos(phases, RequestPhases.Phase.CONNECT);
+            this.firstByteNanos = nanos(phases, RequestPhases.Phase.FIRST_BYTE);
+            this.transferNanos = nanos(phases, RequestPhases.Phase.TRANSFER);
+        }
+        commit();
+    }
+
+    private static long nanos(RequestPhases phases, RequestPhases.Phase phase) {
+        return Math.max(0, phases.getNanos(phase));
+    }
+}
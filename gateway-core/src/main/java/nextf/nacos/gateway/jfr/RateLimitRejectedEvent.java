@@ -0,0 +1,48 @@
+package nextf.nacos.gateway.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Request or connection refused by a rate limit tier
+ */
+@Name("nextf.nacos.gateway.RateLimitRejected")
+@Label("Rate Limit Rejected")
+@Category({"Nacos Gateway", "Rate Limit"})
+@Description("Request or connection refused by a rate limit")
+@StackTrace(false)
+public final class RateLimitRejectedEvent extends Event {
+
+    @Label("Limit")
+    @Description("qps or connections")
+    private String limit;
+
+    @Label("Tier")
+    @Description("global, route, backend or client")
+    private String tier;
+
+    @Label("Route")
+    private String route;
+
+    @Label("Backend")
+    private String backend;
+
+    @Label("Client IP")
+    private String clientIp;
+
+    public static void commit(String limit, String tier, String route, String backend, String clientIp) {
+        RateLimitRejectedEvent event = new RateLimitRejectedEvent();
+        if (event.shouldCommit()) {
+            event.limit = limit;
+            event.tier = tier;
+            event.route = route;
+            event.backend = backend;
+            event.clientIp = clientIp;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package nextf.nacos.gateway.loadbalance;
+
+import nextf.nacos.gateway.model.Endpoint;
+import nextf.nacos.gateway.model.EndpointSnapshot;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Consistent-hash load balancer (consistent-hash)
+ * Places each endpoint on a hash ring with virtual nodes (scaled by weight) and routes a key to
+ * the first point clockwise of its hash. Points only depend on the endpoint address, so when an
+ * endpoint leaves the healthy set only the keys it owned (about 1/N) move to other endpoints.
+ * The ring is built by the backend with each healthy-endpoint snapshot, so a selection never builds it.
+ */
+public class ConsistentHashLoadBalancer implements LoadBalancer {
+
+    // Ring of the last list passed without a snapshot
+    private volatile HashRing ring;
+
+    public ConsistentHashLoadBalancer() {
+    }
+
+    /**
+     * Select without a key: no affinity is possible, pick at random
+     */
+    @Override
+    public Endpoint select(List<Endpoint> endpoints) {
+        if (endpoints == null || endpoints.isEmpty()) {
+            return null;
+        }
+        return endpoints.get(ThreadLocalRandom.current().nextInt(endpoints.size()));
+    }
+
+    @Override
+    public Endpoint select(EndpointSnapshot snapshot, String key) {
+        HashRing snapshotRing = snapshot.getHashRing();
+        if (key == null || snapshotRing == null) {
+            return select(snapshot.getPreferred(), key);
+        }
+        return snapshotRing.lookup(key);
+    }
+
+    /**
+     * Select from a list that does not come from a snapshot
+     * The ring of the last list is kept, a different list builds a new one.
+     */
+    @Override
+    public Endpoint select(List<Endpoint> endpoints, String key) {
+        if (key == null) {
+            return select(endpoints);
+        }
+        if (endpoints == null || endpoints.isEmpty()) {
+            return null;
+        }
+        if (endpoints.size() == 1) {
+            return endpoints.get(0);
+        }
+
+        HashRing current = ring;
+        if (current == null || !current.isFor(endpoints)) {
+            // Racing rebuilds produce equal rings, the last one published wins
+            current = new HashRing(endpoints);
+            ring = current;
+        }
+        return current.lookup(key);
+    }
+
+    @Override
+    public String toString() {
+        return "ConsistentHashLoadBalancer";
+    }
+}
@@ -4,11 +4,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import nextf.nacos.gateway.model.Backend;
 import nextf.nacos.gateway.model.Endpoint;
+import nextf.nacos.gateway.model.EndpointSnapshot;
 
-import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * Endpoint selector with priority grouping
@@ -22,38 +20,37 @@ public class EndpointSelector {
      * Uses priority grouping: selects from highest priority group that has healthy endpoints
      */
     public Endpoint select(Backend backend) {
+        return select(backend, null);
+    }
+
+    /**
+     * Select an endpoint from the backend for a request key
+     * The key is used by key-aware strategies such as consistent-hash
+     * @param key hash key of the request, or null
+     */
+    public Endpoint select(Backend backend, String key) {
         if (backend == null) {
             return null;
         }
 
-        List<Endpoint> healthyEndpoints = backend.getHealthyEndpoints();
-        if (healthyEndpoints.isEmpty()) {
+        // Snapshot is prebuilt by the backend, selection allocates nothing
+        EndpointSnapshot snapshot = backend.getHealthySnapshot();
+        List<Endpoint> highestPriorityEndpoints = snapshot.getPreferred();
+        if (highestPriorityEndpoints.isEmpty()) {
             log.warn("No healthy endpoints for backend: {}", backend.getName());
             return null;
         }
 
-        // Group by priority
-        Map<Integer, List<Endpoint>> groupedByPriority = healthyEndpoints.stream()
-                .collect(Collectors.groupingBy(Endpoint::getPriority));
-
-        // Find highest priority (lowest number = highest priority)
-        int highestPriority = groupedByPriority.keySet().stream()
-                .min(Integer::compareTo)
-                .orElse(Integer.MAX_VALUE);
-
-        List<Endpoint> highestPriorityEndpoints = groupedByPriority.get(highestPriority);
-        if (highestPriorityEndpoints == null || highestPriorityEndpoints.isEmpty()) {
-            log.warn("No endpoints found for highest priority: {}", highestPriority);
-            return null;
+        if (log.isDebugEnabled()) {
+            log.debug("Selecting from {} endpoints with priority {}",
+                    highestPriorityEndpoints.size(), snapshot.getHighestPriority());
         }
 
-        log.debug("Selecting from {} endpoints with priority {}", highestPriorityEndpoints.size(), highestPriority);
-
         // Use load balancer to select from the highest priority group
         LoadBalancer loadBalancer = backend.getLoadBalancer();
-        Endpoint selected = loadBalancer.select(highestPriorityEndpoints);
+        Endpoint selected = loadBalancer.select(snapshot, key);
 
-        if (selected != null) {
+        if (selected != null && log.isDebugEnabled()) {
             log.debug("Selected endpoint: {}", selected.getAddress());
         }
 
@@ -0,0 +1,87 @@
+package nextf.nacos.gateway.loadbalance;
+
+import io.vertx.core.http.HttpServerRequest;
+
+/**
+ * Extracts the consistent-hash key of a request
+ * Supported specs: client-ip, tenant (Nacos tenant or namespaceId query parameter) and
+ * header:&lt;name&gt;. The client IP is used when the configured key is absent from the request,
+ * so requests without a tenant do not all land on one endpoint.
+ *
+ * Keys taken from the request (tenant, header) are applied per request on the HTTP/1 ports, whose
+ * requests share pooled upstream clients. On the gRPC port the key of the first request of a client
+ * connection selects the endpoint for the whole connection: Nacos identifies gRPC clients by their
+ * backend connection, so later streams cannot move to another endpoint. TCP passthrough only has
+ * the client IP.
+ */
+public final class HashKeyExtractor {
+
+    public static final String CLIENT_IP = "client-ip";
+    public static final String TENANT = "tenant";
+    public static final String HEADER_PREFIX = "header:";
+
+    private enum Source { CLIENT_IP, TENANT, HEADER }
+
+    private final Source source;
+    private final String headerName;
+    private final String spec;
+
+    private HashKeyExtractor(Source source, String headerName, String spec) {
+        this.source = source;
+        this.headerName = headerName;
+        this.spec = spec;
+    }
+
+    /**
+     * Parse a hash key spec
+     * @param spec the configured spec, null means client-ip
+     * @throws IllegalArgumentException if the spec is not supported
+     */
+    public static HashKeyExtractor parse(String spec) {
+        if (spec == null || CLIENT_IP.equals(spec)) {
+            return new HashKeyExtractor(Source.CLIENT_IP, null, CLIENT_IP);
+        }
+        if (TENANT.equals(spec)) {
+            return new HashKeyExtractor(Source.TENANT, null, TENANT);
+        }
+        if (spec.startsWith(HEADER_PREFIX) && spec.length() > HEADER_PREFIX.length()) {
+            return new HashKeyExtractor(Source.HEADER, spec.substring(HEADER_PREFIX.length()).trim(), spec);
+        }
+        throw new IllegalArgumentException("Unsupported hash key: " + spec);
+    }
+
+    /**
+     * Extract the key of a request
+     * @param request the client request, or null when only the connection is known
+     * @param clientIp client IP address, used as fallback
+     */
+    public String extract(HttpServerRequest request, String clientIp) {
+        if (request == null) {
+            return clientIp;
+        }
+        String key = switch (source) {
+            case CLIENT_IP -> null;
+            case TENANT -> tenant(request);
+            case HEADER -> request.getHeader(headerName);
+        };
+        return key != null && !key.isEmpty() ? key : clientIp;
+    }
+
+    /**
+     * @return true if requests of one connection may have different keys (tenant, header)
+     */
+    public boolean isPerRequest() {
+        return source != Source.CLIENT_IP;
+    }
+
+    private static String tenant(HttpServerRequest request) {
+        // Config APIs use tenant, naming APIs use namespaceId
+        String tenant = request.getParam("tenant");
+        return tenant != null && !tenant.isEmpty() ? tenant : request.getParam("namespaceId");
+    }
+
+    @Override
+    public String toString() {
+        return spec;
+    }
+}
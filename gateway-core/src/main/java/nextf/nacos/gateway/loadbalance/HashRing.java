@@ -0,0 +1,156 @@
+package nextf.nacos.gateway.loadbalance;
+
+import nextf.nacos.gateway.config.PortType;
+import nextf.nacos.gateway.model.Endpoint;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Consistent-hash ring over a list of endpoints
+ * Each endpoint owns weight * VIRTUAL_NODES points whose hashes only depend on its address. Built once
+ * per healthy-endpoint snapshot, off the request path; a lookup is a binary search without allocation.
+ */
+public final class HashRing {
+
+    // Virtual nodes per unit of weight, enough for an even spread over a handful of endpoints
+    static final int VIRTUAL_NODES = 160;
+
+    private final List<Endpoint> source;
+    private final int[] weights;
+    private final long[] points;
+    private final Endpoint[] owners;
+
+    /**
+     * Build the ring of the endpoints
+     * @param endpoints Endpoints to place on the ring, at least one
+     */
+    public HashRing(List<Endpoint> endpoints) {
+        int size = endpoints.size();
+        this.source = endpoints;
+        this.weights = new int[size];
+
+        int total = 0;
+        for (int i = 0; i < size; i++) {
+            weights[i] = Math.max(1, endpoints.get(i).getWeight());
+            total += weights[i] * VIRTUAL_NODES;
+        }
+
+        // Hash the points endpoint by endpoint in address order; the stable sort below keeps that
+        // order for equal hashes, so every build yields the same ring
+        Endpoint[] byAddress = endpoints.toArray(new Endpoint[0]);
+        Arrays.sort(byAddress, Comparator.comparing((Endpoint endpoint) -> endpoint.getAddress(PortType.API_V1)));
+        long[] hashes = new long[total];
+        int[] order = new int[total];
+        Endpoint[] unsorted = new Endpoint[total];
+        int n = 0;
+        StringBuilder label = new StringBuilder();
+        for (Endpoint endpoint : byAddress) {
+            int virtualNodes = Math.max(1, endpoint.getWeight()) * VIRTUAL_NODES;
+            for (int v = 0; v < virtualNodes; v++) {
+                label.setLength(0);
+                label.append(endpoint.getHost()).append(':').append(endpoint.getApiV1Port()).append('#').append(v);
+                hashes[n] = hash(label);
+                order[n] = n;
+                unsorted[n] = endpoint;
+                n++;
+            }
+        }
+
+        sort(hashes, order);
+        this.points = hashes;
+        this.owners = new Endpoint[total];
+        for (int i = 0; i < total; i++) {
+            owners[i] = unsorted[order[i]];
+        }
+    }
+
+    /**
+     * Endpoint owning the first point clockwise of the key's hash
+     */
+    public Endpoint lookup(String key) {
+        int index = Arrays.binarySearch(points, hash(key));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners[index == points.length ? 0 : index];
+    }
+
+    /**
+     * Same list instance, or the same endpoints with the same weights
+     */
+    boolean isFor(List<Endpoint> endpoints) {
+        if (endpoints == source) {
+            return true;
+        }
+        if (endpoints.size() != weights.length) {
+            return false;
+        }
+        for (int i = 0; i < weights.length; i++) {
+            Endpoint endpoint = endpoints.get(i);
+            if (endpoint != source.get(i) || Math.max(1, endpoint.getWeight()) != weights[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Stable LSD radix sort of the hashes (signed order) with their point indexes
+     * Eight passes of one byte over primitive arrays, linear in the number of points.
+     */
+    private static void sort(long[] keys, int[] indexes) {
+        int size = keys.length;
+        long[] keyBuffer = new long[size];
+        int[] indexBuffer = new int[size];
+        int[] offsets = new int[257];
+        long[] fromKeys = keys;
+        int[] fromIndexes = indexes;
+        for (int shift = 0; shift < 64; shift += 8) {
+            Arrays.fill(offsets, 0);
+            for (int i = 0; i < size; i++) {
+                offsets[digit(fromKeys[i], shift) + 1]++;
+            }
+            for (int d = 0; d < 256; d++) {
+                offsets[d + 1] += offsets[d];
+            }
+            for (int i = 0; i < size; i++) {
+                int position = offsets[digit(fromKeys[i], shift)]++;
+                keyBuffer[position] = fromKeys[i];
+                indexBuffer[position] = fromIndexes[i];
+            }
+            long[] swapKeys = fromKeys;
+            fromKeys = keyBuffer;
+            keyBuffer = swapKeys;
+            int[] swapIndexes = fromIndexes;
+            fromIndexes = indexBuffer;
+            indexBuffer = swapIndexes;
+        }
+        // An even number of passes leaves the result in the input arrays
+    }
+
+    /**
+     * Byte of the key at the shift, the sign bit flipped so that negative hashes sort first
+     */
+    private static int digit(long key, int shift) {
+        return (int) (((key ^ Long.MIN_VALUE) >>> shift) & 0xff);
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-16 chars, finished with a murmur3 mix for an even ring spread
+     */
+    static long hash(CharSequence value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -2,7 +2,6 @@ package nextf.nacos.gateway.loadbalance;
 
 import nextf.nacos.gateway.model.Endpoint;
 
-import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -24,9 +23,19 @@ public class LeastConnectionLoadBalancer implements LoadBalancer {
             return null;
         }
 
-        return endpoints.stream()
-                .min(Comparator.comparingInt(e -> connections.getOrDefault(e, new AtomicInteger(0)).get()))
-                .orElse(null);
+        // Plain scan: no stream, comparator or placeholder counter per call
+        Endpoint selected = null;
+        int least = Integer.MAX_VALUE;
+        for (int i = 0, size = endpoints.size(); i < size; i++) {
+            Endpoint endpoint = endpoints.get(i);
+            AtomicInteger count = connections.get(endpoint);
+            int current = count != null ? count.get() : 0;
+            if (current < least) {
+                selected = endpoint;
+                least = current;
+            }
+        }
+        return selected;
     }
 
     @Override
@@ -1,6 +1,7 @@
 package nextf.nacos.gateway.loadbalance;
 
 import nextf.nacos.gateway.model.Endpoint;
+import nextf.nacos.gateway.model.EndpointSnapshot;
 
 import java.util.List;
 
@@ -14,6 +15,22 @@ public interface LoadBalancer {
      */
     Endpoint select(List<Endpoint> endpoints);
 
+    /**
+     * Select an endpoint for a request key (client IP, tenant, header value)
+     * Only key-aware strategies use the key; the default ignores it.
+     */
+    default Endpoint select(List<Endpoint> endpoints, String key) {
+        return select(endpoints);
+    }
+
+    /**
+     * Select an endpoint of the preferred group of a healthy-endpoint snapshot for a request key
+     * Strategies with per-snapshot state read it from the snapshot; the default selects from the group.
+     */
+    default Endpoint select(EndpointSnapshot snapshot, String key) {
+        return select(snapshot.getPreferred(), key);
+    }
+
     /**
      * Called when a connection is opened to an endpoint
      */
@@ -27,4 +44,20 @@ public interface LoadBalancer {
     default void onConnectionClose(Endpoint endpoint) {
         // Default: no-op
     }
+
+    /**
+     * Called when a request is sent to an endpoint
+     */
+    default void onRequestStart(Endpoint endpoint) {
+        // Default: no-op
+    }
+
+    /**
+     * Called once when a request started with onRequestStart finishes
+     * @param latencyNanos time until the upstream response headers arrived, or until the failure
+     * @param success false if the upstream request or response failed
+     */
+    default void onRequestComplete(Endpoint endpoint, long latencyNanos, boolean success) {
+        // Default: no-op
+    }
 }
@@ -3,6 +3,8 @@ package nextf.nacos.gateway.loadbalance;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Set;
+
 /**
  * Factory for creating load balancers
  */
@@ -10,6 +12,26 @@ public class LoadBalancerFactory {
 
     private static final Logger log = LoggerFactory.getLogger(LoadBalancerFactory.class);
 
+    public static final String ROUND_ROBIN = "round-robin";
+    public static final String WEIGHTED_ROUND_ROBIN = "weighted-round-robin";
+    public static final String RANDOM = "random";
+    public static final String LEAST_CONNECTION = "least-connection";
+    public static final String P2C_LEAST_LOADED = "p2c-least-loaded";
+    public static final String PEAK_EWMA = "peak-ewma";
+    public static final String CONSISTENT_HASH = "consistent-hash";
+
+    private static final Set<String> STRATEGIES = Set.of(
+            ROUND_ROBIN, WEIGHTED_ROUND_ROBIN, RANDOM, LEAST_CONNECTION, P2C_LEAST_LOADED, PEAK_EWMA, CONSISTENT_HASH);
+
+    /**
+     * Check whether a strategy name is supported
+     * @param strategy strategy name as written in the configuration
+     * @return true if create() knows the strategy
+     */
+    public static boolean isSupported(String strategy) {
+        return strategy != null && STRATEGIES.contains(strategy);
+    }
+
     public static LoadBalancer create(String strategy) {
         if (strategy == null) {
             log.debug("Load balancer strategy not specified, using round-robin");
@@ -17,12 +39,20 @@ public class LoadBalancerFactory {
         }
 
         switch (strategy.toLowerCase()) {
-            case "round-robin":
+            case ROUND_ROBIN:
                 return new RoundRobinLoadBalancer();
-            case "random":
+            case WEIGHTED_ROUND_ROBIN:
+                return new WeightedRoundRobinLoadBalancer();
+            case RANDOM:
                 return new RandomLoadBalancer();
-            case "least-connection":
+            case LEAST_CONNECTION:
                 return new LeastConnectionLoadBalancer();
+            case P2C_LEAST_LOADED:
+                return new P2CLoadBalancer();
+            case PEAK_EWMA:
+                return new PeakEwmaLoadBalancer();
+            case CONSISTENT_HASH:
+                return new ConsistentHashLoadBalancer();
             default:
                 log.warn("Unknown load balancer strategy: {}, using round-robin", strategy);
                 return new RoundRobinLoadBalancer();
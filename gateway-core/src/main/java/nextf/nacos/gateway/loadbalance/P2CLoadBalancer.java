@@ -0,0 +1,71 @@
+package nextf.nacos.gateway.loadbalance;
+
+import nextf.nacos.gateway.model.Endpoint;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Power-of-two-choices load balancer (p2c-least-loaded)
+ * Picks two distinct endpoints at random and takes the one with fewer in-flight requests.
+ * In-flight counts are fed by the proxy handlers through onRequestStart/onRequestComplete.
+ */
+public class P2CLoadBalancer implements LoadBalancer {
+
+    private final Map<Endpoint, AtomicInteger> inflight = new ConcurrentHashMap<>();
+
+    public P2CLoadBalancer() {
+    }
+
+    @Override
+    public Endpoint select(List<Endpoint> endpoints) {
+        if (endpoints == null || endpoints.isEmpty()) {
+            return null;
+        }
+
+        int size = endpoints.size();
+        if (size == 1) {
+            return endpoints.get(0);
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        int second = random.nextInt(size - 1);
+        if (second >= first) {
+            second++;
+        }
+
+        Endpoint a = endpoints.get(first);
+        Endpoint b = endpoints.get(second);
+        return inflight(b) < inflight(a) ? b : a;
+    }
+
+    @Override
+    public void onRequestStart(Endpoint endpoint) {
+        inflight.computeIfAbsent(endpoint, k -> new AtomicInteger()).incrementAndGet();
+    }
+
+    @Override
+    public void onRequestComplete(Endpoint endpoint, long latencyNanos, boolean success) {
+        AtomicInteger count = inflight.get(endpoint);
+        if (count != null) {
+            count.decrementAndGet();
+        }
+    }
+
+    /**
+     * Get the number of requests in flight to an endpoint
+     */
+    public int inflight(Endpoint endpoint) {
+        AtomicInteger count = inflight.get(endpoint);
+        return count != null ? count.get() : 0;
+    }
+
+    @Override
+    public String toString() {
+        return "P2CLoadBalancer";
+    }
+}
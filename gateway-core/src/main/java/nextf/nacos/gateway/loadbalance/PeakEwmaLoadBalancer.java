@@ -0,0 +1,118 @@
+package nextf.nacos.gateway.loadbalance;
+
+import nextf.nacos.gateway.model.Endpoint;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Peak-EWMA latency-aware load balancer (peak-ewma)
+ * Keeps an exponentially weighted moving average of the upstream latency of each endpoint that
+ * jumps to any higher sample at once and decays over time, and scores an endpoint as that cost
+ * times its in-flight requests plus one. Two distinct endpoints are picked at random and the one
+ * with the lower score wins, so a pick costs O(1) whatever the endpoint count.
+ */
+public class PeakEwmaLoadBalancer implements LoadBalancer {
+
+    // Time constant of the moving average
+    private static final double DECAY_NANOS = 10_000_000_000d;
+    // Failed requests count at least as this slow, so fast-failing endpoints do not attract traffic
+    private static final long FAILURE_PENALTY_NANOS = 1_000_000_000L;
+    // Score of an endpoint with requests in flight but no latency sample yet
+    private static final double UNSAMPLED_PENALTY = Long.MAX_VALUE >> 16;
+
+    private final Map<Endpoint, EndpointStats> stats = new ConcurrentHashMap<>();
+
+    public PeakEwmaLoadBalancer() {
+    }
+
+    @Override
+    public Endpoint select(List<Endpoint> endpoints) {
+        if (endpoints == null || endpoints.isEmpty()) {
+            return null;
+        }
+
+        int size = endpoints.size();
+        if (size == 1) {
+            return endpoints.get(0);
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        int second = random.nextInt(size - 1);
+        if (second >= first) {
+            second++;
+        }
+
+        long now = System.nanoTime();
+        Endpoint a = endpoints.get(first);
+        Endpoint b = endpoints.get(second);
+        return score(b, now) < score(a, now) ? b : a;
+    }
+
+    @Override
+    public void onRequestStart(Endpoint endpoint) {
+        stats.computeIfAbsent(endpoint, k -> new EndpointStats()).inflight.incrementAndGet();
+    }
+
+    @Override
+    public void onRequestComplete(Endpoint endpoint, long latencyNanos, boolean success) {
+        EndpointStats endpointStats = stats.get(endpoint);
+        if (endpointStats == null) {
+            return;
+        }
+        endpointStats.inflight.decrementAndGet();
+        endpointStats.observe(success ? latencyNanos : Math.max(latencyNanos, FAILURE_PENALTY_NANOS),
+                System.nanoTime());
+    }
+
+    /**
+     * Get the load score of an endpoint, lower is better
+     */
+    double score(Endpoint endpoint, long now) {
+        EndpointStats endpointStats = stats.get(endpoint);
+        if (endpointStats == null) {
+            return 0;
+        }
+        int inflight = endpointStats.inflight.get();
+        double cost = endpointStats.cost(now);
+        if (cost == 0 && inflight > 0) {
+            return UNSAMPLED_PENALTY + inflight;
+        }
+        return cost * (inflight + 1);
+    }
+
+    @Override
+    public String toString() {
+        return "PeakEwmaLoadBalancer";
+    }
+
+    private static final class EndpointStats {
+        final AtomicInteger inflight = new AtomicInteger();
+        // Written under the monitor, read without it by select()
+        private volatile double cost;
+        private volatile long stamp = System.nanoTime();
+
+        synchronized void observe(long latencyNanos, long now) {
+            if (latencyNanos > cost) {
+                // Peak sensitivity: a slower sample replaces the average at once
+                cost = latencyNanos;
+            } else {
+                double weight = Math.exp(-(now - stamp) / DECAY_NANOS);
+                cost = cost * weight + latencyNanos * (1 - weight);
+            }
+            stamp = now;
+        }
+
+        /**
+         * Cost decayed to now, so an idle endpoint drifts back towards zero
+         */
+        double cost(long now) {
+            long elapsed = Math.max(0, now - stamp);
+            return cost * Math.exp(-elapsed / DECAY_NANOS);
+        }
+    }
+}
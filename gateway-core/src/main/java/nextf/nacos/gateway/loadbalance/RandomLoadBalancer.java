@@ -3,15 +3,14 @@ package nextf.nacos.gateway.loadbalance;
 import nextf.nacos.gateway.model.Endpoint;
 
 import java.util.List;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Random load balancer
+ * Uses ThreadLocalRandom so event loops do not contend on a shared seed
  */
 public class RandomLoadBalancer implements LoadBalancer {
 
-    private final Random random = new Random();
-
     public RandomLoadBalancer() {
     }
 
@@ -21,7 +20,7 @@ public class RandomLoadBalancer implements LoadBalancer {
             return null;
         }
 
-        int index = random.nextInt(endpoints.size());
+        int index = ThreadLocalRandom.current().nextInt(endpoints.size());
         return endpoints.get(index);
     }
 
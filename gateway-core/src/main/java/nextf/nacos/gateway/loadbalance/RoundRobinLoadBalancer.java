@@ -21,8 +21,8 @@ public class RoundRobinLoadBalancer implements LoadBalancer {
             return null;
         }
 
-        int index = currentIndex.getAndUpdate(i -> (i + 1) % endpoints.size());
-        return endpoints.get(index);
+        // floorMod keeps the index valid when the counter wraps and when the list size changes
+        return endpoints.get(Math.floorMod(currentIndex.getAndIncrement(), endpoints.size()));
     }
 
     @Override
@@ -0,0 +1,116 @@
+package nextf.nacos.gateway.loadbalance;
+
+import nextf.nacos.gateway.model.Endpoint;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Smooth weighted round-robin load balancer (weighted-round-robin)
+ * Uses the nginx smooth weighting algorithm to spread an endpoint's picks evenly over a cycle:
+ * weights 5/1/1 give a a b a c a a instead of a a a a a b c. The cycle is computed once per
+ * endpoint list and replayed with an atomic counter, so picks are lock-free and allocation-free.
+ * When the healthy set or the weights change only the cycle is rebuilt; the counter keeps running,
+ * so the rotation does not restart at the first endpoint.
+ */
+public class WeightedRoundRobinLoadBalancer implements LoadBalancer {
+
+    private final AtomicLong counter = new AtomicLong();
+    private volatile Schedule schedule;
+
+    public WeightedRoundRobinLoadBalancer() {
+    }
+
+    @Override
+    public Endpoint select(List<Endpoint> endpoints) {
+        if (endpoints == null || endpoints.isEmpty()) {
+            return null;
+        }
+
+        Schedule current = schedule;
+        if (current == null || !current.isFor(endpoints)) {
+            // Racing rebuilds produce equal schedules, the last one published wins
+            current = new Schedule(endpoints);
+            schedule = current;
+        }
+
+        Endpoint[] cycle = current.cycle;
+        return cycle[(int) Math.floorMod(counter.getAndIncrement(), (long) cycle.length)];
+    }
+
+    @Override
+    public String toString() {
+        return "WeightedRoundRobinLoadBalancer";
+    }
+
+    /**
+     * One full smooth weighted cycle for a given endpoint list
+     */
+    private static final class Schedule {
+        final List<Endpoint> source;
+        final int[] weights;
+        final Endpoint[] cycle;
+
+        Schedule(List<Endpoint> endpoints) {
+            int size = endpoints.size();
+            this.source = endpoints;
+            this.weights = new int[size];
+
+            int divisor = 0;
+            for (int i = 0; i < size; i++) {
+                weights[i] = Math.max(1, endpoints.get(i).getWeight());
+                divisor = gcd(divisor, weights[i]);
+            }
+
+            // Scaling by the common divisor keeps the cycle short without changing the shares
+            int total = 0;
+            int[] effective = new int[size];
+            for (int i = 0; i < size; i++) {
+                effective[i] = weights[i] / divisor;
+                total += effective[i];
+            }
+
+            this.cycle = new Endpoint[total];
+            int[] currentWeights = new int[size];
+            for (int n = 0; n < total; n++) {
+                int best = 0;
+                for (int i = 0; i < size; i++) {
+                    currentWeights[i] += effective[i];
+                    if (currentWeights[i] > currentWeights[best]) {
+                        best = i;
+                    }
+                }
+                currentWeights[best] -= total;
+                cycle[n] = endpoints.get(best);
+            }
+        }
+
+        /**
+         * Same list instance, or the same endpoints with the same weights
+         */
+        boolean isFor(List<Endpoint> endpoints) {
+            if (endpoints == source) {
+                return true;
+            }
+            if (endpoints.size() != weights.length) {
+                return false;
+            }
+            for (int i = 0; i < weights.length; i++) {
+                Endpoint endpoint = endpoints.get(i);
+                if (endpoint != source.get(i) || Math.max(1, endpoint.getWeight()) != weights[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static int gcd(int a, int b) {
+            while (b != 0) {
+                int t = a % b;
+                a = b;
+                b = t;
+            }
+            return a;
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package nextf.nacos.gateway.logging;
 
+import nextf.nacos.gateway.metrics.RequestPhases;
+
 import java.time.Instant;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Access log context with rich information
@@ -21,6 +24,8 @@ public class AccessLogContext {
     private final String clientIp;
     private final String backend;
     private final String endpoint;
+    // Null unless phase timings are enabled
+    private final RequestPhases phases;
 
     private final Map<String, String> requestHeaders;
     private final Map<String, String> responseHeaders;
@@ -37,6 +42,7 @@ public class AccessLogContext {
         this.clientIp = builder.clientIp;
         this.backend = builder.backend;
         this.endpoint = builder.endpoint;
+        this.phases = builder.phases;
         this.requestHeaders = Collections.unmodifiableMap(builder.requestHeaders);
         this.responseHeaders = Collections.unmodifiableMap(builder.responseHeaders);
     }
@@ -85,6 +91,21 @@ public class AccessLogContext {
         return endpoint;
     }
 
+    /**
+     * @return the duration of a request phase in microseconds, -1 if the phase was not timed
+     */
+    public long getPhaseMicros(RequestPhases.Phase phase) {
+        if (phases == null) {
+            return -1;
+        }
+        long nanos = phases.getNanos(phase);
+        return nanos < 0 ? -1 : TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+
+    public boolean hasPhases() {
+        return phases != null;
+    }
+
     public Map<String, String> getRequestHeaders() {
         return requestHeaders;
     }
@@ -117,6 +138,7 @@ public class AccessLogContext {
         private String clientIp;
         private String backend;
         private String endpoint;
+        private RequestPhases phases;
         private Map<String, String> requestHeaders = new HashMap<>();
         private Map<String, String> responseHeaders = new HashMap<>();
 
@@ -175,6 +197,11 @@ public class AccessLogContext {
             return this;
         }
 
+        public Builder phases(RequestPhases phases) {
+            this.phases = phases;
+            return this;
+        }
+
         public Builder requestHeaders(Map<String, String> headers) {
             this.requestHeaders = new HashMap<>(headers);
             return this;
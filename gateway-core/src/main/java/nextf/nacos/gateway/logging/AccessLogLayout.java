@@ -4,6 +4,7 @@ import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.core.LayoutBase;
 import nextf.nacos.gateway.config.AccessLogConfig;
 import nextf.nacos.gateway.logging.formatter.AccessLogPatternFormatter;
+import nextf.nacos.gateway.metrics.RequestPhases;
 
 /**
  * Access log layout for Logback
@@ -50,6 +51,19 @@ public class AccessLogLayout extends LayoutBase<ILoggingEvent> {
         json.append("\"durationMs\":").append(context.getDurationMs()).append(",");
         json.append("\"backend\":\"").append(escapeJson(context.getBackend())).append("\",");
         json.append("\"endpoint\":\"").append(escapeJson(context.getEndpoint())).append("\"");
+        if (context.hasPhases()) {
+            // Phase durations in microseconds, phases the request did not reach are left out
+            json.append(",\"phasesUs\":{");
+            boolean first = true;
+            for (RequestPhases.Phase phase : RequestPhases.Phase.values()) {
+                long micros = context.getPhaseMicros(phase);
+                if (micros >= 0) {
+                    json.append(first ? "" : ",").append('"').append(phase.getLabel()).append("\":").append(micros);
+                    first = false;
+                }
+            }
+            json.append("}");
+        }
         json.append("}");
         return json.toString();
     }
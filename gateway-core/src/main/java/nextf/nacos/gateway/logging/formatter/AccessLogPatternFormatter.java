@@ -2,6 +2,7 @@ package nextf.nacos.gateway.logging.formatter;
 
 import nextf.nacos.gateway.config.AccessLogConfig;
 import nextf.nacos.gateway.logging.AccessLogContext;
+import nextf.nacos.gateway.metrics.RequestPhases;
 
 import java.time.Instant;
 import java.time.ZoneId;
@@ -64,6 +65,7 @@ public class AccessLogPatternFormatter {
             case "b" -> name.equalsIgnoreCase("bytes") ? String.valueOf(context.getBytesSent()) : "-"; // Bytes
             case "D" -> name.equalsIgnoreCase("duration") ? String.valueOf(context.getDurationMs()) : ""; // Duration
             case "t" -> name.equalsIgnoreCase("timestamp") ? dateFormatter.format(context.getTimestamp()) : ""; // Timestamp
+            case "P" -> formatPhase(name, context); // Request phase duration (us)
             default -> "";
         };
     }
@@ -86,6 +88,12 @@ public class AccessLogPatternFormatter {
         };
     }
 
+    private String formatPhase(String name, AccessLogContext context) {
+        RequestPhases.Phase phase = RequestPhases.Phase.fromLabel(name);
+        long micros = phase != null ? context.getPhaseMicros(phase) : -1;
+        return micros >= 0 ? String.valueOf(micros) : "-";
+    }
+
     private String nullToEmpty(String value) {
         return value == null ? "" : value;
     }
@@ -0,0 +1,70 @@
+package nextf.nacos.gateway.management;
+
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import nextf.nacos.gateway.metrics.Histogram;
+import nextf.nacos.gateway.ratelimit.AdmissionQueue;
+import nextf.nacos.gateway.ratelimit.RateLimitManager;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission queues endpoint
+ * Lists the rate limit admission queues of routes and backends with their depth and wait-time histograms
+ */
+public class AdmissionQueuesEndpoint implements ManagementEndpoint {
+
+    private final String path;
+    private final RateLimitManager rateLimitManager;
+
+    public AdmissionQueuesEndpoint(String path, RateLimitManager rateLimitManager) {
+        this.path = path;
+        this.rateLimitManager = rateLimitManager;
+    }
+
+    @Override
+    public void handle(HttpServerRequest request) {
+        JsonArray queues = new JsonArray();
+        for (AdmissionQueue queue : rateLimitManager.getAdmissionQueues()) {
+            queues.add(new JsonObject()
+                    .put("name", queue.getName())
+                    .put("depth", queue.getDepth())
+                    .put("maxDepth", queue.getMaxDepth())
+                    .put("timeoutMillis", TimeUnit.NANOSECONDS.toMillis(queue.getTimeoutNanos()))
+                    .put("admitted", queue.getAdmittedCount())
+                    .put("timedOut", queue.getTimedOutCount())
+                    .put("rejected", queue.getRejectedCount())
+                    .put("abandoned", queue.getAbandonedCount())
+                    .put("depthHistogram", toJson(queue.getDepthHistogram()))
+                    .put("waitMillisHistogram", toJson(queue.getWaitHistogram())));
+        }
+
+        request.response()
+                .putHeader("Content-Type", "application/json")
+                .setStatusCode(200)
+                .end(new JsonObject().put("queues", queues).encode());
+    }
+
+    /**
+     * Cumulative buckets keyed by upper bound, as in the Prometheus exposition format
+     */
+    private static JsonObject toJson(Histogram histogram) {
+        long[] bounds = histogram.getUpperBounds();
+        long[] counts = histogram.getCumulativeCounts();
+        JsonObject buckets = new JsonObject();
+        for (int i = 0; i < bounds.length; i++) {
+            buckets.put(String.valueOf(bounds[i]), counts[i]);
+        }
+        buckets.put("+Inf", counts[bounds.length]);
+        return new JsonObject()
+                .put("buckets", buckets)
+                .put("count", histogram.getCount())
+                .put("sum", histogram.getSum());
+    }
+
+    @Override
+    public String getPath() {
+        return path;
+    }
+}
@@ -0,0 +1,54 @@
+package nextf.nacos.gateway.management;
+
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import nextf.nacos.gateway.ratelimit.AdaptiveConcurrencyLimiter;
+import nextf.nacos.gateway.ratelimit.RateLimitManager;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Concurrency limits endpoint
+ * Lists the current adaptive concurrency limit of each backend with its in-flight requests and latencies
+ */
+public class ConcurrencyLimitsEndpoint implements ManagementEndpoint {
+
+    private final String path;
+    private final RateLimitManager rateLimitManager;
+
+    public ConcurrencyLimitsEndpoint(String path, RateLimitManager rateLimitManager) {
+        this.path = path;
+        this.rateLimitManager = rateLimitManager;
+    }
+
+    @Override
+    public void handle(HttpServerRequest request) {
+        JsonArray backends = new JsonArray();
+        for (AdaptiveConcurrencyLimiter limiter : rateLimitManager.getConcurrencyLimiters()) {
+            backends.add(new JsonObject()
+                    .put("backend", limiter.getBackendName())
+                    .put("limit", limiter.getLimit())
+                    .put("inFlight", limiter.getInFlight())
+                    .put("minLimit", limiter.getMinLimit())
+                    .put("maxLimit", limiter.getMaxLimit())
+                    .put("rttMicros", toMicros(limiter.getLastRttNanos()))
+                    .put("noLoadRttMicros", toMicros(limiter.getNoLoadRttNanos()))
+                    .put("rejected", limiter.getRejectedCount()));
+        }
+
+        request.response()
+                .putHeader("Content-Type", "application/json")
+                .setStatusCode(200)
+                .end(new JsonObject().put("backends", backends).encode());
+    }
+
+    private static long toMicros(long nanos) {
+        return nanos < 0 ? -1 : TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+
+    @Override
+    public String getPath() {
+        return path;
+    }
+}
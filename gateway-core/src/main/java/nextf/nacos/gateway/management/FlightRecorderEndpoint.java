@@ -0,0 +1,101 @@
+package nextf.nacos.gateway.management;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.json.JsonObject;
+import nextf.nacos.gateway.jfr.FlightRecorderSession;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Flight recorder endpoint
+ * GET shows the recording state, POST ?action=start[&amp;settings=default|profile], ?action=dump and
+ * ?action=stop control the recording. Dumps are written on the gateway host, the response gives the file.
+ */
+public class FlightRecorderEndpoint implements ManagementEndpoint {
+
+    private static final String DEFAULT_SETTINGS = "default";
+
+    private final String path;
+    private final FlightRecorderSession session;
+
+    public FlightRecorderEndpoint(String path, FlightRecorderSession session) {
+        this.path = path;
+        this.session = session;
+    }
+
+    @Override
+    public void handle(HttpServerRequest request) {
+        if (request.method() == HttpMethod.GET) {
+            respond(request.response(), 200, status());
+            return;
+        }
+        if (request.method() != HttpMethod.POST) {
+            respond(request.response(), 405, error("Use GET or POST"));
+            return;
+        }
+
+        String action = request.getParam("action");
+        String settings = request.getParam("settings", DEFAULT_SETTINGS);
+        if (!"start".equals(action) && !"dump".equals(action) && !"stop".equals(action)) {
+            respond(request.response(), 400, error("action must be start, dump or stop"));
+            return;
+        }
+
+        // Starting a recording and writing dumps touch the disk, keep them off the event loop
+        Vertx.currentContext().executeBlocking(() -> {
+            switch (action) {
+                case "start":
+                    session.start(settings);
+                    return status();
+                case "dump":
+                    return status().put("file", session.dump().toAbsolutePath().toString());
+                default:
+                    Path file = session.stop();
+                    return status().put("file", file.toAbsolutePath().toString());
+            }
+        }).onComplete(ar -> {
+            if (ar.succeeded()) {
+                respond(request.response(), 200, ar.result());
+            } else if (ar.cause() instanceof IllegalStateException) {
+                respond(request.response(), 409, error(ar.cause().getMessage()));
+            } else if (ar.cause() instanceof IllegalArgumentException) {
+                respond(request.response(), 400, error(ar.cause().getMessage()));
+            } else {
+                respond(request.response(), 500, error(ar.cause().getMessage()));
+            }
+        });
+    }
+
+    private JsonObject status() {
+        JsonObject status = new JsonObject()
+                .put("running", session.isRunning())
+                .put("directory", session.getDirectory().toAbsolutePath().toString());
+        Instant startTime = session.getStartTime();
+        if (startTime != null) {
+            status.put("settings", session.getSettings())
+                    .put("startTime", startTime.toString())
+                    .put("durationSeconds", Duration.between(startTime, Instant.now()).getSeconds());
+        }
+        return status;
+    }
+
+    private static JsonObject error(String message) {
+        return new JsonObject().put("error", message);
+    }
+
+    private static void respond(HttpServerResponse response, int statusCode, JsonObject body) {
+        response.putHeader("Content-Type", "application/json")
+                .setStatusCode(statusCode)
+                .end(body.encode());
+    }
+
+    @Override
+    public String getPath() {
+        return path;
+    }
+}
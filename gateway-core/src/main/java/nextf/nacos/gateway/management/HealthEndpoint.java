@@ -9,7 +9,7 @@ import org.slf4j.LoggerFactory;
 /**
  * Health check endpoint
  */
-public class HealthEndpoint {
+public class HealthEndpoint implements ManagementEndpoint {
 
     private static final Logger log = LoggerFactory.getLogger(HealthEndpoint.class);
 
@@ -20,6 +20,7 @@ public class HealthEndpoint {
         this.path = path;
     }
 
+    @Override
     public void handle(HttpServerRequest request) {
         if (!request.path().equals(path)) {
             request.response().setStatusCode(404).end();
@@ -47,6 +48,7 @@ public class HealthEndpoint {
         }
     }
 
+    @Override
     public String getPath() {
         return path;
     }
@@ -58,8 +60,4 @@ public class HealthEndpoint {
     public boolean isHealthy() {
         return healthy;
     }
-
-    public boolean matches(String path) {
-        return this.path.equals(path);
-    }
 }
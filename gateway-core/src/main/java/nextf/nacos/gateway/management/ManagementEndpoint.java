@@ -0,0 +1,19 @@
+package nextf.nacos.gateway.management;
+
+import io.vertx.core.http.HttpServerRequest;
+
+/**
+ * Endpoint served on the management port
+ */
+public interface ManagementEndpoint {
+
+    /**
+     * @return the request path served by this endpoint
+     */
+    String getPath();
+
+    /**
+     * Answer a request for this endpoint's path
+     */
+    void handle(HttpServerRequest request);
+}
@@ -0,0 +1,169 @@
+package nextf.nacos.gateway.management;
+
+import io.vertx.core.http.HttpServerRequest;
+import nextf.nacos.gateway.metrics.GatewayMetrics;
+import nextf.nacos.gateway.metrics.PhaseMetrics;
+import nextf.nacos.gateway.metrics.PrometheusWriter;
+import nextf.nacos.gateway.metrics.RequestMetrics;
+import nextf.nacos.gateway.metrics.RequestPhases;
+import nextf.nacos.gateway.proxy.ConnectionManager;
+import nextf.nacos.gateway.ratelimit.AcceptRateLimiter;
+import nextf.nacos.gateway.ratelimit.AdaptiveConcurrencyLimiter;
+import nextf.nacos.gateway.ratelimit.AdmissionQueue;
+import nextf.nacos.gateway.ratelimit.RateLimitManager;
+import nextf.nacos.gateway.ratelimit.RejectionCounters;
+
+import java.util.Map;
+
+/**
+ * Metrics endpoint
+ * Exposes request counts, latency histograms and response bytes per route, backend and endpoint, together with
+ * the rate limit rejections and connection counts, in the Prometheus text format. Everything is read from
+ * counters at scrape time, nothing is aggregated on the request path.
+ */
+public class MetricsEndpoint implements ManagementEndpoint {
+
+    private static final String PREFIX = "nacos_gateway_";
+    private static final double MICROS_TO_SECONDS = 1e-6;
+    private static final double NANOS_TO_SECONDS = 1e-9;
+    private static final String[] STATUS_CLASSES = {"error", "1xx", "2xx", "3xx", "4xx", "5xx"};
+
+    private final String path;
+    private final GatewayMetrics metrics;
+    private final PhaseMetrics phaseMetrics;
+    private final RateLimitManager rateLimitManager;
+    private final ConnectionManager connectionManager;
+
+    public MetricsEndpoint(String path, GatewayMetrics metrics, PhaseMetrics phaseMetrics,
+                           RateLimitManager rateLimitManager, ConnectionManager connectionManager) {
+        this.path = path;
+        this.metrics = metrics;
+        this.phaseMetrics = phaseMetrics;
+        this.rateLimitManager = rateLimitManager;
+        this.connectionManager = connectionManager;
+    }
+
+    @Override
+    public void handle(HttpServerRequest request) {
+        request.response()
+                .putHeader("Content-Type", PrometheusWriter.CONTENT_TYPE)
+                .setStatusCode(200)
+                .end(scrape());
+    }
+
+    /**
+     * @return the current metrics in the Prometheus text format
+     */
+    String scrape() {
+        PrometheusWriter writer = new PrometheusWriter();
+        writeRequests(writer, "route", metrics.getRoutes(), "route");
+        writeRequests(writer, "backend", metrics.getBackends(), "backend");
+        writeEndpointRequests(writer);
+        writePhases(writer);
+        writeRateLimits(writer);
+
+        writer.family(PREFIX + "connections", "gauge", "Client connections currently open")
+                .sample(PREFIX + "connections", connectionManager.getConnectionCount());
+        return writer.toString();
+    }
+
+    private static void writeRequests(PrometheusWriter writer, String scope, Map<String, RequestMetrics> series,
+                                      String label) {
+        String requests = PREFIX + scope + "_requests_total";
+        writer.family(requests, "counter", "Proxied requests per " + scope + " by response status class");
+        series.forEach((name, metrics) -> {
+            for (int i = 0; i < STATUS_CLASSES.length; i++) {
+                writer.sample(requests, metrics.getResponses(i), label, name, "code", STATUS_CLASSES[i]);
+            }
+        });
+
+        String duration = PREFIX + scope + "_request_duration_seconds";
+        writer.family(duration, "histogram", "Proxied request duration per " + scope);
+        series.forEach((name, metrics) ->
+                writer.histogram(duration, metrics.getLatencyMicros(), MICROS_TO_SECONDS, label, name));
+
+        String bytes = PREFIX + scope + "_response_bytes_total";
+        writer.family(bytes, "counter", "Response body bytes sent to clients per " + scope);
+        series.forEach((name, metrics) -> writer.sample(bytes, metrics.getBytesSent(), label, name));
+    }
+
+    private void writeEndpointRequests(PrometheusWriter writer) {
+        Map<String, Map<String, RequestMetrics>> endpoints = metrics.getEndpoints();
+
+        String requests = PREFIX + "endpoint_requests_total";
+        writer.family(requests, "counter", "Proxied requests per backend endpoint by response status class");
+        endpoints.forEach((backend, series) -> series.forEach((endpoint, metrics) -> {
+            for (int i = 0; i < STATUS_CLASSES.length; i++) {
+                writer.sample(requests, metrics.getResponses(i),
+                        "backend", backend, "endpoint", endpoint, "code", STATUS_CLASSES[i]);
+            }
+        }));
+
+        String duration = PREFIX + "endpoint_request_duration_seconds";
+        writer.family(duration, "histogram", "Proxied request duration per backend endpoint");
+        endpoints.forEach((backend, series) -> series.forEach((endpoint, metrics) ->
+                writer.histogram(duration, metrics.getLatencyMicros(), MICROS_TO_SECONDS,
+                        "backend", backend, "endpoint", endpoint)));
+    }
+
+    private void writePhases(PrometheusWriter writer) {
+        String duration = PREFIX + "request_phase_duration_seconds";
+        writer.family(duration, "histogram", "Proxied request time per phase, recorded while phase timings are enabled");
+        for (RequestPhases.Phase phase : RequestPhases.Phase.values()) {
+            writer.histogram(duration, phaseMetrics.getHistogram(phase), NANOS_TO_SECONDS, "phase", phase.getLabel());
+        }
+    }
+
+    private void writeRateLimits(PrometheusWriter writer) {
+        RejectionCounters rejections = rateLimitManager.getRejectionCounters();
+        String rejected = PREFIX + "rate_limit_rejections_total";
+        writer.family(rejected, "counter", "Requests and connections refused by the rate limits, by tier");
+        for (RejectionCounters.Tier tier : RejectionCounters.Tier.values()) {
+            writer.sample(rejected, rejections.getQpsRejections(tier), "limit", "qps", "tier", tier.getLabel());
+            writer.sample(rejected, rejections.getConnectionRejections(tier),
+                    "limit", "connections", "tier", tier.getLabel());
+        }
+
+        AcceptRateLimiter acceptRate = rateLimitManager.getAcceptRateLimiter();
+        writer.family(PREFIX + "accept_rate_rejections_total", "counter",
+                        "New connections closed by the accept rate limits")
+                .sample(PREFIX + "accept_rate_rejections_total", acceptRate != null ? acceptRate.getRejectedCount() : 0);
+
+        String limit = PREFIX + "concurrency_limit";
+        String inFlight = PREFIX + "concurrency_in_flight";
+        String concurrencyRejected = PREFIX + "concurrency_rejections_total";
+        writer.family(limit, "gauge", "Current adaptive concurrency limit per backend");
+        for (AdaptiveConcurrencyLimiter limiter : rateLimitManager.getConcurrencyLimiters()) {
+            writer.sample(limit, limiter.getLimit(), "backend", limiter.getBackendName());
+        }
+        writer.family(inFlight, "gauge", "Requests holding an adaptive concurrency slot per backend");
+        for (AdaptiveConcurrencyLimiter limiter : rateLimitManager.getConcurrencyLimiters()) {
+            writer.sample(inFlight, limiter.getInFlight(), "backend", limiter.getBackendName());
+        }
+        writer.family(concurrencyRejected, "counter", "Requests refused by the adaptive concurrency limit per backend");
+        for (AdaptiveConcurrencyLimiter limiter : rateLimitManager.getConcurrencyLimiters()) {
+            writer.sample(concurrencyRejected, limiter.getRejectedCount(), "backend", limiter.getBackendName());
+        }
+
+        String depth = PREFIX + "admission_queue_depth";
+        String admitted = PREFIX + "admission_queue_admitted_total";
+        String timedOut = PREFIX + "admission_queue_timeouts_total";
+        writer.family(depth, "gauge", "Requests waiting in an admission queue");
+        for (AdmissionQueue queue : rateLimitManager.getAdmissionQueues()) {
+            writer.sample(depth, queue.getDepth(), "queue", queue.getName());
+        }
+        writer.family(admitted, "counter", "Queued requests admitted once a permit was due, not counted as rejections");
+        for (AdmissionQueue queue : rateLimitManager.getAdmissionQueues()) {
+            writer.sample(admitted, queue.getAdmittedCount(), "queue", queue.getName());
+        }
+        writer.family(timedOut, "counter", "Queued requests that timed out waiting for a permit");
+        for (AdmissionQueue queue : rateLimitManager.getAdmissionQueues()) {
+            writer.sample(timedOut, queue.getTimedOutCount(), "queue", queue.getName());
+        }
+    }
+
+    @Override
+    public String getPath() {
+        return path;
+    }
+}
@@ -0,0 +1,56 @@
+package nextf.nacos.gateway.management;
+
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import nextf.nacos.gateway.ratelimit.ClientLimiterStore;
+import nextf.nacos.gateway.ratelimit.HeavyHitterDetector;
+import nextf.nacos.gateway.ratelimit.RateLimitManager;
+
+/**
+ * Top clients endpoint
+ * Lists the noisiest clients seen by the heavy-hitter sketch, with the client limiter store size
+ */
+public class TopClientsEndpoint implements ManagementEndpoint {
+
+    private final String path;
+    private final RateLimitManager rateLimitManager;
+
+    public TopClientsEndpoint(String path, RateLimitManager rateLimitManager) {
+        this.path = path;
+        this.rateLimitManager = rateLimitManager;
+    }
+
+    @Override
+    public void handle(HttpServerRequest request) {
+        ClientLimiterStore store = rateLimitManager.getClientLimiterStore();
+        JsonObject body = new JsonObject()
+                .put("clientLimiters", store.size())
+                .put("clientLimiterBytes", store.getEstimatedMemoryBytes());
+
+        HeavyHitterDetector detector = rateLimitManager.getHeavyHitterDetector();
+        if (detector == null) {
+            body.put("approximate", false);
+        } else {
+            JsonArray clients = new JsonArray();
+            for (HeavyHitterDetector.ClientCount client : detector.topClients()) {
+                clients.add(new JsonObject()
+                        .put("clientIp", client.getClientId())
+                        .put("count", client.getCount()));
+            }
+            body.put("approximate", true)
+                    .put("sketchBytes", detector.getEstimatedMemoryBytes())
+                    .put("topClients", clients);
+        }
+
+        request.response()
+                .putHeader("Content-Type", "application/json")
+                .setStatusCode(200)
+                .end(body.encode());
+    }
+
+    @Override
+    public String getPath() {
+        return path;
+    }
+}
@@ -0,0 +1,82 @@
+package nextf.nacos.gateway.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Request metrics of the gateway, one series per route, per backend and per backend endpoint
+ *
+ * Series are created on first use and never removed, so counters stay monotonic across reloads.
+ * Cardinality is bounded: once a label has maxSeries values (routes, backends, or endpoints of one backend),
+ * further values are folded into the {@value #OTHER} series. Recording is a few map reads and LongAdder
+ * increments, without locks.
+ */
+public final class GatewayMetrics {
+
+    public static final String OTHER = "_other";
+
+    private final int maxSeries;
+
+    private final Map<String, RequestMetrics> routes = new ConcurrentHashMap<>();
+    private final Map<String, RequestMetrics> backends = new ConcurrentHashMap<>();
+    // Backend name -> endpoint address -> series
+    private final Map<String, Map<String, RequestMetrics>> endpoints = new ConcurrentHashMap<>();
+
+    /**
+     * @param maxSeries maximum label values per label before folding into {@value #OTHER}
+     */
+    public GatewayMetrics(int maxSeries) {
+        this.maxSeries = maxSeries;
+    }
+
+    /**
+     * Resolve the series a request is recorded into
+     * @param routeId route identifier
+     * @param backendName backend service name
+     * @param endpointAddress host:port of the endpoint the request is sent to
+     */
+    public RequestRecorder recorder(String routeId, String backendName, String endpointAddress) {
+        Map<String, RequestMetrics> backendEndpoints = endpoints.get(backendName);
+        if (backendEndpoints == null) {
+            backendEndpoints = endpoints.computeIfAbsent(bounded(endpoints, backendName), name -> new ConcurrentHashMap<>());
+        }
+        return new RequestRecorder(
+                series(routes, routeId),
+                series(backends, backendName),
+                series(backendEndpoints, endpointAddress));
+    }
+
+    private RequestMetrics series(Map<String, RequestMetrics> family, String label) {
+        RequestMetrics metrics = family.get(label);
+        if (metrics != null) {
+            return metrics;
+        }
+        return family.computeIfAbsent(bounded(family, label), key -> new RequestMetrics());
+    }
+
+    private String bounded(Map<String, ?> family, String label) {
+        if (label == null) {
+            return OTHER;
+        }
+        return family.size() < maxSeries || family.containsKey(label) ? label : OTHER;
+    }
+
+    public Map<String, RequestMetrics> getRoutes() {
+        return routes;
+    }
+
+    public Map<String, RequestMetrics> getBackends() {
+        return backends;
+    }
+
+    /**
+     * @return endpoint series by backend name, then endpoint address
+     */
+    public Map<String, Map<String, RequestMetrics>> getEndpoints() {
+        return endpoints;
+    }
+
+    public int getMaxSeries() {
+        return maxSeries;
+    }
+}
@@ -0,0 +1,75 @@
+package nextf.nacos.gateway.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-bucket histogram
+ *
+ * Each observation is counted in the first bucket whose upper bound is >= the value, or in the
+ * overflow bucket. Recording is a bounded scan plus two LongAdder increments, safe from any thread.
+ */
+public class Histogram {
+
+    private final long[] upperBounds;
+    // One counter per bound plus the overflow bucket (+Inf)
+    private final LongAdder[] buckets;
+    private final LongAdder sum = new LongAdder();
+
+    /**
+     * @param upperBounds inclusive upper bounds of the buckets, ascending
+     */
+    public Histogram(long... upperBounds) {
+        for (int i = 1; i < upperBounds.length; i++) {
+            if (upperBounds[i] <= upperBounds[i - 1]) {
+                throw new IllegalArgumentException("Histogram bounds must be ascending: " + Arrays.toString(upperBounds));
+            }
+        }
+        this.upperBounds = upperBounds.clone();
+        this.buckets = new LongAdder[upperBounds.length + 1];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long value) {
+        int i = 0;
+        while (i < upperBounds.length && value > upperBounds[i]) {
+            i++;
+        }
+        buckets[i].increment();
+        sum.add(value);
+    }
+
+    /**
+     * @return a copy of the bucket upper bounds, without the overflow bucket
+     */
+    public long[] getUpperBounds() {
+        return upperBounds.clone();
+    }
+
+    /**
+     * @return cumulative counts: element i counts observations <= bound i, the last element counts all
+     */
+    public long[] getCumulativeCounts() {
+        long[] counts = new long[buckets.length];
+        long total = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            total += buckets[i].sum();
+            counts[i] = total;
+        }
+        return counts;
+    }
+
+    public long getCount() {
+        long total = 0;
+        for (LongAdder bucket : buckets) {
+            total += bucket.sum();
+        }
+        return total;
+    }
+
+    public long getSum() {
+        return sum.sum();
+    }
+}
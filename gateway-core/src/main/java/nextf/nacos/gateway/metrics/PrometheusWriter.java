@@ -0,0 +1,104 @@
+package nextf.nacos.gateway.metrics;
+
+/**
+ * Builds a scrape in the Prometheus text exposition format (version 0.0.4)
+ * Families are written one after the other: {@link #family} first, then its samples.
+ */
+public final class PrometheusWriter {
+
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final StringBuilder out = new StringBuilder(4096);
+
+    /**
+     * Start a metric family
+     * @param type counter, gauge or histogram
+     */
+    public PrometheusWriter family(String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        return this;
+    }
+
+    /**
+     * @param labels alternating label names and values
+     */
+    public PrometheusWriter sample(String name, double value, String... labels) {
+        out.append(name);
+        appendLabels(labels, null, null);
+        out.append(' ').append(format(value)).append('\n');
+        return this;
+    }
+
+    /**
+     * Write the buckets, sum and count of a histogram
+     * @param scale factor converting recorded values into the exported unit, e.g. 1e-6 for micros to seconds
+     * @param labels alternating label names and values
+     */
+    public PrometheusWriter histogram(String name, Histogram histogram, double scale, String... labels) {
+        long[] bounds = histogram.getUpperBounds();
+        long[] counts = histogram.getCumulativeCounts();
+        for (int i = 0; i < bounds.length; i++) {
+            out.append(name).append("_bucket");
+            appendLabels(labels, "le", format(bounds[i] * scale));
+            out.append(' ').append(counts[i]).append('\n');
+        }
+        out.append(name).append("_bucket");
+        appendLabels(labels, "le", "+Inf");
+        out.append(' ').append(counts[bounds.length]).append('\n');
+        out.append(name).append("_sum");
+        appendLabels(labels, null, null);
+        out.append(' ').append(format(histogram.getSum() * scale)).append('\n');
+        out.append(name).append("_count");
+        appendLabels(labels, null, null);
+        // The overflow bucket holds the total, reading it avoids a second pass over the adders
+        out.append(' ').append(counts[bounds.length]).append('\n');
+        return this;
+    }
+
+    private void appendLabels(String[] labels, String extraName, String extraValue) {
+        if (labels.length == 0 && extraName == null) {
+            return;
+        }
+        out.append('{');
+        for (int i = 0; i + 1 < labels.length; i += 2) {
+            if (i > 0) {
+                out.append(',');
+            }
+            appendLabel(labels[i], labels[i + 1]);
+        }
+        if (extraName != null) {
+            if (labels.length > 0) {
+                out.append(',');
+            }
+            appendLabel(extraName, extraValue);
+        }
+        out.append('}');
+    }
+
+    private void appendLabel(String name, String value) {
+        out.append(name).append("=\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> out.append("\\\\");
+                case '"' -> out.append("\\\"");
+                case '\n' -> out.append("\\n");
+                default -> out.append(c);
+            }
+        }
+        out.append('"');
+    }
+
+    private static String format(double value) {
+        if (value == Math.rint(value) && !Double.isInfinite(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+
+    @Override
+    public String toString() {
+        return out.toString();
+    }
+}
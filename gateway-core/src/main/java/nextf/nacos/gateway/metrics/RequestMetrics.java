@@ -0,0 +1,74 @@
+package nextf.nacos.gateway.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Response counts, latency histogram and response bytes of the requests proxied for one label value
+ * (a route, a backend or an endpoint). Lock-free, recorded from any event loop.
+ */
+public final class RequestMetrics {
+
+    // Upper bounds of the latency buckets in microseconds, 250us to 30s
+    static final long[] LATENCY_BOUNDS_MICROS = {
+            250, 500, 1_000, 2_500, 5_000, 10_000, 25_000, 50_000, 100_000,
+            250_000, 500_000, 1_000_000, 2_500_000, 5_000_000, 10_000_000, 30_000_000};
+
+    // Index 0 counts requests that got no upstream status (failed or reset), 1 to 5 the status classes
+    private final LongAdder[] responses = new LongAdder[6];
+    private final Histogram latencyMicros = new Histogram(LATENCY_BOUNDS_MICROS);
+    private final LongAdder bytesSent = new LongAdder();
+
+    RequestMetrics() {
+        for (int i = 0; i < responses.length; i++) {
+            responses[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * @param status HTTP status sent to the client, 0 if the request failed without one
+     * @param durationNanos time from the start of proxying to the end of the response
+     * @param bytes response body bytes sent to the client
+     */
+    public void record(int status, long durationNanos, long bytes) {
+        responses[statusClass(status)].increment();
+        latencyMicros.record(TimeUnit.NANOSECONDS.toMicros(durationNanos));
+        if (bytes > 0) {
+            bytesSent.add(bytes);
+        }
+    }
+
+    /**
+     * Count a request without recording its duration
+     * @param status HTTP status sent to the client, 0 if the request failed without one
+     * @param bytes response body bytes sent to the client
+     */
+    public void recordUntimed(int status, long bytes) {
+        responses[statusClass(status)].increment();
+        if (bytes > 0) {
+            bytesSent.add(bytes);
+        }
+    }
+
+    static int statusClass(int status) {
+        return status >= 100 && status < 600 ? status / 100 : 0;
+    }
+
+    /**
+     * @param statusClass 1 to 5 for 1xx to 5xx, 0 for requests without a status
+     */
+    public long getResponses(int statusClass) {
+        return responses[statusClass].sum();
+    }
+
+    /**
+     * @return request durations in microseconds
+     */
+    public Histogram getLatencyMicros() {
+        return latencyMicros;
+    }
+
+    public long getBytesSent() {
+        return bytesSent.sum();
+    }
+}
@@ -0,0 +1,101 @@
+package nextf.nacos.gateway.metrics;
+
+/**
+ * Timestamps of the phases of one proxied request
+ *
+ * Each phase is marked with System.nanoTime() when it ends and lasts from the end of the last phase marked
+ * before it, or from the arrival of the request. Phases a request never reached (failed upstream connect,
+ * reset stream) have no duration. Only touched from the event loop of the request, so no synchronization.
+ */
+public final class RequestPhases {
+
+    /**
+     * Request phases, in order
+     */
+    public enum Phase {
+        // Request received to route matched
+        ROUTE("route"),
+        // Rate limits, admission queue wait, endpoint selection, concurrency and bandwidth limits
+        LIMIT("limit"),
+        // Upstream stream or pooled connection obtained
+        CONNECT("connect"),
+        // Upstream response headers received
+        FIRST_BYTE("first_byte"),
+        // Response body relayed to the client
+        TRANSFER("transfer");
+
+        private final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        /**
+         * @return the phase with this label, null if none
+         */
+        public static Phase fromLabel(String label) {
+            for (Phase phase : values()) {
+                if (phase.label.equalsIgnoreCase(label)) {
+                    return phase;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final Phase[] PHASES = Phase.values();
+
+    private final PhaseMetrics metrics;
+    private final long startNanos;
+    // End of each phase, 0 while not reached
+    private final long[] ends = new long[PHASES.length];
+    private boolean finished;
+
+    RequestPhases(PhaseMetrics metrics, long startNanos) {
+        this.metrics = metrics;
+        this.startNanos = startNanos;
+    }
+
+    /**
+     * Mark the end of a phase now
+     */
+    public void mark(Phase phase) {
+        mark(phase, System.nanoTime());
+    }
+
+    void mark(Phase phase, long nanos) {
+        ends[phase.ordinal()] = nanos;
+    }
+
+    /**
+     * Record the reached phases into the phase histograms, once
+     */
+    public void finish() {
+        if (!finished) {
+            finished = true;
+            metrics.record(this);
+        }
+    }
+
+    /**
+     * @return the duration of the phase in nanoseconds, -1 if the request did not reach it
+     */
+    public long getNanos(Phase phase) {
+        int index = phase.ordinal();
+        if (ends[index] == 0) {
+            return -1;
+        }
+        long previous = startNanos;
+        for (int i = index - 1; i >= 0; i--) {
+            if (ends[i] != 0) {
+                previous = ends[i];
+                break;
+            }
+        }
+        return ends[index] - previous;
+    }
+}
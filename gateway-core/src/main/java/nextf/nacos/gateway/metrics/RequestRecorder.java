@@ -0,0 +1,56 @@
+package nextf.nacos.gateway.metrics;
+
+/**
+ * Records one proxied request into the series of its route, backend and endpoint
+ */
+public final class RequestRecorder {
+
+    private final RequestMetrics route;
+    private final RequestMetrics backend;
+    private final RequestMetrics endpoint;
+    private final boolean timed;
+    // Same series without the latency histograms, for requests held open by the backend
+    private final RequestRecorder untimed;
+
+    RequestRecorder(RequestMetrics route, RequestMetrics backend, RequestMetrics endpoint) {
+        this.route = route;
+        this.backend = backend;
+        this.endpoint = endpoint;
+        this.timed = true;
+        this.untimed = new RequestRecorder(this);
+    }
+
+    private RequestRecorder(RequestRecorder timed) {
+        this.route = timed.route;
+        this.backend = timed.backend;
+        this.endpoint = timed.endpoint;
+        this.timed = false;
+        this.untimed = this;
+    }
+
+    /**
+     * @param status HTTP status sent to the client, 0 if the request failed without one
+     * @param durationNanos time from the start of proxying to the end of the response
+     * @param bytesSent response body bytes sent to the client
+     */
+    public void record(int status, long durationNanos, long bytesSent) {
+        if (timed) {
+            route.record(status, durationNanos, bytesSent);
+            backend.record(status, durationNanos, bytesSent);
+            endpoint.record(status, durationNanos, bytesSent);
+        } else {
+            route.recordUntimed(status, bytesSent);
+            backend.recordUntimed(status, bytesSent);
+            endpoint.recordUntimed(status, bytesSent);
+        }
+    }
+
+    /**
+     * Recorder for requests the backend holds open until it has something to send (gRPC bi-streams,
+     * config long polling): their duration is the hold time, not a latency, so it stays out of the
+     * latency histograms while the response counts and bytes are recorded as usual
+     */
+    public RequestRecorder untimed() {
+        return untimed;
+    }
+}
@@ -3,6 +3,8 @@ package nextf.nacos.gateway.model;
 import nextf.nacos.gateway.config.BackendConfig;
 import nextf.nacos.gateway.config.PortType;
 import nextf.nacos.gateway.config.RateLimitConfig;
+import nextf.nacos.gateway.loadbalance.ConsistentHashLoadBalancer;
+import nextf.nacos.gateway.loadbalance.HashKeyExtractor;
 import nextf.nacos.gateway.loadbalance.LoadBalancer;
 import nextf.nacos.gateway.loadbalance.LoadBalancerFactory;
 
@@ -11,7 +13,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
 
 /**
  * Backend service model
@@ -22,6 +23,13 @@ public class Backend {
     private final LoadBalancer loadBalancer;
     private final List<Endpoint> endpoints;
     private final BackendConfig backendConfig;
+    // Request key extractor for consistent-hash, null for other strategies
+    private final HashKeyExtractor hashKeyExtractor;
+    // Snapshots carry a prebuilt hash ring for the consistent-hash strategy
+    private final boolean withHashRing;
+    // Healthy endpoints grouped by priority, replaced as a whole when a health flag flips
+    private volatile EndpointSnapshot healthySnapshot;
+    private long snapshotVersion;
 
     /**
      * Static factory method to build a Backend from configuration
@@ -29,6 +37,18 @@ public class Backend {
      * @return New Backend instance
      */
     public static Backend from(BackendConfig config) {
+        return from(config, null);
+    }
+
+    /**
+     * Static factory method to build a Backend on config reload
+     * The load balancer of the previous backend is kept when the strategy is unchanged, so that
+     * rotation positions and load statistics survive for endpoints that stay the same.
+     * @param config Backend configuration
+     * @param previous Backend with the same name from the previous configuration, or null
+     * @return New Backend instance
+     */
+    public static Backend from(BackendConfig config, Backend previous) {
         // Create endpoints
         List<Endpoint> endpoints = new ArrayList<>();
         if (config.getEndpoints() != null) {
@@ -38,8 +58,10 @@ public class Backend {
             }
         }
 
-        // Create load balancer
-        LoadBalancer loadBalancer = LoadBalancerFactory.create(config.getLoadBalance());
+        // Create load balancer, or reuse the previous one
+        LoadBalancer loadBalancer = canReuseLoadBalancer(config, previous)
+                ? previous.getLoadBalancer()
+                : LoadBalancerFactory.create(config.getLoadBalance());
 
         // Create and return backend
         return new Backend(config.getName(), loadBalancer, endpoints, config);
@@ -51,21 +73,49 @@ public class Backend {
      * @return Map of backend name to Backend
      */
     public static Map<String, Backend> fromList(List<BackendConfig> backendConfigs) {
+        return fromList(backendConfigs, null);
+    }
+
+    /**
+     * Static factory method to build a map of backends on config reload
+     * @param backendConfigs List of backend configurations
+     * @param previousBackends Backends of the previous configuration, or null
+     * @return Map of backend name to Backend
+     */
+    public static Map<String, Backend> fromList(List<BackendConfig> backendConfigs,
+                                                Map<String, Backend> previousBackends) {
         Map<String, Backend> backendsMap = new ConcurrentHashMap<>();
         if (backendConfigs != null) {
             for (BackendConfig config : backendConfigs) {
-                Backend backend = Backend.from(config);
+                Backend previous = previousBackends != null ? previousBackends.get(config.getName()) : null;
+                Backend backend = Backend.from(config, previous);
                 backendsMap.put(backend.getName(), backend);
             }
         }
         return backendsMap;
     }
 
+    private static boolean canReuseLoadBalancer(BackendConfig config, Backend previous) {
+        if (previous == null || previous.getBackendConfig() == null || config.getLoadBalance() == null) {
+            return false;
+        }
+        return config.getLoadBalance().equalsIgnoreCase(previous.getBackendConfig().getLoadBalance());
+    }
+
     public Backend(String name, LoadBalancer loadBalancer, List<Endpoint> endpoints, BackendConfig backendConfig) {
         this.name = name;
         this.loadBalancer = loadBalancer;
         this.endpoints = new ArrayList<>(endpoints);
         this.backendConfig = backendConfig;
+        this.hashKeyExtractor = backendConfig != null
+                && LoadBalancerFactory.CONSISTENT_HASH.equalsIgnoreCase(backendConfig.getLoadBalance())
+                ? HashKeyExtractor.parse(backendConfig.getHashKey())
+                : null;
+        this.withHashRing = loadBalancer instanceof ConsistentHashLoadBalancer;
+        for (Endpoint endpoint : this.endpoints) {
+            endpoint.setHealthChangeListener(this::refreshHealthySnapshot);
+        }
+        refreshHealthySnapshot();
     }
 
     /**
@@ -87,10 +137,38 @@ public class Backend {
         return new ArrayList<>(endpoints);
     }
 
+    /**
+     * Get the request key extractor of the consistent-hash strategy
+     * @return the extractor, or null if the backend does not hash requests
+     */
+    public HashKeyExtractor getHashKeyExtractor() {
+        return hashKeyExtractor;
+    }
+
+    /**
+     * Get healthy endpoints
+     * @return immutable list from the current snapshot, in configuration order
+     */
     public List<Endpoint> getHealthyEndpoints() {
-        return endpoints.stream()
-                .filter(Endpoint::isHealthy)
-                .collect(Collectors.toList());
+        return healthySnapshot.getHealthy();
+    }
+
+    /**
+     * Get the current healthy-endpoint snapshot
+     * @return immutable snapshot, grouped by priority
+     */
+    public EndpointSnapshot getHealthySnapshot() {
+        return healthySnapshot;
+    }
+
+    /**
+     * Rebuild the healthy-endpoint snapshot from the endpoint health flags
+     * Called on construction and by endpoints whose flag flipped, so the consistent-hash ring is
+     * built here once per snapshot instead of on the request path. Synchronized so that the
+     * snapshot published last always reflects the latest flags.
+     */
+    synchronized void refreshHealthySnapshot() {
+        healthySnapshot = EndpointSnapshot.of(++snapshotVersion, endpoints, withHashRing);
     }
 
     /**
@@ -128,6 +206,7 @@ public class Backend {
         Backend backend = (Backend) o;
         return Objects.equals(name, backend.name) &&
                Objects.equals(endpoints, backend.endpoints) &&
+               equalsWeights(endpoints, backend.endpoints) &&
                equalsConfig(backendConfig, backend.backendConfig);
     }
 
@@ -136,6 +215,18 @@ public class Backend {
         return Objects.hash(name, endpoints);
     }
 
+    /**
+     * Compare endpoint weights, which Endpoint.equals() leaves out
+     */
+    private static boolean equalsWeights(List<Endpoint> e1, List<Endpoint> e2) {
+        for (int i = 0; i < e1.size(); i++) {
+            if (e1.get(i).getWeight() != e2.get(i).getWeight()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Compare backend configurations for equality
      */
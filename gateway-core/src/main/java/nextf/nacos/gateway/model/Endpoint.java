@@ -17,7 +17,11 @@ public class Endpoint {
     private final int apiV2Port;
     private final int apiConsolePort;
     private final int priority;
+    // Not part of equals/hashCode: a weight change keeps the endpoint identity and its balancer state
+    private final int weight;
     private final AtomicBoolean healthy;
+    // Owning backend hook, rebuilds its healthy-endpoint snapshot when the flag flips
+    private volatile Runnable healthChangeListener;
 
     /**
      * Static factory method to build an Endpoint from configuration
@@ -39,6 +43,7 @@ public class Endpoint {
         this.apiV2Port = ports.getApiV2();
         this.apiConsolePort = ports.getApiConsole();
         this.priority = config.getPriority();
+        this.weight = config.getWeight();
         this.healthy = new AtomicBoolean(true);
     }
 
@@ -75,12 +80,29 @@ public class Endpoint {
         return priority;
     }
 
+    public int getWeight() {
+        return weight;
+    }
+
     public boolean isHealthy() {
         return healthy.get();
     }
 
     public void setHealthy(boolean healthy) {
-        this.healthy.set(healthy);
+        if (this.healthy.getAndSet(healthy) != healthy) {
+            Runnable listener = healthChangeListener;
+            if (listener != null) {
+                listener.run();
+            }
+        }
+    }
+
+    /**
+     * Set the callback run after the health flag flips
+     * An endpoint belongs to a single backend, which installs the callback on construction
+     */
+    public void setHealthChangeListener(Runnable healthChangeListener) {
+        this.healthChangeListener = healthChangeListener;
     }
 
     /**
@@ -131,6 +153,7 @@ public class Endpoint {
                 ", apiV2Port=" + apiV2Port +
                 ", apiConsolePort=" + apiConsolePort +
                 ", priority=" + priority +
+                ", weight=" + weight +
                 ", healthy=" + healthy.get() +
                 '}';
     }
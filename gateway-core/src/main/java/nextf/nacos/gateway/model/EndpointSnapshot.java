@@ -0,0 +1,111 @@
+package nextf.nacos.gateway.model;
+
+import nextf.nacos.gateway.loadbalance.HashRing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable snapshot of the healthy endpoints of a backend, grouped by priority
+ * Built by Backend whenever an endpoint health flag flips; readers never see a partial update.
+ */
+public final class EndpointSnapshot {
+
+    private final long version;
+    private final List<Endpoint> healthy;
+    private final List<List<Endpoint>> priorityGroups;
+    private final int highestPriority;
+    // Consistent-hash ring of the preferred group, null unless requested and the group has several endpoints
+    private final HashRing hashRing;
+
+    private EndpointSnapshot(long version, List<Endpoint> healthy, List<List<Endpoint>> priorityGroups,
+                             int highestPriority, HashRing hashRing) {
+        this.version = version;
+        this.healthy = healthy;
+        this.priorityGroups = priorityGroups;
+        this.highestPriority = highestPriority;
+        this.hashRing = hashRing;
+    }
+
+    /**
+     * Build a snapshot from the current health flags of the endpoints
+     * @param version Snapshot version, increasing for each rebuild of the same backend
+     * @param endpoints All endpoints of the backend, in configuration order
+     * @param withHashRing Build the consistent-hash ring of the preferred group
+     */
+    static EndpointSnapshot of(long version, List<Endpoint> endpoints, boolean withHashRing) {
+        List<Endpoint> healthy = new ArrayList<>();
+        // Lowest number = highest priority, order within a group follows the configuration
+        Map<Integer, List<Endpoint>> byPriority = new TreeMap<>();
+        for (Endpoint endpoint : endpoints) {
+            if (endpoint.isHealthy()) {
+                healthy.add(endpoint);
+                byPriority.computeIfAbsent(endpoint.getPriority(), p -> new ArrayList<>()).add(endpoint);
+            }
+        }
+
+        List<List<Endpoint>> groups = new ArrayList<>(byPriority.size());
+        for (List<Endpoint> group : byPriority.values()) {
+            groups.add(Collections.unmodifiableList(group));
+        }
+        int highestPriority = byPriority.isEmpty() ? Integer.MAX_VALUE : byPriority.keySet().iterator().next();
+        HashRing hashRing = withHashRing && !groups.isEmpty() && groups.get(0).size() > 1
+                ? new HashRing(groups.get(0))
+                : null;
+
+        return new EndpointSnapshot(version, Collections.unmodifiableList(healthy),
+                Collections.unmodifiableList(groups), highestPriority, hashRing);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return all healthy endpoints, in configuration order
+     */
+    public List<Endpoint> getHealthy() {
+        return healthy;
+    }
+
+    /**
+     * @return healthy endpoints grouped by priority, highest priority group first
+     */
+    public List<List<Endpoint>> getPriorityGroups() {
+        return priorityGroups;
+    }
+
+    /**
+     * @return healthy endpoints of the highest priority, empty if no endpoint is healthy
+     */
+    public List<Endpoint> getPreferred() {
+        return priorityGroups.isEmpty() ? Collections.emptyList() : priorityGroups.get(0);
+    }
+
+    /**
+     * @return priority of the preferred group, Integer.MAX_VALUE if no endpoint is healthy
+     */
+    public int getHighestPriority() {
+        return highestPriority;
+    }
+
+    /**
+     * @return consistent-hash ring of the preferred group, null if not built for this snapshot
+     */
+    public HashRing getHashRing() {
+        return hashRing;
+    }
+
+    @Override
+    public String toString() {
+        return "EndpointSnapshot{" +
+                "version=" + version +
+                ", healthy=" + healthy.size() +
+                ", priorityGroups=" + priorityGroups.size() +
+                ", highestPriority=" + highestPriority +
+                '}';
+    }
+}
@@ -0,0 +1,52 @@
+package nextf.nacos.gateway.proxy;
+
+import io.vertx.core.Vertx;
+import nextf.nacos.gateway.ratelimit.BandwidthLimiter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies the bandwidth limits of one request to the body it relays
+ * Every chunk is charged to all limiters after it has been forwarded; when one of them is overdrawn
+ * {@link RelayFlowControl} pauses the source stream until the debt is repaid, so nothing is buffered by
+ * the gateway. Reading stops on the socket, and TCP flow control (HTTP/2 flow control for streams)
+ * slows down the sender.
+ * Used from the request's event loop only.
+ */
+public final class BandwidthThrottle {
+
+    private final Vertx vertx;
+    private final BandwidthLimiter[] limiters;
+
+    private BandwidthThrottle(Vertx vertx, BandwidthLimiter[] limiters) {
+        this.vertx = vertx;
+        this.limiters = limiters;
+    }
+
+    /**
+     * @param limiters the limiters the request is charged to
+     * @return the throttle, null if there are no limiters
+     */
+    public static BandwidthThrottle of(Vertx vertx, BandwidthLimiter[] limiters) {
+        return limiters.length > 0 ? new BandwidthThrottle(vertx, limiters) : null;
+    }
+
+    /**
+     * Charge a chunk just relayed to every limiter
+     * @return nanos reading has to stop for, 0 while all limiters are within their burst
+     */
+    long reserve(int bytes) {
+        long waitNanos = 0;
+        for (BandwidthLimiter limiter : limiters) {
+            waitNanos = Math.max(waitNanos, limiter.reserve(bytes));
+        }
+        return waitNanos;
+    }
+
+    /**
+     * Run an action on the event loop once a wait returned by {@link #reserve} is over
+     */
+    void delay(long waitNanos, Runnable action) {
+        vertx.setTimer(Math.max(1, TimeUnit.NANOSECONDS.toMillis(waitNanos)), id -> action.run());
+    }
+}
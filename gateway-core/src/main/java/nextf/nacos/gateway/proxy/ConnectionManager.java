@@ -1,10 +1,14 @@
 package nextf.nacos.gateway.proxy;
 
 import io.vertx.core.http.HttpConnection;
+import io.vertx.core.net.NetSocket;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import nextf.nacos.gateway.config.BackendConfig;
+import nextf.nacos.gateway.jfr.ConnectionClosedEvent;
+import nextf.nacos.gateway.jfr.ConnectionOpenedEvent;
 import nextf.nacos.gateway.model.Backend;
+import nextf.nacos.gateway.ratelimit.ConnectionPermits;
 import nextf.nacos.gateway.ratelimit.LimitExceededException;
 import nextf.nacos.gateway.ratelimit.RateLimitManager;
 import nextf.nacos.gateway.route.Route;
@@ -16,12 +20,14 @@ import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Connection manager for tracking active ProxyConnections
+ * HTTP connections are keyed by their HttpConnection, TCP passthrough connections by their NetSocket
  */
 public class ConnectionManager {
 
     private static final Logger log = LoggerFactory.getLogger(ConnectionManager.class);
 
     private final Map<HttpConnection, ProxyConnection> connections = new ConcurrentHashMap<>();
+    private final Map<NetSocket, ProxyConnection> tcpConnections = new ConcurrentHashMap<>();
     private final RateLimitManager rateLimitManager;
 
     /**
@@ -37,12 +43,12 @@ public class ConnectionManager {
      */
     public void addConnection(ProxyConnection proxyConnection) throws LimitExceededException {
         // Check connection limit (should be checked once per TCP connection)
-        if (!rateLimitManager.tryAcquireConnection(
-                proxyConnection.getBackend().getName(),
-                proxyConnection.getClientIp(),
-                proxyConnection.getRoute().getId())) {
+        ConnectionPermits permits = rateLimitManager.tryAcquireConnection(
+                proxyConnection.getRoute(), proxyConnection.getClientIp());
+        if (permits == null) {
             throw new LimitExceededException("Too Many Connections");
         }
+        proxyConnection.setConnectionPermits(permits);
 
         HttpConnection clientConnection = proxyConnection.getClientConnection();
         connections.put(proxyConnection.getClientConnection(), proxyConnection);
@@ -57,6 +63,7 @@ public class ConnectionManager {
             log.debug("Connection {}: Abnormally closed - {}", connection, t.getMessage());
             this.removeConnection(connection);
         });
+        opened(proxyConnection, false);
         log.debug("Added connection: {} -> {}, total: {}",
                 clientConnection,
                 proxyConnection.getEndpoint().getAddress(),
@@ -74,6 +81,7 @@ public class ConnectionManager {
 
             // Close all resources (HttpClient, notify load balancer, etc.)
             proxyConnection.close();
+            closed(proxyConnection, false);
 
             log.debug("Connection {}: Removed proxy connection, duration: {}ms, total: {}",
                     connection,
@@ -82,6 +90,64 @@ public class ConnectionManager {
         }
     }
 
+    /**
+     * Add TCP passthrough connection
+     * Applies the same connection limits as HTTP connections
+     */
+    public void addTcpConnection(ProxyConnection proxyConnection) throws LimitExceededException {
+        ConnectionPermits permits = rateLimitManager.tryAcquireConnection(
+                proxyConnection.getRoute(), proxyConnection.getClientIp());
+        if (permits == null) {
+            throw new LimitExceededException("Too Many Connections");
+        }
+        proxyConnection.setConnectionPermits(permits);
+
+        NetSocket socket = proxyConnection.getClientSocket();
+        tcpConnections.put(socket, proxyConnection);
+        socket.closeHandler(v -> {
+            log.debug("TCP connection {}: Closed", socket.remoteAddress());
+            this.removeTcpConnection(socket);
+        });
+        opened(proxyConnection, true);
+        log.debug("Added TCP connection: {} -> {}, total: {}",
+                socket.remoteAddress(),
+                proxyConnection.getEndpoint().getAddress(proxyConnection.getPortType()),
+                tcpConnections.size());
+    }
+
+    /**
+     * Remove TCP passthrough connection and close its upstream socket
+     */
+    public void removeTcpConnection(NetSocket socket) {
+        ProxyConnection proxyConnection = tcpConnections.remove(socket);
+        if (proxyConnection != null) {
+            rateLimitManager.releaseConnection(proxyConnection);
+            proxyConnection.close();
+            closed(proxyConnection, true);
+
+            log.debug("TCP connection {}: Removed proxy connection, duration: {}ms, total: {}",
+                    socket.remoteAddress(),
+                    proxyConnection.getDuration(),
+                    tcpConnections.size());
+        }
+    }
+
+    private void opened(ProxyConnection proxyConnection, boolean passthrough) {
+        Route route = proxyConnection.getRoute();
+        ConnectionOpenedEvent.commit(proxyConnection.getPortType().getConfigName(), passthrough,
+                proxyConnection.getClientIp(), route != null ? route.getId() : null,
+                proxyConnection.getBackend().getName(),
+                proxyConnection.getEndpoint().getAddress(proxyConnection.getPortType()),
+                getConnectionCount());
+    }
+
+    private void closed(ProxyConnection proxyConnection, boolean passthrough) {
+        ConnectionClosedEvent.commit(proxyConnection.getPortType().getConfigName(), passthrough,
+                proxyConnection.getClientIp(), proxyConnection.getBackend().getName(),
+                proxyConnection.getEndpoint().getAddress(proxyConnection.getPortType()),
+                proxyConnection.getDuration(), getConnectionCount());
+    }
+
     /**
      * Get proxy connection for this HttpConnection
      */
@@ -99,47 +165,20 @@ public class ConnectionManager {
     public void disconnectInvalidConnections(
             Map<String, Route> newRoutes,
             Map<String, Backend> newBackends) {
-        log.info("Checking {} connections for configuration validity", connections.size());
+        log.info("Checking {} connections for configuration validity", getConnectionCount());
 
         int disconnected = 0;
         for (Map.Entry<HttpConnection, ProxyConnection> entry : connections.entrySet()) {
-            HttpConnection connection = entry.getKey();
-            ProxyConnection pc = entry.getValue();
-
-            Route connectionRoute = pc.getRoute();        // Route object held by connection (old)
-            Backend connectionBackend = pc.getBackend();   // Backend object held by connection (old)
-
-            // Check 1: Route still exists in new config
-            Route newRoute = newRoutes.get(connectionRoute.getId());
-            if (newRoute == null) {
-                disconnectConnection(connection, "Route removed: " + connectionRoute.getHostPattern());
-                disconnected++;
-                continue;
-            }
-
-            // Check 2: Route's backend target hasn't changed
-            if (!Objects.equals(connectionRoute.getBackendName(), newRoute.getBackendName())) {
-                disconnectConnection(connection,
-                        String.format("Route backend changed: %s -> %s (was: %s)",
-                                connectionRoute.getHostPattern(),
-                                newRoute.getBackendName(),
-                                connectionRoute.getBackendName()));
+            String reason = invalidReason(entry.getValue(), newRoutes, newBackends);
+            if (reason != null) {
+                disconnectConnection(entry.getKey(), reason);
                 disconnected++;
-                continue;
             }
-
-            // Check 3: Backend still exists in new config
-            Backend newBackend = newBackends.get(connectionBackend.getName());
-            if (newBackend == null) {
-                disconnectConnection(connection, "Backend removed: " + connectionBackend.getName());
-                disconnected++;
-                continue;
-            }
-
-            // Check 4: Backend critical configuration hasn't changed
-            if (hasBackendCriticalConfigChanged(connectionBackend, newBackend)) {
-                disconnectConnection(connection,
-                        "Backend critical configuration changed: " + connectionBackend.getName());
+        }
+        for (Map.Entry<NetSocket, ProxyConnection> entry : tcpConnections.entrySet()) {
+            String reason = invalidReason(entry.getValue(), newRoutes, newBackends);
+            if (reason != null) {
+                disconnectTcpConnection(entry.getKey(), reason);
                 disconnected++;
             }
         }
@@ -149,6 +188,44 @@ public class ConnectionManager {
         }
     }
 
+    /**
+     * Check a connection against the new configuration
+     * @return the reason to disconnect, or null if the connection is still valid
+     */
+    private String invalidReason(ProxyConnection pc,
+                                 Map<String, Route> newRoutes,
+                                 Map<String, Backend> newBackends) {
+        Route connectionRoute = pc.getRoute();        // Route object held by connection (old)
+        Backend connectionBackend = pc.getBackend();   // Backend object held by connection (old)
+
+        // Check 1: Route still exists in new config
+        Route newRoute = newRoutes.get(connectionRoute.getId());
+        if (newRoute == null) {
+            return "Route removed: " + connectionRoute.getHostPattern();
+        }
+
+        // Check 2: Route's backend target hasn't changed
+        if (!Objects.equals(connectionRoute.getBackendName(), newRoute.getBackendName())) {
+            return String.format("Route backend changed: %s -> %s (was: %s)",
+                    connectionRoute.getHostPattern(),
+                    newRoute.getBackendName(),
+                    connectionRoute.getBackendName());
+        }
+
+        // Check 3: Backend still exists in new config
+        Backend newBackend = newBackends.get(connectionBackend.getName());
+        if (newBackend == null) {
+            return "Backend removed: " + connectionBackend.getName();
+        }
+
+        // Check 4: Backend critical configuration hasn't changed
+        if (hasBackendCriticalConfigChanged(connectionBackend, newBackend)) {
+            return "Backend critical configuration changed: " + connectionBackend.getName();
+        }
+
+        return null;
+    }
+
     /**
      * Check if backend critical configuration changed (endpoints or ports)
      * Compares old backend (held by connection) with new backend (from config)
@@ -203,11 +280,23 @@ public class ConnectionManager {
         }
     }
 
+    /**
+     * Disconnect a single TCP passthrough connection with reason logging
+     */
+    private void disconnectTcpConnection(NetSocket socket, String reason) {
+        try {
+            socket.close();
+            log.debug("TCP connection {}: Closed due to {}", socket.remoteAddress(), reason);
+        } catch (Exception e) {
+            log.warn("Error closing TCP connection: {}", e.getMessage());
+        }
+    }
+
     /**
      * Close all connections
      */
     public void closeAll() {
-        log.info("Closing all {} connections", connections.size());
+        log.info("Closing all {} connections", getConnectionCount());
         connections.keySet().forEach(connection -> {
             try {
                 connection.close();
@@ -216,9 +305,17 @@ public class ConnectionManager {
             }
         });
         connections.clear();
+        tcpConnections.keySet().forEach(socket -> {
+            try {
+                socket.close();
+            } catch (Exception e) {
+                log.warn("Error closing TCP connection", e);
+            }
+        });
+        tcpConnections.clear();
     }
 
     public int getConnectionCount() {
-        return connections.size();
+        return connections.size() + tcpConnections.size();
     }
 }
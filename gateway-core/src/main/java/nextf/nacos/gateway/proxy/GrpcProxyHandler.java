@@ -1,34 +1,70 @@
 package nextf.nacos.gateway.proxy;
 
+import io.vertx.core.MultiMap;
 import io.vertx.core.http.HttpClient;
 import io.vertx.core.http.HttpClientRequest;
 import io.vertx.core.http.HttpClientResponse;
 import io.vertx.core.http.HttpServerRequest;
 import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.http.StreamResetException;
+import nextf.nacos.gateway.jfr.ProxiedRequestEvent;
 import nextf.nacos.gateway.logging.AccessLogger;
 import nextf.nacos.gateway.logging.AccessLogContext;
+import nextf.nacos.gateway.metrics.RequestPhases;
+import nextf.nacos.gateway.metrics.RequestRecorder;
 import nextf.nacos.gateway.model.Backend;
 import nextf.nacos.gateway.model.Endpoint;
+import nextf.nacos.gateway.ratelimit.AdaptiveConcurrencyLimiter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * gRPC proxy handler (HTTP/2 complete passthrough)
+ * Relays each downstream stream to one upstream stream: HEADERS, DATA, trailers, custom frames
+ * and RST_STREAM error codes are forwarded as they arrive. Body buffers are handed over without
+ * copying, and reading is paused while the other side's write queue is full, so the HTTP/2
+ * flow-control windows of both connections follow each other.
  */
 public class GrpcProxyHandler implements ProxyHandler {
 
     private static final Logger log = LoggerFactory.getLogger(GrpcProxyHandler.class);
     private static final String GRPC_CONTENT_TYPE = "application/grpc";
+    private static final String GRPC_STATUS = "grpc-status";
+
+    // HTTP/2 header names are always lower case, so no case folding is needed on lookup
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of(
+            "connection",
+            "keep-alive",
+            "proxy-authenticate",
+            "proxy-authorization",
+            "transfer-encoding",
+            "upgrade");
+
+    // RST_STREAM CANCEL, used when the failure carries no HTTP/2 error code
+    private static final long CANCEL = 0x8;
 
     private final HttpClient httpClient;
     private final String host;
     private final int port;
+    private final String address;
     private final AccessLogger accessLogger;
+    private final String routeId;
     private final Backend backend;
     private final Endpoint endpoint;
+    // Limiter the request holds a slot of, null if none
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    // Bandwidth limits of the request, null if unlimited
+    private final BandwidthThrottle bandwidthThrottle;
+    // Metrics series of the request, null while metrics are disabled
+    private final RequestRecorder requestRecorder;
+    // Phase timestamps of the request, null while phase timings are disabled
+    private final RequestPhases phases;
+    // JFR event of the request, null unless a recording enables it
+    private ProxiedRequestEvent requestEvent;
 
     /**
      * Simplified constructor - using ProxyConnection
@@ -36,12 +72,33 @@ public class GrpcProxyHandler implements ProxyHandler {
      * @param accessLogger access logger
      */
     public GrpcProxyHandler(ProxyConnection proxyConnection, AccessLogger accessLogger) {
+        this(proxyConnection, accessLogger, null, null, null, null);
+    }
+
+    /**
+     * Constructor for a request subject to its backend's concurrency limit and to bandwidth limits
+     * @param proxyConnection object containing all connection-related information
+     * @param accessLogger access logger
+     * @param concurrencyLimiter limiter a slot was taken from, released when the response headers arrive
+     * @param bandwidthThrottle throttle applied to the response body, null if unlimited
+     * @param requestRecorder metrics series the request is recorded into, null if metrics are disabled
+     * @param phases phase timestamps of the request, null if phase timings are disabled
+     */
+    public GrpcProxyHandler(ProxyConnection proxyConnection, AccessLogger accessLogger,
+                            AdaptiveConcurrencyLimiter concurrencyLimiter, BandwidthThrottle bandwidthThrottle,
+                            RequestRecorder requestRecorder, RequestPhases phases) {
         this.httpClient = proxyConnection.getHttpClient();
         this.host = proxyConnection.getEndpoint().getHost();
         this.port = proxyConnection.getBackendPort();
+        this.address = host + ":" + port;
         this.accessLogger = accessLogger;
+        this.routeId = proxyConnection.getRoute() != null ? proxyConnection.getRoute().getId() : null;
         this.backend = proxyConnection.getBackend();
         this.endpoint = proxyConnection.getEndpoint();
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.bandwidthThrottle = bandwidthThrottle;
+        this.requestRecorder = requestRecorder;
+        this.phases = phases;
     }
 
     public static boolean isGrpcRequest(HttpServerRequest request) {
@@ -51,18 +108,17 @@ public class GrpcProxyHandler implements ProxyHandler {
 
     @Override
     public void handle(HttpServerRequest request) {
+        // Report in-flight streams and upstream latency to the load balancer and concurrency limiter
+        UpstreamRequestTracker tracker = UpstreamRequestTracker.start(backend, endpoint, concurrencyLimiter);
+
         HttpServerResponse response = request.response();
         request.pause();
+        requestEvent = ProxiedRequestEvent.begin(request.method().name(), request.path());
 
-        // Record start time for access log
+        // Record start time for access log and metrics
         long startTime = System.currentTimeMillis();
-        String clientIp = request.remoteAddress().host();
-
-        // Collect request headers for access log
-        Map<String, String> requestHeaders = new HashMap<>();
-        if (accessLogger != null && accessLogger.isEnabled()) {
-            request.headers().forEach(entry -> requestHeaders.put(entry.getKey(), entry.getValue()));
-        }
+        long startNanos = System.nanoTime();
+        boolean logEnabled = accessLogger != null && accessLogger.isEnabled();
 
         // Create HTTP/2 proxy request
         httpClient.request(
@@ -71,39 +127,45 @@ public class GrpcProxyHandler implements ProxyHandler {
                 host,
                 request.uri())
             .onSuccess(proxyRequest -> {
-                // Copy all headers (complete passthrough)
-                copyHeaders(request, proxyRequest);
+                mark(RequestPhases.Phase.CONNECT);
+
+                // Forward HEADERS (complete passthrough)
+                copyHeaders(request.headers(), proxyRequest.headers());
                 proxyRequest.setChunked(true);
 
-                // Handle backpressure
-                request.handler(buffer -> {
-                    if (proxyRequest.writeQueueFull()) {
-                        request.pause();
-                        proxyRequest.drainHandler(v -> request.resume());
-                    }
-                    proxyRequest.write(buffer);
-                });
+                // Forward custom frames in both directions
+                request.customFrameHandler(proxyRequest::writeCustomFrame);
 
-                request.endHandler(v -> {
-                    proxyRequest.end();
-                    log.debug("gRPC request proxied to {}:{}", host, port);
-                });
+                // Forward DATA with backpressure; a client reset is relayed as RST_STREAM instead of
+                // ending the upstream stream normally
+                request.pipe()
+                    .endOnFailure(false)
+                    .to(proxyRequest)
+                    .onSuccess(v -> log.debug("gRPC request proxied to {}", address))
+                    .onFailure(t -> {
+                        log.debug("gRPC request to {} aborted: {}", address, t.getMessage());
+                        // A client cancellation says nothing about the backend's latency
+                        tracker.cancelled();
+                        proxyRequest.reset(resetCode(t));
+                    });
 
                 // Handle proxy response
                 proxyRequest.response()
                     .onSuccess(proxyResponse -> handleGrpcResponse(request, proxyResponse, response,
-                            startTime, clientIp, requestHeaders))
+                            startTime, startNanos, logEnabled, tracker))
                     .onFailure(t -> {
-                        log.error("Response from gRPC backend {}:{} failed: {}", host, port, t.getMessage());
+                        tracker.complete(false);
+                        record(0, startNanos, 0);
+                        log.error("Response from gRPC backend {} failed: {}", address, t.getMessage());
                         if (!response.ended()) {
-                            response.reset();
+                            response.reset(resetCode(t));
                         }
                     });
-
-                request.resume();
             })
             .onFailure(t -> {
-                log.error("Request to gRPC backend {}:{} failed: {}", host, port, t.getMessage());
+                tracker.complete(false);
+                record(0, startNanos, 0);
+                log.error("Request to gRPC backend {} failed: {}", address, t.getMessage());
                 if (!response.ended()) {
                     response.reset();
                 }
@@ -112,108 +174,162 @@ public class GrpcProxyHandler implements ProxyHandler {
     }
 
     private void handleGrpcResponse(HttpServerRequest clientRequest,
-                                     HttpClientResponse proxyResponse,
-                                     HttpServerResponse clientResponse,
-                                     long startTime,
-                                     String clientIp,
-                                     Map<String, String> requestHeaders) {
-        log.debug("Received gRPC response from {}:{} status {}", host, port, proxyResponse.statusCode());
-
-        // Copy all headers (complete passthrough)
+                                    HttpClientResponse proxyResponse,
+                                    HttpServerResponse clientResponse,
+                                    long startTime,
+                                    long startNanos,
+                                    boolean logEnabled,
+                                    UpstreamRequestTracker tracker) {
+        tracker.responseReceived();
+        mark(RequestPhases.Phase.FIRST_BYTE);
+        log.debug("Received gRPC response from {} status {}", address, proxyResponse.statusCode());
+
+        // Forward response HEADERS
         clientResponse.setStatusCode(proxyResponse.statusCode());
         clientResponse.setStatusMessage(proxyResponse.statusMessage());
-        proxyResponse.headers().forEach(header -> {
-            if (!isHopByHopHeader(header.getKey())) {
-                clientResponse.putHeader(header.getKey(), header.getValue());
-            }
-        });
+        copyHeaders(proxyResponse.headers(), clientResponse.headers());
 
-        // Collect response headers for access log
-        Map<String, String> responseHeaders = new HashMap<>();
-        if (accessLogger != null && accessLogger.isEnabled()) {
-            proxyResponse.headers().forEach(entry -> responseHeaders.put(entry.getKey(), entry.getValue()));
-        }
+        proxyResponse.customFrameHandler(clientResponse::writeCustomFrame);
 
-        // Track bytes sent for access log
+        // Track bytes sent for access log and metrics
         final long[] bytesSent = {0};
 
-        // Handle backpressure for streaming
+        // Forward DATA, pausing the upstream stream while the client cannot keep up
+        // or the bandwidth limits are exceeded
+        RelayFlowControl flowControl = new RelayFlowControl(proxyResponse, clientResponse, bandwidthThrottle);
         proxyResponse.handler(buffer -> {
-            if (clientResponse.writeQueueFull()) {
-                proxyResponse.pause();
-                clientResponse.drainHandler(v -> proxyResponse.resume());
-            }
+            bytesSent[0] += buffer.length();
             clientResponse.write(buffer);
-            if (accessLogger != null && accessLogger.isEnabled()) {
-                bytesSent[0] += buffer.length();
-            }
+            flowControl.onData(buffer.length());
         });
 
         proxyResponse.endHandler(v -> {
+            tracker.complete(true);
+            mark(RequestPhases.Phase.TRANSFER);
+            record(grpcStatusAsHttp(proxyResponse.statusCode(),
+                    grpcStatus(proxyResponse.trailers(), proxyResponse.headers())), startNanos, bytesSent[0]);
             try {
                 // Only end if response hasn't been ended yet
                 if (!clientResponse.ended()) {
-                    // Copy trailers from proxy response to client response
-                    proxyResponse.trailers().forEach(trailer -> {
-                        clientResponse.putTrailer(trailer.getKey(), trailer.getValue());
-                    });
-
+                    // Forward trailers (grpc-status, grpc-message) with the final HEADERS frame
+                    clientResponse.trailers().addAll(proxyResponse.trailers());
                     clientResponse.end();
-                    log.debug("gRPC response completed from {}:{}", host, port);
+                    log.debug("gRPC response completed from {}", address);
 
                     // Log access
-                    if (accessLogger != null && accessLogger.isEnabled()) {
-                        long duration = System.currentTimeMillis() - startTime;
-                        AccessLogContext context = AccessLogContext.builder()
-                                .method(clientRequest.method().name())
-                                .uri(clientRequest.path())
-                                .queryString(clientRequest.query())
-                                .protocol(clientRequest.version().toString())
-                                .status(proxyResponse.statusCode())
-                                .bytesSent(bytesSent[0])
-                                .durationMs(duration)
-                                .clientIp(clientIp)
-                                .backend(backend != null ? backend.getName() : "")
-                                .endpoint(endpoint != null ? endpoint.getAddress() : host + ":" + port)
-                                .requestHeaders(requestHeaders)
-                                .responseHeaders(responseHeaders)
-                                .build();
-                        accessLogger.logAccess(context);
+                    if (logEnabled) {
+                        logAccess(clientRequest, proxyResponse, bytesSent[0], startTime);
                     }
                 } else {
-                    log.debug("gRPC response already ended for {}:{}", host, port);
+                    log.debug("gRPC response already ended for {}", address);
                 }
             } catch (Exception e) {
                 // Log warning but don't propagate - stream may already be closed
-                log.warn("Failed to end client response for {}:{}: {}", host, port, e.getMessage());
+                log.warn("Failed to end client response for {}: {}", address, e.getMessage());
             }
         });
 
         proxyResponse.exceptionHandler(t -> {
-            log.error("Error reading gRPC response from {}:{} {}", host, port, t.getMessage());
+            tracker.complete(false);
+            record(0, startNanos, bytesSent[0]);
+            log.error("Error reading gRPC response from {} {}", address, t.getMessage());
             if (!clientResponse.ended()) {
-                clientResponse.reset();
+                clientResponse.reset(resetCode(t));
             }
         });
     }
 
-    private void copyHeaders(HttpServerRequest from, HttpClientRequest to) {
-        from.headers().forEach(header -> {
-            if (!isHopByHopHeader(header.getKey())) {
-                to.putHeader(header.getKey(), header.getValue());
+    private void record(int status, long startNanos, long bytesSent) {
+        if (requestRecorder != null) {
+            requestRecorder.record(status, System.nanoTime() - startNanos, bytesSent);
+        }
+        if (phases != null) {
+            phases.finish();
+        }
+        if (requestEvent != null) {
+            requestEvent.end(routeId, backend != null ? backend.getName() : null, address,
+                    status, bytesSent, phases);
+            requestEvent = null;
+        }
+    }
+
+    private void mark(RequestPhases.Phase phase) {
+        if (phases != null) {
+            phases.mark(phase);
+        }
+    }
+
+    private void logAccess(HttpServerRequest clientRequest, HttpClientResponse proxyResponse,
+                           long bytesSent, long startTime) {
+        long duration = System.currentTimeMillis() - startTime;
+        AccessLogContext context = AccessLogContext.builder()
+                .method(clientRequest.method().name())
+                .uri(clientRequest.path())
+                .queryString(clientRequest.query())
+                .protocol(clientRequest.version().toString())
+                .status(proxyResponse.statusCode())
+                .bytesSent(bytesSent)
+                .durationMs(duration)
+                .clientIp(clientRequest.remoteAddress().host())
+                .backend(backend != null ? backend.getName() : "")
+                .endpoint(address)
+                .requestHeaders(toMap(clientRequest.headers()))
+                .responseHeaders(toMap(proxyResponse.headers()))
+                .phases(phases)
+                .build();
+        accessLogger.logAccess(context);
+    }
+
+    private static void copyHeaders(MultiMap from, MultiMap to) {
+        for (Map.Entry<String, String> header : from) {
+            if (!HOP_BY_HOP_HEADERS.contains(header.getKey())) {
+                to.add(header.getKey(), header.getValue());
             }
-        });
+        }
+    }
+
+    private static Map<String, String> toMap(MultiMap headers) {
+        Map<String, String> map = new HashMap<>();
+        headers.forEach(entry -> map.put(entry.getKey(), entry.getValue()));
+        return map;
+    }
+
+    /**
+     * @return the grpc-status of the trailers, or of the headers of a trailers-only response, null if absent
+     */
+    static String grpcStatus(MultiMap trailers, MultiMap headers) {
+        String status = trailers.get(GRPC_STATUS);
+        return status != null ? status : headers.get(GRPC_STATUS);
+    }
+
+    /**
+     * Status recorded in the metrics and the JFR event of a gRPC call
+     * The HTTP status of a gRPC response is 200 even when the call fails, so the grpc-status code is
+     * mapped to its HTTP equivalent (the mapping of the gRPC HTTP gateway) to get a meaningful status class.
+     * @param httpStatus the HTTP :status of the response, used as is when it is not 200 or grpc-status is absent
+     * @param grpcStatus the grpc-status value, null if absent
+     */
+    static int grpcStatusAsHttp(int httpStatus, String grpcStatus) {
+        if (httpStatus != 200 || grpcStatus == null) {
+            return httpStatus;
+        }
+        return switch (grpcStatus.trim()) {
+            case "0" -> 200;                // OK
+            case "1" -> 499;                // CANCELLED
+            case "3", "9", "11" -> 400;     // INVALID_ARGUMENT, FAILED_PRECONDITION, OUT_OF_RANGE
+            case "4" -> 504;                // DEADLINE_EXCEEDED
+            case "5" -> 404;                // NOT_FOUND
+            case "6", "10" -> 409;          // ALREADY_EXISTS, ABORTED
+            case "7" -> 403;                // PERMISSION_DENIED
+            case "8" -> 429;                // RESOURCE_EXHAUSTED
+            case "12" -> 501;               // UNIMPLEMENTED
+            case "14" -> 503;               // UNAVAILABLE
+            case "16" -> 401;               // UNAUTHENTICATED
+            default -> 500;                 // UNKNOWN, INTERNAL, DATA_LOSS and unknown codes
+        };
     }
 
-    private boolean isHopByHopHeader(String headerName) {
-        String lower = headerName.toLowerCase();
-        return lower.equals("connection") ||
-                lower.equals("keep-alive") ||
-                lower.equals("proxy-authenticate") ||
-                lower.equals("proxy-authorization") ||
-//                lower.equals("te") ||
-//                lower.equals("trailers") ||
-                lower.equals("transfer-encoding") ||
-                lower.equals("upgrade");
+    private static long resetCode(Throwable t) {
+        return t instanceof StreamResetException reset ? reset.getCode() : CANCEL;
     }
 }
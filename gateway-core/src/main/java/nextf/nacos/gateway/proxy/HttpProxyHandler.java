@@ -5,10 +5,14 @@ import io.vertx.core.http.HttpClientRequest;
 import io.vertx.core.http.HttpClientResponse;
 import io.vertx.core.http.HttpServerRequest;
 import io.vertx.core.http.HttpServerResponse;
+import nextf.nacos.gateway.jfr.ProxiedRequestEvent;
 import nextf.nacos.gateway.logging.AccessLogger;
 import nextf.nacos.gateway.logging.AccessLogContext;
+import nextf.nacos.gateway.metrics.RequestPhases;
+import nextf.nacos.gateway.metrics.RequestRecorder;
 import nextf.nacos.gateway.model.Backend;
 import nextf.nacos.gateway.model.Endpoint;
+import nextf.nacos.gateway.ratelimit.AdaptiveConcurrencyLimiter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -26,8 +30,19 @@ public class HttpProxyHandler implements ProxyHandler {
     private final String host;
     private final int port;
     private final AccessLogger accessLogger;
+    private final String routeId;
     private final Backend backend;
     private final Endpoint endpoint;
+    // Limiter the request holds a slot of, null if none
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    // Bandwidth limits of the request, null if unlimited
+    private final BandwidthThrottle bandwidthThrottle;
+    // Metrics series of the request, null while metrics are disabled
+    private final RequestRecorder requestRecorder;
+    // Phase timestamps of the request, null while phase timings are disabled
+    private final RequestPhases phases;
+    // JFR event of the request, null unless a recording enables it
+    private ProxiedRequestEvent requestEvent;
 
     /**
      * Simplified constructor - using ProxyConnection
@@ -35,18 +50,42 @@ public class HttpProxyHandler implements ProxyHandler {
      * @param accessLogger access logger
      */
     public HttpProxyHandler(ProxyConnection proxyConnection, AccessLogger accessLogger) {
+        this(proxyConnection, accessLogger, null, null, null, null);
+    }
+
+    /**
+     * Constructor for a request subject to its backend's concurrency limit and to bandwidth limits
+     * @param proxyConnection object containing all connection-related information
+     * @param accessLogger access logger
+     * @param concurrencyLimiter limiter a slot was taken from, released when the response headers arrive
+     * @param bandwidthThrottle throttle applied to the response body, null if unlimited
+     * @param requestRecorder metrics series the request is recorded into, null if metrics are disabled
+     * @param phases phase timestamps of the request, null if phase timings are disabled
+     */
+    public HttpProxyHandler(ProxyConnection proxyConnection, AccessLogger accessLogger,
+                            AdaptiveConcurrencyLimiter concurrencyLimiter, BandwidthThrottle bandwidthThrottle,
+                            RequestRecorder requestRecorder, RequestPhases phases) {
         this.httpClient = proxyConnection.getHttpClient();
         this.host = proxyConnection.getEndpoint().getHost();
         this.port = proxyConnection.getBackendPort();
         this.accessLogger = accessLogger;
+        this.routeId = proxyConnection.getRoute() != null ? proxyConnection.getRoute().getId() : null;
         this.backend = proxyConnection.getBackend();
         this.endpoint = proxyConnection.getEndpoint();
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.bandwidthThrottle = bandwidthThrottle;
+        this.requestRecorder = requestRecorder;
+        this.phases = phases;
     }
 
     @Override
     public void handle(HttpServerRequest request) {
+        // Report in-flight requests and upstream latency to the load balancer and concurrency limiter
+        UpstreamRequestTracker tracker = UpstreamRequestTracker.start(backend, endpoint, concurrencyLimiter);
+
         HttpServerResponse response = request.response();
         request.pause();
+        requestEvent = ProxiedRequestEvent.begin(request.method().name(), request.path());
 
         String address = host + ":" + port;
         log.debug("Proxying {} {} to endpoint {}",
@@ -54,8 +93,9 @@ public class HttpProxyHandler implements ProxyHandler {
                 request.uri(),
                 address);
 
-        // Record start time for access log
+        // Record start time for access log and metrics
         long startTime = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
         String clientIp = request.remoteAddress().host();
 
         // Collect request headers for access log
@@ -71,17 +111,17 @@ public class HttpProxyHandler implements ProxyHandler {
                 host,
                 request.uri())
             .onSuccess(proxyRequest -> {
+                mark(RequestPhases.Phase.CONNECT);
+
                 // Copy headers (skip hop-by-hop headers)
                 copyHeaders(request, proxyRequest);
                 proxyRequest.setChunked(true);
 
-                // Handle request body with backpressure
+                // Handle request body with backpressure, bandwidth limits only apply to the response
+                RelayFlowControl requestFlowControl = new RelayFlowControl(request, proxyRequest, null);
                 request.handler(buffer -> {
-                    if (proxyRequest.writeQueueFull()) {
-                        request.pause();
-                        proxyRequest.drainHandler(v -> request.resume());
-                    }
                     proxyRequest.write(buffer);
+                    requestFlowControl.onData(buffer.length());
                 });
 
                 request.endHandler(v -> {
@@ -92,8 +132,10 @@ public class HttpProxyHandler implements ProxyHandler {
                 // Handle proxy response
                 proxyRequest.response()
                     .onSuccess(proxyResponse -> handleProxyResponse(request, proxyResponse, response,
-                            address, startTime, clientIp, requestHeaders))
+                            address, startTime, startNanos, clientIp, requestHeaders, tracker))
                     .onFailure(t -> {
+                        tracker.complete(false);
+                        record(502, startNanos, 0);
                         log.error("Response from backend {} failed: {}", address, t.getMessage());
                         if (!response.ended()) {
                             response.setStatusCode(502);
@@ -105,6 +147,8 @@ public class HttpProxyHandler implements ProxyHandler {
                 request.resume();
             })
             .onFailure(t -> {
+                tracker.complete(false);
+                record(502, startNanos, 0);
                 log.error("Request to backend {} failed: {}", address, t.getMessage());
                 if (!response.ended()) {
                     response.setStatusCode(502);
@@ -120,8 +164,13 @@ public class HttpProxyHandler implements ProxyHandler {
                                      HttpServerResponse clientResponse,
                                      String address,
                                      long startTime,
+                                     long startNanos,
                                      String clientIp,
-                                     Map<String, String> requestHeaders) {
+                                     Map<String, String> requestHeaders,
+                                     UpstreamRequestTracker tracker) {
+        tracker.responseReceived();
+        mark(RequestPhases.Phase.FIRST_BYTE);
+
         // Set status code
         clientResponse.setStatusCode(proxyResponse.statusCode());
         clientResponse.setStatusMessage(proxyResponse.statusMessage());
@@ -143,19 +192,23 @@ public class HttpProxyHandler implements ProxyHandler {
             proxyResponse.headers().forEach(entry -> responseHeaders.put(entry.getKey(), entry.getValue()));
         }
 
-        // Track bytes sent for access log
+        // Track bytes sent for access log and metrics
         final long[] bytesSent = {0};
 
-        // Handle response body
+        // Handle response body, pausing the backend response while the client cannot keep up
+        // or the bandwidth limits are exceeded
+        RelayFlowControl flowControl = new RelayFlowControl(proxyResponse, clientResponse, bandwidthThrottle);
         proxyResponse.handler(buffer -> {
             clientResponse.write(buffer);
-            if (accessLogger != null && accessLogger.isEnabled()) {
-                bytesSent[0] += buffer.length();
-            }
+            flowControl.onData(buffer.length());
+            bytesSent[0] += buffer.length();
         });
 
         proxyResponse.endHandler(v -> {
+            tracker.complete(true);
             clientResponse.end();
+            mark(RequestPhases.Phase.TRANSFER);
+            record(proxyResponse.statusCode(), startNanos, bytesSent[0]);
             log.debug("Response from {}: status {}", address, proxyResponse.statusCode());
 
             // Log access
@@ -174,12 +227,15 @@ public class HttpProxyHandler implements ProxyHandler {
                         .endpoint(endpoint != null ? endpoint.getAddress() : address)
                         .requestHeaders(requestHeaders)
                         .responseHeaders(responseHeaders)
+                        .phases(phases)
                         .build();
                 accessLogger.logAccess(context);
             }
         });
 
         proxyResponse.exceptionHandler(t -> {
+            tracker.complete(false);
+            record(0, startNanos, bytesSent[0]);
             log.error("Error reading response from {}: {}", address, t.getMessage());
             if (!clientResponse.ended()) {
                 clientResponse.reset();
@@ -187,6 +243,26 @@ public class HttpProxyHandler implements ProxyHandler {
         });
     }
 
+    private void record(int status, long startNanos, long bytesSent) {
+        if (requestRecorder != null) {
+            requestRecorder.record(status, System.nanoTime() - startNanos, bytesSent);
+        }
+        if (phases != null) {
+            phases.finish();
+        }
+        if (requestEvent != null) {
+            requestEvent.end(routeId, backend != null ? backend.getName() : null, host + ":" + port,
+                    status, bytesSent, phases);
+            requestEvent = null;
+        }
+    }
+
+    private void mark(RequestPhases.Phase phase) {
+        if (phases != null) {
+            phases.mark(phase);
+        }
+    }
+
     private String buildTargetUrl(HttpServerRequest request) {
         return request.uri();
     }
@@ -2,14 +2,19 @@ package nextf.nacos.gateway.proxy;
 
 import io.vertx.core.http.HttpClient;
 import io.vertx.core.http.HttpConnection;
+import io.vertx.core.net.NetSocket;
 import nextf.nacos.gateway.config.PortType;
+import nextf.nacos.gateway.metrics.GatewayMetrics;
+import nextf.nacos.gateway.metrics.RequestRecorder;
 import nextf.nacos.gateway.model.Backend;
 import nextf.nacos.gateway.model.Endpoint;
+import nextf.nacos.gateway.ratelimit.ConnectionPermits;
 import nextf.nacos.gateway.route.Route;
 
 /**
  * Proxy connection representing a client-backend connection pair
- * Manages connection-level resources: HttpClient, Endpoint, Backend, PortType
+ * Manages connection-level resources: HttpClient (dedicated or pooled), Endpoint, Backend, PortType
+ * In TCP passthrough mode the pair is a client NetSocket spliced to an upstream NetSocket instead.
  */
 public class ProxyConnection {
 
@@ -18,34 +23,138 @@ public class ProxyConnection {
     private final Endpoint endpoint;
     private final Backend backend;
     private final HttpClient httpClient;
+    // False when the client is a shared upstream pool that outlives this connection
+    private final boolean ownsHttpClient;
     private final PortType portType;
     private final String clientIp;
     private final long createTime;
 
+    // TCP passthrough mode only
+    private final NetSocket clientSocket;
+    private volatile NetSocket upstreamSocket;
+    private volatile boolean closed;
+
+    // Connection permits taken from the rate limiters, released when the connection is removed
+    private volatile ConnectionPermits connectionPermits;
+
+    // Route resolved for the last request host, valid while the registry version is unchanged.
+    // Only touched on the event loop of the client connection, so no synchronization is needed.
+    private String resolvedHost;
+    private long resolvedVersion = -1;
+    private Route resolvedRoute;
+
+    // Metrics series of the last route a request was recorded for, same threading as the route cache
+    private Route recorderRoute;
+    private RequestRecorder requestRecorder;
+
     /**
      * Constructor with port type
      * Used when creating a proxy connection for a specific port type
      */
     public ProxyConnection(HttpConnection clientConnection, Route route, Endpoint endpoint,
                           Backend backend, HttpClient httpClient, PortType portType, String clientIp) {
+        this(clientConnection, route, endpoint, backend, httpClient, true, portType, clientIp);
+    }
+
+    /**
+     * Constructor with HttpClient ownership
+     * @param ownsHttpClient true if the client is dedicated to this connection and closed with it,
+     *                       false if it is a shared upstream pool
+     */
+    public ProxyConnection(HttpConnection clientConnection, Route route, Endpoint endpoint,
+                          Backend backend, HttpClient httpClient, boolean ownsHttpClient,
+                          PortType portType, String clientIp) {
         this.clientConnection = clientConnection;
+        this.clientSocket = null;
         this.route = route;
         this.endpoint = endpoint;
         this.backend = backend;
         this.httpClient = httpClient;
+        this.ownsHttpClient = ownsHttpClient;
         this.portType = portType;
         this.clientIp = clientIp;
         this.createTime = System.currentTimeMillis();
     }
 
+    /**
+     * Constructor for TCP passthrough on the gRPC port
+     * The upstream socket is attached once the backend connection is established
+     */
+    public ProxyConnection(NetSocket clientSocket, Route route, Endpoint endpoint,
+                          Backend backend, String clientIp) {
+        this.clientConnection = null;
+        this.clientSocket = clientSocket;
+        this.route = route;
+        this.endpoint = endpoint;
+        this.backend = backend;
+        this.httpClient = null;
+        this.ownsHttpClient = false;
+        this.portType = PortType.API_V2;
+        this.clientIp = clientIp;
+        this.createTime = System.currentTimeMillis();
+    }
+
     public HttpConnection getClientConnection() {
         return clientConnection;
     }
 
+    public NetSocket getClientSocket() {
+        return clientSocket;
+    }
+
+    public boolean isTcpPassthrough() {
+        return clientSocket != null;
+    }
+
+    /**
+     * Attach the upstream socket of a TCP passthrough connection
+     * @return false if this connection was closed meanwhile, in which case the socket is closed
+     */
+    public boolean attachUpstreamSocket(NetSocket socket) {
+        if (closed) {
+            socket.close();
+            return false;
+        }
+        this.upstreamSocket = socket;
+        return true;
+    }
+
     public Route getRoute() {
         return route;
     }
 
+    /**
+     * Get the route cached for a request host
+     * @return the cached route, or null if the host changed or the registry was updated since
+     */
+    public Route getResolvedRoute(String host, long registryVersion) {
+        String cachedHost = resolvedHost;
+        if (registryVersion != resolvedVersion || cachedHost == null) {
+            return null;
+        }
+        return cachedHost == host || cachedHost.equals(host) ? resolvedRoute : null;
+    }
+
+    /**
+     * Cache the route matched for a request host at the given registry version
+     */
+    public void setResolvedRoute(String host, long registryVersion, Route route) {
+        this.resolvedHost = host;
+        this.resolvedVersion = registryVersion;
+        this.resolvedRoute = route;
+    }
+
+    /**
+     * Get the metrics series of a request for the given route, resolved once per route
+     */
+    public RequestRecorder getRequestRecorder(GatewayMetrics metrics, Route route) {
+        if (route != recorderRoute) {
+            requestRecorder = metrics.recorder(route.getId(), backend.getName(), endpoint.getAddress(portType));
+            recorderRoute = route;
+        }
+        return requestRecorder;
+    }
+
     public Endpoint getEndpoint() {
         return endpoint;
     }
@@ -58,10 +167,22 @@ public class ProxyConnection {
         return httpClient;
     }
 
+    public boolean ownsHttpClient() {
+        return ownsHttpClient;
+    }
+
     public PortType getPortType() {
         return portType;
     }
 
+    public ConnectionPermits getConnectionPermits() {
+        return connectionPermits;
+    }
+
+    public void setConnectionPermits(ConnectionPermits connectionPermits) {
+        this.connectionPermits = connectionPermits;
+    }
+
     public String getClientIp() {
         return clientIp;
     }
@@ -84,11 +205,16 @@ public class ProxyConnection {
 
     /**
      * Close all connection-level resources
+     * A shared upstream pool is left open for the other connections using it
      */
     public void close() {
-        if (httpClient != null) {
+        closed = true;
+        if (httpClient != null && ownsHttpClient) {
             httpClient.close();
         }
+        if (upstreamSocket != null) {
+            upstreamSocket.close();
+        }
         if (backend != null && endpoint != null) {
             backend.getLoadBalancer().onConnectionClose(endpoint);
         }
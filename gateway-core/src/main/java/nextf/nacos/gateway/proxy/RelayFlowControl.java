@@ -0,0 +1,73 @@
+package nextf.nacos.gateway.proxy;
+
+import io.vertx.core.streams.ReadStream;
+import io.vertx.core.streams.WriteStream;
+
+/**
+ * Pauses one direction of a relay while its sink cannot keep up or its bandwidth limits are exceeded
+ * Both conditions hold the source paused on their own; the source is resumed only once the sink has
+ * drained and the throttle's wait is over, so neither one resumes a stream the other still holds.
+ * Used from the request's event loop only.
+ */
+final class RelayFlowControl {
+
+    private final ReadStream<?> source;
+    private final WriteStream<?> sink;
+    // Bandwidth limits of the direction, null if unlimited
+    private final BandwidthThrottle throttle;
+    private boolean sinkFull;
+    private boolean throttled;
+    private boolean paused;
+
+    /**
+     * @param source stream the chunks are read from
+     * @param sink stream the chunks are written to
+     * @param throttle bandwidth limits charged for each chunk, null if unlimited
+     */
+    RelayFlowControl(ReadStream<?> source, WriteStream<?> sink, BandwidthThrottle throttle) {
+        this.source = source;
+        this.sink = sink;
+        this.throttle = throttle;
+    }
+
+    /**
+     * Account for a chunk just written to the sink, pausing the source if it has to wait
+     */
+    void onData(int bytes) {
+        if (throttle != null) {
+            long waitNanos = throttle.reserve(bytes);
+            if (waitNanos > 0 && !throttled) {
+                throttled = true;
+                throttle.delay(waitNanos, () -> {
+                    throttled = false;
+                    resumeIfClear();
+                });
+            }
+        }
+        if (!sinkFull && sink.writeQueueFull()) {
+            sinkFull = true;
+            sink.drainHandler(v -> {
+                sinkFull = false;
+                resumeIfClear();
+            });
+        }
+        if ((sinkFull || throttled) && !paused) {
+            paused = true;
+            source.pause();
+        }
+    }
+
+    private void resumeIfClear() {
+        if (paused && !sinkFull && !throttled) {
+            paused = false;
+            source.resume();
+        }
+    }
+
+    /**
+     * @return true while the source is held paused
+     */
+    boolean isPaused() {
+        return paused;
+    }
+}
@@ -0,0 +1,103 @@
+package nextf.nacos.gateway.proxy;
+
+import io.vertx.core.buffer.Buffer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Extracts the SNI host name from a TLS ClientHello without terminating TLS
+ * Used by the TCP passthrough server to route on the first bytes of a connection.
+ */
+public final class SniParser {
+
+    /**
+     * Largest TLS record (16 KiB payload + 5 byte header), the ClientHello must fit in the first one
+     */
+    public static final int MAX_RECORD_LENGTH = 16384 + 5;
+
+    private static final int RECORD_HEADER_LENGTH = 5;
+    private static final byte CONTENT_TYPE_HANDSHAKE = 0x16;
+    private static final byte HANDSHAKE_CLIENT_HELLO = 0x01;
+    private static final int EXTENSION_SERVER_NAME = 0x0000;
+    private static final byte NAME_TYPE_HOST_NAME = 0x00;
+
+    private SniParser() {
+    }
+
+    /**
+     * Check whether the connection starts with a TLS handshake record
+     * @param head first bytes received from the client (at least one byte)
+     */
+    public static boolean isTlsHandshake(Buffer head) {
+        return head.length() > 0 && head.getByte(0) == CONTENT_TYPE_HANDSHAKE;
+    }
+
+    /**
+     * Total length of the first TLS record including its header
+     * @return record length, or -1 if the header has not been fully received yet
+     */
+    public static int recordLength(Buffer head) {
+        if (head.length() < RECORD_HEADER_LENGTH) {
+            return -1;
+        }
+        return RECORD_HEADER_LENGTH + head.getUnsignedShort(3);
+    }
+
+    /**
+     * Extract the host name from a complete ClientHello record
+     * @param record buffer holding at least {@link #recordLength(Buffer)} bytes
+     * @return the SNI host name, or null if the record is not a ClientHello or carries no SNI
+     */
+    public static String serverName(Buffer record) {
+        int end = recordLength(record);
+        if (end < 0 || record.length() < end || !isTlsHandshake(record)) {
+            return null;
+        }
+
+        try {
+            int pos = RECORD_HEADER_LENGTH;
+            if (record.getByte(pos) != HANDSHAKE_CLIENT_HELLO) {
+                return null;
+            }
+            pos += 4;                                   // handshake type + length
+            pos += 2 + 32;                              // client version + random
+            pos += 1 + record.getUnsignedByte(pos);     // session id
+            pos += 2 + record.getUnsignedShort(pos);    // cipher suites
+            pos += 1 + record.getUnsignedByte(pos);     // compression methods
+            if (pos + 2 > end) {
+                return null;                            // no extensions
+            }
+
+            int extensionsEnd = Math.min(end, pos + 2 + record.getUnsignedShort(pos));
+            pos += 2;
+            while (pos + 4 <= extensionsEnd) {
+                int type = record.getUnsignedShort(pos);
+                int length = record.getUnsignedShort(pos + 2);
+                pos += 4;
+                if (type == EXTENSION_SERVER_NAME) {
+                    return hostName(record, pos, Math.min(extensionsEnd, pos + length));
+                }
+                pos += length;
+            }
+            return null;
+        } catch (IndexOutOfBoundsException e) {
+            // Truncated or malformed ClientHello
+            return null;
+        }
+    }
+
+    private static String hostName(Buffer record, int pos, int end) {
+        int listEnd = Math.min(end, pos + 2 + record.getUnsignedShort(pos));
+        pos += 2;
+        while (pos + 3 <= listEnd) {
+            byte nameType = record.getByte(pos);
+            int length = record.getUnsignedShort(pos + 1);
+            pos += 3;
+            if (nameType == NAME_TYPE_HOST_NAME && pos + length <= listEnd) {
+                return record.getString(pos, pos + length, StandardCharsets.US_ASCII.name());
+            }
+            pos += length;
+        }
+        return null;
+    }
+}
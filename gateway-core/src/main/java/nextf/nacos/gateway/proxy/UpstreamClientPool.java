@@ -0,0 +1,103 @@
+package nextf.nacos.gateway.proxy;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpVersion;
+import io.vertx.core.http.PoolOptions;
+import nextf.nacos.gateway.config.PortType;
+import nextf.nacos.gateway.config.TimeoutConfig;
+import nextf.nacos.gateway.config.UpstreamPoolConfig;
+import nextf.nacos.gateway.model.Endpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Upstream HTTP/1 client pool for one GatewayServer instance
+ * Holds one pooled HttpClient per endpoint address, shared by all client connections
+ * accepted by the owning server instance. Each server instance runs on its own event loop,
+ * so pooled backend connections stay on the event loop that serves the client connection.
+ * Not thread-safe: must only be used from the owning verticle's context.
+ */
+public class UpstreamClientPool {
+
+    private static final Logger log = LoggerFactory.getLogger(UpstreamClientPool.class);
+
+    private final Vertx vertx;
+    private final PortType portType;
+    private final HttpClientOptions clientOptions;
+    private final PoolOptions poolOptions;
+
+    // Endpoint address (host:port) -> pooled client
+    private final Map<String, HttpClient> clients = new HashMap<>();
+
+    public UpstreamClientPool(Vertx vertx, PortType portType, UpstreamPoolConfig poolConfig, TimeoutConfig timeout) {
+        this.vertx = vertx;
+        this.portType = portType;
+        this.clientOptions = createClientOptions(poolConfig, timeout);
+        this.poolOptions = new PoolOptions()
+                .setHttp1MaxSize(poolConfig.getMaxSize())
+                .setCleanerPeriod(poolConfig.getCleanerPeriodMillis())
+                .setMaxWaitQueueSize(poolConfig.getMaxWaitQueueSize());
+    }
+
+    private static HttpClientOptions createClientOptions(UpstreamPoolConfig poolConfig, TimeoutConfig timeout) {
+        HttpClientOptions options = new HttpClientOptions();
+        options.setProtocolVersion(HttpVersion.HTTP_1_1)
+                .setSsl(false)
+                .setKeepAlive(poolConfig.isKeepAlive())
+                .setKeepAliveTimeout(poolConfig.getKeepAliveTimeoutSeconds());
+
+        if (timeout != null) {
+            options.setConnectTimeout(timeout.getConnectTimeoutSeconds() * 1000);
+            options.setIdleTimeout(timeout.getIdleTimeoutSeconds());
+        }
+
+        return options;
+    }
+
+    /**
+     * Get the pooled client for an endpoint, creating it on first use
+     * Endpoints with the same address share a client, so the pool survives config reloads
+     * that recreate the Endpoint objects without changing host or port.
+     */
+    public HttpClient getClient(Endpoint endpoint) {
+        return clients.computeIfAbsent(endpoint.getAddress(portType), address -> {
+            log.debug("Creating upstream pool for {} on {} port", address, portType.getConfigName());
+            return vertx.createHttpClient(clientOptions, poolOptions);
+        });
+    }
+
+    /**
+     * Close the pools of endpoints that are no longer configured
+     * @param addresses addresses (host:port for this port type) that are still in use
+     */
+    public void retainAll(Set<String> addresses) {
+        Iterator<Map.Entry<String, HttpClient>> it = clients.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, HttpClient> entry = it.next();
+            if (!addresses.contains(entry.getKey())) {
+                it.remove();
+                entry.getValue().close();
+                log.debug("Closed upstream pool for removed endpoint {}", entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * Close all pooled clients
+     */
+    public void close() {
+        clients.values().forEach(HttpClient::close);
+        clients.clear();
+    }
+
+    public int size() {
+        return clients.size();
+    }
+}
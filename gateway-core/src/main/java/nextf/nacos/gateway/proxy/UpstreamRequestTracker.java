@@ -0,0 +1,85 @@
+package nextf.nacos.gateway.proxy;
+
+import nextf.nacos.gateway.loadbalance.LoadBalancer;
+import nextf.nacos.gateway.model.Backend;
+import nextf.nacos.gateway.model.Endpoint;
+import nextf.nacos.gateway.ratelimit.AdaptiveConcurrencyLimiter;
+
+/**
+ * Reports one upstream request to the backend's load balancer and concurrency limiter
+ * onRequestStart is called on creation and onRequestComplete exactly once, with the latency
+ * until the response headers arrived. A concurrency slot taken for the request is given back
+ * with that latency as soon as the headers arrive, so long responses and streams do not hold it.
+ * Used from the request's event loop only.
+ */
+final class UpstreamRequestTracker {
+
+    private final LoadBalancer loadBalancer;
+    private final Endpoint endpoint;
+    // Null if the request holds no concurrency slot, cleared once the slot is released
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final long startNanos;
+    private long latencyNanos = -1;
+    private boolean completed;
+
+    private UpstreamRequestTracker(LoadBalancer loadBalancer, Endpoint endpoint,
+                                   AdaptiveConcurrencyLimiter concurrencyLimiter) {
+        this.loadBalancer = loadBalancer;
+        this.endpoint = endpoint;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.startNanos = System.nanoTime();
+        if (loadBalancer != null) {
+            loadBalancer.onRequestStart(endpoint);
+        }
+    }
+
+    /**
+     * @param concurrencyLimiter limiter the request already holds a slot of, null if none
+     */
+    static UpstreamRequestTracker start(Backend backend, Endpoint endpoint,
+                                        AdaptiveConcurrencyLimiter concurrencyLimiter) {
+        LoadBalancer loadBalancer = backend != null && endpoint != null ? backend.getLoadBalancer() : null;
+        return new UpstreamRequestTracker(loadBalancer, endpoint, concurrencyLimiter);
+    }
+
+    /**
+     * Record the upstream latency when the response headers arrive
+     */
+    void responseReceived() {
+        if (latencyNanos < 0) {
+            latencyNanos = System.nanoTime() - startNanos;
+        }
+        if (concurrencyLimiter != null) {
+            concurrencyLimiter.release(latencyNanos, true);
+            concurrencyLimiter = null;
+        }
+    }
+
+    /**
+     * Give the concurrency slot back without a sample, the client gave up on the request
+     */
+    void cancelled() {
+        if (concurrencyLimiter != null) {
+            concurrencyLimiter.release();
+            concurrencyLimiter = null;
+        }
+    }
+
+    /**
+     * Report the end of the request, later calls are ignored
+     */
+    void complete(boolean success) {
+        if (completed) {
+            return;
+        }
+        completed = true;
+        long latency = latencyNanos >= 0 ? latencyNanos : System.nanoTime() - startNanos;
+        if (concurrencyLimiter != null) {
+            concurrencyLimiter.release(latency, success);
+            concurrencyLimiter = null;
+        }
+        if (loadBalancer != null) {
+            loadBalancer.onRequestComplete(endpoint, latency, success);
+        }
+    }
+}
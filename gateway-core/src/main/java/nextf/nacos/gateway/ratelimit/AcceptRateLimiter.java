@@ -0,0 +1,148 @@
+package nextf.nacos.gateway.ratelimit;
+
+import nextf.nacos.gateway.config.AcceptRateConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token buckets on new connections, globally and per client IP
+ *
+ * Checked when a connection is accepted, before anything is decoded from it. The per-client bucket is
+ * checked first so that a single client reconnecting in a loop does not drain the global budget.
+ *
+ * Per-client buckets are plain {@link QpsRateLimiter}s. A bucket that has refilled completely is the same as
+ * no bucket, so {@link #sweep} drops those without losing state. When maxClients buckets are held, new
+ * client IPs are only subject to the global rate until the next sweep.
+ */
+public final class AcceptRateLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(AcceptRateLimiter.class);
+
+    private final AcceptRateConfig config;
+    // Null while the global rate is unlimited
+    private final QpsRateLimiter globalLimiter;
+    private final int maxPerSecondPerClient;
+    private final int burstPerClient;
+    // Shared with the limiter this one replaced while the per-client rate is unchanged
+    private final Map<String, QpsRateLimiter> clientLimiters;
+
+    private final LongAdder rejected;
+    private final LongAdder untracked;
+
+    private AcceptRateLimiter(AcceptRateConfig config, AcceptRateLimiter previous) {
+        this.config = config;
+        this.maxPerSecondPerClient = config.getMaxPerSecondPerClient();
+        this.burstPerClient = config.getBurstPerClient();
+
+        this.globalLimiter = config.getMaxPerSecond() == -1
+                ? null
+                : QpsRateLimiter.reconcile(new QpsRateLimiter(config.getMaxPerSecond(), config.getBurst()),
+                        previous != null ? previous.globalLimiter : null);
+
+        boolean sameClientRate = previous != null
+                && previous.maxPerSecondPerClient == maxPerSecondPerClient
+                && previous.burstPerClient == burstPerClient;
+        this.clientLimiters = sameClientRate ? previous.clientLimiters : new ConcurrentHashMap<>();
+        this.rejected = previous != null ? previous.rejected : new LongAdder();
+        this.untracked = previous != null ? previous.untracked : new LongAdder();
+    }
+
+    /**
+     * Create the limiter for a configuration, keeping the state of the limiter it replaces
+     * The global bucket is carried over; per-client buckets are kept unless the per-client rate changed.
+     * @param config the accept rate configuration, null for none
+     * @param previous the limiter in use so far, null if none
+     * @return null if no rate is limited, previous itself if the configuration is unchanged
+     */
+    public static AcceptRateLimiter of(AcceptRateConfig config, AcceptRateLimiter previous) {
+        if (config == null || config.isUnlimited()) {
+            return null;
+        }
+        if (previous != null && previous.config.equals(config)) {
+            return previous;
+        }
+        return new AcceptRateLimiter(config, previous);
+    }
+
+    /**
+     * Take a token for a connection that has just been accepted
+     * @param clientIp client IP address
+     * @return true if the connection may proceed, false if it should be closed
+     */
+    public boolean tryAccept(String clientIp) {
+        if (maxPerSecondPerClient != -1 && !tryAcceptClient(clientIp)) {
+            rejected.increment();
+            return false;
+        }
+        if (globalLimiter != null && !globalLimiter.tryAcquire()) {
+            rejected.increment();
+            return false;
+        }
+        return true;
+    }
+
+    private boolean tryAcceptClient(String clientIp) {
+        QpsRateLimiter limiter = clientLimiters.get(clientIp);
+        if (limiter == null) {
+            if (clientLimiters.size() >= config.getMaxClients()) {
+                untracked.increment();
+                return true;
+            }
+            limiter = clientLimiters.computeIfAbsent(clientIp,
+                    ip -> new QpsRateLimiter(maxPerSecondPerClient, burstPerClient));
+        }
+        return limiter.tryAcquire();
+    }
+
+    /**
+     * Drop the buckets of clients that have refilled completely, called periodically
+     * @return number of removed buckets
+     */
+    public int sweep() {
+        long now = System.nanoTime();
+        int before = clientLimiters.size();
+        clientLimiters.values().removeIf(limiter -> limiter.isIdle(now));
+        int removed = before - clientLimiters.size();
+        if (removed > 0) {
+            log.debug("Removed {} idle accept rate buckets, {} left", removed, clientLimiters.size());
+        }
+        return removed;
+    }
+
+    /**
+     * @return number of client IPs with a bucket
+     */
+    public int getTrackedClients() {
+        return clientLimiters.size();
+    }
+
+    /**
+     * @return connections closed because a rate was exceeded
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * @return connections from new client IPs accepted without a per-client check because maxClients was reached
+     */
+    public long getUntrackedCount() {
+        return untracked.sum();
+    }
+
+    public AcceptRateConfig getConfig() {
+        return config;
+    }
+
+    @Override
+    public String toString() {
+        return "AcceptRateLimiter{" +
+                "config=" + config +
+                ", trackedClients=" + clientLimiters.size() +
+                '}';
+    }
+}
@@ -0,0 +1,255 @@
+package nextf.nacos.gateway.ratelimit;
+
+import nextf.nacos.gateway.config.AdaptiveConcurrencyConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Adaptive in-flight request limit of a backend (Vegas style)
+ *
+ * A request takes a slot before it is sent upstream and gives it back with its latency once the response
+ * headers arrive. Latencies are averaged per window; when a window closes, the queue built up in the backend
+ * is estimated as limit * (1 - noLoadRtt / rtt), noLoadRtt being the lowest window average since the last
+ * probe. The limit grows by log10(limit) while that queue stays under ALPHA * log10(limit) and the limit was
+ * actually used, shrinks by the same step over BETA * log10(limit), and is cut by BACKOFF_RATIO after a
+ * window with failed upstream requests.
+ *
+ * Lock-free: taking a slot is a CAS on the in-flight count, samples go to striped adders and only the
+ * thread that closes a window adjusts the limit.
+ */
+public final class AdaptiveConcurrencyLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(AdaptiveConcurrencyLimiter.class);
+
+    private static final double ALPHA = 3;
+    private static final double BETA = 6;
+    private static final double BACKOFF_RATIO = 0.9;
+
+    // Windows with fewer samples are extended, an average over a handful of requests is noise
+    static final int MIN_WINDOW_SAMPLES = 10;
+
+    private final String backendName;
+    private final AdaptiveConcurrencyConfig config;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long windowNanos;
+    private final long probeIntervalNanos;
+
+    // Shared with the limiter this one replaced, so slots taken before a reload still count
+    private final AtomicInteger inFlight;
+    private volatile int limit;
+
+    // Current window
+    private final AtomicLong windowStart;
+    private final LongAdder windowRttSum = new LongAdder();
+    private final LongAdder windowSamples = new LongAdder();
+    private final LongAdder windowDrops = new LongAdder();
+    private final AtomicInteger windowMaxInFlight = new AtomicInteger();
+
+    // Written by the thread closing a window only, -1 until the first window with samples
+    private volatile long noLoadRttNanos;
+    private volatile long lastRttNanos = -1;
+    private volatile long nextProbeNanos;
+
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Create a new adaptive concurrency limiter
+     * @param backendName the backend service name
+     * @param config the limiter configuration
+     */
+    public AdaptiveConcurrencyLimiter(String backendName, AdaptiveConcurrencyConfig config) {
+        this(backendName, config, new AtomicInteger(), config.getInitialLimit(), -1);
+    }
+
+    /**
+     * Create a limiter replacing another one (hot reload)
+     * The current limit, clamped to the new bounds, and the no-load latency are carried over and the
+     * in-flight count is shared, so requests sent before the reload release their slots correctly.
+     * @param backendName the backend service name
+     * @param config the new limiter configuration
+     * @param previous the limiter being replaced
+     */
+    public AdaptiveConcurrencyLimiter(String backendName, AdaptiveConcurrencyConfig config,
+                                      AdaptiveConcurrencyLimiter previous) {
+        this(backendName, config, previous.inFlight, previous.limit, previous.noLoadRttNanos);
+    }
+
+    private AdaptiveConcurrencyLimiter(String backendName, AdaptiveConcurrencyConfig config,
+                                       AtomicInteger inFlight, int limit, long noLoadRttNanos) {
+        this.backendName = backendName;
+        this.config = config;
+        this.minLimit = config.getMinLimit();
+        this.maxLimit = config.getMaxLimit();
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(config.getWindowMillis());
+        this.probeIntervalNanos = TimeUnit.SECONDS.toNanos(config.getProbeIntervalSeconds());
+        this.inFlight = inFlight;
+        this.limit = clamp(limit);
+        this.noLoadRttNanos = noLoadRttNanos;
+        long now = System.nanoTime();
+        this.windowStart = new AtomicLong(now);
+        this.nextProbeNanos = now + probeIntervalNanos;
+    }
+
+    /**
+     * Take a slot for a request about to be sent upstream
+     * @return true if the request may be sent, false if the backend is at its current limit
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                if (current + 1 > windowMaxInFlight.get()) {
+                    windowMaxInFlight.accumulateAndGet(current + 1, Math::max);
+                }
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Give a slot back with the outcome of its request
+     * @param rttNanos latency until the upstream response headers arrived, ignored if the request failed
+     * @param success false if the upstream request failed, which lowers the limit
+     */
+    public void release(long rttNanos, boolean success) {
+        release(rttNanos, success, System.nanoTime());
+    }
+
+    /**
+     * Give a slot back without a sample, for requests cancelled by the client
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    void release(long rttNanos, boolean success, long now) {
+        inFlight.decrementAndGet();
+        if (success) {
+            windowRttSum.add(rttNanos);
+            windowSamples.increment();
+        } else {
+            windowDrops.increment();
+        }
+
+        // nanoTime may be negative, compare by difference
+        long start = windowStart.get();
+        if (now - start < windowNanos
+                || windowSamples.sum() + windowDrops.sum() < MIN_WINDOW_SAMPLES
+                || !windowStart.compareAndSet(start, now)) {
+            return;
+        }
+        closeWindow(now);
+    }
+
+    private void closeWindow(long now) {
+        long samples = windowSamples.sumThenReset();
+        long rttSum = windowRttSum.sumThenReset();
+        long drops = windowDrops.sumThenReset();
+        int maxInFlight = windowMaxInFlight.getAndSet(inFlight.get());
+
+        int current = limit;
+        int next = current;
+        if (drops > 0) {
+            next = (int) (current * BACKOFF_RATIO);
+        } else if (samples > 0) {
+            long rtt = Math.max(1, rttSum / samples);
+            lastRttNanos = rtt;
+            if (noLoadRttNanos < 0 || rtt < noLoadRttNanos || now - nextProbeNanos >= 0) {
+                // The periodic probe lets the no-load latency rise again when the backend got slower for good
+                if (now - nextProbeNanos >= 0) {
+                    nextProbeNanos = now + probeIntervalNanos;
+                }
+                noLoadRttNanos = rtt;
+            }
+
+            double step = Math.max(1, Math.log10(current));
+            double queue = current * (1 - (double) noLoadRttNanos / rtt);
+            if (queue < ALPHA * step) {
+                // An underused limit proves nothing about a higher one
+                if (maxInFlight * 2 >= current) {
+                    next = (int) (current + step);
+                }
+            } else if (queue > BETA * step) {
+                next = (int) (current - step);
+            }
+        }
+
+        next = clamp(next);
+        if (next != current) {
+            limit = next;
+            log.debug("Concurrency limit of backend {}: {} -> {} (rtt={}us, noLoadRtt={}us, drops={})",
+                    backendName, current, next, TimeUnit.NANOSECONDS.toMicros(lastRttNanos),
+                    TimeUnit.NANOSECONDS.toMicros(noLoadRttNanos), drops);
+        }
+    }
+
+    private int clamp(int value) {
+        return Math.max(minLimit, Math.min(maxLimit, value));
+    }
+
+    /**
+     * @return true if this limiter was built from an equal configuration
+     */
+    public boolean hasConfig(AdaptiveConcurrencyConfig config) {
+        return this.config.equals(config);
+    }
+
+    public String getBackendName() {
+        return backendName;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    /**
+     * @return the lowest window latency since the last probe, -1 before the first window
+     */
+    public long getNoLoadRttNanos() {
+        return noLoadRttNanos;
+    }
+
+    /**
+     * @return the average latency of the last window with samples, -1 before the first window
+     */
+    public long getLastRttNanos() {
+        return lastRttNanos;
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptiveConcurrencyLimiter{" +
+                "backendName='" + backendName + '\'' +
+                ", limit=" + limit +
+                ", inFlight=" + inFlight.get() +
+                ", minLimit=" + minLimit +
+                ", maxLimit=" + maxLimit +
+                '}';
+    }
+}
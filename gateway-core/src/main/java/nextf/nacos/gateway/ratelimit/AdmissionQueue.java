@@ -0,0 +1,175 @@
+package nextf.nacos.gateway.ratelimit;
+
+import nextf.nacos.gateway.config.RateLimitConfig;
+import nextf.nacos.gateway.metrics.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded admission queue of a route or backend
+ *
+ * Requests over the QPS limit may wait for a permit instead of getting 429 at once, which turns
+ * micro-bursts into a small added latency. This class only keeps the shared depth, bounds and metrics;
+ * the waiting requests are parked on the event loop that received them (see AdmissionScheduler), so
+ * no thread ever blocks.
+ */
+public class AdmissionQueue {
+
+    // Wait time buckets in milliseconds
+    private static final long[] WAIT_MILLIS_BOUNDS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000};
+
+    // Queue depth buckets, depth seen by each request trying to enter
+    private static final long[] DEPTH_BOUNDS = {0, 1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000};
+
+    private final String name;
+    private volatile int maxDepth;
+    private volatile long timeoutNanos;
+
+    private final AtomicInteger depth = new AtomicInteger();
+    private final Histogram depthHistogram = new Histogram(DEPTH_BOUNDS);
+    private final Histogram waitHistogram = new Histogram(WAIT_MILLIS_BOUNDS);
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder abandoned = new LongAdder();
+
+    /**
+     * @param name queue name for metrics, e.g. "route:api.example.com"
+     * @param maxDepth maximum waiting requests
+     * @param timeoutMillis maximum wait of a request
+     */
+    public AdmissionQueue(String name, int maxDepth, int timeoutMillis) {
+        this.name = name;
+        configure(maxDepth, timeoutMillis);
+    }
+
+    /**
+     * Create the queue for the queueDepth / queueTimeoutMillis of a route or backend config
+     * @param previous the queue in use so far, reused with the new bounds so that its waiting requests,
+     *                 depth and metrics carry over a reload
+     * @return the queue, null if the config disables queueing
+     */
+    static AdmissionQueue of(String name, RateLimitConfig config, AdmissionQueue previous) {
+        if (!config.isQueued()) {
+            return null;
+        }
+        if (previous != null) {
+            previous.configure(config.getQueueDepth(), config.getQueueTimeoutMillis());
+            return previous;
+        }
+        return new AdmissionQueue(name, config.getQueueDepth(), config.getQueueTimeoutMillis());
+    }
+
+    /**
+     * Apply new bounds (hot reload), waiting requests keep their deadline
+     */
+    public void configure(int maxDepth, int timeoutMillis) {
+        this.maxDepth = maxDepth;
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+    }
+
+    /**
+     * Take a place in the queue
+     * @return true if the request may wait, false if the queue is full
+     */
+    public boolean tryEnter() {
+        int current;
+        do {
+            current = depth.get();
+            if (current >= maxDepth) {
+                depthHistogram.record(current);
+                rejected.increment();
+                return false;
+            }
+        } while (!depth.compareAndSet(current, current + 1));
+        depthHistogram.record(current);
+        return true;
+    }
+
+    /**
+     * A waiting request got its permit
+     */
+    public void admitted(long waitedNanos) {
+        leave(waitedNanos);
+        admitted.increment();
+    }
+
+    /**
+     * A waiting request reached its deadline without a permit
+     */
+    public void timedOut(long waitedNanos) {
+        leave(waitedNanos);
+        timedOut.increment();
+    }
+
+    /**
+     * A waiting request was given up because its client went away
+     */
+    public void abandoned(long waitedNanos) {
+        leave(waitedNanos);
+        abandoned.increment();
+    }
+
+    private void leave(long waitedNanos) {
+        depth.decrementAndGet();
+        waitHistogram.record(TimeUnit.NANOSECONDS.toMillis(waitedNanos));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public long getTimeoutNanos() {
+        return timeoutNanos;
+    }
+
+    public int getDepth() {
+        return depth.get();
+    }
+
+    /**
+     * @return depth seen by each request that tried to enter
+     */
+    public Histogram getDepthHistogram() {
+        return depthHistogram;
+    }
+
+    /**
+     * @return time spent in the queue in milliseconds, whatever the outcome
+     */
+    public Histogram getWaitHistogram() {
+        return waitHistogram;
+    }
+
+    public long getAdmittedCount() {
+        return admitted.sum();
+    }
+
+    public long getTimedOutCount() {
+        return timedOut.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public long getAbandonedCount() {
+        return abandoned.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "AdmissionQueue{" +
+                "name='" + name + '\'' +
+                ", depth=" + getDepth() +
+                ", maxDepth=" + maxDepth +
+                ", timeoutMillis=" + TimeUnit.NANOSECONDS.toMillis(timeoutNanos) +
+                '}';
+    }
+}
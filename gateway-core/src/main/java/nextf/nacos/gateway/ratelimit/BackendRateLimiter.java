@@ -1,8 +1,10 @@
 package nextf.nacos.gateway.ratelimit;
 
+import nextf.nacos.gateway.config.RateLimitConfig;
+
 /**
  * Backend-level rate limiter
- * Tracks both QPS and connection limits for a backend service group
+ * Tracks QPS, connection and bandwidth limits for a backend service group
  */
 public class BackendRateLimiter {
 
@@ -12,6 +14,10 @@ public class BackendRateLimiter {
 
     private final QpsRateLimiter qpsLimiter;
     private final ConnectionRateLimiter connectionLimiter;
+    // Null unless the backend limits its bandwidth
+    private final BandwidthLimiter bandwidthLimiter;
+    // Null unless the backend queues requests over its limits
+    private final AdmissionQueue admissionQueue;
 
     /**
      * Create a new backend rate limiter
@@ -20,11 +26,59 @@ public class BackendRateLimiter {
      * @param maxConnections maximum concurrent connections for this backend
      */
     public BackendRateLimiter(String backendName, int maxQps, int maxConnections) {
+        this(backendName, maxQps, -1, maxConnections);
+    }
+
+    /**
+     * Create a new backend rate limiter
+     * @param backendName the backend service name
+     * @param maxQps maximum queries per second for this backend
+     * @param burst maximum requests admitted back to back (-1 for maxQps)
+     * @param maxConnections maximum concurrent connections for this backend
+     */
+    public BackendRateLimiter(String backendName, int maxQps, int burst, int maxConnections) {
+        this(backendName, maxQps, maxConnections, new QpsRateLimiter(maxQps, burst),
+                new ConnectionRateLimiter(maxConnections), null, null);
+    }
+
+    /**
+     * Create a new backend rate limiter
+     * @param backendName the backend service name
+     * @param config the rate limit configuration
+     */
+    public BackendRateLimiter(String backendName, RateLimitConfig config) {
+        this(backendName, config.getMaxQps(), config.getMaxConnections(), QpsRateLimiter.of(config),
+                new ConnectionRateLimiter(config.getMaxConnections()),
+                BandwidthLimiter.of(config.getMaxBytesPerSecond(), null),
+                AdmissionQueue.of("backend:" + backendName, config, null));
+    }
+
+    /**
+     * Create a backend rate limiter replacing another one (hot reload)
+     * QPS state is kept or carried over and the connection count is shared with the previous limiter,
+     * so connections opened before the reload still count and are released correctly.
+     * @param backendName the backend service name
+     * @param config the new rate limit configuration
+     * @param previous the limiter being replaced
+     */
+    public BackendRateLimiter(String backendName, RateLimitConfig config, BackendRateLimiter previous) {
+        this(backendName, config.getMaxQps(), config.getMaxConnections(),
+                QpsRateLimiter.of(config, previous.qpsLimiter),
+                previous.connectionLimiter.withMaxConnections(config.getMaxConnections()),
+                BandwidthLimiter.of(config.getMaxBytesPerSecond(), previous.bandwidthLimiter),
+                AdmissionQueue.of("backend:" + backendName, config, previous.admissionQueue));
+    }
+
+    private BackendRateLimiter(String backendName, int maxQps, int maxConnections,
+                               QpsRateLimiter qpsLimiter, ConnectionRateLimiter connectionLimiter,
+                               BandwidthLimiter bandwidthLimiter, AdmissionQueue admissionQueue) {
         this.backendName = backendName;
         this.maxQps = maxQps;
         this.maxConnections = maxConnections;
-        this.qpsLimiter = new QpsRateLimiter(maxQps);
-        this.connectionLimiter = new ConnectionRateLimiter(maxConnections);
+        this.qpsLimiter = qpsLimiter;
+        this.connectionLimiter = connectionLimiter;
+        this.bandwidthLimiter = bandwidthLimiter;
+        this.admissionQueue = admissionQueue;
     }
 
     /**
@@ -35,6 +89,20 @@ public class BackendRateLimiter {
         return qpsLimiter.tryAcquire();
     }
 
+    /**
+     * @return nanos until a QPS permit is available, nothing is taken
+     */
+    long qpsWaitNanos(long now) {
+        return qpsLimiter.waitNanos(now);
+    }
+
+    /**
+     * Give back a QPS permit a later tier did not let through
+     */
+    void refundQps() {
+        qpsLimiter.refund();
+    }
+
     /**
      * Try to acquire connection permit (called when creating a new connection)
      * @return true if connection permit is acquired, false otherwise
@@ -58,6 +126,10 @@ public class BackendRateLimiter {
         return maxQps;
     }
 
+    public int getBurst() {
+        return qpsLimiter.getBurst();
+    }
+
     public int getMaxConnections() {
         return maxConnections;
     }
@@ -66,13 +138,29 @@ public class BackendRateLimiter {
         return connectionLimiter.getCurrentConnections();
     }
 
+    /**
+     * @return the bandwidth limiter of the backend, null if its bandwidth is unlimited
+     */
+    public BandwidthLimiter getBandwidthLimiter() {
+        return bandwidthLimiter;
+    }
+
+    /**
+     * @return the admission queue of the backend, null if queueing is disabled
+     */
+    public AdmissionQueue getAdmissionQueue() {
+        return admissionQueue;
+    }
+
     @Override
     public String toString() {
         return "BackendRateLimiter{" +
                 "backendName='" + backendName + '\'' +
                 ", maxQps=" + maxQps +
+                ", burst=" + getBurst() +
                 ", maxConnections=" + maxConnections +
                 ", currentConnections=" + getCurrentConnections() +
+                ", maxBytesPerSecond=" + (bandwidthLimiter != null ? bandwidthLimiter.getMaxBytesPerSecond() : -1) +
                 '}';
     }
 }
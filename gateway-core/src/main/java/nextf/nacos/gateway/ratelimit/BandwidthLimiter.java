@@ -0,0 +1,86 @@
+package nextf.nacos.gateway.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Byte-rate limiter, a token bucket kept as a GCRA theoretical arrival time like {@link QpsRateLimiter}
+ *
+ * Bytes are charged once they have been read, so a chunk is never refused: {@link #reserve} tells the
+ * caller how long to stop reading so that the stream falls back to the sustained rate. Streams sharing
+ * the limiter share the debt, so one stream overdrawing the bucket slows the others down as well.
+ * Up to one second of traffic may pass back to back.
+ */
+public final class BandwidthLimiter {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final long maxBytesPerSecond;
+    private final AtomicLong theoreticalArrival;
+
+    /**
+     * @param maxBytesPerSecond sustained bytes per second, must be positive
+     */
+    public BandwidthLimiter(long maxBytesPerSecond) {
+        this.maxBytesPerSecond = maxBytesPerSecond;
+        this.theoreticalArrival = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Create the limiter for a byte rate limit, keeping the state of the limiter it replaces
+     * @param maxBytesPerSecond the new limit, -1 for none
+     * @param previous the limiter in use so far, null if none
+     * @return null if unlimited, previous itself if the limit is unchanged, otherwise a new limiter
+     *         that keeps the debt of the previous one
+     */
+    public static BandwidthLimiter of(long maxBytesPerSecond, BandwidthLimiter previous) {
+        if (maxBytesPerSecond <= 0) {
+            return null;
+        }
+        if (previous == null) {
+            return new BandwidthLimiter(maxBytesPerSecond);
+        }
+        if (previous.maxBytesPerSecond == maxBytesPerSecond) {
+            return previous;
+        }
+        BandwidthLimiter replacement = new BandwidthLimiter(maxBytesPerSecond);
+        long now = System.nanoTime();
+        long debt = previous.theoreticalArrival.get() - now;
+        if (debt > 0) {
+            // Same bytes owed, repaid at the new rate, never more than the burst
+            double bytes = (double) debt * previous.maxBytesPerSecond / NANOS_PER_SECOND;
+            long carried = (long) Math.min(NANOS_PER_SECOND, bytes * NANOS_PER_SECOND / maxBytesPerSecond);
+            replacement.theoreticalArrival.set(now + carried);
+        }
+        return replacement;
+    }
+
+    /**
+     * Charge bytes that have just been relayed
+     * @param bytes number of bytes
+     * @return nanos the caller should pause reading for, 0 while within the burst
+     */
+    public long reserve(int bytes) {
+        return reserve(bytes, System.nanoTime());
+    }
+
+    long reserve(int bytes, long now) {
+        long cost = bytes * NANOS_PER_SECOND / maxBytesPerSecond;
+        while (true) {
+            long tat = theoreticalArrival.get();
+            // nanoTime may be negative, compare by difference
+            long next = (tat - now < 0 ? now : tat) + cost;
+            if (theoreticalArrival.compareAndSet(tat, next)) {
+                return Math.max(0L, next - now - NANOS_PER_SECOND);
+            }
+        }
+    }
+
+    public long getMaxBytesPerSecond() {
+        return maxBytesPerSecond;
+    }
+
+    @Override
+    public String toString() {
+        return "BandwidthLimiter{maxBytesPerSecond=" + maxBytesPerSecond + '}';
+    }
+}
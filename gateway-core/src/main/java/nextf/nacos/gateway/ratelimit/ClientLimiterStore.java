@@ -0,0 +1,194 @@
+package nextf.nacos.gateway.ratelimit;
+
+import nextf.nacos.gateway.config.ClientLimiterConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded store of per-client rate limiters with idle-time expiry
+ *
+ * - Limiters unused for idleSeconds are removed by {@link #sweep}, called periodically
+ * - When maxSize is reached, inserting a new client evicts the least recently used of a small sample
+ *   of entries (sampled LRU, as in Redis), so the request path never scans the whole map
+ * - Limiters holding connections are never expired or evicted: their permits must be released
+ *   on the same instance. They are bounded by the connection limits instead.
+ */
+public class ClientLimiterStore {
+
+    private static final Logger log = LoggerFactory.getLogger(ClientLimiterStore.class);
+
+    // Last access is recorded at most once per second per client
+    static final long TOUCH_GRANULARITY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    // Interval of the periodic expiry sweep
+    public static final long SWEEP_INTERVAL_MILLIS = 10_000L;
+
+    // Rough retained size of one entry: map node, IP string, ClientRateLimiter and its QPS / connection limiters
+    static final int ESTIMATED_ENTRY_BYTES = 320;
+
+    // Entries inspected to pick an eviction victim
+    private static final int EVICTION_SAMPLE = 16;
+
+    private final Map<String, ClientRateLimiter> limiters = new ConcurrentHashMap<>();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    private volatile int maxSize;
+    private volatile long idleNanos;
+
+    public ClientLimiterStore(ClientLimiterConfig config) {
+        configure(config);
+    }
+
+    /**
+     * Apply new bounds, takes effect on the next insert and sweep
+     * @param config store configuration, null for the defaults
+     */
+    public void configure(ClientLimiterConfig config) {
+        if (config == null) {
+            config = new ClientLimiterConfig();
+        }
+        this.maxSize = config.getMaxSize();
+        this.idleNanos = TimeUnit.SECONDS.toNanos(config.getIdleSeconds());
+    }
+
+    /**
+     * @return the limiter of the client, null if none is stored
+     */
+    public ClientRateLimiter get(String clientId) {
+        ClientRateLimiter limiter = limiters.get(clientId);
+        if (limiter != null) {
+            limiter.touch(System.nanoTime());
+        }
+        return limiter;
+    }
+
+    /**
+     * Get the limiter of the client, creating it if absent
+     * @param clientId client identifier (IP address)
+     * @param factory creates the limiter with the resolved per-client limits
+     */
+    public ClientRateLimiter getOrCreate(String clientId, Function<String, ClientRateLimiter> factory) {
+        long now = System.nanoTime();
+        ClientRateLimiter limiter = limiters.get(clientId);
+        if (limiter == null) {
+            if (limiters.size() >= maxSize) {
+                evictOne(now);
+            }
+            limiter = limiters.computeIfAbsent(clientId, factory);
+        }
+        limiter.touch(now);
+        return limiter;
+    }
+
+    /**
+     * Replace the limiter of a client, e.g. after its limits changed on reload
+     * @return the replacement, or the limiter now stored if current was replaced or removed meanwhile
+     */
+    public ClientRateLimiter replace(String clientId, ClientRateLimiter current, ClientRateLimiter replacement) {
+        if (limiters.replace(clientId, current, replacement)) {
+            return replacement;
+        }
+        ClientRateLimiter stored = limiters.get(clientId);
+        return stored != null ? stored : current;
+    }
+
+    /**
+     * Evict the least recently used limiter without connections among a sample of entries
+     */
+    private void evictOne(long now) {
+        String victim = null;
+        long oldest = now;
+        int sampled = 0;
+        int inspected = 0;
+        Iterator<Map.Entry<String, ClientRateLimiter>> it = limiters.entrySet().iterator();
+        // Bound the scan when most entries hold connections
+        while (it.hasNext() && sampled < EVICTION_SAMPLE && inspected++ < EVICTION_SAMPLE * 8) {
+            Map.Entry<String, ClientRateLimiter> entry = it.next();
+            ClientRateLimiter candidate = entry.getValue();
+            if (candidate.getCurrentConnections() > 0) {
+                continue;
+            }
+            sampled++;
+            if (victim == null || candidate.getLastAccessNanos() - oldest < 0) {
+                victim = entry.getKey();
+                oldest = candidate.getLastAccessNanos();
+            }
+        }
+        if (victim != null && limiters.remove(victim) != null) {
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Remove limiters without connections that have been idle for longer than idleSeconds
+     * @return number of removed limiters
+     */
+    public int sweep() {
+        return sweep(System.nanoTime());
+    }
+
+    int sweep(long now) {
+        long idle = idleNanos;
+        int removed = 0;
+        for (Iterator<ClientRateLimiter> it = limiters.values().iterator(); it.hasNext(); ) {
+            ClientRateLimiter limiter = it.next();
+            if (limiter.getCurrentConnections() == 0 && now - limiter.getLastAccessNanos() > idle) {
+                it.remove();
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            expirations.add(removed);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Client limiter sweep: removed={}, size={}, estimatedBytes={}",
+                    removed, size(), getEstimatedMemoryBytes());
+        }
+        return removed;
+    }
+
+    public void clear() {
+        limiters.clear();
+    }
+
+    public int size() {
+        return limiters.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getIdleSeconds() {
+        return TimeUnit.NANOSECONDS.toSeconds(idleNanos);
+    }
+
+    /**
+     * @return estimated heap retained by the stored limiters, in bytes
+     */
+    public long getEstimatedMemoryBytes() {
+        return (long) limiters.size() * ESTIMATED_ENTRY_BYTES;
+    }
+
+    /**
+     * @return limiters evicted because the store was full
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return limiters removed after being idle
+     */
+    public long getExpiredCount() {
+        return expirations.sum();
+    }
+}
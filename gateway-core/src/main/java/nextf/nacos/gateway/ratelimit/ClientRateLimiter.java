@@ -2,7 +2,7 @@ package nextf.nacos.gateway.ratelimit;
 
 /**
  * Per-client rate limiter
- * Tracks both QPS and connection limits for individual clients
+ * Tracks QPS, connection and bandwidth limits for individual clients
  *
  * Value semantics:
  * - -1: no limit (unlimited)
@@ -20,6 +20,14 @@ public class ClientRateLimiter {
 
     private final QpsRateLimiter qpsLimiter;
     private final ConnectionRateLimiter connectionLimiter;
+    // Null unless the client's bandwidth is limited
+    private final BandwidthLimiter bandwidthLimiter;
+
+    // Last use in System.nanoTime() units, drives idle expiry in ClientLimiterStore
+    private volatile long lastAccessNanos = System.nanoTime();
+
+    // RateLimitManager generation whose per-client limits this limiter was last checked against
+    private volatile long limitsGeneration;
 
     /**
      * Create a new client rate limiter
@@ -28,13 +36,52 @@ public class ClientRateLimiter {
      * @param maxConnections maximum concurrent connections for this client (-1 for unlimited, 0 for reject all)
      */
     public ClientRateLimiter(String clientId, int maxQps, int maxConnections) {
+        this(clientId, maxQps, -1, maxConnections);
+    }
+
+    /**
+     * Create a new client rate limiter
+     * @param clientId the client identifier (e.g., IP address)
+     * @param maxQps maximum queries per second for this client (-1 for unlimited, 0 for reject all)
+     * @param burst maximum requests admitted back to back (-1 for maxQps)
+     * @param maxConnections maximum concurrent connections for this client (-1 for unlimited, 0 for reject all)
+     */
+    public ClientRateLimiter(String clientId, int maxQps, int burst, int maxConnections) {
+        this(clientId, maxQps, burst, maxConnections, -1, null);
+    }
+
+    /**
+     * Create a client rate limiter replacing another one after its limits changed (hot reload)
+     * QPS and bandwidth state is kept or carried over and the connection count is shared with the previous limiter.
+     * @param maxBytesPerSecond maximum response bytes per second for this client (-1 for unlimited)
+     * @param previous the limiter being replaced, null if none
+     */
+    ClientRateLimiter(String clientId, int maxQps, int burst, int maxConnections, long maxBytesPerSecond,
+                      ClientRateLimiter previous) {
         this.clientId = clientId;
         this.maxQps = maxQps;
         this.maxConnections = maxConnections;
         this.qpsLimited = maxQps != -1;
         this.connectionLimited = maxConnections != -1;
-        this.qpsLimiter = new QpsRateLimiter(maxQps);
-        this.connectionLimiter = new ConnectionRateLimiter(maxConnections);
+        if (previous != null) {
+            this.qpsLimiter = QpsRateLimiter.reconcile(new QpsRateLimiter(maxQps, burst), previous.qpsLimiter);
+            this.connectionLimiter = previous.connectionLimiter.withMaxConnections(maxConnections);
+            this.bandwidthLimiter = BandwidthLimiter.of(maxBytesPerSecond, previous.bandwidthLimiter);
+            this.lastAccessNanos = previous.lastAccessNanos;
+        } else {
+            this.qpsLimiter = new QpsRateLimiter(maxQps, burst);
+            this.connectionLimiter = new ConnectionRateLimiter(maxConnections);
+            this.bandwidthLimiter = BandwidthLimiter.of(maxBytesPerSecond, null);
+        }
+    }
+
+    /**
+     * @return true if this limiter enforces exactly the given limits
+     */
+    boolean hasLimits(int maxQps, int burst, int maxConnections, long maxBytesPerSecond) {
+        return this.maxQps == maxQps && this.maxConnections == maxConnections
+                && qpsLimiter.getBurst() == QpsRateLimiter.effectiveBurst(maxQps, burst)
+                && getMaxBytesPerSecond() == maxBytesPerSecond;
     }
 
     /**
@@ -45,6 +92,22 @@ public class ClientRateLimiter {
         return qpsLimited ? qpsLimiter.tryAcquire() : true;
     }
 
+    /**
+     * @return nanos until a QPS permit is available, nothing is taken
+     */
+    long qpsWaitNanos(long now) {
+        return qpsLimited ? qpsLimiter.waitNanos(now) : 0L;
+    }
+
+    /**
+     * Give back a QPS permit a later tier did not let through
+     */
+    void refundQps() {
+        if (qpsLimited) {
+            qpsLimiter.refund();
+        }
+    }
+
     /**
      * Try to acquire connection permit (called when creating a new connection)
      * @return true if connection permit is acquired, false otherwise
@@ -62,6 +125,29 @@ public class ClientRateLimiter {
         }
     }
 
+    /**
+     * Record a use of this limiter
+     * The volatile write is skipped while the previous one is recent, to keep the hot path cheap.
+     * @param now current System.nanoTime()
+     */
+    void touch(long now) {
+        if (now - lastAccessNanos > ClientLimiterStore.TOUCH_GRANULARITY_NANOS) {
+            lastAccessNanos = now;
+        }
+    }
+
+    long getLastAccessNanos() {
+        return lastAccessNanos;
+    }
+
+    long getLimitsGeneration() {
+        return limitsGeneration;
+    }
+
+    void setLimitsGeneration(long limitsGeneration) {
+        this.limitsGeneration = limitsGeneration;
+    }
+
     public String getClientId() {
         return clientId;
     }
@@ -70,6 +156,10 @@ public class ClientRateLimiter {
         return maxQps;
     }
 
+    public int getBurst() {
+        return qpsLimiter.getBurst();
+    }
+
     public int getMaxConnections() {
         return maxConnections;
     }
@@ -78,13 +168,26 @@ public class ClientRateLimiter {
         return connectionLimiter.getCurrentConnections();
     }
 
+    public long getMaxBytesPerSecond() {
+        return bandwidthLimiter != null ? bandwidthLimiter.getMaxBytesPerSecond() : -1;
+    }
+
+    /**
+     * @return the bandwidth limiter of the client, null if its bandwidth is unlimited
+     */
+    public BandwidthLimiter getBandwidthLimiter() {
+        return bandwidthLimiter;
+    }
+
     @Override
     public String toString() {
         return "ClientRateLimiter{" +
                 "clientId='" + clientId + '\'' +
                 ", maxQps=" + maxQps +
+                ", burst=" + getBurst() +
                 ", maxConnections=" + maxConnections +
                 ", currentConnections=" + getCurrentConnections() +
+                ", maxBytesPerSecond=" + getMaxBytesPerSecond() +
                 '}';
     }
 }
@@ -0,0 +1,51 @@
+package nextf.nacos.gateway.ratelimit;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Connection permits held by one ProxyConnection
+ *
+ * References the exact limiter instances the permits were taken from, so that release does not
+ * look anything up and stays correct when limiters are replaced by a reload in between.
+ */
+public final class ConnectionPermits {
+
+    private final ConnectionRateLimiter globalLimiter;
+    private final RouteRateLimiter routeLimiter;
+    private final BackendRateLimiter backendLimiter;
+    private final ClientRateLimiter clientLimiter;
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    ConnectionPermits(ConnectionRateLimiter globalLimiter, RouteRateLimiter routeLimiter,
+                      BackendRateLimiter backendLimiter, ClientRateLimiter clientLimiter) {
+        this.globalLimiter = globalLimiter;
+        this.routeLimiter = routeLimiter;
+        this.backendLimiter = backendLimiter;
+        this.clientLimiter = clientLimiter;
+    }
+
+    /**
+     * Release all permits, only the first call has an effect
+     */
+    public void release() {
+        if (!released.compareAndSet(false, true)) {
+            return;
+        }
+        if (globalLimiter != null) {
+            globalLimiter.release();
+        }
+        if (routeLimiter != null) {
+            routeLimiter.releaseConnection();
+        }
+        if (backendLimiter != null) {
+            backendLimiter.release();
+        }
+        if (clientLimiter != null) {
+            clientLimiter.release();
+        }
+    }
+
+    public boolean isReleased() {
+        return released.get();
+    }
+}
@@ -13,16 +13,35 @@ public class ConnectionRateLimiter implements RateLimiter {
     private static final Logger log = LoggerFactory.getLogger(ConnectionRateLimiter.class);
 
     private final int maxConnections;
-    private final AtomicInteger currentConnections = new AtomicInteger(0);
+    private final AtomicInteger currentConnections;
 
     public ConnectionRateLimiter(int maxConnections) {
+        this(maxConnections, new AtomicInteger(0));
+    }
+
+    private ConnectionRateLimiter(int maxConnections, AtomicInteger currentConnections) {
         this.maxConnections = maxConnections;
+        this.currentConnections = currentConnections;
+    }
+
+    /**
+     * Create a limiter with another maximum that shares this limiter's connection count (hot reload)
+     * Permits taken from either instance can be released on either.
+     * @param maxConnections the new maximum
+     */
+    public ConnectionRateLimiter withMaxConnections(int maxConnections) {
+        if (maxConnections == this.maxConnections) {
+            return this;
+        }
+        return new ConnectionRateLimiter(maxConnections, currentConnections);
     }
 
     @Override
     public boolean tryAcquire() {
         if (maxConnections == -1) {
-            return true;  // No limit
+            // No limit, still counted so that the count is right if a reload sets a limit
+            currentConnections.incrementAndGet();
+            return true;
         }
         if (maxConnections == 0) {
             return false;  // Reject all
@@ -0,0 +1,243 @@
+package nextf.nacos.gateway.ratelimit;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Fixed-memory heavy-hitter detector for client request rates
+ *
+ * Request counts per client are kept in a Count-Min Sketch (depth rows of width counters, conservative update)
+ * whose counters are halved by {@link #decay()} every {@link #DECAY_PERIOD_MILLIS}, from a periodic timer so
+ * that no request pays for the pass over the counters. For a client sending r requests per second the decayed
+ * count settles between r and 2r. The sketch only over-estimates, so a client above a limit is always flagged;
+ * a client flagged by mistake merely gets an exact limiter it did not need.
+ *
+ * Rows are indexed by double hashing a seeded 64-bit hash of the client's characters, so two clients whose
+ * String.hashCode collides still land in different counters in every row.
+ *
+ * A small table tracks the clients with the highest counts for the top-K view. Memory is
+ * depth * width * 4 bytes plus the tracking table, independent of the number of distinct clients.
+ */
+public class HeavyHitterDetector {
+
+    /**
+     * Interval at which {@link #decay()} must be called
+     */
+    public static final long DECAY_PERIOD_MILLIS = 1_000L;
+
+    private static final long HASH_SEED = 0x9E3779B97F4A7C15L;
+    private static final long FNV_PRIME = 0x100000001B3L;
+
+    // Tracked clients per top-K slot, so that the view survives churn among similar clients
+    private static final int TRACKING_FACTOR = 4;
+
+    // Rough retained size of one tracked client: map node, IP string and count holder
+    private static final int TRACKED_ENTRY_BYTES = 120;
+
+    private final int depth;
+    private final int widthMask;
+    private final AtomicIntegerArray counters;
+
+    private final int topK;
+    private final int trackingCapacity;
+    private final Map<String, TrackedClient> tracked = new ConcurrentHashMap<>();
+    // Count a client needs to enter a full tracking table
+    private volatile int trackingFloor;
+
+    /**
+     * @param width counters per row, rounded up to a power of two
+     * @param depth number of rows (independent hash functions)
+     * @param topK number of clients returned by {@link #topClients()}
+     */
+    public HeavyHitterDetector(int width, int depth, int topK) {
+        int roundedWidth = roundWidth(width);
+        this.depth = depth;
+        this.widthMask = roundedWidth - 1;
+        this.counters = new AtomicIntegerArray(roundedWidth * depth);
+        this.topK = topK;
+        this.trackingCapacity = Math.max(1, topK * TRACKING_FACTOR);
+    }
+
+    private static int roundWidth(int width) {
+        return Integer.highestOneBit(Math.max(2, width - 1)) << 1;
+    }
+
+    /**
+     * @return true if this detector was built with the given dimensions
+     */
+    public boolean hasShape(int width, int depth, int topK) {
+        return roundWidth(width) == getWidth() && this.depth == depth && this.topK == topK;
+    }
+
+    /**
+     * Count one request of the client
+     * @param clientId client identifier (IP address)
+     * @return decayed request count of the client after this request (an upper bound)
+     */
+    public int record(String clientId) {
+        long hash = hash(clientId);
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(index(hash, row)));
+        }
+        // Conservative update: only raise the counters that are below the new estimate
+        int updated = estimate + 1;
+        for (int row = 0; row < depth; row++) {
+            counters.accumulateAndGet(index(hash, row), updated, Math::max);
+        }
+
+        TrackedClient client = tracked.get(clientId);
+        if (client != null) {
+            client.count = updated;
+        } else if (updated > trackingFloor) {
+            track(clientId, updated);
+        }
+        return updated;
+    }
+
+    /**
+     * @return decayed request count of the client, without counting a request
+     */
+    public int estimate(String clientId) {
+        long hash = hash(clientId);
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(index(hash, row)));
+        }
+        return estimate;
+    }
+
+    /**
+     * Seeded FNV-1a over the characters, finished with the Murmur3 64-bit mixer
+     */
+    static long hash(String clientId) {
+        long h = HASH_SEED;
+        for (int i = 0; i < clientId.length(); i++) {
+            h = (h ^ clientId.charAt(i)) * FNV_PRIME;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private int index(long hash, int row) {
+        // Double hashing: row i uses h1 + i * h2, h2 odd so that it is never a multiple of the width
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        return row * (widthMask + 1) + ((h1 + row * h2) & widthMask);
+    }
+
+    /**
+     * Halve all counts, called every {@link #DECAY_PERIOD_MILLIS} by a periodic timer
+     */
+    public void decay() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.getAndUpdate(i, v -> v >> 1);
+        }
+        synchronized (tracked) {
+            for (Iterator<TrackedClient> it = tracked.values().iterator(); it.hasNext(); ) {
+                TrackedClient client = it.next();
+                client.count >>= 1;
+                if (client.count == 0) {
+                    it.remove();
+                }
+            }
+            trackingFloor = tracked.size() < trackingCapacity ? 0 : trackingFloor >> 1;
+        }
+    }
+
+    private void track(String clientId, int count) {
+        synchronized (tracked) {
+            if (tracked.size() >= trackingCapacity) {
+                // Replace the smallest tracked client if the new one is larger
+                String smallest = null;
+                int smallestCount = Integer.MAX_VALUE;
+                for (Map.Entry<String, TrackedClient> entry : tracked.entrySet()) {
+                    if (entry.getValue().count < smallestCount) {
+                        smallest = entry.getKey();
+                        smallestCount = entry.getValue().count;
+                    }
+                }
+                if (smallest == null || count <= smallestCount) {
+                    trackingFloor = smallestCount;
+                    return;
+                }
+                tracked.remove(smallest);
+                trackingFloor = smallestCount;
+            }
+            tracked.putIfAbsent(clientId, new TrackedClient(count));
+        }
+    }
+
+    /**
+     * @return the noisiest clients, highest decayed request count first, at most topK entries
+     */
+    public List<ClientCount> topClients() {
+        List<ClientCount> result = new ArrayList<>(tracked.size());
+        tracked.forEach((clientId, client) -> result.add(new ClientCount(clientId, client.count)));
+        result.sort(Comparator.comparingInt(ClientCount::getCount).reversed());
+        return result.size() > topK ? new ArrayList<>(result.subList(0, topK)) : result;
+    }
+
+    /**
+     * @return heap used by the sketch counters and the tracking table, in bytes (estimate)
+     */
+    public long getEstimatedMemoryBytes() {
+        return (long) counters.length() * Integer.BYTES
+                + (long) trackingCapacity * TRACKED_ENTRY_BYTES;
+    }
+
+    public int getWidth() {
+        return widthMask + 1;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public int getTopK() {
+        return topK;
+    }
+
+    /**
+     * Decayed request count of a client, between its QPS and twice its QPS at a steady rate
+     */
+    public static final class ClientCount {
+        private final String clientId;
+        private final int count;
+
+        ClientCount(String clientId, int count) {
+            this.clientId = clientId;
+            this.count = count;
+        }
+
+        public String getClientId() {
+            return clientId;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        @Override
+        public String toString() {
+            return clientId + "=" + count;
+        }
+    }
+
+    private static final class TrackedClient {
+        volatile int count;
+
+        TrackedClient(int count) {
+            this.count = count;
+        }
+    }
+}
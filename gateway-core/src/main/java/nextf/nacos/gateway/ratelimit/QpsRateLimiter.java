@@ -1,25 +1,151 @@
 package nextf.nacos.gateway.ratelimit;
 
+import nextf.nacos.gateway.config.RateLimitConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * QPS rate limiter using sliding window
+ * QPS rate limiter using GCRA (generic cell rate algorithm, a token bucket without a refill task)
+ *
+ * Requests are spaced by an emission interval of 1s / maxQps. Up to burst requests may arrive back to back,
+ * after which the limiter admits one request per emission interval. The whole state is a single theoretical
+ * arrival time in System.nanoTime() units, updated with CAS: no lock, no window reset, no allocation per call.
+ *
+ * A striped limiter (see {@link #striped}) spreads the hot path over per-thread stripes: each stripe leases
+ * a slice of permits from the shared arrival time and serves requests locally until the slice is used up or
+ * the lease expires. Leased permits are already charged to the shared budget, so striping never admits more
+ * than the exact limiter; unused permits of an expired lease are dropped.
+ *
+ * Value semantics:
+ * - maxQps -1: no limit, 0: reject all, > 0: normal limit
+ * - burst -1: same as maxQps (one second of traffic), > 0: bucket capacity in requests
  */
 public class QpsRateLimiter implements RateLimiter {
 
     private static final Logger log = LoggerFactory.getLogger(QpsRateLimiter.class);
 
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    // Enough stripes for the default event loop count (2 * CPU cores), power of two for masking
+    private static final int STRIPES = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2 - 1)) << 1;
+
     private final int maxQps;
-    private final static long WINDOW_SIZE_MS = 1_000L;
-    private final AtomicInteger counter = new AtomicInteger(0);
-    private final AtomicLong counterWindow = new AtomicLong(0);
+    private final int burst;
+
+    // Nanos between two requests at the sustained rate
+    private final long emissionInterval;
+    // How far the theoretical arrival time may run ahead of now
+    private final long burstTolerance;
+    private final AtomicLong theoreticalArrival;
+
+    // Striped mode only, null for the exact limiter
+    private final Stripe[] stripes;
+    private final int leaseSize;
+    private final long leaseNanos;
 
     public QpsRateLimiter(int maxQps) {
+        this(maxQps, -1);
+    }
+
+    /**
+     * @param maxQps sustained requests per second (-1 for unlimited, 0 for reject all)
+     * @param burst maximum requests admitted back to back (-1 for maxQps)
+     */
+    public QpsRateLimiter(int maxQps, int burst) {
+        this(maxQps, burst, 0, 0L);
+    }
+
+    private QpsRateLimiter(int maxQps, int burst, int leaseSize, long leaseNanos) {
         this.maxQps = maxQps;
+        this.burst = effectiveBurst(maxQps, burst);
+        this.emissionInterval = maxQps > 0 ? Math.max(1L, NANOS_PER_SECOND / maxQps) : 0L;
+        this.burstTolerance = maxQps > 0 ? emissionInterval * this.burst : 0L;
+        this.theoreticalArrival = new AtomicLong(System.nanoTime());
+        this.leaseSize = leaseSize;
+        this.leaseNanos = leaseNanos;
+        if (maxQps > 0 && leaseSize > 0) {
+            this.stripes = new Stripe[STRIPES];
+            for (int i = 0; i < stripes.length; i++) {
+                stripes[i] = new Stripe();
+            }
+        } else {
+            this.stripes = null;
+        }
+    }
+
+    /**
+     * Create a striped limiter for limits shared by many event loops
+     * @param maxQps sustained requests per second (-1 for unlimited, 0 for reject all)
+     * @param burst maximum requests admitted back to back (-1 for maxQps)
+     * @param leaseSize permits leased by a stripe at once (-1 for about 1% of maxQps), 1 is exact
+     * @param leaseMillis how long a stripe may keep unused leased permits
+     */
+    public static QpsRateLimiter striped(int maxQps, int burst, int leaseSize, int leaseMillis) {
+        int size = leaseSize > 0 ? leaseSize : defaultLeaseSize(maxQps, effectiveBurst(maxQps, burst));
+        return new QpsRateLimiter(maxQps, burst, size, TimeUnit.MILLISECONDS.toNanos(Math.max(1, leaseMillis)));
+    }
+
+    /**
+     * Create the QPS limiter for the maxQps / burst of a global, route or backend rate limit config
+     * Striped when the config enables it, exact otherwise.
+     */
+    public static QpsRateLimiter of(RateLimitConfig config) {
+        if (config.isStriped()) {
+            return striped(config.getMaxQps(), config.getBurst(), config.getLeaseSize(), config.getLeaseMillis());
+        }
+        return new QpsRateLimiter(config.getMaxQps(), config.getBurst());
+    }
+
+    /**
+     * Create the QPS limiter for a reloaded config, keeping the state of the limiter it replaces
+     * @param config the new rate limit config
+     * @param previous the limiter in use so far, null if none
+     * @return previous itself if the QPS settings are unchanged, otherwise a new limiter with the state carried over
+     */
+    public static QpsRateLimiter of(RateLimitConfig config, QpsRateLimiter previous) {
+        return reconcile(of(config), previous);
+    }
+
+    /**
+     * Keep previous if it has the same settings as replacement, otherwise carry its state into replacement
+     * The permits consumed from the previous bucket stay consumed in the new one (capped at the new burst),
+     * so a reload never hands out a fresh burst to a client that has just used it up.
+     */
+    static QpsRateLimiter reconcile(QpsRateLimiter replacement, QpsRateLimiter previous) {
+        if (previous == null) {
+            return replacement;
+        }
+        if (replacement.maxQps == previous.maxQps && replacement.burst == previous.burst
+                && replacement.getLeaseSize() == previous.getLeaseSize()
+                && replacement.leaseNanos == previous.leaseNanos) {
+            return previous;
+        }
+        if (replacement.maxQps > 0 && previous.maxQps > 0) {
+            long now = System.nanoTime();
+            long debt = previous.theoreticalArrival.get() - now;
+            if (debt > 0) {
+                double consumed = (double) debt / previous.emissionInterval;
+                long carried = (long) Math.min((double) replacement.burstTolerance, consumed * replacement.emissionInterval);
+                replacement.theoreticalArrival.set(now + carried);
+            }
+        }
+        return replacement;
+    }
+
+    /**
+     * @return the burst a limiter with these settings enforces (-1 resolved to maxQps)
+     */
+    static int effectiveBurst(int maxQps, int burst) {
+        return maxQps > 0 && burst <= 0 ? maxQps : burst;
+    }
+
+    private static int defaultLeaseSize(int maxQps, int burst) {
+        // Leases held by all stripes together must stay well below the burst
+        return Math.max(1, Math.min(maxQps / 100, burst / (STRIPES * 2)));
     }
 
     @Override
@@ -30,26 +156,137 @@ public class QpsRateLimiter implements RateLimiter {
         if (maxQps == 0) {
             return false;  // Reject all
         }
-        do {
-            long window = System.currentTimeMillis() / WINDOW_SIZE_MS;
-            long counterWindowVal = counterWindow.get();
-            if (counterWindowVal != window) {
-                if (counterWindow.compareAndSet(counterWindowVal, window)) {
-                    counter.set(0);
-                } else {
-                    continue;
-                }
-            }
-            int current = counter.incrementAndGet();
-            if (current > maxQps) {
-                log.debug("QPS limit exceeded: {}/{}", current, maxQps);
+        long now = System.nanoTime();
+        boolean acquired = stripes != null ? tryAcquireStriped(now) : tryAcquireShared(1, now);
+        if (!acquired && log.isDebugEnabled()) {
+            log.debug("QPS limit exceeded: maxQps={}, burst={}", maxQps, burst);
+        }
+        return acquired;
+    }
+
+    /**
+     * Nanos until a permit can be acquired, without taking it
+     * @return 0 if a permit is available now, Long.MAX_VALUE if the limiter rejects all requests
+     */
+    long waitNanos(long now) {
+        if (maxQps == -1) {
+            return 0L;
+        }
+        if (maxQps == 0) {
+            return Long.MAX_VALUE;
+        }
+        if (stripes != null && stripe().hasPermits(now)) {
+            return 0L;
+        }
+        long tat = theoreticalArrival.get();
+        long next = (tat - now < 0 ? now : tat) + emissionInterval;
+        return Math.max(0L, next - now - burstTolerance);
+    }
+
+    /**
+     * Give back a permit taken by tryAcquire for a request that a later limiter refused
+     * Striped limiters credit the shared arrival time, which may be a little more generous than
+     * returning the permit to the stripe it was taken from.
+     */
+    void refund() {
+        if (maxQps > 0) {
+            theoreticalArrival.addAndGet(-emissionInterval);
+        }
+    }
+
+    private Stripe stripe() {
+        return stripes[(int) Thread.currentThread().getId() & (stripes.length - 1)];
+    }
+
+    private boolean tryAcquireStriped(long now) {
+        Stripe stripe = stripe();
+        if (stripe.tryTake(now)) {
+            return true;
+        }
+        // Lease a new slice, fall back to a single permit when the budget left is smaller than a lease
+        if (leaseSize > 1 && tryAcquireShared(leaseSize, now)) {
+            stripe.lease(leaseSize - 1, now + leaseNanos);
+            return true;
+        }
+        return tryAcquireShared(1, now);
+    }
+
+    private boolean tryAcquireShared(int permits, long now) {
+        long cost = emissionInterval * permits;
+        while (true) {
+            long tat = theoreticalArrival.get();
+            // nanoTime may be negative, compare by difference
+            long next = (tat - now < 0 ? now : tat) + cost;
+            if (next - now > burstTolerance) {
                 return false;
             }
-            return true;
-        } while (true);
+            if (theoreticalArrival.compareAndSet(tat, next)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @return true once the bucket has refilled completely, the limiter then behaves like a new one
+     */
+    boolean isIdle(long now) {
+        return theoreticalArrival.get() - now <= 0;
     }
 
     public int getMaxQps() {
         return maxQps;
     }
+
+    public int getBurst() {
+        return burst;
+    }
+
+    public boolean isStriped() {
+        return stripes != null;
+    }
+
+    /**
+     * @return permits leased by a stripe at once, 0 for the exact limiter
+     */
+    public int getLeaseSize() {
+        return stripes != null ? leaseSize : 0;
+    }
+
+    /**
+     * Permits leased by the threads mapped to one stripe
+     * Padded so that neighbouring stripes do not share a cache line.
+     */
+    @SuppressWarnings("unused")
+    private static final class Stripe {
+
+        private static final AtomicIntegerFieldUpdater<Stripe> PERMITS =
+                AtomicIntegerFieldUpdater.newUpdater(Stripe.class, "permits");
+
+        private long p01, p02, p03, p04, p05, p06, p07;
+        private volatile int permits;
+        private volatile long expiresAt;
+        private long p11, p12, p13, p14, p15, p16, p17;
+
+        boolean tryTake(long now) {
+            while (true) {
+                int current = permits;
+                if (current <= 0 || expiresAt - now < 0) {
+                    return false;
+                }
+                if (PERMITS.compareAndSet(this, current, current - 1)) {
+                    return true;
+                }
+            }
+        }
+
+        boolean hasPermits(long now) {
+            return permits > 0 && expiresAt - now >= 0;
+        }
+
+        void lease(int leased, long expiresAt) {
+            // Threads sharing a stripe may overwrite each other's lease, which only drops permits
+            this.expiresAt = expiresAt;
+            this.permits = leased;
+        }
+    }
 }
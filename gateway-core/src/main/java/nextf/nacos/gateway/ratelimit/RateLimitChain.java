@@ -0,0 +1,436 @@
+package nextf.nacos.gateway.ratelimit;
+
+import nextf.nacos.gateway.jfr.RateLimitRejectedEvent;
+import nextf.nacos.gateway.ratelimit.RejectionCounters.Tier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Limiters that apply to one route, resolved once per configuration
+ *
+ * Holds the global, route and backend limiter instances and the per-client limits resolved through the
+ * Route -> Backend -> Server cascade, so the request path only reads fields. Instances are immutable and
+ * built by {@link RateLimitManager}; a reload builds new chains instead of changing existing ones.
+ */
+public final class RateLimitChain {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimitChain.class);
+
+    private static final BandwidthLimiter[] NO_BANDWIDTH_LIMITERS = new BandwidthLimiter[0];
+
+    // RateLimitManager configuration generation this chain was resolved from
+    private final long generation;
+
+    private final String routeId;
+    private final String backendName;
+
+    private final QpsRateLimiter globalQpsLimiter;
+    private final ConnectionRateLimiter globalConnectionLimiter;
+    private final RouteRateLimiter routeLimiter;
+    private final BackendRateLimiter backendLimiter;
+    // Null unless the backend enables adaptive concurrency limiting
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    // Resolved per-client limits, -1 means unlimited
+    private final int clientMaxQps;
+    private final int clientBurst;
+    private final int clientMaxConnections;
+    private final long clientMaxBytesPerSecond;
+
+    // Global, route and backend bandwidth limiters that are set
+    private final BandwidthLimiter[] sharedBandwidthLimiters;
+
+    private final ClientLimiterStore clientLimiters;
+    // Non-null in approximate per-client mode only
+    private final HeavyHitterDetector heavyHitters;
+    private final Function<String, ClientRateLimiter> clientFactory;
+
+    // Queue for requests over the limits: the route's, else the backend's, null if neither queues
+    private final AdmissionQueue admissionQueue;
+
+    private final RejectionCounters rejections;
+
+    RateLimitChain(long generation, String routeId, String backendName,
+                   QpsRateLimiter globalQpsLimiter, ConnectionRateLimiter globalConnectionLimiter,
+                   RouteRateLimiter routeLimiter, BackendRateLimiter backendLimiter,
+                   AdaptiveConcurrencyLimiter concurrencyLimiter, BandwidthLimiter globalBandwidthLimiter,
+                   int clientMaxQps, int clientBurst, int clientMaxConnections, long clientMaxBytesPerSecond,
+                   ClientLimiterStore clientLimiters, HeavyHitterDetector heavyHitters,
+                   RejectionCounters rejections) {
+        this.generation = generation;
+        this.routeId = routeId;
+        this.backendName = backendName;
+        this.globalQpsLimiter = globalQpsLimiter;
+        this.globalConnectionLimiter = globalConnectionLimiter;
+        this.routeLimiter = routeLimiter;
+        this.backendLimiter = backendLimiter;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.clientMaxQps = clientMaxQps;
+        this.clientBurst = clientBurst;
+        this.clientMaxConnections = clientMaxConnections;
+        this.clientMaxBytesPerSecond = clientMaxBytesPerSecond;
+        this.sharedBandwidthLimiters = Arrays.stream(new BandwidthLimiter[]{
+                        globalBandwidthLimiter,
+                        routeLimiter != null ? routeLimiter.getBandwidthLimiter() : null,
+                        backendLimiter != null ? backendLimiter.getBandwidthLimiter() : null})
+                .filter(Objects::nonNull)
+                .toArray(BandwidthLimiter[]::new);
+        this.clientLimiters = clientLimiters;
+        this.heavyHitters = heavyHitters;
+        this.clientFactory = this::createClientLimiter;
+        AdmissionQueue routeQueue = routeLimiter != null ? routeLimiter.getAdmissionQueue() : null;
+        this.admissionQueue = routeQueue != null ? routeQueue
+                : backendLimiter != null ? backendLimiter.getAdmissionQueue() : null;
+        this.rejections = rejections;
+    }
+
+    /**
+     * Try to acquire QPS permits for a request
+     * Order: global -> route -> backend -> client
+     * @return true if all permits are acquired
+     */
+    public boolean tryAcquire(String clientIp) {
+        Tier refusedBy = acquireQps(clientIp);
+        if (refusedBy != null) {
+            rejectQps(refusedBy, clientIp);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Try to acquire QPS permits without reporting a refusal
+     * The caller reports it with {@link #rejectQps} once the request is actually refused: a request that
+     * waits in an admission queue and is admitted later is not a rejection.
+     * @return null if all permits are acquired, the tier that refused the request otherwise
+     */
+    public Tier acquireQps(String clientIp) {
+        if (!globalQpsLimiter.tryAcquire()) {
+            return Tier.GLOBAL;
+        }
+        if (routeLimiter != null && !routeLimiter.tryAcquireQps()) {
+            return Tier.ROUTE;
+        }
+        if (backendLimiter != null && !backendLimiter.tryAcquireQps()) {
+            return Tier.BACKEND;
+        }
+        ClientRateLimiter clientLimiter = clientQpsLimiter(clientIp);
+        if (clientLimiter != null && !clientLimiter.tryAcquireQps()) {
+            return Tier.CLIENT;
+        }
+        return null;
+    }
+
+    /**
+     * Nanos until every QPS tier has a permit for this client, without taking any
+     * Times the retries of queued requests: nothing is charged, counted or logged.
+     * @return 0 if the request would be admitted now, Long.MAX_VALUE if a tier rejects all requests
+     */
+    public long admissionDelayNanos(String clientIp) {
+        long now = System.nanoTime();
+        long delay = globalQpsLimiter.waitNanos(now);
+        if (routeLimiter != null) {
+            delay = Math.max(delay, routeLimiter.qpsWaitNanos(now));
+        }
+        if (backendLimiter != null) {
+            delay = Math.max(delay, backendLimiter.qpsWaitNanos(now));
+        }
+        ClientRateLimiter clientLimiter = queuedClientLimiter(clientIp);
+        if (clientLimiter != null) {
+            delay = Math.max(delay, clientLimiter.qpsWaitNanos(now));
+        }
+        return delay;
+    }
+
+    /**
+     * Acquire QPS permits for a queued request, from every tier or from none
+     * Unlike {@link #tryAcquire}, a refusal gives back the permits of the tiers already passed and is
+     * neither counted nor logged: the request is reported once, if it times out.
+     * @return true if all permits are acquired
+     */
+    public boolean tryAcquireQueued(String clientIp) {
+        if (!globalQpsLimiter.tryAcquire()) {
+            return false;
+        }
+        if (routeLimiter != null && !routeLimiter.tryAcquireQps()) {
+            globalQpsLimiter.refund();
+            return false;
+        }
+        if (backendLimiter != null && !backendLimiter.tryAcquireQps()) {
+            refundQps(false);
+            return false;
+        }
+        ClientRateLimiter clientLimiter = queuedClientLimiter(clientIp);
+        if (clientLimiter != null && !clientLimiter.tryAcquireQps()) {
+            refundQps(true);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Give back the global and route permits, and the backend permit if it was taken
+     */
+    private void refundQps(boolean backend) {
+        globalQpsLimiter.refund();
+        if (routeLimiter != null) {
+            routeLimiter.refundQps();
+        }
+        if (backend && backendLimiter != null) {
+            backendLimiter.refundQps();
+        }
+    }
+
+    /**
+     * Client limiter of a queued request, without recording it in the sketch again
+     */
+    private ClientRateLimiter queuedClientLimiter(String clientIp) {
+        if (heavyHitters != null) {
+            return withCurrentLimits(clientIp, clientLimiters.get(clientIp));
+        }
+        return withCurrentLimits(clientIp, clientLimiters.getOrCreate(clientIp, clientFactory));
+    }
+
+    /**
+     * Count, record and log a request refused by a QPS tier
+     */
+    public void rejectQps(Tier tier, String clientIp) {
+        rejections.qpsRejected(tier);
+        RateLimitRejectedEvent.commit("qps", tier.getLabel(), routeId, backendName, clientIp);
+        switch (tier) {
+            case GLOBAL -> log.warn("Global QPS limit exceeded or rejected");
+            case ROUTE -> log.warn("Route-level QPS limit exceeded for: {}", routeId);
+            case BACKEND -> log.warn("Backend-level QPS limit exceeded for: {}", backendName);
+            case CLIENT -> log.warn("Client-level QPS limit exceeded for: {}", clientIp);
+        }
+    }
+
+    private void rejectConnection(Tier tier, String clientIp) {
+        rejections.connectionRejected(tier);
+        RateLimitRejectedEvent.commit("connections", tier.getLabel(), routeId, backendName, clientIp);
+    }
+
+    /**
+     * Try to acquire connection permits for a new ProxyConnection
+     * Permits already taken are given back when a later tier rejects.
+     * @return the acquired permits, null if a limit is exceeded
+     */
+    public ConnectionPermits tryAcquireConnection(String clientIp) {
+        if (!globalConnectionLimiter.tryAcquire()) {
+            rejectConnection(Tier.GLOBAL, clientIp);
+            log.warn("Global connection limit exceeded or rejected");
+            return null;
+        }
+
+        if (routeLimiter != null && !routeLimiter.tryAcquireConnection()) {
+            rejectConnection(Tier.ROUTE, clientIp);
+            log.warn("Route-level connection limit exceeded for: {}", routeId);
+            globalConnectionLimiter.release();
+            return null;
+        }
+
+        if (backendLimiter != null && !backendLimiter.tryAcquireConnection()) {
+            rejectConnection(Tier.BACKEND, clientIp);
+            log.warn("Backend-level connection limit exceeded for: {}", backendName);
+            globalConnectionLimiter.release();
+            if (routeLimiter != null) {
+                routeLimiter.releaseConnection();
+            }
+            return null;
+        }
+
+        ClientRateLimiter clientLimiter = clientConnectionLimiter(clientIp);
+        if (clientLimiter != null && !clientLimiter.tryAcquireConnection()) {
+            rejectConnection(Tier.CLIENT, clientIp);
+            log.warn("Client-level connection limit exceeded for: {}", clientIp);
+            globalConnectionLimiter.release();
+            if (routeLimiter != null) {
+                routeLimiter.releaseConnection();
+            }
+            if (backendLimiter != null) {
+                backendLimiter.release();
+            }
+            return null;
+        }
+
+        return new ConnectionPermits(globalConnectionLimiter, routeLimiter, backendLimiter, clientLimiter);
+    }
+
+    /**
+     * Try to acquire the route and backend connection permits for a request sent outside its connection's route
+     * The client connection already holds the global and client permits, so only the tiers that depend on
+     * the route are taken.
+     * @return the acquired permits, null if a limit is exceeded
+     */
+    public ConnectionPermits tryAcquireRouteConnection(String clientIp) {
+        if (routeLimiter != null && !routeLimiter.tryAcquireConnection()) {
+            rejectConnection(Tier.ROUTE, clientIp);
+            log.warn("Route-level connection limit exceeded for: {}", routeId);
+            return null;
+        }
+
+        if (backendLimiter != null && !backendLimiter.tryAcquireConnection()) {
+            rejectConnection(Tier.BACKEND, clientIp);
+            log.warn("Backend-level connection limit exceeded for: {}", backendName);
+            if (routeLimiter != null) {
+                routeLimiter.releaseConnection();
+            }
+            return null;
+        }
+
+        return new ConnectionPermits(null, routeLimiter, backendLimiter, null);
+    }
+
+    /**
+     * Bandwidth limiters a response to the client is charged to
+     * Order: global -> route -> backend -> client
+     * @return the limiters, empty if the bandwidth is unlimited
+     */
+    public BandwidthLimiter[] getBandwidthLimiters(String clientIp) {
+        if (clientMaxBytesPerSecond == -1) {
+            return sharedBandwidthLimiters.length > 0 ? sharedBandwidthLimiters : NO_BANDWIDTH_LIMITERS;
+        }
+        ClientRateLimiter clientLimiter = withCurrentLimits(clientIp, clientLimiters.getOrCreate(clientIp, clientFactory));
+        BandwidthLimiter clientBandwidth = clientLimiter.getBandwidthLimiter();
+        if (clientBandwidth == null) {
+            return sharedBandwidthLimiters;
+        }
+        BandwidthLimiter[] limiters = Arrays.copyOf(sharedBandwidthLimiters, sharedBandwidthLimiters.length + 1);
+        limiters[sharedBandwidthLimiters.length] = clientBandwidth;
+        return limiters;
+    }
+
+    /**
+     * Client limiter for the QPS check, null when the client needs none
+     * In approximate mode every request is counted by the sketch and an exact limiter is only created
+     * once the decayed count exceeds the limit, i.e. when the client sends more than about half of it.
+     */
+    private ClientRateLimiter clientQpsLimiter(String clientIp) {
+        HeavyHitterDetector detector = heavyHitters;
+        if (detector == null) {
+            return withCurrentLimits(clientIp, clientLimiters.getOrCreate(clientIp, clientFactory));
+        }
+        int count = detector.record(clientIp);
+        ClientRateLimiter existing = clientLimiters.get(clientIp);
+        if (existing != null) {
+            return withCurrentLimits(clientIp, existing);
+        }
+        if (clientMaxQps == -1 || (clientMaxQps > 0 && count <= clientMaxQps)) {
+            return null;
+        }
+        return withCurrentLimits(clientIp, clientLimiters.getOrCreate(clientIp, clientFactory));
+    }
+
+    /**
+     * Client limiter for the connection check, null when the client needs none
+     * In approximate mode limiters are only created for a per-client connection limit.
+     */
+    private ClientRateLimiter clientConnectionLimiter(String clientIp) {
+        if (heavyHitters != null && clientMaxConnections == -1) {
+            return withCurrentLimits(clientIp, clientLimiters.get(clientIp));
+        }
+        return withCurrentLimits(clientIp, clientLimiters.getOrCreate(clientIp, clientFactory));
+    }
+
+    /**
+     * Bring a client limiter created under an older configuration up to this chain's limits
+     * Runs once per limiter and reload: a limiter whose limits changed is replaced by one that keeps its
+     * QPS state and shares its connection count, others are only marked as checked.
+     */
+    private ClientRateLimiter withCurrentLimits(String clientIp, ClientRateLimiter limiter) {
+        if (limiter == null || limiter.getLimitsGeneration() >= generation) {
+            return limiter;
+        }
+        if (limiter.hasLimits(clientMaxQps, clientBurst, clientMaxConnections, clientMaxBytesPerSecond)) {
+            limiter.setLimitsGeneration(generation);
+            return limiter;
+        }
+        ClientRateLimiter replacement = new ClientRateLimiter(
+                clientIp, clientMaxQps, clientBurst, clientMaxConnections, clientMaxBytesPerSecond, limiter);
+        replacement.setLimitsGeneration(generation);
+        log.debug("Client limiter for {} reconfigured: {} -> {}", clientIp, limiter, replacement);
+        return clientLimiters.replace(clientIp, limiter, replacement);
+    }
+
+    private ClientRateLimiter createClientLimiter(String clientIp) {
+        log.debug("Creating client limiter for {}: QPS={}, Burst={}, Connections={}, BytesPerSecond={}",
+                clientIp, clientMaxQps == -1 ? "unlimited" : clientMaxQps,
+                clientBurst == -1 ? "default" : clientBurst,
+                clientMaxConnections == -1 ? "unlimited" : clientMaxConnections,
+                clientMaxBytesPerSecond == -1 ? "unlimited" : clientMaxBytesPerSecond);
+        ClientRateLimiter limiter = new ClientRateLimiter(clientIp, clientMaxQps, clientBurst, clientMaxConnections,
+                clientMaxBytesPerSecond, null);
+        limiter.setLimitsGeneration(generation);
+        return limiter;
+    }
+
+    long getGeneration() {
+        return generation;
+    }
+
+    public String getRouteId() {
+        return routeId;
+    }
+
+    public String getBackendName() {
+        return backendName;
+    }
+
+    public RouteRateLimiter getRouteLimiter() {
+        return routeLimiter;
+    }
+
+    public BackendRateLimiter getBackendLimiter() {
+        return backendLimiter;
+    }
+
+    /**
+     * @return the adaptive concurrency limiter of the backend, null if it has none
+     */
+    public AdaptiveConcurrencyLimiter getConcurrencyLimiter() {
+        return concurrencyLimiter;
+    }
+
+    /**
+     * @return the queue requests over the limits may wait in, null to reject them at once
+     */
+    public AdmissionQueue getAdmissionQueue() {
+        return admissionQueue;
+    }
+
+    public int getClientMaxQps() {
+        return clientMaxQps;
+    }
+
+    public int getClientBurst() {
+        return clientBurst;
+    }
+
+    public int getClientMaxConnections() {
+        return clientMaxConnections;
+    }
+
+    public long getClientMaxBytesPerSecond() {
+        return clientMaxBytesPerSecond;
+    }
+
+    @Override
+    public String toString() {
+        return "RateLimitChain{" +
+                "routeId='" + routeId + '\'' +
+                ", backendName='" + backendName + '\'' +
+                ", routeLimiter=" + routeLimiter +
+                ", backendLimiter=" + backendLimiter +
+                ", concurrencyLimiter=" + concurrencyLimiter +
+                ", clientMaxQps=" + clientMaxQps +
+                ", clientBurst=" + clientBurst +
+                ", clientMaxConnections=" + clientMaxConnections +
+                ", clientMaxBytesPerSecond=" + clientMaxBytesPerSecond +
+                ", approximate=" + (heavyHitters != null) +
+                '}';
+    }
+}
@@ -1,15 +1,24 @@
 package nextf.nacos.gateway.ratelimit;
 
+import nextf.nacos.gateway.config.AcceptRateConfig;
+import nextf.nacos.gateway.config.AdaptiveConcurrencyConfig;
 import nextf.nacos.gateway.config.BackendConfig;
+import nextf.nacos.gateway.config.ClientLimiterConfig;
 import nextf.nacos.gateway.config.GatewayConfig;
 import nextf.nacos.gateway.config.RateLimitConfig;
 import nextf.nacos.gateway.config.RouteConfig;
 import nextf.nacos.gateway.proxy.ProxyConnection;
+import nextf.nacos.gateway.route.Route;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -18,6 +27,12 @@ import java.util.concurrent.atomic.AtomicReference;
  * 2. Route limits (route level)
  * 3. Backend limits (backend service group level)
  * 4. Client limits (per-client, can be overridden by route/backend config)
+ * Backends may in addition bound their in-flight requests with an {@link AdaptiveConcurrencyLimiter}.
+ * Global, route, backend and client tiers may also limit response bandwidth with {@link BandwidthLimiter}s.
+ * New connections are rate limited globally and per client IP by an {@link AcceptRateLimiter} when accepted.
+ *
+ * The limiters of a route are resolved into a {@link RateLimitChain} cached on the Route, and connections
+ * keep the {@link ConnectionPermits} they acquired, so neither path looks limiters up per request.
  */
 public class RateLimitManager {
 
@@ -26,15 +41,26 @@ public class RateLimitManager {
     // Global limiters
     private final AtomicReference<QpsRateLimiter> globalQpsLimiter;
     private final AtomicReference<ConnectionRateLimiter> globalConnectionLimiter;
+    // Null while the global bandwidth is unlimited
+    private final AtomicReference<BandwidthLimiter> globalBandwidthLimiter;
 
     // Backend-level limiters
     private final Map<String, BackendRateLimiter> backendLimiters = new ConcurrentHashMap<>();
 
+    // Backend-level adaptive concurrency limiters, for backends that enable them
+    private final Map<String, AdaptiveConcurrencyLimiter> concurrencyLimiters = new ConcurrentHashMap<>();
+
     // Route-level limiters
     private final Map<String, RouteRateLimiter> routeRateLimiters = new ConcurrentHashMap<>();
 
-    // Client-level limiters (identified by client IP)
-    private final Map<String, ClientRateLimiter> clientLimiters = new ConcurrentHashMap<>();
+    // Client-level limiters (identified by client IP), bounded and expiring
+    private final ClientLimiterStore clientLimiters;
+
+    // New connection rate limits, null while unlimited
+    private volatile AcceptRateLimiter acceptRateLimiter;
+
+    // Heavy-hitter sketch, non-null in approximate per-client mode only
+    private volatile HeavyHitterDetector heavyHitters;
 
     // Backend client rate limit configurations (for overriding server defaults)
     private final Map<String, RateLimitConfig> backendRateLimitConfigs = new ConcurrentHashMap<>();
@@ -45,6 +71,12 @@ public class RateLimitManager {
     // Server-level configuration
     private final AtomicReference<RateLimitConfig> serverRateLimitConfig;
 
+    // Rejections by tier, shared by all chains
+    private final RejectionCounters rejections = new RejectionCounters();
+
+    // Bumped after every limiter or configuration change, chains of older generations are rebuilt on use
+    private final AtomicLong generation = new AtomicLong();
+
     public RateLimitManager(GatewayConfig config) {
         // Get server-level rate limit config (from server.rateLimit section)
         RateLimitConfig serverConfig = config.getServer() != null
@@ -56,10 +88,19 @@ public class RateLimitManager {
             serverConfig = new RateLimitConfig();
         }
 
+        ClientLimiterConfig clientLimiterConfig = config.getServer() != null
+                ? config.getServer().getClientLimiters()
+                : null;
+        this.clientLimiters = new ClientLimiterStore(clientLimiterConfig);
+        this.heavyHitters = createHeavyHitterDetector(clientLimiterConfig, null);
+        this.acceptRateLimiter = AcceptRateLimiter.of(
+                config.getServer() != null ? config.getServer().getAcceptRate() : null, null);
+
         // Use AtomicReference to support hot reload
         this.serverRateLimitConfig = new AtomicReference<>(serverConfig);
-        this.globalQpsLimiter = new AtomicReference<>(new QpsRateLimiter(serverConfig.getMaxQps()));
+        this.globalQpsLimiter = new AtomicReference<>(QpsRateLimiter.of(serverConfig));
         this.globalConnectionLimiter = new AtomicReference<>(new ConnectionRateLimiter(serverConfig.getMaxConnections()));
+        this.globalBandwidthLimiter = new AtomicReference<>(BandwidthLimiter.of(serverConfig.getMaxBytesPerSecond(), null));
 
         log.info("Rate limit initialized: global QPS={}, global connections={}, per-client QPS={}, per-client connections={}",
                 serverConfig.getMaxQps() == -1 ? "unlimited" : serverConfig.getMaxQps(),
@@ -71,114 +112,140 @@ public class RateLimitManager {
     /**
      * Try to acquire permits for a request (QPS only, no connection check)
      * Connection limit should be checked separately when creating a new ProxyConnection
-     * @param backendName backend service name
+     * @param route matched route, its resolved limiter chain is used
      * @param clientIp client IP address
-     * @param routeId route identifier (Route.getId())
      * @return true if QPS permits are acquired, false otherwise
      */
-    public boolean tryAcquire(String backendName, String clientIp, String routeId) {
-        // 1. Check global QPS limit (handles -1 as unlimited, 0 as rejected)
-        if (!globalQpsLimiter.get().tryAcquire()) {
-            log.warn("Global QPS limit exceeded or rejected");
-            return false;
-        }
+    public boolean tryAcquire(Route route, String clientIp) {
+        return getRateLimitChain(route).tryAcquire(clientIp);
+    }
 
-        // 2. Check route-level QPS limits
-        if (routeId != null) {
-            RouteRateLimiter routeLimiter = routeRateLimiters.get(routeId);
-            if (routeLimiter != null) {
-                if (!routeLimiter.tryAcquireQps()) {
-                    log.warn("Route-level QPS limit exceeded for: {}", routeId);
-                    return false;
-                }
-            }
-        }
+    /**
+     * Try to acquire QPS permits for a request that may wait in an admission queue
+     * A refusal is not reported, the caller reports it with {@link #rejectQps} once the request is answered
+     * with 429 (queue full or timed out).
+     * @param route matched route, its resolved limiter chain is used
+     * @param clientIp client IP address
+     * @return null if QPS permits are acquired, the tier that refused the request otherwise
+     */
+    public RejectionCounters.Tier acquireQps(Route route, String clientIp) {
+        return getRateLimitChain(route).acquireQps(clientIp);
+    }
 
-        // 3. Check backend QPS limits (if configured)
-        BackendRateLimiter backendLimiter = backendLimiters.get(backendName);
-        if (backendLimiter != null) {
-            if (!backendLimiter.tryAcquireQps()) {
-                log.warn("Backend-level QPS limit exceeded for: {}", backendName);
-                return false;
-            }
-        }
+    /**
+     * Count, record and log a request of the route refused by a QPS tier
+     * @param tier tier returned by {@link #acquireQps}
+     */
+    public void rejectQps(Route route, RejectionCounters.Tier tier, String clientIp) {
+        getRateLimitChain(route).rejectQps(tier, clientIp);
+    }
 
-        // 4. Check client QPS limits (respects cascading: Route -> Backend -> Server -> -1)
-        ClientRateLimiter clientLimiter = getOrCreateClientLimiter(clientIp, backendName, routeId);
-        if (!clientLimiter.tryAcquireQps()) {
-            log.warn("Client-level QPS limit exceeded for: {}", clientIp);
-            return false;
-        }
+    /**
+     * Nanos until a queued request of the route would get all its QPS permits, nothing is taken
+     * @param route matched route
+     * @param clientIp client IP address
+     * @return 0 if it would be admitted now, Long.MAX_VALUE if a limit rejects all requests
+     */
+    public long getAdmissionDelayNanos(Route route, String clientIp) {
+        return getRateLimitChain(route).admissionDelayNanos(clientIp);
+    }
 
-        return true;
+    /**
+     * Retry a queued request: takes the QPS permits of every tier or of none, a refusal is not
+     * reported as a rejection
+     * @param route matched route
+     * @param clientIp client IP address
+     * @return true if QPS permits are acquired
+     */
+    public boolean tryAcquireQueued(Route route, String clientIp) {
+        return getRateLimitChain(route).tryAcquireQueued(clientIp);
     }
 
     /**
-     * Try to acquire connection permits (called when creating a new ProxyConnection)
+     * Try to acquire permits for a request without a Route (resolves the chain on every call)
      * @param backendName backend service name
      * @param clientIp client IP address
      * @param routeId route identifier (Route.getId())
-     * @return true if connection permits are acquired, false otherwise
+     * @return true if QPS permits are acquired, false otherwise
      */
-    public boolean tryAcquireConnection(String backendName, String clientIp, String routeId) {
-        // 1. Check global connection limit (handles -1 as unlimited, 0 as rejected)
-        if (!globalConnectionLimiter.get().tryAcquire()) {
-            log.warn("Global connection limit exceeded or rejected");
-            return false;
-        }
+    public boolean tryAcquire(String backendName, String clientIp, String routeId) {
+        return buildChain(routeId, backendName).tryAcquire(clientIp);
+    }
 
-        // 2. Check route-level connection limits
-        if (routeId != null) {
-            RouteRateLimiter routeLimiter = routeRateLimiters.get(routeId);
-            if (routeLimiter != null) {
-                if (!routeLimiter.tryAcquireConnection()) {
-                    log.warn("Route-level connection limit exceeded for: {}", routeId);
-                    globalConnectionLimiter.get().release();
-                    return false;
-                }
-            }
-        }
+    /**
+     * Try to acquire connection permits (called when creating a new ProxyConnection)
+     * @param route route of the connection
+     * @param clientIp client IP address
+     * @return the acquired permits, to be kept by the connection and released when it closes,
+     *         null if a connection limit is exceeded
+     */
+    public ConnectionPermits tryAcquireConnection(Route route, String clientIp) {
+        return getRateLimitChain(route).tryAcquireConnection(clientIp);
+    }
 
-        // 3. Check backend connection limits (if configured)
-        BackendRateLimiter backendLimiter = backendLimiters.get(backendName);
-        if (backendLimiter != null) {
-            if (!backendLimiter.tryAcquireConnection()) {
-                log.warn("Backend-level connection limit exceeded for: {}", backendName);
-                globalConnectionLimiter.get().release();
-                // Release route connection permit
-                if (routeId != null) {
-                    RouteRateLimiter routeLimiter = routeRateLimiters.get(routeId);
-                    if (routeLimiter != null) {
-                        routeLimiter.releaseConnection();
-                    }
-                }
-                return false;
-            }
-        }
+    /**
+     * Try to acquire the route and backend connection permits of a request routed away from its connection's backend
+     * @param route matched route of the request
+     * @param clientIp client IP address
+     * @return the acquired permits, to be released when the request completes, null if a limit is exceeded
+     */
+    public ConnectionPermits tryAcquireRouteConnection(Route route, String clientIp) {
+        return getRateLimitChain(route).tryAcquireRouteConnection(clientIp);
+    }
+
+    /**
+     * @param route matched route
+     * @param clientIp client IP address
+     * @return the bandwidth limiters the response is charged to, empty if the bandwidth is unlimited
+     */
+    public BandwidthLimiter[] getBandwidthLimiters(Route route, String clientIp) {
+        return getRateLimitChain(route).getBandwidthLimiters(clientIp);
+    }
+
+    /**
+     * @param route matched route
+     * @return the queue requests of the route over the limits may wait in, null to reject them at once
+     */
+    public AdmissionQueue getAdmissionQueue(Route route) {
+        return getRateLimitChain(route).getAdmissionQueue();
+    }
+
+    /**
+     * @param route matched route
+     * @return the adaptive concurrency limiter of the route's backend, null if the backend has none
+     */
+    public AdaptiveConcurrencyLimiter getConcurrencyLimiter(Route route) {
+        return getRateLimitChain(route).getConcurrencyLimiter();
+    }
+
+    /**
+     * @return the adaptive concurrency limiters of all backends, for metrics
+     */
+    public List<AdaptiveConcurrencyLimiter> getConcurrencyLimiters() {
+        return new ArrayList<>(concurrencyLimiters.values());
+    }
 
-        // 4. Check client connection limits
-        ClientRateLimiter clientLimiter = getOrCreateClientLimiter(clientIp, backendName, routeId);
-        if (!clientLimiter.tryAcquireConnection()) {
-            log.warn("Client-level connection limit exceeded for: {}", clientIp);
-            globalConnectionLimiter.get().release();
-            // Release route connection permit
-            if (routeId != null) {
-                RouteRateLimiter routeLimiter = routeRateLimiters.get(routeId);
-                if (routeLimiter != null) {
-                    routeLimiter.releaseConnection();
-                }
+    /**
+     * @return the admission queues of all routes and backends, for metrics
+     */
+    public List<AdmissionQueue> getAdmissionQueues() {
+        List<AdmissionQueue> queues = new ArrayList<>();
+        for (RouteRateLimiter limiter : routeRateLimiters.values()) {
+            if (limiter.getAdmissionQueue() != null) {
+                queues.add(limiter.getAdmissionQueue());
             }
-            if (backendLimiter != null) {
-                backendLimiter.release();
+        }
+        for (BackendRateLimiter limiter : backendLimiters.values()) {
+            if (limiter.getAdmissionQueue() != null) {
+                queues.add(limiter.getAdmissionQueue());
             }
-            return false;
         }
-
-        return true;
+        return queues;
     }
 
     /**
      * Release connection permits (called when ProxyConnection is closed)
+     * Permits go back to the limiters they were taken from, even if a reload replaced them since.
      * @param proxyConnection the proxy connection being closed
      */
     public void releaseConnection(ProxyConnection proxyConnection) {
@@ -186,109 +253,123 @@ public class RateLimitManager {
             log.warn("Attempted to release permits for null ProxyConnection");
             return;
         }
-
-        String backendName = proxyConnection.getBackend().getName();
-        String clientIp = proxyConnection.getClientIp();
-        String routeId = proxyConnection.getRoute() != null ? proxyConnection.getRoute().getId() : null;
-
-        // Release global connection permit
-        globalConnectionLimiter.get().release();
-
-        // Release route-level connection permit
-        if (routeId != null) {
-            RouteRateLimiter routeLimiter = routeRateLimiters.get(routeId);
-            if (routeLimiter != null) {
-                routeLimiter.releaseConnection();
-            }
+        ConnectionPermits permits = proxyConnection.getConnectionPermits();
+        if (permits != null) {
+            permits.release();
         }
+    }
 
-        // Release backend connection permit
-        BackendRateLimiter backendLimiter = backendLimiters.get(backendName);
-        if (backendLimiter != null) {
-            backendLimiter.release();
+    /**
+     * Get the limiter chain of a route, resolving it again if the configuration changed since it was built
+     * @param route matched route
+     * @return the chain, cached on the route
+     */
+    public RateLimitChain getRateLimitChain(Route route) {
+        RateLimitChain chain = route.getRateLimitChain();
+        if (chain == null || chain.getGeneration() != generation.get()) {
+            chain = buildChain(route.getId(), route.getBackendName());
+            route.setRateLimitChain(chain);
         }
+        return chain;
+    }
 
-        // Release client connection permit and cleanup if no active connections
-        ClientRateLimiter clientLimiter = clientLimiters.get(clientIp);
-        if (clientLimiter != null) {
-            clientLimiter.release();
-
-            // Clean up client limiter if all connections are closed
-            if (clientLimiter.getCurrentConnections() == 0) {
-                clientLimiters.remove(clientIp);
-                log.debug("Removed client rate limiter for {} (no active connections)", clientIp);
-            }
+    /**
+     * Resolve the limiter chains of all routes (at config load and after each reload),
+     * so that the first request of a route does not pay for it
+     * @param routes routes currently in the registry
+     */
+    public void bindRoutes(Collection<Route> routes) {
+        for (Route route : routes) {
+            getRateLimitChain(route);
         }
+        log.debug("Resolved rate limit chains for {} routes, generation {}", routes.size(), generation.get());
     }
 
     /**
-     * Get or create client rate limiter with proper config resolution
-     * Cascading: Route (!= -1) -> Backend (!= -1) -> Server (!= -1) -> -1 (no limit)
+     * Build the chain of a route from the current limiters and configurations
+     * Client limits cascade: Route (!= -1) -> Backend (!= -1) -> Server (!= -1) -> -1 (no limit)
      */
-    private ClientRateLimiter getOrCreateClientLimiter(String clientIp, String backendName, String routeId) {
-        return clientLimiters.computeIfAbsent(clientIp, ip -> {
-            RateLimitConfig serverConfig = serverRateLimitConfig.get();
-            RateLimitConfig backendConfig = backendRateLimitConfigs.get(backendName);
-            RateLimitConfig routeConfig = routeRateLimitConfigs.get(routeId);
-
-            // Cascading: Route (!= -1) -> Backend (!= -1) -> Server (!= -1) -> -1 (no limit)
-
-            // QPS limit
-            int maxQps;
-            if (routeConfig != null && routeConfig.isQpsPerClientLimited()) {
-                maxQps = routeConfig.getMaxQpsPerClient();
-            } else if (backendConfig != null && backendConfig.isQpsPerClientLimited()) {
-                maxQps = backendConfig.getMaxQpsPerClient();
-            } else if (serverConfig.isQpsPerClientLimited()) {
-                maxQps = serverConfig.getMaxQpsPerClient();
-            } else {
-                maxQps = -1;
-            }
+    private RateLimitChain buildChain(String routeId, String backendName) {
+        // Read the generation first: an update racing with this build makes the chain stale, never wrong
+        long currentGeneration = generation.get();
+
+        RateLimitConfig routeConfig = routeId != null ? routeRateLimitConfigs.get(routeId) : null;
+        RateLimitConfig backendConfig = backendName != null ? backendRateLimitConfigs.get(backendName) : null;
+        RateLimitConfig serverConfig = serverRateLimitConfig.get();
+
+        // QPS limit, burst comes from the same tier as the QPS limit
+        RateLimitConfig qpsConfig = null;
+        if (routeConfig != null && routeConfig.isQpsPerClientLimited()) {
+            qpsConfig = routeConfig;
+        } else if (backendConfig != null && backendConfig.isQpsPerClientLimited()) {
+            qpsConfig = backendConfig;
+        } else if (serverConfig.isQpsPerClientLimited()) {
+            qpsConfig = serverConfig;
+        }
 
-            // Connections limit
-            int maxConns;
-            if (routeConfig != null && routeConfig.isConnectionsPerClientLimited()) {
-                maxConns = routeConfig.getMaxConnectionsPerClient();
-            } else if (backendConfig != null && backendConfig.isConnectionsPerClientLimited()) {
-                maxConns = backendConfig.getMaxConnectionsPerClient();
-            } else if (serverConfig.isConnectionsPerClientLimited()) {
-                maxConns = serverConfig.getMaxConnectionsPerClient();
-            } else {
-                maxConns = -1;
-            }
+        int maxConns = -1;
+        if (routeConfig != null && routeConfig.isConnectionsPerClientLimited()) {
+            maxConns = routeConfig.getMaxConnectionsPerClient();
+        } else if (backendConfig != null && backendConfig.isConnectionsPerClientLimited()) {
+            maxConns = backendConfig.getMaxConnectionsPerClient();
+        } else if (serverConfig.isConnectionsPerClientLimited()) {
+            maxConns = serverConfig.getMaxConnectionsPerClient();
+        }
 
-            log.debug("Creating client limiter for {}: QPS={}, Connections={}",
-                    ip, maxQps == -1 ? "unlimited" : maxQps,
-                    maxConns == -1 ? "unlimited" : maxConns);
+        long maxBytes = -1;
+        if (routeConfig != null && routeConfig.isBytesPerClientLimited()) {
+            maxBytes = routeConfig.getMaxBytesPerSecondPerClient();
+        } else if (backendConfig != null && backendConfig.isBytesPerClientLimited()) {
+            maxBytes = backendConfig.getMaxBytesPerSecondPerClient();
+        } else if (serverConfig.isBytesPerClientLimited()) {
+            maxBytes = serverConfig.getMaxBytesPerSecondPerClient();
+        }
 
-            return new ClientRateLimiter(ip, maxQps, maxConns);
-        });
+        return new RateLimitChain(currentGeneration, routeId, backendName,
+                globalQpsLimiter.get(), globalConnectionLimiter.get(),
+                routeId != null ? routeRateLimiters.get(routeId) : null,
+                backendName != null ? backendLimiters.get(backendName) : null,
+                backendName != null ? concurrencyLimiters.get(backendName) : null,
+                globalBandwidthLimiter.get(),
+                qpsConfig != null ? qpsConfig.getMaxQpsPerClient() : -1,
+                qpsConfig != null ? qpsConfig.getBurstPerClient() : -1,
+                maxConns, maxBytes, clientLimiters, heavyHitters, rejections);
     }
 
     /**
      * Add or update backend-level rate limiter
      */
     public void updateBackendLimiter(String backendName, BackendConfig backendConfig) {
+        updateConcurrencyLimiter(backendName, backendConfig.getAdaptiveConcurrency());
+
         RateLimitConfig rateLimit = backendConfig.getRateLimit();
 
         // If config is default (all -1), treat as "not configured" and remove limiter
         if (rateLimit == null || rateLimit.isDefaultUnlimited()) {
             backendLimiters.remove(backendName);
             backendRateLimitConfigs.remove(backendName);
+            generation.incrementAndGet();
             log.info("Removed backend rate limiter for {} (no limit configured)", backendName);
             return;
         }
 
-        // Update backend-level rate limiter
-        BackendRateLimiter limiter = new BackendRateLimiter(
-                backendName,
-                rateLimit.getMaxQps(),
-                rateLimit.getMaxConnections()
-        );
+        // Unchanged limits keep the live limiter
+        if (configEquals(backendRateLimitConfigs.get(backendName), rateLimit)) {
+            backendRateLimitConfigs.put(backendName, rateLimit);
+            log.debug("Backend rate limit for {} unchanged, keeping limiter state", backendName);
+            return;
+        }
+
+        // Update backend-level rate limiter, carrying over the state of the one it replaces
+        BackendRateLimiter previous = backendLimiters.get(backendName);
+        BackendRateLimiter limiter = previous != null
+                ? new BackendRateLimiter(backendName, rateLimit, previous)
+                : new BackendRateLimiter(backendName, rateLimit);
         backendLimiters.put(backendName, limiter);
 
         // Store backend rate limit config for client limiter creation
         backendRateLimitConfigs.put(backendName, rateLimit);
+        generation.incrementAndGet();
 
         log.info("Updated backend rate limiter for {}: QPS={}, Connections={}, ClientQPS={}, ClientConns={}",
                 backendName,
@@ -298,6 +379,34 @@ public class RateLimitManager {
                 rateLimit.getMaxConnectionsPerClient() == -1 ? "unlimited" : rateLimit.getMaxConnectionsPerClient());
     }
 
+    /**
+     * Add, update or remove the adaptive concurrency limiter of a backend
+     * A changed configuration carries over the current limit and in-flight count of the limiter it replaces.
+     */
+    private void updateConcurrencyLimiter(String backendName, AdaptiveConcurrencyConfig config) {
+        AdaptiveConcurrencyLimiter previous = concurrencyLimiters.get(backendName);
+        if (config == null || !config.isEnabled()) {
+            if (previous != null) {
+                concurrencyLimiters.remove(backendName);
+                generation.incrementAndGet();
+                log.info("Removed adaptive concurrency limiter for {}", backendName);
+            }
+            return;
+        }
+        if (previous != null && previous.hasConfig(config)) {
+            return;
+        }
+
+        AdaptiveConcurrencyLimiter limiter = previous != null
+                ? new AdaptiveConcurrencyLimiter(backendName, config, previous)
+                : new AdaptiveConcurrencyLimiter(backendName, config);
+        concurrencyLimiters.put(backendName, limiter);
+        generation.incrementAndGet();
+
+        log.info("Updated adaptive concurrency limiter for {}: limit={}, min={}, max={}, window={}ms",
+                backendName, limiter.getLimit(), config.getMinLimit(), config.getMaxLimit(), config.getWindowMillis());
+    }
+
     /**
      * Add or update route-level rate limit configuration
      * @param routeId route identifier (Route.getId())
@@ -310,19 +419,26 @@ public class RateLimitManager {
         if (rateLimit == null || rateLimit.isDefaultUnlimited()) {
             routeRateLimiters.remove(routeId);
             routeRateLimitConfigs.remove(routeId);
+            generation.incrementAndGet();
             log.info("Removed route rate limiter for {} (no limit configured)", routeId);
             return;
         }
 
-        // Create RouteRateLimiter instance
-        RouteRateLimiter limiter = new RouteRateLimiter(routeId, rateLimit);
+        // Unchanged limits keep the live limiter
+        if (configEquals(routeRateLimitConfigs.get(routeId), rateLimit)) {
+            routeRateLimitConfigs.put(routeId, rateLimit);
+            log.debug("Route rate limit for {} unchanged, keeping limiter state", routeId);
+            return;
+        }
+
+        // Create RouteRateLimiter instance, carrying over the state of the one it replaces
+        RouteRateLimiter limiter = new RouteRateLimiter(routeId, rateLimit, routeRateLimiters.get(routeId));
         routeRateLimiters.put(routeId, limiter);
 
-        // Store route rate limit config for client limiter creation
+        // Store route rate limit config for client limiter creation,
+        // client limiters pick up changed per-client limits on their next use
         routeRateLimitConfigs.put(routeId, rateLimit);
-
-        // Clear client limiters that use this route
-        clearClientLimiters();
+        generation.incrementAndGet();
 
         log.info("Created route rate limiter for {}: QPS={}, Connections={}, ClientQPS={}, ClientConns={}",
                 routeId,
@@ -353,14 +469,14 @@ public class RateLimitManager {
         }
 
         try {
-            // 1. Create new QPS limiter (accept counter reset)
-            QpsRateLimiter newQpsLimiter = new QpsRateLimiter(newConfig.getMaxQps());
+            // 1. Keep the QPS limiter if its settings are unchanged, otherwise carry its state over
+            QpsRateLimiter newQpsLimiter = QpsRateLimiter.of(newConfig, globalQpsLimiter.get());
 
-            // 2. Create new connection limiter (preserve current connection count)
+            // 2. Create new connection limiter sharing the current connection count,
+            //    so permits held by existing connections are released against the new limit too
             ConnectionRateLimiter oldConnLimiter = globalConnectionLimiter.get();
             int currentConns = oldConnLimiter.getCurrentConnections();
-            ConnectionRateLimiter newConnLimiter = new ConnectionRateLimiter(newConfig.getMaxConnections());
-            newConnLimiter.setCurrentConnections(currentConns);
+            ConnectionRateLimiter newConnLimiter = oldConnLimiter.withMaxConnections(newConfig.getMaxConnections());
 
             // 3. Check if connection limit is being tightened
             if (newConfig.getMaxConnections() < currentConns) {
@@ -369,10 +485,16 @@ public class RateLimitManager {
                         newConfig.getMaxConnections(), currentConns);
             }
 
-            // 4. Atomic replacement
+            // 4. Keep or carry over the bandwidth limiter state
+            BandwidthLimiter newBandwidthLimiter = BandwidthLimiter.of(newConfig.getMaxBytesPerSecond(),
+                    globalBandwidthLimiter.get());
+
+            // 5. Atomic replacement
             serverRateLimitConfig.set(newConfig);
             globalQpsLimiter.set(newQpsLimiter);
             globalConnectionLimiter.set(newConnLimiter);
+            globalBandwidthLimiter.set(newBandwidthLimiter);
+            generation.incrementAndGet();
 
             log.info("Server rate limit config updated: QPS {} -> {}, Connections {} -> {}, " +
                             "Per-client QPS {} -> {}, Per-client connections {} -> {}",
@@ -402,23 +524,161 @@ public class RateLimitManager {
         return c1.getMaxQps() == c2.getMaxQps() &&
                 c1.getMaxConnections() == c2.getMaxConnections() &&
                 c1.getMaxQpsPerClient() == c2.getMaxQpsPerClient() &&
-                c1.getMaxConnectionsPerClient() == c2.getMaxConnectionsPerClient();
+                c1.getMaxConnectionsPerClient() == c2.getMaxConnectionsPerClient() &&
+                c1.getBurst() == c2.getBurst() &&
+                c1.getBurstPerClient() == c2.getBurstPerClient() &&
+                c1.getMaxBytesPerSecond() == c2.getMaxBytesPerSecond() &&
+                c1.getMaxBytesPerSecondPerClient() == c2.getMaxBytesPerSecondPerClient() &&
+                c1.isStriped() == c2.isStriped() &&
+                c1.getLeaseSize() == c2.getLeaseSize() &&
+                c1.getLeaseMillis() == c2.getLeaseMillis() &&
+                c1.getQueueDepth() == c2.getQueueDepth() &&
+                c1.getQueueTimeoutMillis() == c2.getQueueTimeoutMillis();
+    }
+
+    /**
+     * Drop the limiters of backends that are no longer configured (hot reload)
+     * @param backendNames names of the configured backends
+     */
+    public void retainBackendLimiters(Set<String> backendNames) {
+        if (backendLimiters.keySet().retainAll(backendNames) | backendRateLimitConfigs.keySet().retainAll(backendNames)
+                | concurrencyLimiters.keySet().retainAll(backendNames)) {
+            generation.incrementAndGet();
+            log.info("Removed rate limiters of deleted backends, {} left", backendLimiters.size());
+        }
+    }
+
+    /**
+     * Drop the limiters of routes that are no longer configured (hot reload)
+     * @param routeIds identifiers of the configured routes
+     */
+    public void retainRouteLimiters(Set<String> routeIds) {
+        if (routeRateLimiters.keySet().retainAll(routeIds) | routeRateLimitConfigs.keySet().retainAll(routeIds)) {
+            generation.incrementAndGet();
+            log.info("Removed rate limiters of deleted routes, {} left", routeRateLimiters.size());
+        }
     }
 
     /**
      * Clear all existing route rate limit configurations
-     * Called when routes are updated
+     * Drops their state, reloads use {@link #retainRouteLimiters} instead
      */
     public void clearRouteLimiters() {
         int count = routeRateLimiters.size();
         routeRateLimiters.clear();
         routeRateLimitConfigs.clear();
+        generation.incrementAndGet();
         log.info("Cleared {} route rate limiters", count);
     }
 
+    /**
+     * Apply new bounds to the client limiter store (hot reload support)
+     * @param config the new store configuration (null means defaults)
+     */
+    public void updateClientLimiterConfig(ClientLimiterConfig config) {
+        clientLimiters.configure(config);
+        HeavyHitterDetector previous = heavyHitters;
+        heavyHitters = createHeavyHitterDetector(config, previous);
+        if (heavyHitters != previous) {
+            generation.incrementAndGet();
+        }
+        log.info("Client limiter store updated: maxSize={}, idleSeconds={}, approximate={}",
+                clientLimiters.getMaxSize(), clientLimiters.getIdleSeconds(), heavyHitters != null);
+    }
+
+    /**
+     * Apply a new connection rate limit configuration (hot reload support)
+     * The global bucket is carried over, per-client buckets are kept unless the per-client rate changed.
+     * @param config the new configuration (null means unlimited)
+     */
+    public void updateAcceptRateConfig(AcceptRateConfig config) {
+        AcceptRateLimiter previous = acceptRateLimiter;
+        acceptRateLimiter = AcceptRateLimiter.of(config, previous);
+        if (acceptRateLimiter != previous) {
+            log.info("Accept rate limit updated: {}", config);
+        }
+    }
+
+    /**
+     * Check the new connection rate limits for a connection that has just been accepted
+     * @param clientIp client IP address
+     * @return true if the connection may proceed, false if it should be closed
+     */
+    public boolean tryAcceptConnection(String clientIp) {
+        AcceptRateLimiter limiter = acceptRateLimiter;
+        return limiter == null || limiter.tryAccept(clientIp);
+    }
+
+    /**
+     * @return requests and connections refused so far, by tier
+     */
+    public RejectionCounters getRejectionCounters() {
+        return rejections;
+    }
+
+    /**
+     * @return the new connection rate limiter, null while unlimited
+     */
+    public AcceptRateLimiter getAcceptRateLimiter() {
+        return acceptRateLimiter;
+    }
+
+    /**
+     * Create the heavy-hitter sketch for approximate mode, keeping the current one if its size is unchanged
+     * @return the detector, null when approximate mode is off
+     */
+    private static HeavyHitterDetector createHeavyHitterDetector(ClientLimiterConfig config,
+                                                                 HeavyHitterDetector current) {
+        if (config == null || !config.isApproximate()) {
+            return null;
+        }
+        if (current != null && current.hasShape(config.getSketchWidth(), config.getSketchDepth(), config.getTopK())) {
+            return current;
+        }
+        HeavyHitterDetector detector = new HeavyHitterDetector(
+                config.getSketchWidth(), config.getSketchDepth(), config.getTopK());
+        log.info("Approximate per-client rate limiting enabled: sketch {}x{} ({} bytes), top {}",
+                config.getSketchDepth(), detector.getWidth(), detector.getEstimatedMemoryBytes(), config.getTopK());
+        return detector;
+    }
+
+    /**
+     * @return the heavy-hitter sketch, null unless approximate per-client mode is enabled
+     */
+    public HeavyHitterDetector getHeavyHitterDetector() {
+        return heavyHitters;
+    }
+
+    /**
+     * Halve the heavy-hitter sketch counts, called every HeavyHitterDetector.DECAY_PERIOD_MILLIS
+     * Does nothing unless approximate per-client mode is enabled.
+     */
+    public void decayHeavyHitters() {
+        HeavyHitterDetector detector = heavyHitters;
+        if (detector != null) {
+            detector.decay();
+        }
+    }
+
+    /**
+     * Remove idle client limiters and refilled per-client accept rate buckets, called periodically
+     * @return number of removed limiters
+     */
+    public int sweepClientLimiters() {
+        AcceptRateLimiter limiter = acceptRateLimiter;
+        return clientLimiters.sweep() + (limiter != null ? limiter.sweep() : 0);
+    }
+
+    /**
+     * @return the per-client limiter store, for size and memory metrics
+     */
+    public ClientLimiterStore getClientLimiterStore() {
+        return clientLimiters;
+    }
+
     /**
      * Clear all existing client limiters
-     * This can be called when server config is updated to force re-creation with new limits
+     * Drops their QPS state. Not needed on reload: client limiters adopt changed limits on their next use.
      */
     public void clearClientLimiters() {
         int count = clientLimiters.size();
@@ -0,0 +1,54 @@
+package nextf.nacos.gateway.ratelimit;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Requests and connections refused by the rate limits, by the tier that refused them
+ * Shared by all chains of a {@link RateLimitManager}, so the counts survive reloads.
+ */
+public final class RejectionCounters {
+
+    public enum Tier {
+        GLOBAL("global"),
+        ROUTE("route"),
+        BACKEND("backend"),
+        CLIENT("client");
+
+        private final String label;
+
+        Tier(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    private final LongAdder[] qps = newCounters();
+    private final LongAdder[] connections = newCounters();
+
+    private static LongAdder[] newCounters() {
+        LongAdder[] counters = new LongAdder[Tier.values().length];
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new LongAdder();
+        }
+        return counters;
+    }
+
+    void qpsRejected(Tier tier) {
+        qps[tier.ordinal()].increment();
+    }
+
+    void connectionRejected(Tier tier) {
+        connections[tier.ordinal()].increment();
+    }
+
+    public long getQpsRejections(Tier tier) {
+        return qps[tier.ordinal()].sum();
+    }
+
+    public long getConnectionRejections(Tier tier) {
+        return connections[tier.ordinal()].sum();
+    }
+}
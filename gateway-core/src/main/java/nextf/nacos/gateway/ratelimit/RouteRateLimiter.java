@@ -4,7 +4,7 @@ import nextf.nacos.gateway.config.RateLimitConfig;
 
 /**
  * Route-level rate limiter
- * Tracks both QPS and connection limits for a route
+ * Tracks QPS, connection and bandwidth limits for a route
  */
 public class RouteRateLimiter {
 
@@ -14,6 +14,10 @@ public class RouteRateLimiter {
 
     private final QpsRateLimiter qpsLimiter;
     private final ConnectionRateLimiter connectionLimiter;
+    // Null unless the route limits its bandwidth
+    private final BandwidthLimiter bandwidthLimiter;
+    // Null unless the route queues requests over its limits
+    private final AdmissionQueue admissionQueue;
 
     /**
      * Create a new route rate limiter
@@ -21,11 +25,32 @@ public class RouteRateLimiter {
      * @param config the rate limit configuration
      */
     public RouteRateLimiter(String routeId, RateLimitConfig config) {
+        this(routeId, config, null);
+    }
+
+    /**
+     * Create a route rate limiter replacing another one (hot reload)
+     * QPS state is kept or carried over and the connection count is shared with the previous limiter,
+     * so connections opened before the reload still count and are released correctly.
+     * @param routeId the route identifier
+     * @param config the new rate limit configuration
+     * @param previous the limiter being replaced, null if none
+     */
+    public RouteRateLimiter(String routeId, RateLimitConfig config, RouteRateLimiter previous) {
         this.routeId = routeId;
         this.maxQps = config.getMaxQps();
         this.maxConnections = config.getMaxConnections();
-        this.qpsLimiter = new QpsRateLimiter(config.getMaxQps());
-        this.connectionLimiter = new ConnectionRateLimiter(config.getMaxConnections());
+        if (previous != null) {
+            this.qpsLimiter = QpsRateLimiter.of(config, previous.qpsLimiter);
+            this.connectionLimiter = previous.connectionLimiter.withMaxConnections(config.getMaxConnections());
+        } else {
+            this.qpsLimiter = QpsRateLimiter.of(config);
+            this.connectionLimiter = new ConnectionRateLimiter(config.getMaxConnections());
+        }
+        this.bandwidthLimiter = BandwidthLimiter.of(config.getMaxBytesPerSecond(),
+                previous != null ? previous.bandwidthLimiter : null);
+        this.admissionQueue = AdmissionQueue.of("route:" + routeId, config,
+                previous != null ? previous.admissionQueue : null);
     }
 
     /**
@@ -36,6 +61,20 @@ public class RouteRateLimiter {
         return qpsLimiter.tryAcquire();
     }
 
+    /**
+     * @return nanos until a QPS permit is available, nothing is taken
+     */
+    long qpsWaitNanos(long now) {
+        return qpsLimiter.waitNanos(now);
+    }
+
+    /**
+     * Give back a QPS permit a later tier did not let through
+     */
+    void refundQps() {
+        qpsLimiter.refund();
+    }
+
     /**
      * Try to acquire connection permit (called when creating a new connection)
      * @return true if connection permit is acquired, false otherwise
@@ -59,6 +98,10 @@ public class RouteRateLimiter {
         return maxQps;
     }
 
+    public int getBurst() {
+        return qpsLimiter.getBurst();
+    }
+
     public int getMaxConnections() {
         return maxConnections;
     }
@@ -67,13 +110,29 @@ public class RouteRateLimiter {
         return connectionLimiter.getCurrentConnections();
     }
 
+    /**
+     * @return the bandwidth limiter of the route, null if its bandwidth is unlimited
+     */
+    public BandwidthLimiter getBandwidthLimiter() {
+        return bandwidthLimiter;
+    }
+
+    /**
+     * @return the admission queue of the route, null if queueing is disabled
+     */
+    public AdmissionQueue getAdmissionQueue() {
+        return admissionQueue;
+    }
+
     @Override
     public String toString() {
         return "RouteRateLimiter{" +
                 "routeId='" + routeId + '\'' +
                 ", maxQps=" + maxQps +
+                ", burst=" + getBurst() +
                 ", maxConnections=" + maxConnections +
                 ", currentConnections=" + getCurrentConnections() +
+                ", maxBytesPerSecond=" + (bandwidthLimiter != null ? bandwidthLimiter.getMaxBytesPerSecond() : -1) +
                 '}';
     }
 }
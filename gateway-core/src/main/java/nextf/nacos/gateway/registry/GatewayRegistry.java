@@ -8,9 +8,9 @@ import nextf.nacos.gateway.config.event.EntityChangeListener;
 import nextf.nacos.gateway.config.event.RoutesUpdatedEvent;
 import nextf.nacos.gateway.model.Backend;
 import nextf.nacos.gateway.model.Endpoint;
+import nextf.nacos.gateway.route.HostRouteIndex;
 import nextf.nacos.gateway.route.Route;
 import nextf.nacos.gateway.route.RouteMatcher;
-import nextf.nacos.gateway.route.RouteMatcherImpl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -41,6 +41,8 @@ public class GatewayRegistry {
 
     // Version tracking
     private final AtomicLong version = new AtomicLong(0);
+    // Registry version of the published route matcher, written after the matcher swap
+    private volatile long routeVersion;
 
     // Event listeners
     private final List<EntityChangeListener> listeners = new CopyOnWriteArrayList<>();
@@ -51,7 +53,7 @@ public class GatewayRegistry {
     public GatewayRegistry() {
         this.routes = new ConcurrentHashMap<>();
         this.backends = new ConcurrentHashMap<>();
-        this.routeMatcher = new RouteMatcherImpl(new ArrayList<>());
+        this.routeMatcher = new HostRouteIndex(new ArrayList<>());
     }
 
     // ========== Update Methods ==========
@@ -71,12 +73,13 @@ public class GatewayRegistry {
             // Save snapshot for rollback
             previousRoutes = this.routes;
 
-            // Create new route matcher
-            RouteMatcher newMatcher = new RouteMatcherImpl(new ArrayList<>(newRoutes.values()));
+            // Compile the host index before publishing, lookups never see a partial index
+            RouteMatcher newMatcher = new HostRouteIndex(new ArrayList<>(newRoutes.values()));
 
             // Atomic swap
             this.routes = newRoutes;
             this.routeMatcher = newMatcher;
+            this.routeVersion = newVersion;
 
             // Publish event if routes actually changed
             if (!routesEqual(previousRoutes, newRoutes)) {
@@ -104,8 +107,8 @@ public class GatewayRegistry {
         log.info("Updating backends to version {}", newVersion);
 
         try {
-            // Build new backends using static factory
-            Map<String, Backend> newBackends = Backend.fromList(backendConfigs);
+            // Build new backends using static factory, keeping load balancer state of unchanged strategies
+            Map<String, Backend> newBackends = Backend.fromList(backendConfigs, this.backends);
 
             // Save snapshot for rollback
             previousBackends = this.backends;
@@ -192,6 +195,15 @@ public class GatewayRegistry {
         return version.get();
     }
 
+    /**
+     * Get the version of the current route matcher
+     * Read it before getRouteMatcher(): a match cached under this version goes stale once it changes
+     * @return Registry version at which the route matcher was last replaced
+     */
+    public long getRouteVersion() {
+        return routeVersion;
+    }
+
     // ========== Listener Management ==========
 
     /**
@@ -239,7 +251,8 @@ public class GatewayRegistry {
         log.warn("Rolling back to previous state...");
         if (previousRoutes != null) {
             this.routes = previousRoutes;
-            this.routeMatcher = new RouteMatcherImpl(new ArrayList<>(previousRoutes.values()));
+            this.routeMatcher = new HostRouteIndex(new ArrayList<>(previousRoutes.values()));
+            this.routeVersion = version.get();
         }
         if (previousBackends != null) {
             this.backends = previousBackends;
@@ -0,0 +1,186 @@
+package nextf.nacos.gateway.route;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Immutable host route index
+ * Exact hosts are looked up in a case-insensitive hash table and single leading wildcard
+ * patterns (*.example.com) in a suffix hash table keyed by the part after the first label.
+ * Other wildcard patterns fall back to a linear HostMatcher scan. Every entry keeps its
+ * position in the route list, so the first configured matching route wins as before.
+ * Lookups do not allocate: hashing works on the host characters in place and each entry
+ * holds a prebuilt Optional result.
+ */
+public class HostRouteIndex implements RouteMatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(HostRouteIndex.class);
+
+    private final HostTable exactHosts;
+    private final HostTable wildcardSuffixes;
+    private final Entry[] patterns;
+    private final int size;
+
+    public HostRouteIndex(List<Route> routeList) {
+        List<Entry> exact = new ArrayList<>();
+        List<Entry> suffix = new ArrayList<>();
+        List<Entry> other = new ArrayList<>();
+
+        int order = 0;
+        if (routeList != null) {
+            for (Route route : routeList) {
+                String pattern = route.getHostPattern();
+                if (pattern == null) {
+                    continue;
+                }
+                Entry entry = new Entry(order++, route);
+                if (pattern.indexOf('*') < 0) {
+                    exact.add(entry);
+                } else if (isLeadingWildcard(pattern)) {
+                    suffix.add(entry);
+                } else {
+                    other.add(entry);
+                }
+            }
+        }
+
+        // HostMatcher compares exact hosts ignoring case, while wildcard regexes are case-sensitive
+        this.exactHosts = new HostTable(exact, true, 0);
+        this.wildcardSuffixes = new HostTable(suffix, false, 2);
+        this.patterns = other.toArray(new Entry[0]);
+        this.size = order;
+        log.debug("Built host route index: {} exact, {} wildcard suffix, {} other patterns",
+                exact.size(), suffix.size(), other.size());
+    }
+
+    /**
+     * *.suffix with no further wildcard, equivalent to the regex [^.]+\.suffix
+     */
+    private static boolean isLeadingWildcard(String pattern) {
+        return pattern.length() > 2
+                && pattern.charAt(0) == '*'
+                && pattern.charAt(1) == '.'
+                && pattern.indexOf('*', 2) < 0;
+    }
+
+    @Override
+    public Optional<Route> match(String host) {
+        if (host == null) {
+            return Optional.empty();
+        }
+
+        Entry best = exactHosts.get(host, 0);
+
+        // [^.]+ cannot span a dot, so the only candidate suffix starts after the first label
+        int dot = host.indexOf('.');
+        if (dot > 0) {
+            Entry entry = wildcardSuffixes.get(host, dot + 1);
+            if (entry != null && (best == null || entry.order < best.order)) {
+                best = entry;
+            }
+        }
+
+        // Remaining patterns are in route order, only earlier ones can win
+        for (Entry entry : patterns) {
+            if (best != null && entry.order > best.order) {
+                break;
+            }
+            if (entry.hostMatcher.matches(host)) {
+                best = entry;
+                break;
+            }
+        }
+
+        if (best == null) {
+            log.debug("No route matched: host={}", host);
+            return Optional.empty();
+        }
+        log.debug("Route matched: host={}, route={}", host, best.route);
+        return best.result;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static final class Entry {
+        final int order;
+        final Route route;
+        final Optional<Route> result;
+        final HostMatcher hostMatcher;
+
+        Entry(int order, Route route) {
+            this.order = order;
+            this.route = route;
+            this.result = Optional.of(route);
+            this.hostMatcher = new HostMatcher(route.getHostPattern());
+        }
+    }
+
+    /**
+     * Open addressing hash table looked up by a host substring [from, length)
+     * Keys are the route patterns from keyOffset on; the first entry for a key wins.
+     */
+    private static final class HostTable {
+        private final String[] keys;
+        private final Entry[] entries;
+        private final int mask;
+        private final int keyOffset;
+        private final boolean ignoreCase;
+
+        HostTable(List<Entry> source, boolean ignoreCase, int keyOffset) {
+            int capacity = Integer.highestOneBit(Math.max(2, source.size() * 2 - 1)) << 1;
+            this.keys = new String[capacity];
+            this.entries = new Entry[capacity];
+            this.mask = capacity - 1;
+            this.keyOffset = keyOffset;
+            this.ignoreCase = ignoreCase;
+            for (Entry entry : source) {
+                String pattern = entry.route.getHostPattern();
+                int slot = hash(pattern, keyOffset) & mask;
+                while (keys[slot] != null && !sameKey(keys[slot], pattern, keyOffset)) {
+                    slot = (slot + 1) & mask;
+                }
+                if (keys[slot] == null) {
+                    keys[slot] = pattern;
+                    entries[slot] = entry;
+                }
+            }
+        }
+
+        Entry get(String host, int from) {
+            int slot = hash(host, from) & mask;
+            String key;
+            while ((key = keys[slot]) != null) {
+                if (sameKey(key, host, from)) {
+                    return entries[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            return null;
+        }
+
+        private boolean sameKey(String key, String host, int from) {
+            int length = key.length() - keyOffset;
+            return host.length() - from == length
+                    && key.regionMatches(ignoreCase, keyOffset, host, from, length);
+        }
+
+        private int hash(String s, int from) {
+            int h = 0;
+            for (int i = from; i < s.length(); i++) {
+                char c = s.charAt(i);
+                if (ignoreCase) {
+                    // Same folding as String.regionMatches(true, ...)
+                    c = Character.toLowerCase(Character.toUpperCase(c));
+                }
+                h = 31 * h + c;
+            }
+            return h ^ (h >>> 16);
+        }
+    }
+}
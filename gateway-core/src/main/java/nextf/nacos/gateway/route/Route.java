@@ -2,11 +2,12 @@ package nextf.nacos.gateway.route;
 
 import nextf.nacos.gateway.config.RateLimitConfig;
 import nextf.nacos.gateway.config.RouteConfig;
+import nextf.nacos.gateway.ratelimit.RateLimitChain;
 
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Route entity
@@ -17,6 +18,9 @@ public class Route {
     private final String backendName;
     private final RateLimitConfig rateLimitConfig;
 
+    // Limiters resolved for this route by RateLimitManager, not part of equality
+    private volatile RateLimitChain rateLimitChain;
+
     public Route(RouteConfig config) {
         this.hostPattern = config.getHost();
         this.backendName = config.getBackend();
@@ -26,10 +30,10 @@ public class Route {
     /**
      * Static factory method to build a map of routes from route configurations
      * @param routeConfigs List of route configurations
-     * @return Map of route ID to Route
+     * @return Map of route ID to Route, in configuration order (first match wins)
      */
     public static Map<String, Route> from(List<RouteConfig> routeConfigs) {
-        Map<String, Route> routesMap = new ConcurrentHashMap<>();
+        Map<String, Route> routesMap = new LinkedHashMap<>();
         if (routeConfigs != null) {
             for (RouteConfig config : routeConfigs) {
                 Route route = new Route(config);
@@ -55,6 +59,14 @@ public class Route {
         return rateLimitConfig;
     }
 
+    public RateLimitChain getRateLimitChain() {
+        return rateLimitChain;
+    }
+
+    public void setRateLimitChain(RateLimitChain rateLimitChain) {
+        this.rateLimitChain = rateLimitChain;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
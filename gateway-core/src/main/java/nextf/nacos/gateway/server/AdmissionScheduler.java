@@ -0,0 +1,222 @@
+package nextf.nacos.gateway.server;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpServerRequest;
+import nextf.nacos.gateway.ratelimit.AdmissionQueue;
+import nextf.nacos.gateway.ratelimit.RateLimitManager;
+import nextf.nacos.gateway.ratelimit.RejectionCounters;
+import nextf.nacos.gateway.route.Route;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parks requests that are over their rate limit until a permit frees up or their deadline passes
+ *
+ * One instance per GatewayServer, used only on that server's event loop, so no synchronization is needed.
+ * Parked requests are paused and retried in FIFO order per AdmissionQueue. A queue is retried when its
+ * limiters say a permit is due (RateLimitManager.getAdmissionDelayNanos) or when its head times out,
+ * on a one-shot timer set for the earliest of these times across queues, so nothing polls.
+ * Retries take the permits of every tier or of none and are not counted as rejections, so a request
+ * waiting on the client or backend tier does not drain the global or route budget of other routes.
+ * A parked request is reported as a rate limit rejection only when it times out; one admitted later is not.
+ * A queue's retries stop at the first request that is still refused.
+ */
+class AdmissionScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(AdmissionScheduler.class);
+
+    // Shortest timer delay, Vert.x timers have millisecond resolution
+    static final long MIN_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final Vertx vertx;
+    private final RateLimitManager rateLimitManager;
+    private final Map<AdmissionQueue, Waiting> parked = new LinkedHashMap<>();
+    private long timerId = -1;
+    private long timerDueAt;
+
+    AdmissionScheduler(Vertx vertx, RateLimitManager rateLimitManager) {
+        this.vertx = vertx;
+        this.rateLimitManager = rateLimitManager;
+    }
+
+    /**
+     * Park a request refused by the rate limiter
+     * @param refusedBy tier that refused the request, reported as the rejection if it times out
+     * @param onAdmit continues the request once it holds its permits
+     * @return false if the queue is full, the caller then rejects the request
+     */
+    boolean park(AdmissionQueue queue, HttpServerRequest request, Route route, String clientIp,
+                 RejectionCounters.Tier refusedBy, Runnable onAdmit) {
+        if (!queue.tryEnter()) {
+            return false;
+        }
+        request.pause();
+        long now = System.nanoTime();
+        Waiting waiting = parked.get(queue);
+        if (waiting == null) {
+            waiting = new Waiting();
+            waiting.retryAt = now + retryDelay(route, clientIp, queue.getTimeoutNanos());
+            parked.put(queue, waiting);
+        }
+        waiting.requests.addLast(new ParkedRequest(request, route, clientIp, refusedBy, onAdmit,
+                now, queue.getTimeoutNanos()));
+        schedule(now);
+        return true;
+    }
+
+    private void tick() {
+        timerId = -1;
+        long now = System.nanoTime();
+        for (Iterator<Map.Entry<AdmissionQueue, Waiting>> it = parked.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<AdmissionQueue, Waiting> entry = it.next();
+            Waiting waiting = entry.getValue();
+            if (now - waiting.dueAt() >= 0) {
+                drain(entry.getKey(), waiting, now);
+            }
+            if (waiting.requests.isEmpty()) {
+                it.remove();
+            }
+        }
+        schedule(now);
+    }
+
+    private void drain(AdmissionQueue queue, Waiting waiting, long now) {
+        ParkedRequest parkedRequest;
+        while ((parkedRequest = waiting.requests.peekFirst()) != null) {
+            long waited = now - parkedRequest.enqueuedAt;
+            if (parkedRequest.request.response().closed()) {
+                waiting.requests.pollFirst();
+                queue.abandoned(waited);
+            } else if (waited >= parkedRequest.timeoutNanos) {
+                waiting.requests.pollFirst();
+                queue.timedOut(waited);
+                rateLimitManager.rejectQps(parkedRequest.route, parkedRequest.refusedBy, parkedRequest.clientIp);
+                log.warn("Rate limit queue {} timed out for client: {}", queue.getName(), parkedRequest.clientIp);
+                parkedRequest.request.response().setStatusCode(429).end("Too Many Requests");
+                parkedRequest.request.resume();
+            } else if (now - waiting.retryAt >= 0
+                    && rateLimitManager.tryAcquireQueued(parkedRequest.route, parkedRequest.clientIp)) {
+                waiting.requests.pollFirst();
+                queue.admitted(waited);
+                parkedRequest.onAdmit.run();
+            } else {
+                // Still refused: later requests arrived after this one and have not timed out either
+                waiting.retryAt = now + retryDelay(parkedRequest.route, parkedRequest.clientIp, parkedRequest.timeoutNanos);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Delay until the limiters of a request have a permit again, at least the timer resolution
+     * @param maxNanos cap for limiters that reject everything, the request times out before
+     */
+    private long retryDelay(Route route, String clientIp, long maxNanos) {
+        long delay = rateLimitManager.getAdmissionDelayNanos(route, clientIp);
+        return Math.max(MIN_DELAY_NANOS, Math.min(delay, maxNanos));
+    }
+
+    /**
+     * Set the timer for the earliest retry or timeout, keeping it if it is already due by then
+     */
+    private void schedule(long now) {
+        if (parked.isEmpty()) {
+            cancelTimer();
+            return;
+        }
+        long dueAt = Long.MAX_VALUE;
+        for (Waiting waiting : parked.values()) {
+            long queueDueAt = waiting.dueAt();
+            if (dueAt == Long.MAX_VALUE || queueDueAt - dueAt < 0) {
+                dueAt = queueDueAt;
+            }
+        }
+        if (timerId != -1 && timerDueAt - dueAt <= 0) {
+            return;
+        }
+        cancelTimer();
+        long delayMillis = Math.max(1L, TimeUnit.NANOSECONDS.toMillis(Math.max(0L, dueAt - now) + MIN_DELAY_NANOS - 1));
+        timerDueAt = dueAt;
+        timerId = vertx.setTimer(delayMillis, id -> tick());
+    }
+
+    private void cancelTimer() {
+        if (timerId != -1) {
+            vertx.cancelTimer(timerId);
+            timerId = -1;
+        }
+    }
+
+    /**
+     * Fail all parked requests with 503, called when the server stops
+     */
+    void close() {
+        long now = System.nanoTime();
+        parked.forEach((queue, waiting) -> {
+            for (ParkedRequest parkedRequest : waiting.requests) {
+                queue.abandoned(now - parkedRequest.enqueuedAt);
+                if (!parkedRequest.request.response().closed()) {
+                    parkedRequest.request.response().setStatusCode(503).end("Service Unavailable");
+                    parkedRequest.request.resume();
+                }
+            }
+        });
+        parked.clear();
+        cancelTimer();
+    }
+
+    int size() {
+        int size = 0;
+        for (Waiting waiting : parked.values()) {
+            size += waiting.requests.size();
+        }
+        return size;
+    }
+
+    /**
+     * Requests parked in one queue and the time its head may be retried
+     */
+    private static final class Waiting {
+        final ArrayDeque<ParkedRequest> requests = new ArrayDeque<>();
+        long retryAt;
+
+        /**
+         * @return the next retry, or the head's deadline if it comes first
+         */
+        long dueAt() {
+            ParkedRequest head = requests.peekFirst();
+            if (head == null) {
+                return retryAt;
+            }
+            long deadline = head.enqueuedAt + head.timeoutNanos;
+            return deadline - retryAt < 0 ? deadline : retryAt;
+        }
+    }
+
+    private static final class ParkedRequest {
+        final HttpServerRequest request;
+        final Route route;
+        final String clientIp;
+        final RejectionCounters.Tier refusedBy;
+        final Runnable onAdmit;
+        final long enqueuedAt;
+        final long timeoutNanos;
+
+        ParkedRequest(HttpServerRequest request, Route route, String clientIp, RejectionCounters.Tier refusedBy,
+                      Runnable onAdmit, long enqueuedAt, long timeoutNanos) {
+            this.request = request;
+            this.route = route;
+            this.clientIp = clientIp;
+            this.refusedBy = refusedBy;
+            this.onAdmit = onAdmit;
+            this.enqueuedAt = enqueuedAt;
+            this.timeoutNanos = timeoutNanos;
+        }
+    }
+}
@@ -1,7 +1,8 @@
 package nextf.nacos.gateway.server;
 
-import io.vertx.core.Handler;
-import io.vertx.core.Vertx;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.VerticleBase;
 import io.vertx.core.http.HttpClient;
 import io.vertx.core.http.HttpClientOptions;
 import io.vertx.core.http.HttpConnection;
@@ -15,48 +16,80 @@ import org.slf4j.LoggerFactory;
 import nextf.nacos.gateway.config.GatewayConfig;
 import nextf.nacos.gateway.config.PortType;
 import nextf.nacos.gateway.config.TimeoutConfig;
+import nextf.nacos.gateway.config.event.BackendsUpdatedEvent;
+import nextf.nacos.gateway.config.event.EntityChangeEvent;
+import nextf.nacos.gateway.config.event.EntityChangeListener;
 import nextf.nacos.gateway.loadbalance.EndpointSelector;
-import nextf.nacos.gateway.management.HealthEndpoint;
+import nextf.nacos.gateway.loadbalance.HashKeyExtractor;
+import nextf.nacos.gateway.metrics.GatewayMetrics;
+import nextf.nacos.gateway.metrics.PhaseMetrics;
+import nextf.nacos.gateway.metrics.RequestPhases;
+import nextf.nacos.gateway.metrics.RequestRecorder;
 import nextf.nacos.gateway.model.Backend;
 import nextf.nacos.gateway.model.Endpoint;
+import nextf.nacos.gateway.proxy.BandwidthThrottle;
 import nextf.nacos.gateway.proxy.ConnectionManager;
 import nextf.nacos.gateway.proxy.GrpcProxyHandler;
 import nextf.nacos.gateway.proxy.HttpProxyHandler;
 import nextf.nacos.gateway.proxy.ProxyConnection;
+import nextf.nacos.gateway.proxy.UpstreamClientPool;
+import nextf.nacos.gateway.ratelimit.AdaptiveConcurrencyLimiter;
 import nextf.nacos.gateway.ratelimit.LimitExceededException;
+import nextf.nacos.gateway.ratelimit.AdmissionQueue;
+import nextf.nacos.gateway.ratelimit.ConnectionPermits;
 import nextf.nacos.gateway.ratelimit.RateLimitManager;
+import nextf.nacos.gateway.ratelimit.RejectionCounters;
 import nextf.nacos.gateway.registry.GatewayRegistry;
 import nextf.nacos.gateway.route.Route;
 import nextf.nacos.gateway.logging.AccessLogger;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
- * Gateway server for a specific port type
- * Uses shared components (RouteMatcher, Backends, etc.) from GatewayServerManager
+ * Gateway server verticle for a specific port type
+ * Deployed several times per port by GatewayServerManager; Vert.x shares the listening socket
+ * between instances so that accepted connections are spread over the event loops.
+ * Uses shared components (RouteMatcher, Backends, etc.) from GatewayServerManager,
+ * which must therefore be safe to use from several event loops at once.
+ * HTTP/1 ports proxy through an instance-local upstream pool, so backend connections are
+ * reused across client connections on the same event loop.
  */
-public class GatewayServer {
+public class GatewayServer extends VerticleBase implements EntityChangeListener {
 
     private static final Logger log = LoggerFactory.getLogger(GatewayServer.class);
 
-    private final Vertx vertx;
+    // Nacos requests held open by the server, their latency is not service time
+    private static final String GRPC_BI_STREAM_PATH = "/BiRequestStream/requestBiStream";
+    private static final String LONG_POLLING_HEADER = "Long-Pulling-Timeout";
+
     private final GatewayConfig config;
     private final PortType portType;
     private final int listeningPort;
 
     private HttpServer server;
+    private Context context;
+
+    // Upstream pool for HTTP/1 ports (null for the gRPC port, which uses per-connection clients)
+    private UpstreamClientPool upstreamPool;
 
     // Shared components (injected from GatewayServerManager)
     private final GatewayRegistry registry;
     private final EndpointSelector endpointSelector;
     private final ConnectionManager connectionManager;
     private final RateLimitManager rateLimitManager;
-    private final HealthEndpoint healthEndpoint;
     private final AccessLogger accessLogger;
+    // Null while metrics are disabled
+    private final GatewayMetrics metrics;
+    private final PhaseMetrics phaseMetrics;
+
+    // Requests waiting for a rate limit permit, on this server's event loop
+    private AdmissionScheduler admissionScheduler;
 
     /**
      * Constructor for multi-port gateway
-     * @param vertx Vert.x instance
      * @param config Gateway configuration
      * @param portType The port type this server handles
      * @param port The port number to listen on
@@ -64,11 +97,11 @@ public class GatewayServer {
      * @param endpointSelector Shared endpoint selector
      * @param connectionManager Shared connection manager
      * @param rateLimitManager Shared rate limit manager
-     * @param healthEndpoint Shared health endpoint
      * @param accessLogger Shared access logger
+     * @param metrics Shared request metrics (null if disabled)
+     * @param phaseMetrics Shared request phase timings
      */
     public GatewayServer(
-            Vertx vertx,
             GatewayConfig config,
             PortType portType,
             int port,
@@ -76,9 +109,9 @@ public class GatewayServer {
             EndpointSelector endpointSelector,
             ConnectionManager connectionManager,
             RateLimitManager rateLimitManager,
-            HealthEndpoint healthEndpoint,
-            AccessLogger accessLogger) {
-        this.vertx = vertx;
+            AccessLogger accessLogger,
+            GatewayMetrics metrics,
+            PhaseMetrics phaseMetrics) {
         this.config = config;
         this.portType = portType;
         this.listeningPort = port;
@@ -86,40 +119,57 @@ public class GatewayServer {
         this.endpointSelector = endpointSelector;
         this.connectionManager = connectionManager;
         this.rateLimitManager = rateLimitManager;
-        this.healthEndpoint = healthEndpoint;
         this.accessLogger = accessLogger;
+        this.metrics = metrics;
+        this.phaseMetrics = phaseMetrics;
     }
 
-    public void start(Handler<HttpServer> handler) {
-        log.info("Starting {} server on port {}...", portType.getDescription(), listeningPort);
+    @Override
+    public Future<?> start() {
+        log.debug("Starting {} server instance on port {}...", portType.getDescription(), listeningPort);
+
+        context = vertx.getOrCreateContext();
+        admissionScheduler = new AdmissionScheduler(vertx, rateLimitManager);
+        if (portType != PortType.API_V2) {
+            upstreamPool = new UpstreamClientPool(vertx, portType,
+                    config.getServer().getUpstreamPool(), config.getTimeout());
+            registry.registerListener(this);
+        }
 
         // Create HTTP server
         HttpServerOptions options = createServerOptions();
         server = vertx.createHttpServer(options);
 
+        // New connection rate limit, checked before the first request is decoded
+        server.connectionHandler(this::handleConnection);
+
         // Request handler
         server.requestHandler(this::handleRequest);
 
-        // Start server
-        server.listen(listeningPort)
-            .onSuccess(v -> {
-                log.info("{} server started on port {}", portType.getDescription(), listeningPort);
-                handler.handle(v);
-            })
-            .onFailure(t -> {
-                log.error("Failed to start {} server: {}", portType.getDescription(), t.getMessage());
-                throw new RuntimeException("Failed to start server", t);
-            });
+        // Start server (a failed listen fails the deployment)
+        return server.listen(listeningPort)
+            .onSuccess(v -> log.debug("{} server instance started on port {}", portType.getDescription(), listeningPort))
+            .onFailure(t -> log.error("Failed to start {} server: {}", portType.getDescription(), t.getMessage()));
     }
 
-    public void stop() {
-        log.info("Stopping {} server on port {}...", portType.getDescription(), listeningPort);
+    @Override
+    public Future<?> stop() {
+        log.debug("Stopping {} server instance on port {}...", portType.getDescription(), listeningPort);
 
-        if (server != null) {
-            server.close()
-                .onSuccess(v -> log.info("{} server on port {} stopped", portType.getDescription(), listeningPort))
-                .onFailure(t -> log.error("Error stopping {} server: {}", portType.getDescription(), t.getMessage()));
+        if (upstreamPool != null) {
+            registry.unregisterListener(this);
+            upstreamPool.close();
         }
+        if (admissionScheduler != null) {
+            admissionScheduler.close();
+        }
+
+        if (server == null) {
+            return Future.succeededFuture();
+        }
+        return server.close()
+            .onSuccess(v -> log.debug("{} server instance on port {} stopped", portType.getDescription(), listeningPort))
+            .onFailure(t -> log.error("Error stopping {} server: {}", portType.getDescription(), t.getMessage()));
     }
 
     private HttpServerOptions createServerOptions() {
@@ -135,21 +185,6 @@ public class GatewayServer {
         return options;
     }
 
-    private io.vertx.core.http.HttpClientOptions createHttp1ClientOptions() {
-        io.vertx.core.http.HttpClientOptions options = new io.vertx.core.http.HttpClientOptions();
-        options.setProtocolVersion(HttpVersion.HTTP_1_1)
-                .setSsl(false);
-
-        TimeoutConfig timeout = config.getTimeout();
-        if (timeout != null) {
-            options.setConnectTimeout(timeout.getConnectTimeoutSeconds() * 1000);
-            options.setIdleTimeout(timeout.getIdleTimeoutSeconds());
-        }
-
-        return options;
-    }
-
-
     private io.vertx.core.http.HttpClientOptions createHttp2ClientOptions() {
         io.vertx.core.http.HttpClientOptions options = new io.vertx.core.http.HttpClientOptions();
         options.setProtocolVersion(HttpVersion.HTTP_2)
@@ -167,71 +202,109 @@ public class GatewayServer {
         return options;
     }
 
+    /**
+     * Close connections over the new connection rate limits as soon as they are accepted
+     */
+    private void handleConnection(HttpConnection connection) {
+        String clientIp = connection.remoteAddress().host();
+        if (!rateLimitManager.tryAcceptConnection(clientIp)) {
+            log.debug("Connection rate exceeded, closing connection from {}", clientIp);
+            connection.close();
+        }
+    }
+
     private void handleRequest(HttpServerRequest request) {
+        // Null while phase timings are disabled
+        RequestPhases phases = phaseMetrics.start();
         HttpConnection connection = request.connection();
         HostAndPort hostAndPort = request.authority();
-        String path = request.path();
         String clientIp = request.remoteAddress().host();
 
         log.debug("Received request on {} port: {} {}", portType.getConfigName(), request.method(), request.uri());
 
-        // Check health endpoint
-        if (healthEndpoint != null && healthEndpoint.matches(path)) {
-            healthEndpoint.handle(request);
-            return;
-        }
+        // Connection-level state, null on the first request of a connection
+        ProxyConnection proxyConnection = connectionManager.getConnection(connection);
 
-        // Match route
-        var routeOpt = registry.getRouteMatcher().match(hostAndPort.host());
-        if (routeOpt.isEmpty()) {
-            log.warn("No route matched for host: {}", hostAndPort.host());
+        // Match route, reusing the connection's last match while the host and routes are unchanged
+        String host = hostAndPort.host();
+        long routeVersion = registry.getRouteVersion();
+        Route route = resolveRoute(proxyConnection, host, routeVersion);
+        if (route == null) {
+            log.warn("No route matched for host: {}", host);
             request.response().setStatusCode(404).end("Not Found");
             return;
         }
+        if (phases != null) {
+            phases.mark(RequestPhases.Phase.ROUTE);
+        }
 
-        Route route = routeOpt.get();
-        String backendName = route.getBackendName();
-
-        // Check rate limit (QPS only, no connection check)
-        if (!rateLimitManager.tryAcquire(backendName, clientIp, route.getId())) {
+        // Check rate limit (QPS only, no connection check); a refusal is reported only if the request gets a 429
+        RejectionCounters.Tier refusedBy = rateLimitManager.acquireQps(route, clientIp);
+        if (refusedBy != null) {
+            // Wait in the admission queue of the route or backend if it has one and room left
+            AdmissionQueue queue = rateLimitManager.getAdmissionQueue(route);
+            if (queue != null && admissionScheduler.park(queue, request, route, clientIp, refusedBy,
+                    () -> proxyAdmittedRequest(request, connection, route, host, routeVersion, clientIp, phases))) {
+                return;
+            }
+            rateLimitManager.rejectQps(route, refusedBy, clientIp);
             log.warn("Rate limit exceeded for client: {}", clientIp);
             request.response().setStatusCode(429).end("Too Many Requests");
             return;
         }
 
-        // Connection-level: Get or create ProxyConnection
-        ProxyConnection proxyConnection = connectionManager.getConnection(connection);
+        proxyRequest(request, connection, proxyConnection, route, host, routeVersion, clientIp, phases);
+    }
+
+    /**
+     * Continue a request that waited in an admission queue and now holds its permits
+     * The connection state is looked up again, another request may have initialized it meanwhile.
+     */
+    private void proxyAdmittedRequest(HttpServerRequest request, HttpConnection connection, Route route,
+                                      String host, long routeVersion, String clientIp, RequestPhases phases) {
+        proxyRequest(request, connection, connectionManager.getConnection(connection),
+                route, host, routeVersion, clientIp, phases);
+        // The request was paused while parked, let an unread body drain if it was answered without proxying
+        if (request.response().ended()) {
+            request.resume();
+        }
+    }
+
+    /**
+     * Proxy a request that passed the rate limit
+     */
+    private void proxyRequest(HttpServerRequest request, HttpConnection connection, ProxyConnection proxyConnection,
+                              Route route, String host, long routeVersion, String clientIp, RequestPhases phases) {
+        String backendName = route.getBackendName();
 
         if (proxyConnection == null) {
             // First request on this connection - perform connection-level initialization
 
             // 1. Select backend and endpoint (load balancing)
-            Backend backend = registry.getBackend(backendName);
+            Backend backend = findBackend(request, backendName);
             if (backend == null) {
-                log.error("Backend not found: {}", backendName);
-                request.response().setStatusCode(503).end("Service Unavailable - Backend not found");
                 return;
             }
 
-            Endpoint endpoint = endpointSelector.select(backend);
+            Endpoint endpoint = selectEndpoint(request, backend);
             if (endpoint == null) {
-                log.error("No healthy endpoint for backend: {}", backend.getName());
-                request.response().setStatusCode(503).end("Service Unavailable - No healthy endpoints");
                 return;
             }
 
-            HttpClientOptions httpClientOptions = switch (portType) {
-                case API_V1, API_CONSOLE -> createHttp1ClientOptions();
-                case API_V2 -> createHttp2ClientOptions();
-            };
-            // 2. Create dedicated HttpClient
-            HttpClient clientHttpClient = vertx.createHttpClient(httpClientOptions);
+            // 2. HTTP/1 ports share the pooled client of the endpoint; gRPC keeps a dedicated
+            // HttpClient because Nacos identifies gRPC clients by their backend connection
+            boolean dedicatedClient = upstreamPool == null;
+            HttpClient clientHttpClient = dedicatedClient
+                    ? vertx.createHttpClient(createHttp2ClientOptions())
+                    : upstreamPool.getClient(endpoint);
 
             // 3. Notify load balancer (connection level)
             backend.getLoadBalancer().onConnectionOpen(endpoint);
 
             // 4. Create ProxyConnection with all resources including portType
-            proxyConnection = new ProxyConnection(connection, route, endpoint, backend, clientHttpClient, portType, clientIp);
+            proxyConnection = new ProxyConnection(connection, route, endpoint, backend, clientHttpClient,
+                    dedicatedClient, portType, clientIp);
+            proxyConnection.setResolvedRoute(host, routeVersion, route);
 
             // 5. Add connection (ConnectionManager will handle close/exception handlers)
             try {
@@ -243,6 +316,46 @@ public class GatewayServer {
                 request.response().setStatusCode(429).end("Too Many Connections");
                 return;
             }
+        } else if (!route.getId().equals(proxyConnection.getRoute().getId())
+                || !backendName.equals(proxyConnection.getBackend().getName())) {
+            // The connection is pinned to the route and backend of its first request; a request for another
+            // route (different Host, or a route reload) is charged to that route's connection limits
+            proxyConnection = reroutedConnection(request, proxyConnection, route);
+            if (proxyConnection == null) {
+                return;
+            }
+        } else if (upstreamPool != null && hashesPerRequest(proxyConnection.getBackend())) {
+            // HTTP/1 requests share pooled clients, so a request keyed on its tenant or a header
+            // goes to the endpoint of its own key rather than the one of the connection's first request
+            proxyConnection = rehashedConnection(request, proxyConnection, route);
+            if (proxyConnection == null) {
+                return;
+            }
+        }
+
+        // Take a slot of the backend's adaptive concurrency limit, the handler gives it back
+        AdaptiveConcurrencyLimiter concurrencyLimiter = rateLimitManager.getConcurrencyLimiter(route);
+        if (concurrencyLimiter != null) {
+            if (isHeldOpen(request)) {
+                concurrencyLimiter = null;
+            } else if (!concurrencyLimiter.tryAcquire()) {
+                log.warn("Concurrency limit ({}) reached for backend: {}", concurrencyLimiter.getLimit(), backendName);
+                request.response().setStatusCode(503).end("Service Unavailable - Concurrency limit reached");
+                return;
+            }
+        }
+
+        // Bandwidth limits of the route, backend and client, applied to the response body
+        BandwidthThrottle bandwidthThrottle = BandwidthThrottle.of(vertx,
+                rateLimitManager.getBandwidthLimiters(route, clientIp));
+
+        // Metrics series of the route, backend and endpoint; held-open requests stay out of the latency histograms
+        RequestRecorder requestRecorder = metrics != null ? proxyConnection.getRequestRecorder(metrics, route) : null;
+        if (requestRecorder != null && isHeldOpen(request)) {
+            requestRecorder = requestRecorder.untimed();
+        }
+        if (phases != null) {
+            phases.mark(RequestPhases.Phase.LIMIT);
         }
 
         // Use the connection's HttpClient and get the correct port for this portType
@@ -251,14 +364,22 @@ public class GatewayServer {
                 case API_V1, API_CONSOLE -> {
                     HttpProxyHandler httpHandler = new HttpProxyHandler(
                             proxyConnection,
-                            accessLogger
+                            accessLogger,
+                            concurrencyLimiter,
+                            bandwidthThrottle,
+                            requestRecorder,
+                            phases
                     );
                     httpHandler.handle(request);
                 }
                 case API_V2 -> {
                     GrpcProxyHandler grpcHandler = new GrpcProxyHandler(
                             proxyConnection,
-                            accessLogger
+                            accessLogger,
+                            concurrencyLimiter,
+                            bandwidthThrottle,
+                            requestRecorder,
+                            phases
                     );
                     grpcHandler.handle(request);
                 }
@@ -271,6 +392,170 @@ public class GatewayServer {
         }
     }
 
+    /**
+     * Check whether the backend holds the request open until it has something to send (gRPC bi-stream,
+     * config long polling); such requests bypass the concurrency limit and the latency histograms
+     */
+    private static boolean isHeldOpen(HttpServerRequest request) {
+        return GRPC_BI_STREAM_PATH.equals(request.path()) || request.getHeader(LONG_POLLING_HEADER) != null;
+    }
+
+    /**
+     * Resolve the route of a request host
+     * The common case of repeated requests for the same host is served from the connection cache
+     * @return the matched route, or null if no route matches
+     */
+    private Route resolveRoute(ProxyConnection proxyConnection, String host, long routeVersion) {
+        if (proxyConnection != null) {
+            Route cached = proxyConnection.getResolvedRoute(host, routeVersion);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        Route route = registry.getRouteMatcher().match(host).orElse(null);
+        if (route != null && proxyConnection != null) {
+            proxyConnection.setResolvedRoute(host, routeVersion, route);
+        }
+        return route;
+    }
+
+    /**
+     * Build a request-scoped ProxyConnection for a request matching another route than the connection's
+     * The request holds the connection permits of its route and backend until the response is done.
+     * A request for the same backend keeps the connection's endpoint unless the backend hashes per request.
+     * HTTP/1 requests for another backend borrow a pooled client of that backend; gRPC requests for another
+     * backend are refused with 421 Misdirected Request, as the dedicated backend connection cannot be
+     * shared across backends.
+     * @return the request-scoped connection, or null if a response has already been sent
+     */
+    private ProxyConnection reroutedConnection(HttpServerRequest request, ProxyConnection proxyConnection,
+                                               Route route) {
+        boolean sameBackend = route.getBackendName().equals(proxyConnection.getBackend().getName());
+        if (!sameBackend && upstreamPool == null) {
+            log.warn("Connection {} is bound to backend {}, refusing request for backend {}",
+                    proxyConnection.getClientConnection(), proxyConnection.getBackend().getName(),
+                    route.getBackendName());
+            request.response().setStatusCode(421).end("Misdirected Request");
+            return null;
+        }
+
+        Backend backend;
+        Endpoint endpoint;
+        if (sameBackend && (upstreamPool == null || !hashesPerRequest(proxyConnection.getBackend()))) {
+            backend = proxyConnection.getBackend();
+            endpoint = proxyConnection.getEndpoint();
+        } else {
+            backend = findBackend(request, route.getBackendName());
+            if (backend == null) {
+                return null;
+            }
+            endpoint = selectEndpoint(request, backend);
+            if (endpoint == null) {
+                return null;
+            }
+        }
+
+        // The connection holds the permits of its own route only
+        ConnectionPermits permits = rateLimitManager.tryAcquireRouteConnection(route, proxyConnection.getClientIp());
+        if (permits == null) {
+            log.warn("Connection limit exceeded for client: {}", proxyConnection.getClientIp());
+            request.response().setStatusCode(429).end("Too Many Connections");
+            return null;
+        }
+        request.response()
+                .endHandler(v -> permits.release())
+                .closeHandler(v -> permits.release());
+
+        log.debug("Connection {}: Request for route {} proxied to {}",
+                proxyConnection.getClientConnection(), route.getId(), endpoint.getAddress(portType));
+        return requestScopedConnection(proxyConnection, route, backend, endpoint);
+    }
+
+    private static boolean hashesPerRequest(Backend backend) {
+        HashKeyExtractor hashKeyExtractor = backend.getHashKeyExtractor();
+        return hashKeyExtractor != null && hashKeyExtractor.isPerRequest();
+    }
+
+    /**
+     * Select the endpoint of an HTTP/1 request from its own consistent-hash key
+     * @return the connection itself if the key maps to its endpoint, a request-scoped connection to the
+     *         other endpoint otherwise, or null if a response has already been sent
+     */
+    private ProxyConnection rehashedConnection(HttpServerRequest request, ProxyConnection proxyConnection,
+                                               Route route) {
+        Backend backend = findBackend(request, route.getBackendName());
+        if (backend == null) {
+            return null;
+        }
+        Endpoint endpoint = selectEndpoint(request, backend);
+        if (endpoint == null) {
+            return null;
+        }
+        if (endpoint == proxyConnection.getEndpoint()) {
+            return proxyConnection;
+        }
+        return requestScopedConnection(proxyConnection, route, backend, endpoint);
+    }
+
+    /**
+     * Connection state for a single request, sent through the connection's client when it targets the
+     * connection's endpoint and through the pooled client of its endpoint otherwise
+     * Not registered with ConnectionManager: the client outlives the request.
+     */
+    private ProxyConnection requestScopedConnection(ProxyConnection proxyConnection, Route route,
+                                                    Backend backend, Endpoint endpoint) {
+        HttpClient httpClient = endpoint == proxyConnection.getEndpoint()
+                ? proxyConnection.getHttpClient()
+                : upstreamPool.getClient(endpoint);
+        return new ProxyConnection(proxyConnection.getClientConnection(), route, endpoint, backend,
+                httpClient, false, portType, proxyConnection.getClientIp());
+    }
+
+    private Backend findBackend(HttpServerRequest request, String backendName) {
+        Backend backend = registry.getBackend(backendName);
+        if (backend == null) {
+            log.error("Backend not found: {}", backendName);
+            request.response().setStatusCode(503).end("Service Unavailable - Backend not found");
+        }
+        return backend;
+    }
+
+    private Endpoint selectEndpoint(HttpServerRequest request, Backend backend) {
+        HashKeyExtractor hashKeyExtractor = backend.getHashKeyExtractor();
+        String hashKey = hashKeyExtractor != null
+                ? hashKeyExtractor.extract(request, request.remoteAddress().host())
+                : null;
+        Endpoint endpoint = endpointSelector.select(backend, hashKey);
+        if (endpoint == null) {
+            log.error("No healthy endpoint for backend: {}", backend.getName());
+            request.response().setStatusCode(503).end("Service Unavailable - No healthy endpoints");
+        }
+        return endpoint;
+    }
+
+    /**
+     * Close the upstream pools of endpoints removed by a config reload
+     * Called on the reload thread, the pool itself is only touched on this instance's context
+     */
+    @Override
+    public void onEntityChanged(EntityChangeEvent event) {
+        if (!(event instanceof BackendsUpdatedEvent backendsEvent) || upstreamPool == null) {
+            return;
+        }
+
+        Set<String> addresses = new HashSet<>();
+        Map<String, Backend> newBackends = backendsEvent.getNewBackends();
+        if (newBackends != null) {
+            for (Backend backend : newBackends.values()) {
+                for (Endpoint endpoint : backend.getEndpoints()) {
+                    addresses.add(endpoint.getAddress(portType));
+                }
+            }
+        }
+        context.runOnContext(v -> upstreamPool.retainAll(addresses));
+    }
+
     // Getters for shared components (for compatibility)
     public ConnectionManager getConnectionManager() {
         return connectionManager;
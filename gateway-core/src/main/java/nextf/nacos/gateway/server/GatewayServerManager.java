@@ -1,6 +1,9 @@
 package nextf.nacos.gateway.server;
 
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Future;
 import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import nextf.nacos.gateway.config.GatewayConfig;
@@ -10,20 +13,36 @@ import nextf.nacos.gateway.config.event.EntityChangeEvent;
 import nextf.nacos.gateway.config.event.EntityChangeListener;
 import nextf.nacos.gateway.config.event.RoutesUpdatedEvent;
 import nextf.nacos.gateway.health.HealthCheckManager;
+import nextf.nacos.gateway.jfr.FlightRecorderSession;
 import nextf.nacos.gateway.loadbalance.EndpointSelector;
+import nextf.nacos.gateway.config.ManagementConfig;
 import nextf.nacos.gateway.management.HealthEndpoint;
+import nextf.nacos.gateway.management.AdmissionQueuesEndpoint;
+import nextf.nacos.gateway.management.ConcurrencyLimitsEndpoint;
+import nextf.nacos.gateway.management.FlightRecorderEndpoint;
+import nextf.nacos.gateway.management.ManagementEndpoint;
+import nextf.nacos.gateway.management.MetricsEndpoint;
+import nextf.nacos.gateway.metrics.GatewayMetrics;
+import nextf.nacos.gateway.metrics.PhaseMetrics;
+import nextf.nacos.gateway.management.TopClientsEndpoint;
 import nextf.nacos.gateway.model.Backend;
 import nextf.nacos.gateway.proxy.ConnectionManager;
+import nextf.nacos.gateway.ratelimit.ClientLimiterStore;
+import nextf.nacos.gateway.ratelimit.HeavyHitterDetector;
 import nextf.nacos.gateway.ratelimit.RateLimitManager;
 import nextf.nacos.gateway.registry.GatewayRegistry;
 import nextf.nacos.gateway.route.RouteMatcher;
 import nextf.nacos.gateway.logging.AccessLogger;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Manages multiple GatewayServer instances, one per port type
+ * Manages the GatewayServer deployments, one deployment per port type
+ * Each deployment runs several verticle instances so that every event loop serves connections.
+ * The management endpoints are served by a ManagementServer on a Vert.x instance of their own.
  * Shared components (GatewayRegistry, HealthCheckManager, RateLimitManager) are used across all servers
  */
 public class GatewayServerManager implements EntityChangeListener {
@@ -32,8 +51,10 @@ public class GatewayServerManager implements EntityChangeListener {
 
     private final Vertx vertx;
     private final GatewayConfig config;
-    // One server per port type
-    private final Map<PortType, GatewayServer> servers = new ConcurrentHashMap<>();
+    // One verticle deployment per port type
+    private final Map<PortType, String> deployments = new ConcurrentHashMap<>();
+    // Single event loop Vert.x instance of the management server, null if no endpoint is enabled
+    private Vertx managementVertx;
 
     // Shared components across all servers
     private GatewayRegistry registry;
@@ -41,8 +62,13 @@ public class GatewayServerManager implements EntityChangeListener {
     private ConnectionManager connectionManager;
     private HealthCheckManager healthCheckManager;
     private RateLimitManager rateLimitManager;
-    private HealthEndpoint healthEndpoint;
+    private final List<ManagementEndpoint> managementEndpoints = new ArrayList<>();
+    private GatewayMetrics metrics;
+    private PhaseMetrics phaseMetrics;
+    private FlightRecorderSession flightRecorderSession;
     private AccessLogger accessLogger;
+    private long clientLimiterSweepTimer = -1;
+    private long heavyHitterDecayTimer = -1;
 
     public GatewayServerManager(Vertx vertx, GatewayConfig config) {
         this.vertx = vertx;
@@ -51,8 +77,9 @@ public class GatewayServerManager implements EntityChangeListener {
 
     /**
      * Start all gateway servers
+     * @return future completed once every port type has been deployed
      */
-    public void start() {
+    public Future<Void> start() {
         log.info("=================================================");
         log.info("    Nacos Gateway - Starting...");
         log.info("=================================================");
@@ -60,49 +87,132 @@ public class GatewayServerManager implements EntityChangeListener {
         // Initialize shared components
         initializeSharedComponents();
 
-        // Start a server for each port type
+        int instances = resolveInstances();
+
+        // Deploy the server verticle for each port type
+        List<Future<String>> pending = new ArrayList<>();
         for (PortType portType : PortType.values()) {
             int port = config.getServer().getPortForType(portType.getConfigName());
 
-            GatewayServer server = new GatewayServer(
-                vertx,
-                config,
-                portType,
-                port,
-                registry,
-                endpointSelector,
-                connectionManager,
-                rateLimitManager,
-                healthEndpoint,
-                accessLogger
-            );
-
-            servers.put(portType, server);
-            server.start(s -> healthCheckManager.startBackendChecking());
+            // The gRPC port can run as a TCP passthrough instead of an HTTP/2 proxy
+            boolean passthrough = portType == PortType.API_V2 && config.getServer().isTcpPassthroughEnabled();
+
+            DeploymentOptions options = new DeploymentOptions().setInstances(instances);
+            Future<String> deployment = vertx.deployVerticle(() -> passthrough
+                    ? new TcpPassthroughServer(
+                        config,
+                        port,
+                        registry,
+                        endpointSelector,
+                        connectionManager,
+                        rateLimitManager)
+                    : new GatewayServer(
+                        config,
+                        portType,
+                        port,
+                        registry,
+                        endpointSelector,
+                        connectionManager,
+                        rateLimitManager,
+                        accessLogger,
+                        metrics,
+                        phaseMetrics
+                    ), options)
+                .onSuccess(id -> {
+                    deployments.put(portType, id);
+                    log.info("Started {} server on port {} with {} instances{}",
+                            portType.getDescription(), port, instances,
+                            passthrough ? " (TCP passthrough)" : "");
+                })
+                .onFailure(t -> log.error("Failed to start {} server on port {}: {}",
+                        portType.getDescription(), port, t.getMessage()));
+            pending.add(deployment);
+        }
 
-            log.info("Started {} server on port {}", portType.getDescription(), port);
+        if (!managementEndpoints.isEmpty()) {
+            pending.add(deployManagementServer());
         }
 
-        log.info("=================================================");
-        log.info("    Nacos Gateway - Started Successfully!");
-        log.info("=================================================");
+        return Future.all(pending)
+            .onSuccess(v -> {
+                // Health checks are shared, start them once all listeners are up
+                healthCheckManager.startBackendChecking();
+
+                // Expire idle per-client rate limiters
+                clientLimiterSweepTimer = vertx.setPeriodic(ClientLimiterStore.SWEEP_INTERVAL_MILLIS,
+                        id -> rateLimitManager.sweepClientLimiters());
+                // Age the approximate per-client request counts
+                heavyHitterDecayTimer = vertx.setPeriodic(HeavyHitterDetector.DECAY_PERIOD_MILLIS,
+                        id -> rateLimitManager.decayHeavyHitters());
+
+                log.info("=================================================");
+                log.info("    Nacos Gateway - Started Successfully!");
+                log.info("=================================================");
+            })
+            .mapEmpty();
+    }
+
+    /**
+     * Deploy the management server on its own single event loop Vert.x instance
+     */
+    private Future<String> deployManagementServer() {
+        ManagementConfig mgmtConfig = config.getManagement();
+        managementVertx = Vertx.vertx(new VertxOptions()
+                .setEventLoopPoolSize(1)
+                .setWorkerPoolSize(1)
+                .setInternalBlockingPoolSize(1));
+        return managementVertx.deployVerticle(new ManagementServer(
+                    mgmtConfig.getHost(),
+                    mgmtConfig.getPort(),
+                    managementEndpoints))
+                .onSuccess(id -> log.info("Started management server on {}:{}",
+                        mgmtConfig.getHost(), mgmtConfig.getPort()))
+                .onFailure(t -> log.error("Failed to start management server on port {}: {}",
+                        mgmtConfig.getPort(), t.getMessage()));
     }
 
     /**
      * Stop all gateway servers
+     * @return future completed once every server deployment has been undeployed
      */
-    public void stop() {
+    public Future<Void> stop() {
         log.info("=================================================");
         log.info("    Stopping Nacos Gateway...");
         log.info("=================================================");
 
-        servers.values().forEach(GatewayServer::stop);
-        servers.clear();
+        List<Future<Void>> pending = new ArrayList<>();
+        deployments.forEach((portType, id) -> pending.add(vertx.undeploy(id)
+                .onSuccess(v -> log.info("{} server stopped", portType.getDescription()))
+                .onFailure(t -> log.error("Error stopping {} server: {}", portType.getDescription(), t.getMessage()))));
+        deployments.clear();
+
+        if (managementVertx != null) {
+            // Closing the instance undeploys the management server
+            pending.add(managementVertx.close()
+                    .onSuccess(v -> log.info("Management server stopped"))
+                    .onFailure(t -> log.error("Error stopping management server: {}", t.getMessage())));
+            managementVertx = null;
+        }
+
+        if (flightRecorderSession != null) {
+            // A recording left running is discarded, dump it before stopping if it is needed
+            flightRecorderSession.close();
+        }
 
         if (healthCheckManager != null) {
             healthCheckManager.stopAll();
         }
 
+        if (clientLimiterSweepTimer != -1) {
+            vertx.cancelTimer(clientLimiterSweepTimer);
+            clientLimiterSweepTimer = -1;
+        }
+
+        if (heavyHitterDecayTimer != -1) {
+            vertx.cancelTimer(heavyHitterDecayTimer);
+            heavyHitterDecayTimer = -1;
+        }
+
         if (connectionManager != null) {
             connectionManager.closeAll();
         }
@@ -114,6 +224,22 @@ public class GatewayServerManager implements EntityChangeListener {
         log.info("=================================================");
         log.info("    Nacos Gateway Stopped!");
         log.info("=================================================");
+
+        return Future.join(pending).mapEmpty();
+    }
+
+    /**
+     * Number of verticle instances per port
+     * Defaults to one instance per event loop when not configured
+     */
+    private int resolveInstances() {
+        var serverConfig = config.getServer();
+        if (serverConfig.getInstances() > 0) {
+            return serverConfig.getInstances();
+        }
+        return serverConfig.getEventLoopPoolSize() > 0
+                ? serverConfig.getEventLoopPoolSize()
+                : VertxOptions.DEFAULT_EVENT_LOOP_POOL_SIZE;
     }
 
     /**
@@ -153,10 +279,54 @@ public class GatewayServerManager implements EntityChangeListener {
         // Initialize health endpoint
         var mgmtConfig = config.getManagement();
         if (mgmtConfig != null && mgmtConfig.getHealth() != null && mgmtConfig.getHealth().isEnabled()) {
-            healthEndpoint = new HealthEndpoint(mgmtConfig.getHealth().getPath());
+            HealthEndpoint healthEndpoint = new HealthEndpoint(mgmtConfig.getHealth().getPath());
+            managementEndpoints.add(healthEndpoint);
             log.info("Health endpoint enabled: {}", healthEndpoint.getPath());
         }
 
+        // Initialize top clients endpoint
+        if (mgmtConfig != null && mgmtConfig.getTopClients() != null && mgmtConfig.getTopClients().isEnabled()) {
+            TopClientsEndpoint topClientsEndpoint = new TopClientsEndpoint(mgmtConfig.getTopClients().getPath(), rateLimitManager);
+            managementEndpoints.add(topClientsEndpoint);
+            log.info("Top clients endpoint enabled: {}", topClientsEndpoint.getPath());
+        }
+
+        // Initialize admission queues endpoint
+        if (mgmtConfig != null && mgmtConfig.getAdmissionQueues() != null && mgmtConfig.getAdmissionQueues().isEnabled()) {
+            AdmissionQueuesEndpoint admissionQueuesEndpoint = new AdmissionQueuesEndpoint(mgmtConfig.getAdmissionQueues().getPath(), rateLimitManager);
+            managementEndpoints.add(admissionQueuesEndpoint);
+            log.info("Admission queues endpoint enabled: {}", admissionQueuesEndpoint.getPath());
+        }
+
+        // Initialize concurrency limits endpoint
+        if (mgmtConfig != null && mgmtConfig.getConcurrencyLimits() != null && mgmtConfig.getConcurrencyLimits().isEnabled()) {
+            ConcurrencyLimitsEndpoint concurrencyLimitsEndpoint = new ConcurrencyLimitsEndpoint(mgmtConfig.getConcurrencyLimits().getPath(), rateLimitManager);
+            managementEndpoints.add(concurrencyLimitsEndpoint);
+            log.info("Concurrency limits endpoint enabled: {}", concurrencyLimitsEndpoint.getPath());
+        }
+
+        // Initialize phase timings, switched on and off by config reloads
+        phaseMetrics = new PhaseMetrics(config.getServer().isPhaseTimings());
+
+        // Initialize metrics endpoint, requests are only measured while it is enabled
+        if (mgmtConfig != null && mgmtConfig.getMetrics() != null && mgmtConfig.getMetrics().isEnabled()) {
+            metrics = new GatewayMetrics(mgmtConfig.getMetrics().getMaxSeries());
+            MetricsEndpoint metricsEndpoint = new MetricsEndpoint(mgmtConfig.getMetrics().getPath(), metrics,
+                    phaseMetrics, rateLimitManager, connectionManager);
+            managementEndpoints.add(metricsEndpoint);
+            log.info("Metrics endpoint enabled: {}", metricsEndpoint.getPath());
+        }
+
+        // Initialize flight recorder endpoint
+        if (mgmtConfig != null && mgmtConfig.getFlightRecorder() != null && mgmtConfig.getFlightRecorder().isEnabled()) {
+            flightRecorderSession = new FlightRecorderSession(mgmtConfig.getFlightRecorder().getDirectory(),
+                    mgmtConfig.getFlightRecorder().getMaxAgeSeconds());
+            FlightRecorderEndpoint flightRecorderEndpoint = new FlightRecorderEndpoint(mgmtConfig.getFlightRecorder().getPath(),
+                    flightRecorderSession);
+            managementEndpoints.add(flightRecorderEndpoint);
+            log.info("Flight recorder endpoint enabled: {}", flightRecorderEndpoint.getPath());
+        }
+
         // Initialize access logger
         if (config.getAccessLog() != null) {
             accessLogger = new AccessLogger(config.getAccessLog());
@@ -181,6 +351,9 @@ public class GatewayServerManager implements EntityChangeListener {
             }
         }
 
+        // Resolve the limiter chain of each route
+        rateLimitManager.bindRoutes(registry.getRoutes().values());
+
         log.info("Shared gateway components initialized");
     }
 
@@ -226,11 +399,15 @@ public class GatewayServerManager implements EntityChangeListener {
         return registry;
     }
 
-    public GatewayServer getServer(PortType portType) {
-        return servers.get(portType);
+    public String getDeploymentId(PortType portType) {
+        return deployments.get(portType);
     }
 
     public AccessLogger getAccessLogger() {
         return accessLogger;
     }
+
+    public PhaseMetrics getPhaseMetrics() {
+        return phaseMetrics;
+    }
 }
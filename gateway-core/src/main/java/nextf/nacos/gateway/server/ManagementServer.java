@@ -0,0 +1,90 @@
+package nextf.nacos.gateway.server;
+
+import io.vertx.core.Future;
+import io.vertx.core.VerticleBase;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.http.HttpServerRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import nextf.nacos.gateway.management.ManagementEndpoint;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Management server verticle
+ * Serves the health, metrics and admin endpoints on their own port, so that the proxy ports never
+ * answer management paths and the request path of proxied traffic does not check for them.
+ * GatewayServerManager deploys it on a dedicated single event loop Vert.x instance: probes and scrapes
+ * are neither queued behind data traffic nor slowing it down.
+ */
+public class ManagementServer extends VerticleBase {
+
+    private static final Logger log = LoggerFactory.getLogger(ManagementServer.class);
+
+    private final String host;
+    private final int listeningPort;
+    // Endpoints by path, read-only once constructed
+    private final Map<String, ManagementEndpoint> endpoints = new HashMap<>();
+
+    private HttpServer server;
+
+    /**
+     * @param host the address to bind
+     * @param port the port to listen on
+     * @param endpoints the enabled management endpoints
+     */
+    public ManagementServer(String host, int port, List<ManagementEndpoint> endpoints) {
+        this.host = host;
+        this.listeningPort = port;
+        for (ManagementEndpoint endpoint : endpoints) {
+            if (this.endpoints.putIfAbsent(endpoint.getPath(), endpoint) != null) {
+                log.warn("Management path {} is used by several endpoints, keeping the first one", endpoint.getPath());
+            }
+        }
+    }
+
+    @Override
+    public Future<?> start() {
+        server = vertx.createHttpServer(new HttpServerOptions().setHost(host).setPort(listeningPort));
+        server.requestHandler(this::handleRequest);
+
+        // Start server (a failed listen fails the deployment)
+        return server.listen()
+            .onSuccess(v -> log.debug("Management server started on {}:{}", host, listeningPort))
+            .onFailure(t -> log.error("Failed to start management server: {}", t.getMessage()));
+    }
+
+    @Override
+    public Future<?> stop() {
+        if (server == null) {
+            return Future.succeededFuture();
+        }
+        return server.close()
+            .onSuccess(v -> log.debug("Management server on port {} stopped", listeningPort))
+            .onFailure(t -> log.error("Error stopping management server: {}", t.getMessage()));
+    }
+
+    private void handleRequest(HttpServerRequest request) {
+        ManagementEndpoint endpoint = endpoints.get(request.path());
+        if (endpoint == null) {
+            request.response().setStatusCode(404).end("Not Found");
+            return;
+        }
+
+        try {
+            endpoint.handle(request);
+        } catch (Exception e) {
+            log.error("Error handling management request {}: {}", request.path(), e.getMessage(), e);
+            if (!request.response().ended()) {
+                request.response().setStatusCode(500).end("Internal Server Error");
+            }
+        }
+    }
+
+    public int getListeningPort() {
+        return listeningPort;
+    }
+}
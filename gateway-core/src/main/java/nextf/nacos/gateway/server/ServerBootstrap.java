@@ -1,12 +1,15 @@
 package nextf.nacos.gateway.server;
 
+import io.vertx.core.Future;
 import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import nextf.nacos.gateway.config.ConfigLoader;
 import nextf.nacos.gateway.config.ConfigReloader;
 import nextf.nacos.gateway.config.ConfigWatcher;
 import nextf.nacos.gateway.config.GatewayConfig;
+import nextf.nacos.gateway.config.ServerConfig;
 import nextf.nacos.gateway.config.reader.ConfigFileReader;
 import nextf.nacos.gateway.config.reader.ConfigFileReaderFactory;
 
@@ -28,22 +31,25 @@ public class ServerBootstrap {
     }
 
     public void start() throws Exception {
-        // 1. Create Vert.x instance (FileConfigReader needs Vertx to set up timers)
-        vertx = Vertx.vertx();
+        // 1. Create ConfigFileReader (FileConfigReader resolves Vert.x lazily, once it starts watching)
+        ConfigFileReader configFileReader = ConfigFileReaderFactory.getReader(configPath, () -> vertx);
 
-        // 2. Create ConfigFileReader
-        ConfigFileReader configFileReader = ConfigFileReaderFactory.getReader(configPath, vertx);
-
-        // 3. Read configuration content
+        // 2. Read configuration content
         String configContent = configFileReader.readConfig();
 
-        // 4. Parse configuration
+        // 3. Parse configuration
         ConfigLoader configLoader = new ConfigLoader();
         GatewayConfig config = configLoader.loadFromString(configContent);
 
-        // 5. Create and start gateway server manager
+        // 4. Create Vert.x instance sized from the server configuration
+        vertx = Vertx.vertx(createVertxOptions(config.getServer()));
+
+        // 5. Create gateway server manager and wait until every port is listening
         gatewayServerManager = new GatewayServerManager(vertx, config);
-        gatewayServerManager.start();
+        gatewayServerManager.start()
+                .toCompletionStage()
+                .toCompletableFuture()
+                .get();
 
         // 6. Create ConfigReloader (pass ConfigFileReader)
         ConfigReloader reloader = new ConfigReloader(
@@ -51,7 +57,8 @@ public class ServerBootstrap {
                 gatewayServerManager.getRegistry(),
                 gatewayServerManager.getRateLimitManager(),
                 configFileReader,
-                gatewayServerManager.getAccessLogger()
+                gatewayServerManager.getAccessLogger(),
+                gatewayServerManager.getPhaseMetrics()
         );
 
         // 7. Initialize reloader and set current configuration
@@ -66,6 +73,19 @@ public class ServerBootstrap {
         log.info("=================================================");
     }
 
+    private VertxOptions createVertxOptions(ServerConfig serverConfig) {
+        VertxOptions options = new VertxOptions();
+        if (serverConfig.getEventLoopPoolSize() > 0) {
+            options.setEventLoopPoolSize(serverConfig.getEventLoopPoolSize());
+        }
+        if (serverConfig.getWorkerPoolSize() > 0) {
+            options.setWorkerPoolSize(serverConfig.getWorkerPoolSize());
+        }
+        log.info("Vert.x event loops: {}, worker threads: {}",
+                options.getEventLoopPoolSize(), options.getWorkerPoolSize());
+        return options;
+    }
+
     public void stop() {
         log.info("Stopping Nacos Gateway...");
 
@@ -73,12 +93,13 @@ public class ServerBootstrap {
             configWatcher.stop();
         }
 
-        if (gatewayServerManager != null) {
-            gatewayServerManager.stop();
-        }
+        Future<Void> serversStopped = gatewayServerManager != null
+                ? gatewayServerManager.stop()
+                : Future.succeededFuture();
 
         if (vertx != null) {
-            vertx.close()
+            // Close Vert.x once the servers are undeployed, otherwise both undeploy the same verticles
+            serversStopped.eventually(() -> vertx.close())
                 .onSuccess(v -> log.info("Nacos Gateway stopped"))
                 .onFailure(t -> log.error("Error stopping gateway: {}", t.getMessage()));
         }
@@ -0,0 +1,228 @@
+package nextf.nacos.gateway.server;
+
+import io.vertx.core.Future;
+import io.vertx.core.VerticleBase;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.net.NetClient;
+import io.vertx.core.net.NetClientOptions;
+import io.vertx.core.net.NetServer;
+import io.vertx.core.net.NetServerOptions;
+import io.vertx.core.net.NetSocket;
+import nextf.nacos.gateway.config.GatewayConfig;
+import nextf.nacos.gateway.config.PortType;
+import nextf.nacos.gateway.config.TimeoutConfig;
+import nextf.nacos.gateway.loadbalance.EndpointSelector;
+import nextf.nacos.gateway.model.Backend;
+import nextf.nacos.gateway.model.Endpoint;
+import nextf.nacos.gateway.proxy.ConnectionManager;
+import nextf.nacos.gateway.proxy.ProxyConnection;
+import nextf.nacos.gateway.proxy.SniParser;
+import nextf.nacos.gateway.ratelimit.LimitExceededException;
+import nextf.nacos.gateway.ratelimit.RateLimitManager;
+import nextf.nacos.gateway.registry.GatewayRegistry;
+import nextf.nacos.gateway.route.Route;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * TCP passthrough server verticle for the gRPC port (apiV2)
+ * Splices each client connection to one backend endpoint without decoding HTTP/2.
+ * The route is chosen by the TLS SNI host of the first bytes, or by the configured
+ * default host for plaintext connections. QPS limits cannot apply as requests are not
+ * visible at this layer; connection limits are enforced through ConnectionManager and the
+ * new connection rate limits when the socket is accepted.
+ */
+public class TcpPassthroughServer extends VerticleBase {
+
+    private static final Logger log = LoggerFactory.getLogger(TcpPassthroughServer.class);
+
+    private final GatewayConfig config;
+    private final int listeningPort;
+    private final String defaultHost;
+
+    private NetServer server;
+    private NetClient client;
+
+    // Shared components (injected from GatewayServerManager)
+    private final GatewayRegistry registry;
+    private final EndpointSelector endpointSelector;
+    private final ConnectionManager connectionManager;
+    private final RateLimitManager rateLimitManager;
+
+    public TcpPassthroughServer(
+            GatewayConfig config,
+            int port,
+            GatewayRegistry registry,
+            EndpointSelector endpointSelector,
+            ConnectionManager connectionManager,
+            RateLimitManager rateLimitManager) {
+        this.config = config;
+        this.listeningPort = port;
+        this.defaultHost = config.getServer().getTcpPassthrough().getDefaultHost();
+        this.registry = registry;
+        this.endpointSelector = endpointSelector;
+        this.connectionManager = connectionManager;
+        this.rateLimitManager = rateLimitManager;
+    }
+
+    @Override
+    public Future<?> start() {
+        log.debug("Starting TCP passthrough server instance on port {}...", listeningPort);
+
+        client = vertx.createNetClient(createClientOptions());
+        server = vertx.createNetServer(createServerOptions());
+        server.connectHandler(this::handleConnection);
+
+        return server.listen(listeningPort)
+            .onSuccess(s -> log.debug("TCP passthrough server instance started on port {}", listeningPort))
+            .onFailure(t -> log.error("Failed to start TCP passthrough server: {}", t.getMessage()));
+    }
+
+    @Override
+    public Future<?> stop() {
+        log.debug("Stopping TCP passthrough server instance on port {}...", listeningPort);
+
+        if (client != null) {
+            client.close();
+        }
+        if (server == null) {
+            return Future.succeededFuture();
+        }
+        return server.close()
+            .onFailure(t -> log.error("Error stopping TCP passthrough server: {}", t.getMessage()));
+    }
+
+    private NetServerOptions createServerOptions() {
+        NetServerOptions options = new NetServerOptions();
+        options.setPort(listeningPort);
+
+        TimeoutConfig timeout = config.getTimeout();
+        if (timeout != null) {
+            options.setIdleTimeout(timeout.getIdleTimeoutSeconds());
+        }
+
+        return options;
+    }
+
+    private NetClientOptions createClientOptions() {
+        NetClientOptions options = new NetClientOptions();
+
+        TimeoutConfig timeout = config.getTimeout();
+        if (timeout != null) {
+            options.setConnectTimeout(timeout.getConnectTimeoutSeconds() * 1000);
+            options.setIdleTimeout(timeout.getIdleTimeoutSeconds());
+        }
+
+        return options;
+    }
+
+    /**
+     * Buffer the first bytes until the route host is known, then connect upstream
+     */
+    private void handleConnection(NetSocket socket) {
+        String clientIp = socket.remoteAddress().host();
+        if (!rateLimitManager.tryAcceptConnection(clientIp)) {
+            log.debug("Connection rate exceeded, closing connection from {}", clientIp);
+            socket.close();
+            return;
+        }
+
+        Buffer head = Buffer.buffer();
+        socket.handler(buffer -> {
+            head.appendBuffer(buffer);
+
+            String host;
+            if (SniParser.isTlsHandshake(head)) {
+                int recordLength = SniParser.recordLength(head);
+                if (recordLength < 0 || head.length() < recordLength) {
+                    if (head.length() > SniParser.MAX_RECORD_LENGTH) {
+                        log.warn("Invalid TLS ClientHello from {}", socket.remoteAddress());
+                        socket.close();
+                    }
+                    return;
+                }
+                host = SniParser.serverName(head);
+                if (host == null) {
+                    host = defaultHost;
+                }
+            } else {
+                host = defaultHost;
+            }
+
+            // Stop buffering, the pipes take over once the upstream connection is ready
+            socket.pause();
+            socket.handler(null);
+            connect(socket, host, head);
+        });
+    }
+
+    private void connect(NetSocket socket, String host, Buffer head) {
+        String clientIp = socket.remoteAddress().host();
+
+        if (host == null) {
+            log.warn("No SNI and no default host for TCP connection from {}", clientIp);
+            socket.close();
+            return;
+        }
+
+        // Match route
+        var routeOpt = registry.getRouteMatcher().match(host);
+        if (routeOpt.isEmpty()) {
+            log.warn("No route matched for host: {}", host);
+            socket.close();
+            return;
+        }
+        Route route = routeOpt.get();
+
+        // Select backend and endpoint (load balancing)
+        Backend backend = registry.getBackend(route.getBackendName());
+        if (backend == null) {
+            log.error("Backend not found: {}", route.getBackendName());
+            socket.close();
+            return;
+        }
+
+        // Only the client IP is known before the stream is decoded
+        Endpoint endpoint = endpointSelector.select(backend, clientIp);
+        if (endpoint == null) {
+            log.error("No healthy endpoint for backend: {}", backend.getName());
+            socket.close();
+            return;
+        }
+
+        // Apply connection limits before dialing the backend
+        ProxyConnection proxyConnection = new ProxyConnection(socket, route, endpoint, backend, clientIp);
+        try {
+            connectionManager.addTcpConnection(proxyConnection);
+        } catch (LimitExceededException e) {
+            log.warn("Connection limit exceeded for client: {}", clientIp);
+            socket.close();
+            return;
+        }
+        backend.getLoadBalancer().onConnectionOpen(endpoint);
+
+        String address = endpoint.getAddress(PortType.API_V2);
+        client.connect(endpoint.getPortForType(PortType.API_V2), endpoint.getHost())
+            .onSuccess(upstream -> {
+                if (!proxyConnection.attachUpstreamSocket(upstream)) {
+                    log.debug("Client {} closed before upstream {} was ready", clientIp, address);
+                    return;
+                }
+                upstream.closeHandler(v -> socket.close());
+
+                // Replay the bytes read for routing, then splice both directions with backpressure
+                upstream.write(head);
+                socket.pipeTo(upstream);
+                upstream.pipeTo(socket);
+                log.debug("TCP connection {} spliced to {}", socket.remoteAddress(), address);
+            })
+            .onFailure(t -> {
+                log.error("TCP connection to backend {} failed: {}", address, t.getMessage());
+                socket.close();
+            });
+    }
+
+    public int getListeningPort() {
+        return listeningPort;
+    }
+}
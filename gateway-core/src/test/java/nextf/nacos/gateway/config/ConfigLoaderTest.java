@@ -940,4 +940,464 @@ class ConfigLoaderTest {
         assertThat(ports.getApiV2()).isEqualTo(9848);
         assertThat(ports.getApiConsole()).isEqualTo(8080);
     }
+
+    @Test
+    @DisplayName("Should parse upstream pool settings with defaults")
+    void testUpstreamPoolConfig() throws IOException {
+        // Arrange
+        String yaml = """
+                server:
+                  ports:
+                    apiV1: 18848
+                    apiV2: 19848
+                    apiConsole: 18080
+                  upstreamPool:
+                    maxSize: 8
+                    keepAliveTimeoutSeconds: 30
+
+                routes:
+                  - host: "*.nacos.io"
+                    backend: test-backend
+
+                backends:
+                  - name: test-backend
+                    ports: {}
+                    endpoints:
+                      - host: 10.0.0.1
+                """;
+
+        // Act
+        GatewayConfig config = loader.loadFromString(yaml);
+
+        // Assert
+        UpstreamPoolConfig pool = config.getServer().getUpstreamPool();
+        assertThat(pool.getMaxSize()).isEqualTo(8);
+        assertThat(pool.getKeepAliveTimeoutSeconds()).isEqualTo(30);
+        assertThat(pool.isKeepAlive()).isTrue();
+        assertThat(pool.getCleanerPeriodMillis()).isEqualTo(1000);
+        assertThat(pool.getMaxWaitQueueSize()).isEqualTo(-1);
+    }
+
+    @Test
+    @DisplayName("Should reject upstream pool with zero max size")
+    void testUpstreamPoolInvalidMaxSize() {
+        // Arrange
+        String yaml = """
+                server:
+                  ports:
+                    apiV1: 18848
+                    apiV2: 19848
+                    apiConsole: 18080
+                  upstreamPool:
+                    maxSize: 0
+
+                routes:
+                  - host: "*.nacos.io"
+                    backend: test-backend
+
+                backends:
+                  - name: test-backend
+                    ports: {}
+                    endpoints:
+                      - host: 10.0.0.1
+                """;
+
+        // Act & Assert
+        assertThatThrownBy(() -> loader.loadFromString(yaml))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Upstream pool max size");
+    }
+
+    @Test
+    @DisplayName("Should load endpoint weights and reject out-of-range values")
+    void testEndpointWeight() throws IOException {
+        // Arrange
+        String yaml = """
+                server:
+                  ports:
+                    apiV1: 18848
+                    apiV2: 19848
+                    apiConsole: 18080
+
+                routes:
+                  - host: "*.nacos.io"
+                    backend: test-backend
+
+                backends:
+                  - name: test-backend
+                    ports: {}
+                    loadBalance: weighted-round-robin
+                    endpoints:
+                      - host: 10.0.0.1
+                        weight: 4
+                      - host: 10.0.0.2
+                """;
+
+        // Act
+        GatewayConfig config = loader.loadFromString(yaml);
+
+        // Assert
+        assertThat(config.getBackends().get(0).getEndpoints().get(0).getWeight()).isEqualTo(4);
+        assertThat(config.getBackends().get(0).getEndpoints().get(1).getWeight()).isEqualTo(1);
+        assertThatThrownBy(() -> loader.loadFromString(yaml.replace("weight: 4", "weight: 101")))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Endpoint weight must be between 1 and 100");
+    }
+
+    @Test
+    @DisplayName("Should load and validate rate limit burst")
+    void testRateLimitBurst() throws IOException {
+        // Arrange
+        String yaml = """
+                server:
+                  ports:
+                    apiV1: 18848
+                    apiV2: 19848
+                    apiConsole: 18080
+                  rateLimit:
+                    maxQps: 100
+                    burst: 200
+                    maxQpsPerClient: 10
+                    burstPerClient: 20
+
+                routes:
+                  - host: "*.nacos.io"
+                    backend: test-backend
+
+                backends:
+                  - name: test-backend
+                    ports: {}
+                    endpoints:
+                      - host: 10.0.0.1
+                """;
+
+        // Act
+        GatewayConfig config = loader.loadFromString(yaml);
+
+        // Assert
+        assertThat(config.getServer().getRateLimit().getBurst()).isEqualTo(200);
+        assertThat(config.getServer().getRateLimit().getBurstPerClient()).isEqualTo(20);
+        assertThat(config.getBackends().get(0).getRateLimit().getBurst()).isEqualTo(-1);
+        assertThatThrownBy(() -> loader.loadFromString(yaml.replace("burst: 200", "burst: 0")))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Server burst must be -1 or positive");
+    }
+
+    @Test
+    @DisplayName("Should validate the burst of route rate limits")
+    void testRouteRateLimitBurst() throws IOException {
+        // Arrange
+        String yaml = """
+                server:
+                  ports:
+                    apiV1: 18848
+                    apiV2: 19848
+                    apiConsole: 18080
+
+                routes:
+                  - host: "*.nacos.io"
+                    backend: test-backend
+                    rateLimit:
+                      maxQps: 100
+                      burst: 200
+                      maxQpsPerClient: 10
+                      burstPerClient: 20
+
+                backends:
+                  - name: test-backend
+                    ports: {}
+                    endpoints:
+                      - host: 10.0.0.1
+                """;
+
+        // Act
+        GatewayConfig config = loader.loadFromString(yaml);
+
+        // Assert
+        assertThat(config.getRoutes().get(0).getRateLimit().getBurst()).isEqualTo(200);
+        assertThat(config.getRoutes().get(0).getRateLimit().getBurstPerClient()).isEqualTo(20);
+        assertThatThrownBy(() -> loader.loadFromString(yaml.replace("burst: 200", "burst: 0")))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Route burst must be -1 or positive");
+        assertThatThrownBy(() -> loader.loadFromString(yaml.replace("burstPerClient: 20", "burstPerClient: -2")))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Route burst per client must be -1 or positive");
+    }
+
+    @Test
+    @DisplayName("Should validate the permit lease of route rate limits")
+    void testRouteRateLimitLease() throws IOException {
+        // Arrange
+        String yaml = """
+                server:
+                  ports:
+                    apiV1: 18848
+                    apiV2: 19848
+                    apiConsole: 18080
+
+                routes:
+                  - host: "*.nacos.io"
+                    backend: test-backend
+                    rateLimit:
+                      maxQps: 10000
+                      leaseSize: 8
+                      leaseMillis: 5
+
+                backends:
+                  - name: test-backend
+                    ports: {}
+                    endpoints:
+                      - host: 10.0.0.1
+                """;
+
+        // Act
+        GatewayConfig config = loader.loadFromString(yaml);
+
+        // Assert
+        assertThat(config.getRoutes().get(0).getRateLimit().getLeaseSize()).isEqualTo(8);
+        assertThat(config.getRoutes().get(0).getRateLimit().getLeaseMillis()).isEqualTo(5);
+        assertThatThrownBy(() -> loader.loadFromString(yaml.replace("leaseSize: 8", "leaseSize: 0")))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Route lease size must be -1 or positive");
+        assertThatThrownBy(() -> loader.loadFromString(yaml.replace("leaseMillis: 5", "leaseMillis: 0")))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Route lease millis must be positive");
+    }
+
+    @Test
+    @DisplayName("Should load and validate the admission queue of routes")
+    void testRateLimitQueue() throws IOException {
+        // Arrange
+        String yaml = """
+                server:
+                  ports:
+                    apiV1: 18848
+                    apiV2: 19848
+                    apiConsole: 18080
+
+                routes:
+                  - host: "*.nacos.io"
+                    backend: test-backend
+                    rateLimit:
+                      maxQps: 100
+                      queueDepth: 50
+                      queueTimeoutMillis: 200
+
+                backends:
+                  - name: test-backend
+                    ports: {}
+                    endpoints:
+                      - host: 10.0.0.1
+                """;
+
+        // Act
+        GatewayConfig config = loader.loadFromString(yaml);
+
+        // Assert
+        assertThat(config.getRoutes().get(0).getRateLimit().getQueueDepth()).isEqualTo(50);
+        assertThat(config.getRoutes().get(0).getRateLimit().getQueueTimeoutMillis()).isEqualTo(200);
+        assertThat(config.getRoutes().get(0).getRateLimit().isQueued()).isTrue();
+        assertThatThrownBy(() -> loader.loadFromString(yaml.replace("queueDepth: 50", "queueDepth: -1")))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Route queue depth must be >= 0");
+    }
+
+    @Test
+    @DisplayName("Should load and validate the adaptive concurrency limit of backends")
+    void testAdaptiveConcurrency() throws IOException {
+        // Arrange
+        String yaml = """
+                server:
+                  ports:
+                    apiV1: 18848
+                    apiV2: 19848
+                    apiConsole: 18080
+
+                routes:
+                  - host: "*.nacos.io"
+                    backend: test-backend
+
+                backends:
+                  - name: test-backend
+                    ports: {}
+                    adaptiveConcurrency:
+                      enabled: true
+                      initialLimit: 50
+                      minLimit: 10
+                      maxLimit: 200
+                    endpoints:
+                      - host: 10.0.0.1
+                """;
+
+        // Act
+        GatewayConfig config = loader.loadFromString(yaml);
+
+        // Assert
+        AdaptiveConcurrencyConfig concurrency = config.getBackends().get(0).getAdaptiveConcurrency();
+        assertThat(concurrency.isEnabled()).isTrue();
+        assertThat(concurrency.getInitialLimit()).isEqualTo(50);
+        assertThat(concurrency.getMinLimit()).isEqualTo(10);
+        assertThat(concurrency.getMaxLimit()).isEqualTo(200);
+        assertThat(concurrency.getWindowMillis()).isEqualTo(100);
+        assertThatThrownBy(() -> loader.loadFromString(yaml.replace("initialLimit: 50", "initialLimit: 5")))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("initial limit must be between min and max limit");
+    }
+
+    @Test
+    @DisplayName("Should load bandwidth limits and reject zero")
+    void testBandwidthLimits() throws IOException {
+        // Arrange
+        String yaml = """
+                server:
+                  ports:
+                    apiV1: 18848
+                    apiV2: 19848
+                    apiConsole: 18080
+                  rateLimit:
+                    maxBytesPerSecond: 10485760
+
+                routes:
+                  - host: "*.nacos.io"
+                    backend: test-backend
+                    rateLimit:
+                      maxBytesPerSecondPerClient: 1048576
+
+                backends:
+                  - name: test-backend
+                    ports: {}
+                    endpoints:
+                      - host: 10.0.0.1
+                """;
+
+        // Act
+        GatewayConfig config = loader.loadFromString(yaml);
+
+        // Assert
+        assertThat(config.getServer().getRateLimit().getMaxBytesPerSecond()).isEqualTo(10485760);
+        assertThat(config.getRoutes().get(0).getRateLimit().getMaxBytesPerSecondPerClient()).isEqualTo(1048576);
+        assertThat(config.getRoutes().get(0).getRateLimit().getMaxBytesPerSecond()).isEqualTo(-1);
+        assertThatThrownBy(() -> loader.loadFromString(yaml.replace("maxBytesPerSecondPerClient: 1048576",
+                "maxBytesPerSecondPerClient: 0")))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("must be -1 or positive");
+    }
+
+    @Test
+    @DisplayName("Should load the accept rate limit and reject zero")
+    void testAcceptRate() throws IOException {
+        // Arrange
+        String yaml = """
+                server:
+                  ports:
+                    apiV1: 18848
+                    apiV2: 19848
+                    apiConsole: 18080
+                  acceptRate:
+                    maxPerSecond: 500
+                    maxPerSecondPerClient: 5
+
+                routes:
+                  - host: "*.nacos.io"
+                    backend: test-backend
+
+                backends:
+                  - name: test-backend
+                    ports: {}
+                    endpoints:
+                      - host: 10.0.0.1
+                """;
+
+        // Act
+        GatewayConfig config = loader.loadFromString(yaml);
+
+        // Assert
+        AcceptRateConfig acceptRate = config.getServer().getAcceptRate();
+        assertThat(acceptRate.getMaxPerSecond()).isEqualTo(500);
+        assertThat(acceptRate.getMaxPerSecondPerClient()).isEqualTo(5);
+        assertThat(acceptRate.getBurst()).isEqualTo(-1);
+        assertThat(acceptRate.getMaxClients()).isEqualTo(10_000);
+        assertThatThrownBy(() -> loader.loadFromString(yaml.replace("maxPerSecond: 500", "maxPerSecond: 0")))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Accept rate max per second must be -1 or positive");
+    }
+
+    @Test
+    @DisplayName("Should load the management listener and reject a proxy port")
+    void testManagementPort() throws IOException {
+        // Arrange
+        String yaml = """
+                server:
+                  ports:
+                    apiV1: 18848
+                    apiV2: 19848
+                    apiConsole: 18080
+
+                routes:
+                  - host: "*.nacos.io"
+                    backend: test-backend
+
+                backends:
+                  - name: test-backend
+                    ports: {}
+                    endpoints:
+                      - host: 10.0.0.1
+
+                management:
+                  port: 19090
+                  health:
+                    enabled: true
+                """;
+
+        // Act
+        GatewayConfig config = loader.loadFromString(yaml);
+
+        // Assert
+        assertThat(config.getManagement().getPort()).isEqualTo(19090);
+        assertThat(config.getManagement().getHost()).isEqualTo("0.0.0.0");
+        assertThatThrownBy(() -> loader.loadFromString(yaml.replace("port: 19090", "port: 18848")))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Duplicate port number: 18848 for management");
+    }
+
+    @Test
+    @DisplayName("Should load the flight recorder endpoint config and reject a non-positive max age")
+    void testFlightRecorder() throws IOException {
+        // Arrange
+        String yaml = """
+                server:
+                  ports:
+                    apiV1: 18848
+                    apiV2: 19848
+                    apiConsole: 18080
+
+                routes:
+                  - host: "*.nacos.io"
+                    backend: test-backend
+
+                backends:
+                  - name: test-backend
+                    ports: {}
+                    endpoints:
+                      - host: 10.0.0.1
+
+                management:
+                  flightRecorder:
+                    enabled: true
+                    directory: /var/log/nacos-gateway/jfr
+                    maxAgeSeconds: 600
+                """;
+
+        // Act
+        GatewayConfig config = loader.loadFromString(yaml);
+
+        // Assert
+        ManagementConfig.FlightRecorderEndpointConfig flightRecorder = config.getManagement().getFlightRecorder();
+        assertThat(flightRecorder.getPath()).isEqualTo("/admin/jfr");
+        assertThat(flightRecorder.getDirectory()).isEqualTo("/var/log/nacos-gateway/jfr");
+        assertThat(flightRecorder.getMaxAgeSeconds()).isEqualTo(600);
+        assertThatThrownBy(() -> loader.loadFromString(yaml.replace("maxAgeSeconds: 600", "maxAgeSeconds: 0")))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Flight recorder max age must be >= 1 second");
+    }
 }
@@ -0,0 +1,122 @@
+package nextf.nacos.gateway.jfr;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import nextf.nacos.gateway.metrics.PhaseMetrics;
+import nextf.nacos.gateway.metrics.RequestPhases;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for FlightRecorderSession and the gateway JFR events
+ */
+@DisplayName("FlightRecorderSession Tests")
+class FlightRecorderSessionTest {
+
+    @TempDir
+    Path directory;
+
+    private FlightRecorderSession session;
+
+    @AfterEach
+    void tearDown() {
+        if (session != null) {
+            session.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should record gateway events and dump them when stopped")
+    void testRecordAndStop() throws Exception {
+        // Arrange
+        session = new FlightRecorderSession(directory.toString(), 60);
+        session.start("default");
+
+        // Act
+        RateLimitRejectedEvent.commit("qps", "route", "api", "backend", "10.0.0.1");
+        EndpointHealthChangedEvent.commit("10.0.0.2:8848", "tcp", false, 3);
+        Path file = session.stop();
+
+        // Assert
+        assertThat(file).exists().hasParent(directory);
+        assertThat(session.isRunning()).isFalse();
+        List<RecordedEvent> events = gatewayEvents(file);
+        RecordedEvent rejected = find(events, "nextf.nacos.gateway.RateLimitRejected");
+        assertThat(rejected.getString("limit")).isEqualTo("qps");
+        assertThat(rejected.getString("tier")).isEqualTo("route");
+        assertThat(rejected.getString("clientIp")).isEqualTo("10.0.0.1");
+        RecordedEvent health = find(events, "nextf.nacos.gateway.EndpointHealthChanged");
+        assertThat(health.getBoolean("healthy")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should record proxied requests with their phase durations")
+    void testProxiedRequest() throws Exception {
+        // Arrange
+        session = new FlightRecorderSession(directory.toString(), 60);
+        session.start("default");
+        RequestPhases phases = new PhaseMetrics(true).start();
+
+        // Act
+        ProxiedRequestEvent event = ProxiedRequestEvent.begin("GET", "/nacos/v1/ns/instance/list");
+        phases.mark(RequestPhases.Phase.ROUTE);
+        phases.mark(RequestPhases.Phase.LIMIT);
+        event.end("api", "backend", "10.0.0.2:8848", 200, 512, phases);
+        Path file = session.dump();
+
+        // Assert
+        assertThat(session.isRunning()).isTrue();
+        RecordedEvent recorded = find(gatewayEvents(file), "nextf.nacos.gateway.ProxiedRequest");
+        assertThat(recorded.getString("route")).isEqualTo("api");
+        assertThat(recorded.getString("path")).isEqualTo("/nacos/v1/ns/instance/list");
+        assertThat(recorded.getInt("status")).isEqualTo(200);
+        assertThat(recorded.getLong("bytesSent")).isEqualTo(512);
+        assertThat(recorded.getDuration("routeNanos")).isPositive();
+        assertThat(recorded.getDuration("connectNanos")).isZero();
+    }
+
+    @Test
+    @DisplayName("Should not create proxied request events while no recording is running")
+    void testProxiedRequestDisabled() {
+        // Act & Assert
+        assertThat(ProxiedRequestEvent.begin("GET", "/")).isNull();
+    }
+
+    @Test
+    @DisplayName("Should refuse actions that do not match the recording state")
+    void testState() {
+        // Arrange
+        session = new FlightRecorderSession(directory.toString(), 60);
+
+        // Act & Assert
+        assertThatThrownBy(() -> session.dump()).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> session.stop()).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> session.start("no-such-settings")).isInstanceOf(IllegalArgumentException.class);
+        session.start("profile");
+        assertThat(session.getSettings()).isEqualTo("profile");
+        assertThatThrownBy(() -> session.start("default")).isInstanceOf(IllegalStateException.class);
+    }
+
+    private static List<RecordedEvent> gatewayEvents(Path file) throws Exception {
+        assertThat(Files.size(file)).isPositive();
+        return RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().startsWith("nextf.nacos.gateway."))
+                .collect(Collectors.toList());
+    }
+
+    private static RecordedEvent find(List<RecordedEvent> events, String name) {
+        return events.stream()
+                .filter(event -> event.getEventType().getName().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No " + name + " event recorded"));
+    }
+}
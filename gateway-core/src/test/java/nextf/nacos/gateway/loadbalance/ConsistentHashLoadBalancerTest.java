@@ -0,0 +1,229 @@
+package nextf.nacos.gateway.loadbalance;
+
+import io.vertx.core.http.HttpServerRequest;
+import nextf.nacos.gateway.config.BackendConfig;
+import nextf.nacos.gateway.config.EndpointConfig;
+import nextf.nacos.gateway.model.Backend;
+import nextf.nacos.gateway.model.Endpoint;
+import nextf.nacos.gateway.model.EndpointSnapshot;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ConsistentHashLoadBalancer and HashKeyExtractor
+ */
+@DisplayName("ConsistentHashLoadBalancer Tests")
+class ConsistentHashLoadBalancerTest {
+
+    @Test
+    @DisplayName("Should map the same key to the same endpoint")
+    void testStableMapping() {
+        // Arrange
+        ConsistentHashLoadBalancer loadBalancer = new ConsistentHashLoadBalancer();
+        List<Endpoint> endpoints = endpoints(3);
+
+        // Act & Assert
+        Endpoint first = loadBalancer.select(endpoints, "tenant-a");
+        for (int i = 0; i < 10; i++) {
+            assertThat(loadBalancer.select(endpoints, "tenant-a")).isSameAs(first);
+        }
+        // A fresh balancer builds the same ring
+        assertThat(new ConsistentHashLoadBalancer().select(endpoints, "tenant-a")).isSameAs(first);
+    }
+
+    @Test
+    @DisplayName("Should spread keys over all endpoints")
+    void testSpread() {
+        // Arrange
+        ConsistentHashLoadBalancer loadBalancer = new ConsistentHashLoadBalancer();
+        List<Endpoint> endpoints = endpoints(4);
+
+        // Act
+        Map<Endpoint, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 10000; i++) {
+            counts.merge(loadBalancer.select(endpoints, "10.1." + (i / 256) + "." + (i % 256)), 1, Integer::sum);
+        }
+
+        // Assert - each endpoint within +-40% of its fair share
+        assertThat(counts).hasSize(4);
+        assertThat(counts.values()).allSatisfy(count -> assertThat(count).isBetween(1500, 3500));
+    }
+
+    @Test
+    @DisplayName("Should move only the keys of a removed endpoint")
+    void testMinimalDisruption() {
+        // Arrange
+        ConsistentHashLoadBalancer loadBalancer = new ConsistentHashLoadBalancer();
+        List<Endpoint> all = endpoints(5);
+        List<Endpoint> remaining = new ArrayList<>(all);
+        Endpoint removed = remaining.remove(2);
+
+        // Act
+        int moved = 0;
+        int keys = 5000;
+        for (int i = 0; i < keys; i++) {
+            String key = "namespace-" + i;
+            Endpoint before = loadBalancer.select(all, key);
+            Endpoint after = loadBalancer.select(remaining, key);
+            if (before != removed) {
+                assertThat(after).as(key).isSameAs(before);
+            } else {
+                moved++;
+            }
+        }
+
+        // Assert - roughly 1/N of the keys move
+        assertThat(moved).isBetween(keys / 10, keys * 3 / 10);
+    }
+
+    @Test
+    @DisplayName("Should build the ring with each snapshot and select from it")
+    void testSnapshotRing() {
+        // Arrange
+        ConsistentHashLoadBalancer loadBalancer = new ConsistentHashLoadBalancer();
+        List<Endpoint> endpoints = endpoints(4);
+        Backend backend = new Backend("hashed", loadBalancer, endpoints);
+        EndpointSnapshot initial = backend.getHealthySnapshot();
+
+        // Act
+        endpoints.get(1).setHealthy(false);
+        EndpointSnapshot degraded = backend.getHealthySnapshot();
+
+        // Assert - each snapshot carries its own ring, selections match the list-based ring
+        assertThat(initial.getHashRing()).isNotNull();
+        assertThat(degraded.getHashRing()).isNotNull().isNotSameAs(initial.getHashRing());
+        for (int i = 0; i < 1000; i++) {
+            String key = "tenant-" + i;
+            assertThat(loadBalancer.select(initial, key))
+                    .isSameAs(new ConsistentHashLoadBalancer().select(endpoints, key));
+            assertThat(loadBalancer.select(degraded, key))
+                    .isSameAs(new ConsistentHashLoadBalancer().select(degraded.getPreferred(), key));
+        }
+        assertThat(backend.getHealthySnapshot().getHashRing()).isSameAs(degraded.getHashRing());
+    }
+
+    @Test
+    @DisplayName("Should build the same ring whatever the endpoint order")
+    void testRingOrderIndependent() {
+        // Arrange
+        List<Endpoint> endpoints = endpoints(5);
+        List<Endpoint> reversed = new ArrayList<>(endpoints);
+        Collections.reverse(reversed);
+
+        // Act
+        HashRing ring = new HashRing(endpoints);
+        HashRing reversedRing = new HashRing(reversed);
+
+        // Assert
+        for (int i = 0; i < 1000; i++) {
+            assertThat(reversedRing.lookup("key-" + i)).isSameAs(ring.lookup("key-" + i));
+        }
+    }
+
+    @Test
+    @DisplayName("Should route a key to the owner of the first point clockwise of its hash")
+    void testRingLookup() {
+        // Arrange: brute-force the nearest point over all virtual nodes
+        List<Endpoint> endpoints = endpoints(3);
+        HashRing ring = new HashRing(endpoints);
+
+        // Act & Assert
+        for (int i = 0; i < 200; i++) {
+            String key = "client-" + i;
+            long keyHash = HashRing.hash(key);
+            Endpoint nearest = null;
+            long nearestPoint = 0;
+            Endpoint lowest = null;
+            long lowestPoint = Long.MAX_VALUE;
+            for (Endpoint endpoint : endpoints) {
+                for (int v = 0; v < HashRing.VIRTUAL_NODES; v++) {
+                    long point = HashRing.hash(endpoint.getHost() + ":8848#" + v);
+                    if (point >= keyHash && (nearest == null || point < nearestPoint)) {
+                        nearest = endpoint;
+                        nearestPoint = point;
+                    }
+                    if (point < lowestPoint) {
+                        lowest = endpoint;
+                        lowestPoint = point;
+                    }
+                }
+            }
+            assertThat(ring.lookup(key)).as(key).isSameAs(nearest != null ? nearest : lowest);
+        }
+    }
+
+    @Test
+    @DisplayName("Should build a ring only for consistent-hash backends with several preferred endpoints")
+    void testNoRing() {
+        // Act & Assert
+        assertThat(new Backend("rotated", new RoundRobinLoadBalancer(), endpoints(3))
+                .getHealthySnapshot().getHashRing()).isNull();
+        assertThat(new Backend("single", new ConsistentHashLoadBalancer(), endpoints(1))
+                .getHealthySnapshot().getHashRing()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should fall back to a random pick without a key")
+    void testNoKey() {
+        // Arrange
+        ConsistentHashLoadBalancer loadBalancer = new ConsistentHashLoadBalancer();
+        List<Endpoint> endpoints = endpoints(2);
+
+        // Act & Assert
+        assertThat(loadBalancer.select(endpoints, null)).isIn(endpoints);
+        assertThat(loadBalancer.select(List.of(), "key")).isNull();
+    }
+
+    @Test
+    @DisplayName("Should extract hash keys with client IP fallback")
+    void testHashKeyExtractor() {
+        // Arrange
+        HttpServerRequest withTenant = mock(HttpServerRequest.class);
+        when(withTenant.getParam("tenant")).thenReturn("dev");
+        when(withTenant.getHeader("X-Tenant")).thenReturn("team-a");
+
+        HttpServerRequest withNamespace = mock(HttpServerRequest.class);
+        when(withNamespace.getParam("namespaceId")).thenReturn("prod");
+
+        HttpServerRequest empty = mock(HttpServerRequest.class);
+
+        // Act & Assert
+        assertThat(HashKeyExtractor.parse("client-ip").extract(withTenant, "10.0.0.9")).isEqualTo("10.0.0.9");
+        assertThat(HashKeyExtractor.parse("tenant").extract(withTenant, "10.0.0.9")).isEqualTo("dev");
+        assertThat(HashKeyExtractor.parse("tenant").extract(withNamespace, "10.0.0.9")).isEqualTo("prod");
+        assertThat(HashKeyExtractor.parse("tenant").extract(empty, "10.0.0.9")).isEqualTo("10.0.0.9");
+        assertThat(HashKeyExtractor.parse("header:X-Tenant").extract(withTenant, "10.0.0.9")).isEqualTo("team-a");
+        assertThat(HashKeyExtractor.parse("header:X-Tenant").extract(empty, "10.0.0.9")).isEqualTo("10.0.0.9");
+        assertThat(HashKeyExtractor.parse("client-ip").isPerRequest()).isFalse();
+        assertThat(HashKeyExtractor.parse("tenant").isPerRequest()).isTrue();
+        assertThat(HashKeyExtractor.parse("header:X-Tenant").isPerRequest()).isTrue();
+        assertThatThrownBy(() -> HashKeyExtractor.parse("cookie"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> HashKeyExtractor.parse("header:"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static List<Endpoint> endpoints(int count) {
+        BackendConfig.BackendPortsConfig ports = new BackendConfig.BackendPortsConfig();
+        ports.setApiV1(8848);
+        ports.setApiV2(9848);
+        ports.setApiConsole(8080);
+
+        List<Endpoint> endpoints = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            EndpointConfig config = new EndpointConfig();
+            config.setHost("10.0.0." + i);
+            endpoints.add(Endpoint.from(config, ports));
+        }
+        return endpoints;
+    }
+}
@@ -0,0 +1,133 @@
+package nextf.nacos.gateway.loadbalance;
+
+import nextf.nacos.gateway.config.BackendConfig;
+import nextf.nacos.gateway.config.EndpointConfig;
+import nextf.nacos.gateway.model.Backend;
+import nextf.nacos.gateway.model.Endpoint;
+import nextf.nacos.gateway.model.EndpointSnapshot;
+import nextf.nacos.gateway.testutil.TestDataBuilder;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for EndpointSelector and the backend healthy-endpoint snapshot
+ */
+@DisplayName("EndpointSelector Tests")
+class EndpointSelectorTest {
+
+    private final EndpointSelector selector = new EndpointSelector();
+
+    @Test
+    @DisplayName("Should select only from the highest priority group")
+    void testHighestPriorityGroup() {
+        // Arrange
+        Endpoint primary1 = endpoint("10.0.0.1", 1);
+        Endpoint primary2 = endpoint("10.0.0.2", 1);
+        Endpoint standby = endpoint("10.0.0.3", 2);
+        Backend backend = backend(standby, primary1, primary2);
+
+        // Act
+        Set<Endpoint> selected = new HashSet<>();
+        for (int i = 0; i < 10; i++) {
+            selected.add(selector.select(backend));
+        }
+
+        // Assert
+        assertThat(selected).containsExactlyInAnyOrder(primary1, primary2);
+        assertThat(backend.getHealthySnapshot().getPriorityGroups()).hasSize(2);
+        assertThat(backend.getHealthySnapshot().getHighestPriority()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should fail over to lower priority when the preferred group turns unhealthy")
+    void testFailover() {
+        // Arrange
+        Endpoint primary = endpoint("10.0.0.1", 1);
+        Endpoint standby = endpoint("10.0.0.2", 2);
+        Backend backend = backend(primary, standby);
+
+        // Act & Assert
+        assertThat(selector.select(backend)).isSameAs(primary);
+
+        primary.setHealthy(false);
+        assertThat(selector.select(backend)).isSameAs(standby);
+
+        standby.setHealthy(false);
+        assertThat(selector.select(backend)).isNull();
+
+        primary.setHealthy(true);
+        assertThat(selector.select(backend)).isSameAs(primary);
+    }
+
+    @Test
+    @DisplayName("Should rebuild the snapshot only when a health flag flips")
+    void testSnapshotRebuiltOnFlip() {
+        // Arrange
+        Endpoint endpoint = endpoint("10.0.0.1", 1);
+        Backend backend = backend(endpoint);
+        EndpointSnapshot initial = backend.getHealthySnapshot();
+
+        // Act & Assert
+        endpoint.setHealthy(true);
+        assertThat(backend.getHealthySnapshot()).isSameAs(initial);
+
+        endpoint.setHealthy(false);
+        EndpointSnapshot unhealthy = backend.getHealthySnapshot();
+        assertThat(unhealthy.getVersion()).isGreaterThan(initial.getVersion());
+        assertThat(unhealthy.getHealthy()).isEmpty();
+        assertThat(unhealthy.getPreferred()).isEmpty();
+        assertThat(backend.getHealthyEndpoints()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should expose immutable snapshot lists")
+    void testSnapshotImmutable() {
+        // Arrange
+        Backend backend = backend(endpoint("10.0.0.1", 1));
+
+        // Act & Assert
+        assertThatThrownBy(() -> backend.getHealthyEndpoints().clear())
+                .isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> backend.getHealthySnapshot().getPreferred().clear())
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    @DisplayName("Should rotate round-robin within the preferred group")
+    void testRoundRobin() {
+        // Arrange
+        Endpoint e1 = endpoint("10.0.0.1", 1);
+        Endpoint e2 = endpoint("10.0.0.2", 1);
+        Backend backend = backend(e1, e2);
+
+        // Act & Assert
+        assertThat(selector.select(backend)).isSameAs(e1);
+        assertThat(selector.select(backend)).isSameAs(e2);
+        assertThat(selector.select(backend)).isSameAs(e1);
+    }
+
+    private static Endpoint endpoint(String host, int priority) {
+        EndpointConfig config = new EndpointConfig();
+        config.setHost(host);
+        config.setPriority(priority);
+
+        BackendConfig.BackendPortsConfig ports = new BackendConfig.BackendPortsConfig();
+        ports.setApiV1(8848);
+        ports.setApiV2(9848);
+        ports.setApiConsole(8080);
+        return Endpoint.from(config, ports);
+    }
+
+    private static Backend backend(Endpoint... endpoints) {
+        TestDataBuilder.BackendBuilder builder = new TestDataBuilder.BackendBuilder("test-backend");
+        for (Endpoint endpoint : endpoints) {
+            builder.withEndpoint(endpoint);
+        }
+        return builder.build();
+    }
+}
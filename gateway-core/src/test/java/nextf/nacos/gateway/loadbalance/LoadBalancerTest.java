@@ -0,0 +1,237 @@
+package nextf.nacos.gateway.loadbalance;
+
+import nextf.nacos.gateway.config.BackendConfig;
+import nextf.nacos.gateway.config.EndpointConfig;
+import nextf.nacos.gateway.model.Backend;
+import nextf.nacos.gateway.model.Endpoint;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for load balancer strategies
+ */
+@DisplayName("LoadBalancer Tests")
+class LoadBalancerTest {
+
+    private final Endpoint e1 = endpoint("10.0.0.1");
+    private final Endpoint e2 = endpoint("10.0.0.2");
+
+    @Test
+    @DisplayName("Should create every supported strategy")
+    void testFactory() {
+        // Act & Assert
+        assertThat(LoadBalancerFactory.create("p2c-least-loaded")).isInstanceOf(P2CLoadBalancer.class);
+        assertThat(LoadBalancerFactory.create("peak-ewma")).isInstanceOf(PeakEwmaLoadBalancer.class);
+        assertThat(LoadBalancerFactory.create("weighted-round-robin"))
+                .isInstanceOf(WeightedRoundRobinLoadBalancer.class);
+        assertThat(LoadBalancerFactory.create("least-connection")).isInstanceOf(LeastConnectionLoadBalancer.class);
+        assertThat(LoadBalancerFactory.isSupported("peak-ewma")).isTrue();
+        assertThat(LoadBalancerFactory.isSupported("weighted")).isFalse();
+        assertThat(LoadBalancerFactory.isSupported(null)).isFalse();
+    }
+
+    @Test
+    @DisplayName("P2C should prefer the endpoint with fewer in-flight requests")
+    void testP2CLeastLoaded() {
+        // Arrange
+        P2CLoadBalancer loadBalancer = new P2CLoadBalancer();
+        loadBalancer.onRequestStart(e1);
+        loadBalancer.onRequestStart(e1);
+
+        // Act & Assert - with two endpoints both are always compared
+        for (int i = 0; i < 20; i++) {
+            assertThat(loadBalancer.select(List.of(e1, e2))).isSameAs(e2);
+        }
+
+        loadBalancer.onRequestComplete(e1, 0, true);
+        loadBalancer.onRequestComplete(e1, 0, true);
+        assertThat(loadBalancer.inflight(e1)).isZero();
+    }
+
+    @Test
+    @DisplayName("P2C should spread picks over distinct endpoints")
+    void testP2CSpread() {
+        // Arrange
+        P2CLoadBalancer loadBalancer = new P2CLoadBalancer();
+        List<Endpoint> endpoints = List.of(e1, e2, endpoint("10.0.0.3"));
+        Map<Endpoint, Integer> picks = new HashMap<>();
+
+        // Act
+        for (int i = 0; i < 300; i++) {
+            picks.merge(loadBalancer.select(endpoints), 1, Integer::sum);
+        }
+
+        // Assert
+        assertThat(picks).hasSize(3);
+        assertThat(loadBalancer.select(List.of(e1))).isSameAs(e1);
+        assertThat(loadBalancer.select(List.of())).isNull();
+    }
+
+    @Test
+    @DisplayName("Peak EWMA should prefer the faster endpoint")
+    void testPeakEwmaPrefersFaster() {
+        // Arrange
+        PeakEwmaLoadBalancer loadBalancer = new PeakEwmaLoadBalancer();
+        record(loadBalancer, e1, TimeUnit.MILLISECONDS.toNanos(200), true);
+        record(loadBalancer, e2, TimeUnit.MILLISECONDS.toNanos(5), true);
+
+        // Act & Assert
+        for (int i = 0; i < 20; i++) {
+            assertThat(loadBalancer.select(List.of(e1, e2))).isSameAs(e2);
+        }
+    }
+
+    @Test
+    @DisplayName("Peak EWMA should react at once to a latency peak")
+    void testPeakEwmaPeak() {
+        // Arrange
+        PeakEwmaLoadBalancer loadBalancer = new PeakEwmaLoadBalancer();
+        record(loadBalancer, e1, TimeUnit.MILLISECONDS.toNanos(5), true);
+        record(loadBalancer, e2, TimeUnit.MILLISECONDS.toNanos(10), true);
+
+        // Act
+        record(loadBalancer, e1, TimeUnit.MILLISECONDS.toNanos(500), true);
+
+        // Assert
+        assertThat(loadBalancer.select(List.of(e1, e2))).isSameAs(e2);
+    }
+
+    @Test
+    @DisplayName("Peak EWMA should penalize failures and in-flight requests")
+    void testPeakEwmaFailuresAndInflight() {
+        // Arrange
+        PeakEwmaLoadBalancer failing = new PeakEwmaLoadBalancer();
+        record(failing, e1, TimeUnit.MICROSECONDS.toNanos(100), false);
+        record(failing, e2, TimeUnit.MILLISECONDS.toNanos(20), true);
+
+        PeakEwmaLoadBalancer busy = new PeakEwmaLoadBalancer();
+        record(busy, e1, TimeUnit.MILLISECONDS.toNanos(10), true);
+        record(busy, e2, TimeUnit.MILLISECONDS.toNanos(10), true);
+        for (int i = 0; i < 5; i++) {
+            busy.onRequestStart(e1);
+        }
+
+        // Act & Assert
+        assertThat(failing.select(List.of(e1, e2))).isSameAs(e2);
+        assertThat(busy.select(List.of(e1, e2))).isSameAs(e2);
+    }
+
+    @Test
+    @DisplayName("Least connection should pick the endpoint with fewest connections")
+    void testLeastConnection() {
+        // Arrange
+        LeastConnectionLoadBalancer loadBalancer = new LeastConnectionLoadBalancer();
+        loadBalancer.onConnectionOpen(e1);
+
+        // Act & Assert
+        assertThat(loadBalancer.select(List.of(e1, e2))).isSameAs(e2);
+        loadBalancer.onConnectionOpen(e2);
+        loadBalancer.onConnectionOpen(e2);
+        assertThat(loadBalancer.select(List.of(e1, e2))).isSameAs(e1);
+        assertThat(loadBalancer.select(List.of())).isNull();
+    }
+
+    @Test
+    @DisplayName("Weighted round-robin should interleave picks smoothly by weight")
+    void testWeightedRoundRobinSmooth() {
+        // Arrange
+        WeightedRoundRobinLoadBalancer loadBalancer = new WeightedRoundRobinLoadBalancer();
+        Endpoint a = endpoint("10.0.0.1", 5);
+        Endpoint b = endpoint("10.0.0.2", 1);
+        Endpoint c = endpoint("10.0.0.3", 1);
+        List<Endpoint> endpoints = List.of(a, b, c);
+
+        // Act
+        List<Endpoint> picks = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            picks.add(loadBalancer.select(endpoints));
+        }
+
+        // Assert - nginx smooth sequence for 5/1/1
+        assertThat(picks).containsExactly(a, a, b, a, c, a, a);
+    }
+
+    @Test
+    @DisplayName("Weighted round-robin should follow a changed healthy set without restarting")
+    void testWeightedRoundRobinHealthySetChange() {
+        // Arrange
+        WeightedRoundRobinLoadBalancer loadBalancer = new WeightedRoundRobinLoadBalancer();
+        Endpoint a = endpoint("10.0.0.1", 3);
+        Endpoint b = endpoint("10.0.0.2", 1);
+        Endpoint c = endpoint("10.0.0.3", 1);
+
+        // Act
+        Map<Endpoint, Integer> picks = new HashMap<>();
+        for (int i = 0; i < 5; i++) {
+            loadBalancer.select(List.of(a, b, c));
+        }
+        for (int i = 0; i < 400; i++) {
+            picks.merge(loadBalancer.select(List.of(a, b)), 1, Integer::sum);
+        }
+
+        // Assert
+        assertThat(picks).containsOnlyKeys(a, b);
+        assertThat(picks.get(a)).isEqualTo(300);
+        assertThat(picks.get(b)).isEqualTo(100);
+    }
+
+    @Test
+    @DisplayName("Backend reload should keep the load balancer when the strategy is unchanged")
+    void testLoadBalancerReusedOnReload() {
+        // Arrange
+        BackendConfig config = backendConfig("weighted-round-robin", 2);
+        Backend previous = Backend.from(config);
+
+        // Act
+        Backend sameStrategy = Backend.from(backendConfig("weighted-round-robin", 5), previous);
+        Backend otherStrategy = Backend.from(backendConfig("round-robin", 2), previous);
+
+        // Assert
+        assertThat(sameStrategy.getLoadBalancer()).isSameAs(previous.getLoadBalancer());
+        assertThat(sameStrategy.getEndpoints().get(0).getWeight()).isEqualTo(5);
+        assertThat(sameStrategy).isNotEqualTo(previous);
+        assertThat(otherStrategy.getLoadBalancer()).isNotSameAs(previous.getLoadBalancer());
+    }
+
+    private static BackendConfig backendConfig(String loadBalance, int weight) {
+        EndpointConfig endpointConfig = new EndpointConfig();
+        endpointConfig.setHost("10.0.0.1");
+        endpointConfig.setWeight(weight);
+
+        BackendConfig config = new BackendConfig();
+        config.setName("test-backend");
+        config.setLoadBalance(loadBalance);
+        config.setPorts(new BackendConfig.BackendPortsConfig());
+        config.setEndpoints(List.of(endpointConfig));
+        return config;
+    }
+
+    private static void record(LoadBalancer loadBalancer, Endpoint endpoint, long latencyNanos, boolean success) {
+        loadBalancer.onRequestStart(endpoint);
+        loadBalancer.onRequestComplete(endpoint, latencyNanos, success);
+    }
+
+    private static Endpoint endpoint(String host) {
+        return endpoint(host, 1);
+    }
+
+    private static Endpoint endpoint(String host, int weight) {
+        EndpointConfig config = new EndpointConfig();
+        config.setHost(host);
+        config.setWeight(weight);
+
+        BackendConfig.BackendPortsConfig ports = new BackendConfig.BackendPortsConfig();
+        ports.setApiV1(8848);
+        ports.setApiV2(9848);
+        ports.setApiConsole(8080);
+        return Endpoint.from(config, ports);
+    }
+}
@@ -0,0 +1,90 @@
+package nextf.nacos.gateway.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for GatewayMetrics
+ */
+@DisplayName("GatewayMetrics Tests")
+class GatewayMetricsTest {
+
+    @Test
+    @DisplayName("Should record a request into its route, backend and endpoint series")
+    void testRecord() {
+        // Arrange
+        GatewayMetrics metrics = new GatewayMetrics(100);
+
+        // Act
+        metrics.recorder("route", "backend", "10.0.0.1:8848").record(200, TimeUnit.MILLISECONDS.toNanos(3), 100);
+        metrics.recorder("route", "backend", "10.0.0.2:8848").record(503, TimeUnit.MILLISECONDS.toNanos(40), 10);
+        metrics.recorder("route", "backend", "10.0.0.2:8848").record(0, TimeUnit.SECONDS.toNanos(60), 0);
+
+        // Assert
+        RequestMetrics route = metrics.getRoutes().get("route");
+        assertThat(route.getResponses(2)).isEqualTo(1);
+        assertThat(route.getResponses(5)).isEqualTo(1);
+        assertThat(route.getResponses(0)).isEqualTo(1);
+        assertThat(route.getBytesSent()).isEqualTo(110);
+        assertThat(route.getLatencyMicros().getCumulativeCounts()).startsWith(0, 0, 0, 0, 1);
+        assertThat(route.getLatencyMicros().getCount()).isEqualTo(3);
+        assertThat(metrics.getBackends().get("backend").getResponses(2)).isEqualTo(1);
+        assertThat(metrics.getEndpoints().get("backend")).containsOnlyKeys("10.0.0.1:8848", "10.0.0.2:8848");
+        assertThat(metrics.getEndpoints().get("backend").get("10.0.0.2:8848").getResponses(5)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should count held-open requests without recording their duration")
+    void testUntimed() {
+        // Arrange
+        GatewayMetrics metrics = new GatewayMetrics(100);
+        RequestRecorder recorder = metrics.recorder("route", "backend", "10.0.0.1:8848");
+
+        // Act
+        recorder.untimed().record(200, TimeUnit.SECONDS.toNanos(30), 100);
+        recorder.record(200, TimeUnit.MILLISECONDS.toNanos(3), 10);
+
+        // Assert
+        RequestMetrics route = metrics.getRoutes().get("route");
+        assertThat(route.getResponses(2)).isEqualTo(2);
+        assertThat(route.getBytesSent()).isEqualTo(110);
+        assertThat(route.getLatencyMicros().getCount()).isEqualTo(1);
+        assertThat(metrics.getEndpoints().get("backend").get("10.0.0.1:8848").getLatencyMicros().getCount()).isEqualTo(1);
+        assertThat(recorder.untimed().untimed()).isSameAs(recorder.untimed());
+    }
+
+    @Test
+    @DisplayName("Should fold label values beyond max series into the other series")
+    void testBoundedCardinality() {
+        // Arrange
+        GatewayMetrics metrics = new GatewayMetrics(2);
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            metrics.recorder("route-" + i, "backend", "10.0.0." + i + ":8848").record(200, 1000, 0);
+        }
+        metrics.recorder("route-0", "backend", "10.0.0.0:8848").record(200, 1000, 0);
+
+        // Assert: the first values keep their series, the others share one
+        assertThat(metrics.getRoutes()).hasSize(3).containsKeys("route-0", GatewayMetrics.OTHER);
+        assertThat(metrics.getRoutes().get("route-0").getResponses(2)).isEqualTo(2);
+        assertThat(metrics.getRoutes().get(GatewayMetrics.OTHER).getResponses(2)).isEqualTo(8);
+        assertThat(metrics.getEndpoints().get("backend")).hasSize(3);
+    }
+
+    @Test
+    @DisplayName("Should classify response status codes")
+    void testStatusClass() {
+        // Act & Assert
+        assertThat(RequestMetrics.statusClass(101)).isEqualTo(1);
+        assertThat(RequestMetrics.statusClass(204)).isEqualTo(2);
+        assertThat(RequestMetrics.statusClass(429)).isEqualTo(4);
+        assertThat(RequestMetrics.statusClass(599)).isEqualTo(5);
+        assertThat(RequestMetrics.statusClass(0)).isZero();
+        assertThat(RequestMetrics.statusClass(999)).isZero();
+    }
+}
@@ -0,0 +1,90 @@
+package nextf.nacos.gateway.metrics;
+
+import nextf.nacos.gateway.logging.AccessLogContext;
+import nextf.nacos.gateway.logging.formatter.AccessLogPatternFormatter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for PhaseMetrics and RequestPhases
+ */
+@DisplayName("PhaseMetrics Tests")
+class PhaseMetricsTest {
+
+    @Test
+    @DisplayName("Should not time requests while disabled")
+    void testSwitch() {
+        // Arrange
+        PhaseMetrics metrics = new PhaseMetrics(false);
+
+        // Act & Assert
+        assertThat(metrics.start()).isNull();
+        metrics.setEnabled(true);
+        assertThat(metrics.start()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should record each phase from the end of the previous one, once")
+    void testPhases() {
+        // Arrange
+        PhaseMetrics metrics = new PhaseMetrics(true);
+        RequestPhases phases = new RequestPhases(metrics, 1_000);
+
+        // Act
+        phases.mark(RequestPhases.Phase.ROUTE, 3_000);
+        phases.mark(RequestPhases.Phase.LIMIT, 10_000);
+        phases.mark(RequestPhases.Phase.CONNECT, 60_000);
+        phases.mark(RequestPhases.Phase.FIRST_BYTE, 2_060_000);
+        phases.mark(RequestPhases.Phase.TRANSFER, 2_070_000);
+        phases.finish();
+        phases.finish();
+
+        // Assert
+        assertThat(phases.getNanos(RequestPhases.Phase.ROUTE)).isEqualTo(2_000);
+        assertThat(phases.getNanos(RequestPhases.Phase.LIMIT)).isEqualTo(7_000);
+        assertThat(phases.getNanos(RequestPhases.Phase.FIRST_BYTE)).isEqualTo(2_000_000);
+        assertThat(metrics.getHistogram(RequestPhases.Phase.ROUTE).getCount()).isEqualTo(1);
+        assertThat(metrics.getHistogram(RequestPhases.Phase.ROUTE).getCumulativeCounts()).startsWith(0, 1);
+        assertThat(metrics.getHistogram(RequestPhases.Phase.TRANSFER).getSum()).isEqualTo(10_000);
+    }
+
+    @Test
+    @DisplayName("Should skip phases a failed request did not reach")
+    void testFailedRequest() {
+        // Arrange
+        PhaseMetrics metrics = new PhaseMetrics(true);
+        RequestPhases phases = new RequestPhases(metrics, 1_000);
+        phases.mark(RequestPhases.Phase.ROUTE, 2_000);
+        phases.mark(RequestPhases.Phase.FIRST_BYTE, 9_000);
+
+        // Act
+        phases.finish();
+
+        // Assert
+        assertThat(phases.getNanos(RequestPhases.Phase.LIMIT)).isEqualTo(-1);
+        assertThat(phases.getNanos(RequestPhases.Phase.FIRST_BYTE)).isEqualTo(7_000);
+        assertThat(metrics.getHistogram(RequestPhases.Phase.CONNECT).getCount()).isZero();
+        assertThat(metrics.getHistogram(RequestPhases.Phase.FIRST_BYTE).getCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should expose the phases to the access log pattern in microseconds")
+    void testAccessLogPlaceholders() {
+        // Arrange
+        RequestPhases phases = new RequestPhases(new PhaseMetrics(true), 0);
+        phases.mark(RequestPhases.Phase.ROUTE, 4_000);
+        phases.mark(RequestPhases.Phase.CONNECT, 1_504_000);
+        AccessLogPatternFormatter formatter = new AccessLogPatternFormatter(
+                "%{route}P %{limit}P %{connect}P %{transfer}P %{unknown}P");
+
+        // Act
+        String line = formatter.format(AccessLogContext.builder().phases(phases).build());
+        String untimed = formatter.format(AccessLogContext.builder().build());
+
+        // Assert
+        assertThat(line).isEqualTo("4 - 1500 - -");
+        assertThat(untimed).isEqualTo("- - - - -");
+    }
+}
@@ -0,0 +1,56 @@
+package nextf.nacos.gateway.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for PrometheusWriter
+ */
+@DisplayName("PrometheusWriter Tests")
+class PrometheusWriterTest {
+
+    @Test
+    @DisplayName("Should write families with escaped labels")
+    void testSamples() {
+        // Arrange
+        PrometheusWriter writer = new PrometheusWriter();
+
+        // Act
+        writer.family("requests_total", "counter", "Requests")
+                .sample("requests_total", 42, "route", "a\"b\\c", "code", "2xx")
+                .sample("requests_total", 0.5);
+
+        // Assert
+        assertThat(writer.toString()).isEqualTo("""
+                # HELP requests_total Requests
+                # TYPE requests_total counter
+                requests_total{route="a\\"b\\\\c",code="2xx"} 42
+                requests_total 0.5
+                """);
+    }
+
+    @Test
+    @DisplayName("Should write cumulative buckets, sum and count of a histogram in the exported unit")
+    void testHistogram() {
+        // Arrange
+        Histogram histogram = new Histogram(1_000, 500_000);
+        histogram.record(800);
+        histogram.record(2_000);
+        histogram.record(1_000_000);
+        PrometheusWriter writer = new PrometheusWriter();
+
+        // Act
+        writer.histogram("duration_seconds", histogram, 1e-6, "route", "r");
+
+        // Assert
+        assertThat(writer.toString()).isEqualTo("""
+                duration_seconds_bucket{route="r",le="0.001"} 1
+                duration_seconds_bucket{route="r",le="0.5"} 2
+                duration_seconds_bucket{route="r",le="+Inf"} 3
+                duration_seconds_sum{route="r"} 1.0028
+                duration_seconds_count{route="r"} 3
+                """);
+    }
+}
@@ -0,0 +1,164 @@
+package nextf.nacos.gateway.proxy;
+
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.core.streams.WriteStream;
+import nextf.nacos.gateway.ratelimit.BandwidthLimiter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for BandwidthThrottle and the RelayFlowControl that applies it
+ */
+@DisplayName("BandwidthThrottle Tests")
+class BandwidthThrottleTest {
+
+    private Vertx vertx;
+    private ReadStream<Buffer> source;
+    private WriteStream<Buffer> sink;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        vertx = mock(Vertx.class);
+        source = mock(ReadStream.class);
+        sink = mock(WriteStream.class);
+    }
+
+    @Test
+    @DisplayName("Should return no throttle without limiters")
+    void testNoLimiters() {
+        // Act & Assert
+        assertThat(BandwidthThrottle.of(vertx, new BandwidthLimiter[0])).isNull();
+    }
+
+    @Test
+    @DisplayName("Should wait for the most overdrawn limiter")
+    void testReserve() {
+        // Arrange
+        BandwidthThrottle throttle = BandwidthThrottle.of(vertx,
+                new BandwidthLimiter[] {new BandwidthLimiter(1000), new BandwidthLimiter(100_000)});
+
+        // Act
+        long waitNanos = throttle.reserve(3000);
+
+        // Assert: 3000 bytes at 1000 B/s are 2s beyond the one second burst
+        assertThat(waitNanos).isBetween(1_900_000_000L, 2_000_000_000L);
+    }
+
+    @Test
+    @DisplayName("Should not pause the source within the limits")
+    void testWithinLimits() {
+        // Arrange
+        RelayFlowControl flowControl = new RelayFlowControl(source, sink, throttle(1000));
+
+        // Act
+        flowControl.onData(500);
+
+        // Assert
+        verify(source, never()).pause();
+        verify(vertx, never()).setTimer(anyLong(), any());
+        assertThat(flowControl.isPaused()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should pause the source until the throttle's wait is over")
+    void testThrottled() {
+        // Arrange
+        RelayFlowControl flowControl = new RelayFlowControl(source, sink, throttle(1000));
+
+        // Act
+        flowControl.onData(3000);
+        flowControl.onData(100);
+
+        // Assert: paused once, one timer, resumed when it fires
+        verify(source, times(1)).pause();
+        Handler<Long> timer = timerHandler();
+        verify(source, never()).resume();
+        timer.handle(1L);
+        verify(source).resume();
+        assertThat(flowControl.isPaused()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should not let the throttle resume a source whose sink is still full")
+    void testThrottleKeepsSinkBackpressure() {
+        // Arrange
+        when(sink.writeQueueFull()).thenReturn(true);
+        RelayFlowControl flowControl = new RelayFlowControl(source, sink, throttle(1000));
+        flowControl.onData(3000);
+        Handler<Void> drain = drainHandler();
+
+        // Act: the throttle's wait ends first
+        timerHandler().handle(1L);
+
+        // Assert
+        verify(source, never()).resume();
+        assertThat(flowControl.isPaused()).isTrue();
+        drain.handle(null);
+        verify(source).resume();
+    }
+
+    @Test
+    @DisplayName("Should not let a drained sink resume a source the throttle still holds")
+    void testDrainKeepsThrottle() {
+        // Arrange
+        when(sink.writeQueueFull()).thenReturn(true);
+        RelayFlowControl flowControl = new RelayFlowControl(source, sink, throttle(1000));
+        flowControl.onData(3000);
+        Handler<Long> timer = timerHandler();
+
+        // Act: the sink drains first
+        drainHandler().handle(null);
+
+        // Assert
+        verify(source, never()).resume();
+        assertThat(flowControl.isPaused()).isTrue();
+        timer.handle(1L);
+        verify(source).resume();
+    }
+
+    @Test
+    @DisplayName("Should apply sink backpressure without a throttle")
+    void testBackpressureOnly() {
+        // Arrange
+        when(sink.writeQueueFull()).thenReturn(true);
+        RelayFlowControl flowControl = new RelayFlowControl(source, sink, null);
+
+        // Act
+        flowControl.onData(100);
+        flowControl.onData(100);
+
+        // Assert
+        verify(source, times(1)).pause();
+        verify(sink, times(1)).drainHandler(any());
+        drainHandler().handle(null);
+        verify(source).resume();
+    }
+
+    private BandwidthThrottle throttle(long maxBytesPerSecond) {
+        return BandwidthThrottle.of(vertx, new BandwidthLimiter[] {new BandwidthLimiter(maxBytesPerSecond)});
+    }
+
+    @SuppressWarnings("unchecked")
+    private Handler<Long> timerHandler() {
+        ArgumentCaptor<Handler<Long>> captor = ArgumentCaptor.forClass(Handler.class);
+        verify(vertx).setTimer(anyLong(), captor.capture());
+        return captor.getValue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Handler<Void> drainHandler() {
+        ArgumentCaptor<Handler<Void>> captor = ArgumentCaptor.forClass(Handler.class);
+        verify(sink).drainHandler(captor.capture());
+        return captor.getValue();
+    }
+}
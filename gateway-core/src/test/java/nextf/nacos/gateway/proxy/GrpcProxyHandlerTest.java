@@ -0,0 +1,277 @@
+package nextf.nacos.gateway.proxy;
+
+import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpClientRequest;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.http.HttpVersion;
+import io.vertx.core.http.RequestOptions;
+import io.vertx.core.http.StreamResetException;
+import nextf.nacos.gateway.config.BackendConfig;
+import nextf.nacos.gateway.config.EndpointConfig;
+import nextf.nacos.gateway.config.PortType;
+import nextf.nacos.gateway.model.Backend;
+import nextf.nacos.gateway.model.Endpoint;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for GrpcProxyHandler
+ * The relay tests proxy real HTTP/2 streams: client -> gateway server running the handler -> local backend.
+ */
+@DisplayName("GrpcProxyHandler Tests")
+class GrpcProxyHandlerTest {
+
+    private static final String GRPC_PATH = "/test.EchoService/Echo";
+    private static final long INTERNAL_ERROR = 0x2;
+
+    private Vertx vertx;
+    // Held so the clients are not closed when they become unreachable
+    private HttpClient upstream;
+    private HttpClient client;
+
+    @BeforeEach
+    void setUp() {
+        vertx = Vertx.vertx();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        vertx.close().await(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    @DisplayName("Should map grpc-status to its HTTP equivalent for the status class")
+    void testGrpcStatusAsHttp() {
+        // Act & Assert
+        assertThat(GrpcProxyHandler.grpcStatusAsHttp(200, "0")).isEqualTo(200);
+        assertThat(GrpcProxyHandler.grpcStatusAsHttp(200, "5")).isEqualTo(404);
+        assertThat(GrpcProxyHandler.grpcStatusAsHttp(200, "8")).isEqualTo(429);
+        assertThat(GrpcProxyHandler.grpcStatusAsHttp(200, "14")).isEqualTo(503);
+        assertThat(GrpcProxyHandler.grpcStatusAsHttp(200, "13")).isEqualTo(500);
+        assertThat(GrpcProxyHandler.grpcStatusAsHttp(200, "99")).isEqualTo(500);
+    }
+
+    @Test
+    @DisplayName("Should keep the HTTP status when it is not 200 or grpc-status is absent")
+    void testHttpStatus() {
+        // Act & Assert
+        assertThat(GrpcProxyHandler.grpcStatusAsHttp(502, "0")).isEqualTo(502);
+        assertThat(GrpcProxyHandler.grpcStatusAsHttp(200, null)).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("Should read grpc-status from the trailers, or from the headers of a trailers-only response")
+    void testGrpcStatus() {
+        // Arrange
+        MultiMap trailers = MultiMap.caseInsensitiveMultiMap().add("grpc-status", "7");
+        MultiMap headers = MultiMap.caseInsensitiveMultiMap().add("grpc-status", "12");
+        MultiMap empty = MultiMap.caseInsensitiveMultiMap();
+
+        // Act & Assert
+        assertThat(GrpcProxyHandler.grpcStatus(trailers, headers)).isEqualTo("7");
+        assertThat(GrpcProxyHandler.grpcStatus(empty, headers)).isEqualTo("12");
+        assertThat(GrpcProxyHandler.grpcStatus(empty, empty)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should relay the request body, response headers, body and trailers")
+    void testTrailers() throws Exception {
+        // Arrange
+        int backendPort = startBackend(request -> request.body().onSuccess(body -> request.response()
+                .putHeader("content-type", "application/grpc")
+                .putTrailer("grpc-status", "0")
+                .putTrailer("grpc-message", "done")
+                .end(Buffer.buffer("reply:").appendBuffer(body))));
+        HttpClientRequest request = grpcRequest(startGateway(backendPort));
+
+        // Act
+        HttpClientResponse response = request.send(Buffer.buffer("ping")).await(5, TimeUnit.SECONDS);
+        Buffer body = response.body().await(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.getHeader("content-type")).isEqualTo("application/grpc");
+        assertThat(body.toString()).isEqualTo("reply:ping");
+        assertThat(response.trailers().get("grpc-status")).isEqualTo("0");
+        assertThat(response.trailers().get("grpc-message")).isEqualTo("done");
+    }
+
+    @Test
+    @DisplayName("Should relay a backend RST_STREAM to the client with its error code")
+    void testBackendReset() throws Exception {
+        // Arrange: the backend sends headers and a first message, then resets the stream
+        int backendPort = startBackend(request -> request.endHandler(v -> {
+            HttpServerResponse response = request.response().putHeader("content-type", "application/grpc");
+            response.write(Buffer.buffer("partial"));
+            vertx.setTimer(50, id -> response.reset(INTERNAL_ERROR));
+        }));
+        HttpClientRequest request = grpcRequest(startGateway(backendPort));
+
+        // Act
+        HttpClientResponse response = request.send(Buffer.buffer("ping")).await(5, TimeUnit.SECONDS);
+        Throwable failure = catchThrowable(() -> response.body().await(5, TimeUnit.SECONDS));
+
+        // Assert
+        assertThat(failure).isInstanceOf(StreamResetException.class);
+        assertThat(((StreamResetException) failure).getCode()).isEqualTo(INTERNAL_ERROR);
+    }
+
+    @Test
+    @DisplayName("Should relay a client RST_STREAM to the backend with its error code")
+    void testClientReset() throws Exception {
+        // Arrange
+        CompletableFuture<Void> received = new CompletableFuture<>();
+        CompletableFuture<Throwable> backendFailure = new CompletableFuture<>();
+        int backendPort = startBackend(request -> {
+            request.exceptionHandler(backendFailure::complete);
+            request.handler(buffer -> received.complete(null));
+        });
+        HttpClientRequest request = grpcRequest(startGateway(backendPort));
+        request.write(Buffer.buffer("partial")).await(5, TimeUnit.SECONDS);
+        received.get(5, TimeUnit.SECONDS);
+
+        // Act
+        request.reset(INTERNAL_ERROR);
+
+        // Assert
+        Throwable failure = backendFailure.get(5, TimeUnit.SECONDS);
+        assertThat(failure).isInstanceOf(StreamResetException.class);
+        assertThat(((StreamResetException) failure).getCode()).isEqualTo(INTERNAL_ERROR);
+    }
+
+    @Test
+    @DisplayName("Should stop reading the backend while the client does not read")
+    void testBackpressure() throws Exception {
+        // Arrange: the backend streams 4 MB as fast as its write queue allows
+        long total = 4 * 1024 * 1024;
+        Buffer chunk = Buffer.buffer(new byte[16 * 1024]);
+        AtomicLong written = new AtomicLong();
+        CompletableFuture<Long> backendBlocked = new CompletableFuture<>();
+        int backendPort = startBackend(request -> {
+            HttpServerResponse response = request.response().putHeader("content-type", "application/grpc");
+            request.endHandler(v -> writeUntilFull(response, chunk, total, written, backendBlocked));
+        });
+        HttpClientRequest request = grpcRequest(startGateway(backendPort));
+        AtomicLong read = new AtomicLong();
+        CompletableFuture<Void> ended = new CompletableFuture<>();
+        HttpClientResponse response = request.send(Buffer.buffer("ping"))
+                .onSuccess(r -> {
+                    r.pause();
+                    r.handler(buffer -> read.addAndGet(buffer.length()));
+                    r.endHandler(v -> ended.complete(null));
+                })
+                .await(5, TimeUnit.SECONDS);
+
+        // Act: once the flow-control windows and write queues along the relay are full the backend stays blocked
+        backendBlocked.get(5, TimeUnit.SECONDS);
+        long blockedAt = awaitStable(written);
+        response.resume();
+
+        // Assert: the gateway buffered no more than the windows, and everything arrives once resumed
+        assertThat(blockedAt).isLessThan(total / 2);
+        ended.get(10, TimeUnit.SECONDS);
+        assertThat(read.get()).isEqualTo(total);
+    }
+
+    /**
+     * Wait until a counter has not moved for 200ms
+     * @return its stable value
+     */
+    private static long awaitStable(AtomicLong counter) throws InterruptedException {
+        long previous = -1;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (counter.get() != previous && System.nanoTime() < deadline) {
+            previous = counter.get();
+            Thread.sleep(200);
+        }
+        return previous;
+    }
+
+    /**
+     * Write chunks until the write queue is full or everything is written, continue on drain
+     */
+    private static void writeUntilFull(HttpServerResponse response, Buffer chunk, long total, AtomicLong written,
+                                       CompletableFuture<Long> blocked) {
+        while (written.get() < total && !response.writeQueueFull()) {
+            response.write(chunk);
+            written.addAndGet(chunk.length());
+        }
+        if (written.get() >= total) {
+            response.end();
+            return;
+        }
+        blocked.complete(written.get());
+        response.drainHandler(v -> writeUntilFull(response, chunk, total, written, blocked));
+    }
+
+    private int startBackend(Handler<HttpServerRequest> handler) throws Exception {
+        return vertx.createHttpServer(new HttpServerOptions().setHost("127.0.0.1").setPort(0))
+                .requestHandler(handler)
+                .listen()
+                .await(5, TimeUnit.SECONDS)
+                .actualPort();
+    }
+
+    /**
+     * Start a gateway server proxying every request to the backend through GrpcProxyHandler
+     */
+    private int startGateway(int backendPort) throws Exception {
+        Backend backend = backend(backendPort);
+        Endpoint endpoint = backend.getEndpoints().get(0);
+        upstream = vertx.createHttpClient(h2cOptions());
+        return vertx.createHttpServer(new HttpServerOptions().setHost("127.0.0.1").setPort(0))
+                .requestHandler(request -> new GrpcProxyHandler(new ProxyConnection(request.connection(), null,
+                        endpoint, backend, upstream, false, PortType.API_V2, "127.0.0.1"), null).handle(request))
+                .listen()
+                .await(5, TimeUnit.SECONDS)
+                .actualPort();
+    }
+
+    private HttpClientRequest grpcRequest(int gatewayPort) throws Exception {
+        client = vertx.createHttpClient(h2cOptions());
+        return client.request(new RequestOptions()
+                        .setMethod(HttpMethod.POST)
+                        .setHost("127.0.0.1")
+                        .setPort(gatewayPort)
+                        .setURI(GRPC_PATH)
+                        .putHeader("content-type", "application/grpc"))
+                .await(5, TimeUnit.SECONDS)
+                .setChunked(true);
+    }
+
+    private static HttpClientOptions h2cOptions() {
+        return new HttpClientOptions()
+                .setProtocolVersion(HttpVersion.HTTP_2)
+                .setHttp2ClearTextUpgrade(false);
+    }
+
+    private static Backend backend(int port) {
+        EndpointConfig endpointConfig = new EndpointConfig();
+        endpointConfig.setHost("127.0.0.1");
+        BackendConfig.BackendPortsConfig ports = new BackendConfig.BackendPortsConfig();
+        ports.setApiV2(port);
+        BackendConfig backendConfig = new BackendConfig();
+        backendConfig.setName("grpc-backend");
+        backendConfig.setPorts(ports);
+        backendConfig.setEndpoints(List.of(endpointConfig));
+        return Backend.from(backendConfig);
+    }
+}
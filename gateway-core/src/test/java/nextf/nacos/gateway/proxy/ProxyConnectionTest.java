@@ -0,0 +1,81 @@
+package nextf.nacos.gateway.proxy;
+
+import nextf.nacos.gateway.config.RouteConfig;
+import nextf.nacos.gateway.route.Route;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for the route cache of ProxyConnection
+ */
+@DisplayName("ProxyConnection Tests")
+class ProxyConnectionTest {
+
+    private ProxyConnection connection;
+    private Route route;
+
+    @BeforeEach
+    void setUp() {
+        connection = new ProxyConnection(null, null, null, null, null, false, null, "10.0.0.1");
+        RouteConfig routeConfig = new RouteConfig();
+        routeConfig.setHost("*.example.com");
+        routeConfig.setBackend("backend");
+        route = new Route(routeConfig);
+    }
+
+    @Test
+    @DisplayName("Should miss before any route is cached")
+    void testEmpty() {
+        // Act & Assert
+        assertThat(connection.getResolvedRoute("a.example.com", 1)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should return the cached route for the same host and registry version")
+    void testHit() {
+        // Arrange
+        connection.setResolvedRoute("a.example.com", 1, route);
+
+        // Act & Assert: equal host strings hit, not only the identical instance
+        assertThat(connection.getResolvedRoute("a.example.com", 1)).isSameAs(route);
+        assertThat(connection.getResolvedRoute(new String("a.example.com"), 1)).isSameAs(route);
+    }
+
+    @Test
+    @DisplayName("Should miss for another host on the same connection")
+    void testOtherHost() {
+        // Arrange
+        connection.setResolvedRoute("a.example.com", 1, route);
+
+        // Act & Assert
+        assertThat(connection.getResolvedRoute("b.example.com", 1)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should miss once a reload has changed the registry version")
+    void testStaleVersion() {
+        // Arrange
+        connection.setResolvedRoute("a.example.com", 1, route);
+
+        // Act & Assert
+        assertThat(connection.getResolvedRoute("a.example.com", 2)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should keep only the last resolved host")
+    void testReplace() {
+        // Arrange
+        Route other = new Route(new RouteConfig());
+        connection.setResolvedRoute("a.example.com", 1, route);
+
+        // Act
+        connection.setResolvedRoute("b.example.com", 2, other);
+
+        // Assert
+        assertThat(connection.getResolvedRoute("b.example.com", 2)).isSameAs(other);
+        assertThat(connection.getResolvedRoute("a.example.com", 2)).isNull();
+    }
+}
@@ -0,0 +1,101 @@
+package nextf.nacos.gateway.proxy;
+
+import io.vertx.core.buffer.Buffer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.net.ssl.SNIHostName;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLParameters;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for SniParser
+ * Uses ClientHello records produced by the JDK TLS implementation
+ */
+@DisplayName("SniParser Tests")
+class SniParserTest {
+
+    @Test
+    @DisplayName("Should extract SNI host name from ClientHello")
+    void testServerName() throws Exception {
+        // Arrange
+        Buffer hello = clientHello("nacos.example.com");
+
+        // Act & Assert
+        assertThat(SniParser.isTlsHandshake(hello)).isTrue();
+        assertThat(SniParser.recordLength(hello)).isEqualTo(hello.length());
+        assertThat(SniParser.serverName(hello)).isEqualTo("nacos.example.com");
+    }
+
+    @Test
+    @DisplayName("Should return null for ClientHello without SNI")
+    void testNoServerName() throws Exception {
+        // Arrange
+        Buffer hello = clientHello(null);
+
+        // Act & Assert
+        assertThat(SniParser.isTlsHandshake(hello)).isTrue();
+        assertThat(SniParser.serverName(hello)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should wait for the complete record")
+    void testPartialRecord() throws Exception {
+        // Arrange
+        Buffer hello = clientHello("nacos.example.com");
+        Buffer header = hello.getBuffer(0, 3);
+        Buffer partial = hello.getBuffer(0, hello.length() - 1);
+
+        // Act & Assert
+        assertThat(SniParser.recordLength(header)).isEqualTo(-1);
+        assertThat(SniParser.recordLength(partial)).isGreaterThan(partial.length());
+        assertThat(SniParser.serverName(partial)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should not treat HTTP/2 preface as TLS")
+    void testPlaintextPreface() {
+        // Arrange
+        Buffer preface = Buffer.buffer("PRI * HTTP/2.0\r\n\r\nSM\r\n\r\n", StandardCharsets.US_ASCII.name());
+
+        // Act & Assert
+        assertThat(SniParser.isTlsHandshake(preface)).isFalse();
+        assertThat(SniParser.serverName(preface)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should return null for malformed handshake")
+    void testMalformedHandshake() {
+        // Arrange - handshake record header claiming 4 bytes of a truncated ClientHello
+        Buffer record = Buffer.buffer(new byte[]{0x16, 0x03, 0x01, 0x00, 0x04, 0x01, 0x00, 0x00, 0x40});
+
+        // Act & Assert
+        assertThat(SniParser.serverName(record)).isNull();
+    }
+
+    private static Buffer clientHello(String serverName) throws Exception {
+        SSLContext context = SSLContext.getInstance("TLS");
+        context.init(null, null, null);
+        SSLEngine engine = serverName != null
+                ? context.createSSLEngine(serverName, 443)
+                : context.createSSLEngine();
+        engine.setUseClientMode(true);
+
+        SSLParameters parameters = engine.getSSLParameters();
+        parameters.setServerNames(serverName != null ? List.of(new SNIHostName(serverName)) : List.of());
+        engine.setSSLParameters(parameters);
+
+        ByteBuffer out = ByteBuffer.allocate(engine.getSession().getPacketBufferSize());
+        engine.wrap(ByteBuffer.allocate(0), out);
+        out.flip();
+        byte[] bytes = new byte[out.remaining()];
+        out.get(bytes);
+        return Buffer.buffer(bytes);
+    }
+}
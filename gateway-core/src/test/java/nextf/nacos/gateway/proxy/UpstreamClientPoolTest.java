@@ -0,0 +1,110 @@
+package nextf.nacos.gateway.proxy;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientAgent;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.PoolOptions;
+import nextf.nacos.gateway.config.BackendConfig;
+import nextf.nacos.gateway.config.EndpointConfig;
+import nextf.nacos.gateway.config.PortType;
+import nextf.nacos.gateway.config.TimeoutConfig;
+import nextf.nacos.gateway.config.UpstreamPoolConfig;
+import nextf.nacos.gateway.model.Endpoint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for UpstreamClientPool
+ */
+@DisplayName("UpstreamClientPool Tests")
+class UpstreamClientPoolTest {
+
+    private Vertx vertx;
+    private UpstreamClientPool pool;
+
+    @BeforeEach
+    void setUp() {
+        vertx = mock(Vertx.class);
+        when(vertx.createHttpClient(any(HttpClientOptions.class), any(PoolOptions.class)))
+                .thenAnswer(invocation -> mock(HttpClientAgent.class));
+        pool = new UpstreamClientPool(vertx, PortType.API_V1, new UpstreamPoolConfig(), new TimeoutConfig());
+    }
+
+    @Test
+    @DisplayName("Should share one client between endpoints with the same address across reloads")
+    void testSharedAcrossReloads() {
+        // Arrange: the endpoint objects of two config generations
+        Endpoint before = endpoint("10.0.0.1", 8848);
+        Endpoint after = endpoint("10.0.0.1", 8848);
+
+        // Act
+        HttpClient first = pool.getClient(before);
+        HttpClient second = pool.getClient(after);
+
+        // Assert
+        assertThat(second).isSameAs(first);
+        assertThat(pool.size()).isEqualTo(1);
+        verify(vertx, times(1)).createHttpClient(any(HttpClientOptions.class), any(PoolOptions.class));
+    }
+
+    @Test
+    @DisplayName("Should keep separate clients for different ports of the same host")
+    void testSeparatePorts() {
+        // Act
+        HttpClient first = pool.getClient(endpoint("10.0.0.1", 8848));
+        HttpClient second = pool.getClient(endpoint("10.0.0.1", 8849));
+
+        // Assert
+        assertThat(second).isNotSameAs(first);
+        assertThat(pool.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should close only the clients of removed addresses")
+    void testRetainAll() {
+        // Arrange
+        HttpClient kept = pool.getClient(endpoint("10.0.0.1", 8848));
+        HttpClient removed = pool.getClient(endpoint("10.0.0.2", 8848));
+
+        // Act
+        pool.retainAll(Set.of("10.0.0.1:8848"));
+
+        // Assert
+        verify(removed).close();
+        verify(kept, never()).close();
+        assertThat(pool.size()).isEqualTo(1);
+        assertThat(pool.getClient(endpoint("10.0.0.1", 8848))).isSameAs(kept);
+    }
+
+    @Test
+    @DisplayName("Should close every client and empty the pool")
+    void testClose() {
+        // Arrange
+        HttpClient first = pool.getClient(endpoint("10.0.0.1", 8848));
+        HttpClient second = pool.getClient(endpoint("10.0.0.2", 8848));
+
+        // Act
+        pool.close();
+
+        // Assert
+        verify(first).close();
+        verify(second).close();
+        assertThat(pool.size()).isZero();
+    }
+
+    private static Endpoint endpoint(String host, int apiV1Port) {
+        EndpointConfig config = new EndpointConfig();
+        config.setHost(host);
+        BackendConfig.BackendPortsConfig ports = new BackendConfig.BackendPortsConfig();
+        ports.setApiV1(apiV1Port);
+        return new Endpoint(config, ports);
+    }
+}
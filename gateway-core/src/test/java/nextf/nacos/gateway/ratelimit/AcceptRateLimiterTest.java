@@ -0,0 +1,121 @@
+package nextf.nacos.gateway.ratelimit;
+
+import nextf.nacos.gateway.config.AcceptRateConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for AcceptRateLimiter
+ */
+@DisplayName("AcceptRateLimiter Tests")
+class AcceptRateLimiterTest {
+
+    @Test
+    @DisplayName("Should not create a limiter when no rate is configured")
+    void testUnlimited() {
+        // Act & Assert
+        assertThat(AcceptRateLimiter.of(new AcceptRateConfig(), null)).isNull();
+        assertThat(AcceptRateLimiter.of(null, null)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should close connections beyond the global burst")
+    void testGlobalRate() {
+        // Arrange
+        AcceptRateLimiter limiter = AcceptRateLimiter.of(config(5, -1), null);
+
+        // Act
+        int accepted = 0;
+        for (int i = 0; i < 20; i++) {
+            if (limiter.tryAccept("10.0.0." + i)) {
+                accepted++;
+            }
+        }
+
+        // Assert
+        assertThat(accepted).isBetween(5, 6);
+        assertThat(limiter.getRejectedCount()).isEqualTo(20 - accepted);
+        assertThat(limiter.getTrackedClients()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should limit each client IP separately without draining the global budget")
+    void testClientRate() {
+        // Arrange
+        AcceptRateLimiter limiter = AcceptRateLimiter.of(config(10, 2), null);
+
+        // Act
+        int accepted = 0;
+        for (int i = 0; i < 20; i++) {
+            if (limiter.tryAccept("10.0.0.1")) {
+                accepted++;
+            }
+        }
+
+        // Assert: the rejected reconnects did not take global tokens
+        assertThat(accepted).isBetween(2, 3);
+        assertThat(limiter.tryAccept("10.0.0.2")).isTrue();
+        assertThat(limiter.getTrackedClients()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should only apply the global rate to new clients once max clients are tracked")
+    void testMaxClients() {
+        // Arrange
+        AcceptRateConfig config = config(-1, 1);
+        config.setMaxClients(2);
+        AcceptRateLimiter limiter = AcceptRateLimiter.of(config, null);
+        limiter.tryAccept("10.0.0.1");
+        limiter.tryAccept("10.0.0.2");
+
+        // Act & Assert
+        assertThat(limiter.tryAccept("10.0.0.3")).isTrue();
+        assertThat(limiter.tryAccept("10.0.0.3")).isTrue();
+        assertThat(limiter.getTrackedClients()).isEqualTo(2);
+        assertThat(limiter.getUntrackedCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Sweep should drop only refilled client buckets")
+    void testSweep() throws InterruptedException {
+        // Arrange: a 1000/s bucket refills after 1 ms
+        AcceptRateLimiter limiter = AcceptRateLimiter.of(config(-1, 1000), null);
+        limiter.tryAccept("10.0.0.1");
+        Thread.sleep(5);
+
+        // Act
+        int removed = limiter.sweep();
+
+        // Assert
+        assertThat(removed).isEqualTo(1);
+        assertThat(limiter.getTrackedClients()).isZero();
+    }
+
+    @Test
+    @DisplayName("Reload should keep the limiter when unchanged and client buckets while the client rate is unchanged")
+    void testReload() {
+        // Arrange
+        AcceptRateLimiter previous = AcceptRateLimiter.of(config(10, 1), null);
+        assertThat(previous.tryAccept("10.0.0.1")).isTrue();
+
+        // Act
+        AcceptRateLimiter same = AcceptRateLimiter.of(config(10, 1), previous);
+        AcceptRateLimiter raisedGlobal = AcceptRateLimiter.of(config(20, 1), previous);
+        AcceptRateLimiter raisedClient = AcceptRateLimiter.of(config(10, 2), previous);
+
+        // Assert
+        assertThat(same).isSameAs(previous);
+        assertThat(raisedGlobal.tryAccept("10.0.0.1")).isFalse();
+        assertThat(raisedClient.getTrackedClients()).isZero();
+        assertThat(AcceptRateLimiter.of(new AcceptRateConfig(), previous)).isNull();
+    }
+
+    private static AcceptRateConfig config(int maxPerSecond, int maxPerSecondPerClient) {
+        AcceptRateConfig config = new AcceptRateConfig();
+        config.setMaxPerSecond(maxPerSecond);
+        config.setMaxPerSecondPerClient(maxPerSecondPerClient);
+        return config;
+    }
+}
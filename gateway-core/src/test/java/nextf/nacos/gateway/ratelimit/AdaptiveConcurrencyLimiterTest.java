@@ -0,0 +1,174 @@
+package nextf.nacos.gateway.ratelimit;
+
+import nextf.nacos.gateway.config.AdaptiveConcurrencyConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for AdaptiveConcurrencyLimiter
+ */
+@DisplayName("AdaptiveConcurrencyLimiter Tests")
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long WINDOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    @DisplayName("Should refuse requests beyond the current limit")
+    void testLimit() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("backend", config(20));
+        for (int i = 0; i < 20; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+        }
+
+        // Act & Assert
+        assertThat(limiter.tryAcquire()).isFalse();
+        assertThat(limiter.getRejectedCount()).isEqualTo(1);
+        limiter.release();
+        assertThat(limiter.getInFlight()).isEqualTo(19);
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should raise the limit while the latency stays flat")
+    void testIncrease() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("backend", config(20));
+        long now = System.nanoTime();
+
+        // Act
+        for (int window = 1; window <= 5; window++) {
+            runWindow(limiter, now + window * WINDOW, 10);
+        }
+
+        // Assert
+        assertThat(limiter.getLimit()).isGreaterThan(20);
+        assertThat(limiter.getNoLoadRttNanos()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(10));
+    }
+
+    @Test
+    @DisplayName("Should keep the limit when it is not used")
+    void testUnderused() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("backend", config(20));
+        long now = System.nanoTime();
+
+        // Act: one request at a time
+        for (int i = 1; i <= 50; i++) {
+            limiter.tryAcquire();
+            limiter.release(TimeUnit.MILLISECONDS.toNanos(10), true, now + i * WINDOW / 10);
+        }
+
+        // Assert
+        assertThat(limiter.getLimit()).isEqualTo(20);
+    }
+
+    @Test
+    @DisplayName("Should lower the limit once the latency shows queueing")
+    void testDecrease() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("backend", config(20));
+        long now = System.nanoTime();
+        runWindow(limiter, now + WINDOW, 10);
+        int limit = limiter.getLimit();
+
+        // Act
+        runWindow(limiter, now + 2 * WINDOW, 50);
+
+        // Assert
+        assertThat(limiter.getLimit()).isLessThan(limit);
+        assertThat(limiter.getLastRttNanos()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    @Test
+    @DisplayName("Should back off after failed requests without going below the min limit")
+    void testDrops() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("backend", config(20));
+        long now = System.nanoTime();
+
+        // Act
+        failWindow(limiter, now + WINDOW);
+
+        // Assert
+        assertThat(limiter.getLimit()).isEqualTo(18);
+
+        // Act
+        for (int window = 2; window < 40; window++) {
+            failWindow(limiter, now + window * WINDOW);
+        }
+
+        // Assert
+        assertThat(limiter.getLimit()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Should extend windows with too few samples")
+    void testMinSamples() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("backend", config(20));
+        long now = System.nanoTime();
+
+        // Act
+        limiter.tryAcquire();
+        limiter.release(0, false, now + 10 * WINDOW);
+
+        // Assert
+        assertThat(limiter.getLimit()).isEqualTo(20);
+    }
+
+    @Test
+    @DisplayName("Should carry the limit and in-flight count over a reload")
+    void testReload() {
+        // Arrange
+        AdaptiveConcurrencyLimiter previous = new AdaptiveConcurrencyLimiter("backend", config(20));
+        previous.tryAcquire();
+        previous.tryAcquire();
+        AdaptiveConcurrencyConfig config = config(20);
+        config.setMaxLimit(10);
+
+        // Act
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("backend", config, previous);
+        previous.release();
+
+        // Assert
+        assertThat(limiter.getLimit()).isEqualTo(10);
+        assertThat(limiter.getInFlight()).isEqualTo(1);
+        assertThat(limiter.hasConfig(config)).isTrue();
+        assertThat(previous.hasConfig(config)).isFalse();
+    }
+
+    /**
+     * Fill the limit and complete every request with the same latency, spread over the window
+     * The last completion closes the window.
+     */
+    private static void runWindow(AdaptiveConcurrencyLimiter limiter, long windowEnd, long rttMillis) {
+        int requests = limiter.getLimit();
+        for (int i = 0; i < requests; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+        }
+        for (int i = 1; i <= requests; i++) {
+            limiter.release(TimeUnit.MILLISECONDS.toNanos(rttMillis), true, windowEnd - WINDOW + i * WINDOW / requests);
+        }
+    }
+
+    private static void failWindow(AdaptiveConcurrencyLimiter limiter, long windowEnd) {
+        for (int i = 0; i < AdaptiveConcurrencyLimiter.MIN_WINDOW_SAMPLES; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+            limiter.release(0, false, windowEnd);
+        }
+    }
+
+    private static AdaptiveConcurrencyConfig config(int initialLimit) {
+        AdaptiveConcurrencyConfig config = new AdaptiveConcurrencyConfig();
+        config.setEnabled(true);
+        config.setInitialLimit(initialLimit);
+        config.setMinLimit(5);
+        config.setMaxLimit(1000);
+        return config;
+    }
+}
@@ -0,0 +1,79 @@
+package nextf.nacos.gateway.ratelimit;
+
+import nextf.nacos.gateway.config.RateLimitConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for AdmissionQueue
+ */
+@DisplayName("AdmissionQueue Tests")
+class AdmissionQueueTest {
+
+    @Test
+    @DisplayName("Should refuse requests beyond the max depth")
+    void testMaxDepth() {
+        // Arrange
+        AdmissionQueue queue = new AdmissionQueue("route:test", 2, 100);
+
+        // Act & Assert
+        assertThat(queue.tryEnter()).isTrue();
+        assertThat(queue.tryEnter()).isTrue();
+        assertThat(queue.tryEnter()).isFalse();
+        assertThat(queue.getDepth()).isEqualTo(2);
+        assertThat(queue.getRejectedCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should free a place and record the wait whatever the outcome")
+    void testLeave() {
+        // Arrange
+        AdmissionQueue queue = new AdmissionQueue("route:test", 3, 100);
+        queue.tryEnter();
+        queue.tryEnter();
+        queue.tryEnter();
+
+        // Act
+        queue.admitted(TimeUnit.MILLISECONDS.toNanos(3));
+        queue.timedOut(TimeUnit.MILLISECONDS.toNanos(100));
+        queue.abandoned(TimeUnit.MILLISECONDS.toNanos(40));
+
+        // Assert
+        assertThat(queue.getDepth()).isZero();
+        assertThat(queue.getAdmittedCount()).isEqualTo(1);
+        assertThat(queue.getTimedOutCount()).isEqualTo(1);
+        assertThat(queue.getAbandonedCount()).isEqualTo(1);
+        assertThat(queue.getWaitHistogram().getCount()).isEqualTo(3);
+        assertThat(queue.getWaitHistogram().getSum()).isEqualTo(143);
+        // Depths seen on entry: 0, 1, 2
+        assertThat(queue.getDepthHistogram().getCumulativeCounts()[0]).isEqualTo(1);
+        assertThat(queue.getDepthHistogram().getCount()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should keep the queue and its depth when a reload changes its bounds")
+    void testReload() {
+        // Arrange
+        RateLimitConfig config = new RateLimitConfig();
+        config.setQueueDepth(1);
+        AdmissionQueue queue = AdmissionQueue.of("route:test", config, null);
+        queue.tryEnter();
+
+        // Act
+        config.setQueueDepth(2);
+        AdmissionQueue reloaded = AdmissionQueue.of("route:test", config, queue);
+        config.setQueueDepth(0);
+        AdmissionQueue disabled = AdmissionQueue.of("route:test", config, queue);
+
+        // Assert
+        assertThat(reloaded).isSameAs(queue);
+        assertThat(reloaded.getMaxDepth()).isEqualTo(2);
+        assertThat(reloaded.tryEnter()).isTrue();
+        assertThat(reloaded.tryEnter()).isFalse();
+        assertThat(disabled).isNull();
+    }
+}
@@ -0,0 +1,78 @@
+package nextf.nacos.gateway.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for BandwidthLimiter
+ */
+@DisplayName("BandwidthLimiter Tests")
+class BandwidthLimiterTest {
+
+    @Test
+    @DisplayName("Should not pause within one second of traffic")
+    void testBurst() {
+        // Arrange
+        BandwidthLimiter limiter = new BandwidthLimiter(1000);
+        long now = System.nanoTime();
+
+        // Act & Assert
+        for (int i = 0; i < 10; i++) {
+            assertThat(limiter.reserve(100, now)).isZero();
+        }
+    }
+
+    @Test
+    @DisplayName("Should ask for a pause matching the bytes beyond the burst")
+    void testPause() {
+        // Arrange
+        BandwidthLimiter limiter = new BandwidthLimiter(1000);
+        long now = System.nanoTime();
+        limiter.reserve(1000, now);
+
+        // Act
+        long pause = limiter.reserve(500, now);
+
+        // Assert
+        assertThat(pause).isEqualTo(TimeUnit.MILLISECONDS.toNanos(500));
+        assertThat(limiter.reserve(500, now + pause)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(500));
+    }
+
+    @Test
+    @DisplayName("Should repay the debt over time")
+    void testRecovery() {
+        // Arrange
+        BandwidthLimiter limiter = new BandwidthLimiter(1000);
+        long now = System.nanoTime();
+        limiter.reserve(1500, now);
+
+        // Act
+        long pause = limiter.reserve(100, now + TimeUnit.SECONDS.toNanos(2));
+
+        // Assert
+        assertThat(pause).isZero();
+    }
+
+    @Test
+    @DisplayName("Reload should keep unchanged limiters and carry the debt into changed ones")
+    void testReload() {
+        // Arrange
+        BandwidthLimiter previous = new BandwidthLimiter(1000);
+        previous.reserve(3000);
+
+        // Act
+        BandwidthLimiter same = BandwidthLimiter.of(1000, previous);
+        BandwidthLimiter raised = BandwidthLimiter.of(2000, previous);
+
+        // Assert: the debt is capped at the burst, a fresh limiter would admit 2000 bytes at once
+        assertThat(same).isSameAs(previous);
+        assertThat(raised.getMaxBytesPerSecond()).isEqualTo(2000);
+        assertThat(raised.reserve(2000)).isPositive();
+        assertThat(BandwidthLimiter.of(-1, previous)).isNull();
+        assertThat(BandwidthLimiter.of(1000, null)).isNotNull();
+    }
+}
@@ -0,0 +1,111 @@
+package nextf.nacos.gateway.ratelimit;
+
+import nextf.nacos.gateway.config.ClientLimiterConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for ClientLimiterStore
+ */
+@DisplayName("ClientLimiterStore Tests")
+class ClientLimiterStoreTest {
+
+    @Test
+    @DisplayName("Should create a limiter once and return it afterwards")
+    void testGetOrCreate() {
+        // Arrange
+        ClientLimiterStore store = new ClientLimiterStore(config(10, 60));
+
+        // Act
+        ClientRateLimiter first = store.getOrCreate("10.0.0.1", ip -> new ClientRateLimiter(ip, 5, -1));
+        ClientRateLimiter second = store.getOrCreate("10.0.0.1", ip -> new ClientRateLimiter(ip, 99, -1));
+
+        // Assert
+        assertThat(second).isSameAs(first);
+        assertThat(second.getMaxQps()).isEqualTo(5);
+        assertThat(store.get("10.0.0.1")).isSameAs(first);
+        assertThat(store.get("10.0.0.2")).isNull();
+    }
+
+    @Test
+    @DisplayName("Should never hold more than maxSize limiters without connections")
+    void testMaxSize() {
+        // Arrange
+        ClientLimiterStore store = new ClientLimiterStore(config(100, 60));
+
+        // Act: a scan over many spoofed source addresses
+        for (int i = 0; i < 10_000; i++) {
+            store.getOrCreate("10.0." + (i >> 8) + "." + (i & 0xff), ip -> new ClientRateLimiter(ip, 5, -1));
+        }
+
+        // Assert
+        assertThat(store.size()).isLessThanOrEqualTo(100);
+        assertThat(store.getEvictionCount()).isGreaterThanOrEqualTo(9_900);
+        assertThat(store.getEstimatedMemoryBytes())
+                .isEqualTo((long) store.size() * ClientLimiterStore.ESTIMATED_ENTRY_BYTES);
+    }
+
+    @Test
+    @DisplayName("Should not evict limiters holding connections")
+    void testConnectedNotEvicted() {
+        // Arrange
+        ClientLimiterStore store = new ClientLimiterStore(config(2, 60));
+        ClientRateLimiter connected = store.getOrCreate("10.0.0.1", ip -> new ClientRateLimiter(ip, -1, 10));
+        assertThat(connected.tryAcquireConnection()).isTrue();
+
+        // Act
+        for (int i = 2; i < 50; i++) {
+            store.getOrCreate("10.0.0." + i, ip -> new ClientRateLimiter(ip, -1, 10));
+        }
+
+        // Assert
+        assertThat(store.get("10.0.0.1")).isSameAs(connected);
+        assertThat(store.size()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should expire idle limiters without connections on sweep")
+    void testSweep() {
+        // Arrange
+        ClientLimiterStore store = new ClientLimiterStore(config(10, 30));
+        store.getOrCreate("10.0.0.1", ip -> new ClientRateLimiter(ip, 5, -1));
+        ClientRateLimiter connected = store.getOrCreate("10.0.0.2", ip -> new ClientRateLimiter(ip, -1, 10));
+        connected.tryAcquireConnection();
+
+        // Act
+        int notYet = store.sweep(System.nanoTime() + TimeUnit.SECONDS.toNanos(10));
+        int removed = store.sweep(System.nanoTime() + TimeUnit.SECONDS.toNanos(60));
+
+        // Assert
+        assertThat(notYet).isZero();
+        assertThat(removed).isEqualTo(1);
+        assertThat(store.get("10.0.0.1")).isNull();
+        assertThat(store.get("10.0.0.2")).isSameAs(connected);
+        assertThat(store.getExpiredCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should apply new bounds on reconfigure")
+    void testConfigure() {
+        // Arrange
+        ClientLimiterStore store = new ClientLimiterStore(null);
+
+        // Act
+        store.configure(config(5, 120));
+
+        // Assert
+        assertThat(store.getMaxSize()).isEqualTo(5);
+        assertThat(store.getIdleSeconds()).isEqualTo(120);
+    }
+
+    private static ClientLimiterConfig config(int maxSize, int idleSeconds) {
+        ClientLimiterConfig config = new ClientLimiterConfig();
+        config.setMaxSize(maxSize);
+        config.setIdleSeconds(idleSeconds);
+        return config;
+    }
+}
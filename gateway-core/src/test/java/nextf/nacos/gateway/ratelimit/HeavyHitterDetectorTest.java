@@ -0,0 +1,114 @@
+package nextf.nacos.gateway.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for HeavyHitterDetector
+ */
+@DisplayName("HeavyHitterDetector Tests")
+class HeavyHitterDetectorTest {
+
+    @Test
+    @DisplayName("Should never under-estimate a client count")
+    void testNoUnderEstimate() {
+        // Arrange
+        HeavyHitterDetector detector = new HeavyHitterDetector(256, 4, 5);
+        for (int i = 0; i < 5_000; i++) {
+            detector.record("10.1." + (i >> 8) + "." + (i & 0xff));
+        }
+
+        // Act
+        int count = 0;
+        for (int i = 0; i < 300; i++) {
+            count = detector.record("192.168.0.1");
+        }
+
+        // Assert
+        assertThat(count).isGreaterThanOrEqualTo(300);
+        assertThat(detector.estimate("192.168.0.1")).isEqualTo(count);
+    }
+
+    @Test
+    @DisplayName("Should list the noisiest clients first")
+    void testTopClients() {
+        // Arrange
+        HeavyHitterDetector detector = new HeavyHitterDetector(4096, 4, 3);
+        record(detector, "10.0.0.1", 500);
+        record(detector, "10.0.0.2", 50);
+        record(detector, "10.0.0.3", 300);
+        for (int i = 0; i < 2_000; i++) {
+            detector.record("172.16." + (i >> 8) + "." + (i & 0xff));
+        }
+
+        // Act
+        List<HeavyHitterDetector.ClientCount> top = detector.topClients();
+
+        // Assert
+        assertThat(top).extracting(HeavyHitterDetector.ClientCount::getClientId)
+                .containsExactly("10.0.0.1", "10.0.0.3", "10.0.0.2");
+        assertThat(top.get(0).getCount()).isGreaterThanOrEqualTo(500);
+    }
+
+    @Test
+    @DisplayName("Should keep memory constant regardless of the number of clients")
+    void testConstantMemory() {
+        // Arrange
+        HeavyHitterDetector detector = new HeavyHitterDetector(1000, 4, 10);
+        long before = detector.getEstimatedMemoryBytes();
+
+        // Act
+        for (int i = 0; i < 1_000_000; i++) {
+            detector.record(Integer.toString(i));
+        }
+
+        // Assert
+        assertThat(detector.getWidth()).isEqualTo(1024);
+        assertThat(detector.getEstimatedMemoryBytes()).isEqualTo(before);
+        assertThat(detector.topClients()).hasSizeLessThanOrEqualTo(10);
+        assertThat(detector.hasShape(1000, 4, 10)).isTrue();
+        assertThat(detector.hasShape(2048, 4, 10)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should count clients with colliding String hash codes separately")
+    void testHashCodeCollision() {
+        // Arrange: "Aa" and "BB" have the same String.hashCode
+        HeavyHitterDetector detector = new HeavyHitterDetector(4096, 4, 5);
+        assertThat("Aa".hashCode()).isEqualTo("BB".hashCode());
+
+        // Act
+        record(detector, "Aa", 100);
+
+        // Assert
+        assertThat(detector.estimate("Aa")).isEqualTo(100);
+        assertThat(detector.estimate("BB")).isZero();
+    }
+
+    @Test
+    @DisplayName("Should only halve counts when decay is called")
+    void testDecay() {
+        // Arrange
+        HeavyHitterDetector detector = new HeavyHitterDetector(256, 4, 5);
+        record(detector, "10.0.0.1", 100);
+        record(detector, "10.0.0.2", 1);
+
+        // Act
+        detector.decay();
+
+        // Assert
+        assertThat(detector.estimate("10.0.0.1")).isEqualTo(50);
+        assertThat(detector.topClients()).extracting(HeavyHitterDetector.ClientCount::getClientId)
+                .containsExactly("10.0.0.1");
+    }
+
+    private static void record(HeavyHitterDetector detector, String clientId, int times) {
+        for (int i = 0; i < times; i++) {
+            detector.record(clientId);
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package nextf.nacos.gateway.ratelimit;
+
+import nextf.nacos.gateway.config.RateLimitConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for QpsRateLimiter (GCRA)
+ */
+@DisplayName("QpsRateLimiter Tests")
+class QpsRateLimiterTest {
+
+    @Test
+    @DisplayName("Should honour -1 as unlimited and 0 as reject all")
+    void testValueSemantics() {
+        // Arrange
+        QpsRateLimiter unlimited = new QpsRateLimiter(-1);
+        QpsRateLimiter rejectAll = new QpsRateLimiter(0);
+
+        // Act & Assert
+        for (int i = 0; i < 1000; i++) {
+            assertThat(unlimited.tryAcquire()).isTrue();
+        }
+        assertThat(rejectAll.tryAcquire()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should admit exactly burst requests back to back")
+    void testBurst() {
+        // Arrange
+        QpsRateLimiter limiter = new QpsRateLimiter(10, 3);
+
+        // Act & Assert
+        assertThat(limiter.getBurst()).isEqualTo(3);
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should default burst to maxQps")
+    void testDefaultBurst() {
+        // Arrange
+        QpsRateLimiter limiter = new QpsRateLimiter(5);
+        int admitted = 0;
+
+        // Act
+        for (int i = 0; i < 20; i++) {
+            if (limiter.tryAcquire()) {
+                admitted++;
+            }
+        }
+
+        // Assert
+        assertThat(limiter.getBurst()).isEqualTo(5);
+        assertThat(admitted).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Should refill one permit per emission interval instead of resetting a window")
+    void testRefill() throws InterruptedException {
+        // Arrange: 10 QPS = one permit every 100ms
+        QpsRateLimiter limiter = new QpsRateLimiter(10, 1);
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+
+        // Act
+        Thread.sleep(150);
+
+        // Assert
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should not admit more than burst plus refill under contention")
+    void testContention() throws InterruptedException {
+        // Act
+        int admitted = assertAdmittedWithinBudget(new QpsRateLimiter(1000, 50), 1000, 50);
+
+        // Assert
+        assertThat(admitted).isGreaterThanOrEqualTo(50);
+    }
+
+    @Test
+    @DisplayName("Striped limiter should serve leased permits locally and stop at the burst")
+    void testStripedBurst() {
+        // Arrange
+        QpsRateLimiter limiter = QpsRateLimiter.striped(10, 20, 5, 1000);
+        int admitted = 0;
+
+        // Act
+        for (int i = 0; i < 100; i++) {
+            if (limiter.tryAcquire()) {
+                admitted++;
+            }
+        }
+
+        // Assert
+        assertThat(limiter.isStriped()).isTrue();
+        assertThat(limiter.getLeaseSize()).isEqualTo(5);
+        assertThat(admitted).isEqualTo(20);
+    }
+
+    @Test
+    @DisplayName("Striped limiter should fall back to single permits when less than a lease is left")
+    void testStripedFallback() {
+        // Arrange: 7 permits, leases of 5 -> one lease, then two single permits
+        QpsRateLimiter limiter = QpsRateLimiter.striped(1, 7, 5, 1000);
+        int admitted = 0;
+
+        // Act
+        for (int i = 0; i < 20; i++) {
+            if (limiter.tryAcquire()) {
+                admitted++;
+            }
+        }
+
+        // Assert
+        assertThat(admitted).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("Striped limiter should drop leased permits after the lease expires")
+    void testStripedLeaseExpiry() throws InterruptedException {
+        // Arrange: 1 QPS, so nothing refills during the test
+        QpsRateLimiter limiter = QpsRateLimiter.striped(1, 10, 10, 1);
+        assertThat(limiter.tryAcquire()).isTrue();
+
+        // Act
+        Thread.sleep(20);
+
+        // Assert: the 9 leased permits are gone and the shared budget is spent
+        assertThat(limiter.tryAcquire()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Striped limiter should not admit more than the exact limiter under contention")
+    void testStripedContention() throws InterruptedException {
+        // Act
+        int admitted = assertAdmittedWithinBudget(QpsRateLimiter.striped(1000, 50, 4, 20), 1000, 50);
+
+        // Assert: threads sharing a stripe may drop leased permits, never add any
+        assertThat(admitted).isPositive();
+    }
+
+    @Test
+    @DisplayName("Exact limiter should not be striped")
+    void testExactNotStriped() {
+        // Act & Assert
+        assertThat(new QpsRateLimiter(100).isStriped()).isFalse();
+        assertThat(new QpsRateLimiter(100).getLeaseSize()).isZero();
+        assertThat(QpsRateLimiter.striped(-1, -1, -1, 20).isStriped()).isFalse();
+        assertThat(QpsRateLimiter.striped(100_000, -1, -1, 20).getLeaseSize()).isPositive();
+    }
+
+    @Test
+    @DisplayName("Reload should keep a limiter whose settings are unchanged")
+    void testReloadUnchanged() {
+        // Arrange
+        RateLimitConfig config = new RateLimitConfig();
+        config.setMaxQps(10);
+        QpsRateLimiter previous = QpsRateLimiter.of(config);
+
+        // Act
+        QpsRateLimiter reloaded = QpsRateLimiter.of(config, previous);
+
+        // Assert
+        assertThat(reloaded).isSameAs(previous);
+    }
+
+    @Test
+    @DisplayName("Reload should carry consumed permits into a limiter with new settings")
+    void testReloadCarriesState() {
+        // Arrange: use up a burst of 10
+        QpsRateLimiter previous = new QpsRateLimiter(10, 10);
+        for (int i = 0; i < 10; i++) {
+            previous.tryAcquire();
+        }
+        RateLimitConfig config = new RateLimitConfig();
+        config.setMaxQps(20);
+        config.setBurst(20);
+
+        // Act
+        QpsRateLimiter reloaded = QpsRateLimiter.of(config, previous);
+        int admitted = 0;
+        for (int i = 0; i < 50; i++) {
+            if (reloaded.tryAcquire()) {
+                admitted++;
+            }
+        }
+
+        // Assert: only the 10 permits the larger burst adds, not a fresh burst of 20
+        assertThat(reloaded).isNotSameAs(previous);
+        assertThat(admitted).isBetween(10, 11);
+    }
+
+    /**
+     * Hammer the limiter from 8 threads and check the upper bound
+     * @return number of admitted requests
+     */
+    private static int assertAdmittedWithinBudget(QpsRateLimiter limiter, int maxQps, int burst)
+            throws InterruptedException {
+        AtomicInteger admitted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 10_000; i++) {
+                    if (limiter.tryAcquire()) {
+                        admitted.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+
+        // One extra permit of slack for the interval in progress
+        assertThat(admitted.get()).isLessThanOrEqualTo(burst + (int) (elapsedMillis * maxQps / 1000) + 1);
+        return admitted.get();
+    }
+}
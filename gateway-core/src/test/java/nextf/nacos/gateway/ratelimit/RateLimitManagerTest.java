@@ -0,0 +1,277 @@
+package nextf.nacos.gateway.ratelimit;
+
+import nextf.nacos.gateway.config.GatewayConfig;
+import nextf.nacos.gateway.config.RateLimitConfig;
+import nextf.nacos.gateway.config.RouteConfig;
+import nextf.nacos.gateway.config.ServerConfig;
+import nextf.nacos.gateway.route.Route;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for RateLimitManager
+ */
+@DisplayName("RateLimitManager Tests")
+class RateLimitManagerTest {
+
+    @Test
+    @DisplayName("Should create exact client limiters for every client by default")
+    void testExactMode() {
+        // Arrange
+        RateLimitManager manager = new RateLimitManager(config(10, false));
+
+        // Act
+        for (int i = 0; i < 100; i++) {
+            manager.tryAcquire("backend", "10.0.0." + i, "route");
+        }
+
+        // Assert
+        assertThat(manager.getClientLimiterStore().size()).isEqualTo(100);
+        assertThat(manager.getHeavyHitterDetector()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should create client limiters only for heavy hitters in approximate mode")
+    void testApproximateMode() {
+        // Arrange
+        RateLimitManager manager = new RateLimitManager(config(10, true));
+        for (int i = 0; i < 100; i++) {
+            assertThat(manager.tryAcquire("backend", "10.0.0." + i, "route")).isTrue();
+        }
+
+        // Act
+        int admitted = 0;
+        for (int i = 0; i < 100; i++) {
+            if (manager.tryAcquire("backend", "192.168.0.1", "route")) {
+                admitted++;
+            }
+        }
+
+        // Assert: at most the limit before being flagged, then the exact limiter's burst
+        assertThat(manager.getRejectionCounters().getQpsRejections(RejectionCounters.Tier.CLIENT))
+                .isEqualTo(100 - admitted);
+        assertThat(manager.getClientLimiterStore().size()).isEqualTo(1);
+        assertThat(manager.getClientLimiterStore().get("192.168.0.1")).isNotNull();
+        assertThat(admitted).isLessThanOrEqualTo(10 + 10 + 1);
+        assertThat(manager.getHeavyHitterDetector().topClients().get(0).getClientId()).isEqualTo("192.168.0.1");
+    }
+
+    @Test
+    @DisplayName("Should cache the limiter chain on the route until the configuration changes")
+    void testChainCachedOnRoute() {
+        // Arrange
+        RateLimitManager manager = new RateLimitManager(config(10, false));
+        RouteConfig routeConfig = routeConfig(5);
+        Route route = new Route(routeConfig);
+        manager.updateRouteLimiter(route.getId(), routeConfig);
+        manager.bindRoutes(List.of(route));
+        RateLimitChain bound = route.getRateLimitChain();
+
+        // Act
+        RateLimitChain reused = manager.getRateLimitChain(route);
+        manager.updateRouteLimiter(route.getId(), routeConfig(7));
+        RateLimitChain rebuilt = manager.getRateLimitChain(route);
+
+        // Assert
+        assertThat(reused).isSameAs(bound);
+        assertThat(bound.getClientMaxQps()).isEqualTo(5);
+        assertThat(rebuilt).isNotSameAs(bound);
+        assertThat(rebuilt.getClientMaxQps()).isEqualTo(7);
+        assertThat(route.getRateLimitChain()).isSameAs(rebuilt);
+    }
+
+    @Test
+    @DisplayName("Should release connection permits on the limiters they were taken from after a reload")
+    void testPermitsSurviveReload() {
+        // Arrange
+        GatewayConfig gatewayConfig = config(-1, false);
+        gatewayConfig.getServer().getRateLimit().setMaxConnections(1);
+        RateLimitManager manager = new RateLimitManager(gatewayConfig);
+        Route route = new Route(routeConfig(-1));
+        ConnectionPermits first = manager.tryAcquireConnection(route, "10.0.0.1");
+
+        RateLimitConfig raised = new RateLimitConfig();
+        raised.setMaxConnections(2);
+        manager.updateServerRateLimitConfig(raised);
+
+        // Act
+        ConnectionPermits second = manager.tryAcquireConnection(route, "10.0.0.2");
+        ConnectionPermits rejected = manager.tryAcquireConnection(route, "10.0.0.3");
+        first.release();
+        first.release();
+        ConnectionPermits third = manager.tryAcquireConnection(route, "10.0.0.3");
+        ConnectionPermits rejectedAgain = manager.tryAcquireConnection(route, "10.0.0.4");
+
+        // Assert: the permit taken before the reload frees a slot under the new limit, exactly once
+        assertThat(first).isNotNull();
+        assertThat(first.isReleased()).isTrue();
+        assertThat(second).isNotNull();
+        assertThat(rejected).isNull();
+        assertThat(third).isNotNull();
+        assertThat(rejectedAgain).isNull();
+    }
+
+    @Test
+    @DisplayName("Should take only route permits for a request sent outside its connection's route")
+    void testRouteConnectionPermits() {
+        // Arrange: the client connection holds the only global permit
+        GatewayConfig gatewayConfig = config(-1, false);
+        gatewayConfig.getServer().getRateLimit().setMaxConnections(1);
+        RateLimitManager manager = new RateLimitManager(gatewayConfig);
+        Route route = new Route(routeConfig(-1));
+        RouteConfig otherConfig = otherRouteConfig();
+        otherConfig.getRateLimit().setMaxConnections(1);
+        Route other = new Route(otherConfig);
+        manager.updateRouteLimiter(other.getId(), otherConfig);
+        ConnectionPermits connection = manager.tryAcquireConnection(route, "10.0.0.1");
+
+        // Act
+        ConnectionPermits first = manager.tryAcquireRouteConnection(other, "10.0.0.1");
+        ConnectionPermits rejected = manager.tryAcquireRouteConnection(other, "10.0.0.1");
+        first.release();
+        ConnectionPermits freed = manager.tryAcquireRouteConnection(other, "10.0.0.1");
+
+        // Assert: the global permit is neither needed nor taken again, the route limit applies
+        assertThat(connection).isNotNull();
+        assertThat(first).isNotNull();
+        assertThat(rejected).isNull();
+        assertThat(freed).isNotNull();
+        assertThat(manager.getRateLimitChain(other).getRouteLimiter().getCurrentConnections()).isEqualTo(1);
+        assertThat(manager.getRejectionCounters().getConnectionRejections(RejectionCounters.Tier.ROUTE)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Reload should keep route connection counts and adopt the new limit")
+    void testRouteReloadKeepsConnections() {
+        // Arrange
+        RateLimitManager manager = new RateLimitManager(config(-1, false));
+        Route route = new Route(routeConfig(-1));
+        manager.updateRouteLimiter(route.getId(), routeConnections(2));
+        ConnectionPermits first = manager.tryAcquireConnection(route, "10.0.0.1");
+        manager.tryAcquireConnection(route, "10.0.0.2");
+
+        // Act
+        manager.updateRouteLimiter(route.getId(), routeConnections(2));
+        ConnectionPermits unchanged = manager.tryAcquireConnection(route, "10.0.0.3");
+        manager.updateRouteLimiter(route.getId(), routeConnections(3));
+        ConnectionPermits raised = manager.tryAcquireConnection(route, "10.0.0.3");
+        ConnectionPermits full = manager.tryAcquireConnection(route, "10.0.0.4");
+        first.release();
+        ConnectionPermits freed = manager.tryAcquireConnection(route, "10.0.0.4");
+
+        // Assert
+        assertThat(unchanged).isNull();
+        assertThat(raised).isNotNull();
+        assertThat(full).isNull();
+        assertThat(freed).isNotNull();
+        assertThat(manager.getRateLimitChain(route).getRouteLimiter().getCurrentConnections()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Reload should keep client limiters and carry their QPS state into changed limits")
+    void testClientReloadKeepsState() {
+        // Arrange: the client uses up its burst of 5
+        RateLimitManager manager = new RateLimitManager(config(5, false));
+        Route route = new Route(routeConfig(-1));
+        for (int i = 0; i < 5; i++) {
+            assertThat(manager.tryAcquire(route, "10.0.0.1")).isTrue();
+        }
+        assertThat(manager.tryAcquire(route, "10.0.0.1")).isFalse();
+
+        // Act
+        RateLimitConfig raised = new RateLimitConfig();
+        raised.setMaxQpsPerClient(10);
+        manager.updateServerRateLimitConfig(raised);
+        int admitted = 0;
+        for (int i = 0; i < 20; i++) {
+            if (manager.tryAcquire(route, "10.0.0.1")) {
+                admitted++;
+            }
+        }
+
+        // Assert: the 5 permits added by the higher limit, not a fresh burst of 10
+        assertThat(admitted).isBetween(5, 6);
+        assertThat(manager.getClientLimiterStore().size()).isEqualTo(1);
+        assertThat(manager.getClientLimiterStore().get("10.0.0.1").getMaxQps()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Reload should drop only the limiters of removed routes")
+    void testRetainRouteLimiters() {
+        // Arrange
+        RateLimitManager manager = new RateLimitManager(config(-1, false));
+        Route route = new Route(routeConfig(-1));
+        manager.updateRouteLimiter(route.getId(), routeConnections(2));
+        manager.updateRouteLimiter("other.example.com", routeConnections(2));
+        RouteRateLimiter kept = manager.getRateLimitChain(route).getRouteLimiter();
+
+        // Act
+        manager.retainRouteLimiters(Set.of(route.getId()));
+
+        // Assert
+        assertThat(manager.getRateLimitChain(route).getRouteLimiter()).isSameAs(kept);
+        assertThat(manager.getRateLimitChain(new Route(otherRouteConfig())).getRouteLimiter()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should charge response bytes to the route and client bandwidth limiters")
+    void testBandwidthLimiters() {
+        // Arrange
+        RateLimitManager manager = new RateLimitManager(config(-1, false));
+        RouteConfig routeConfig = routeConfig(-1);
+        routeConfig.getRateLimit().setMaxBytesPerSecond(1_000_000);
+        routeConfig.getRateLimit().setMaxBytesPerSecondPerClient(1000);
+        Route route = new Route(routeConfig);
+        manager.updateRouteLimiter(route.getId(), routeConfig);
+
+        // Act
+        BandwidthLimiter[] first = manager.getBandwidthLimiters(route, "10.0.0.1");
+        BandwidthLimiter[] again = manager.getBandwidthLimiters(route, "10.0.0.1");
+        BandwidthLimiter[] other = manager.getBandwidthLimiters(route, "10.0.0.2");
+
+        // Assert
+        assertThat(first).hasSize(2);
+        assertThat(first[0].getMaxBytesPerSecond()).isEqualTo(1_000_000);
+        assertThat(first[1].getMaxBytesPerSecond()).isEqualTo(1000);
+        assertThat(again[1]).isSameAs(first[1]);
+        assertThat(other[0]).isSameAs(first[0]);
+        assertThat(other[1]).isNotSameAs(first[1]);
+        assertThat(manager.getBandwidthLimiters(new Route(otherRouteConfig()), "10.0.0.1")).isEmpty();
+    }
+
+    private static RouteConfig routeConnections(int maxConnections) {
+        RouteConfig routeConfig = routeConfig(-1);
+        routeConfig.getRateLimit().setMaxConnections(maxConnections);
+        return routeConfig;
+    }
+
+    private static RouteConfig otherRouteConfig() {
+        RouteConfig routeConfig = routeConfig(-1);
+        routeConfig.setHost("other.example.com");
+        return routeConfig;
+    }
+
+    private static RouteConfig routeConfig(int maxQpsPerClient) {
+        RateLimitConfig rateLimit = new RateLimitConfig();
+        rateLimit.setMaxQpsPerClient(maxQpsPerClient);
+        RouteConfig routeConfig = new RouteConfig();
+        routeConfig.setHost("api.example.com");
+        routeConfig.setBackend("backend");
+        routeConfig.setRateLimit(rateLimit);
+        return routeConfig;
+    }
+
+    private static GatewayConfig config(int maxQpsPerClient, boolean approximate) {
+        ServerConfig server = new ServerConfig();
+        server.getRateLimit().setMaxQpsPerClient(maxQpsPerClient);
+        server.getClientLimiters().setApproximate(approximate);
+        GatewayConfig config = new GatewayConfig();
+        config.setServer(server);
+        return config;
+    }
+}
@@ -0,0 +1,155 @@
+package nextf.nacos.gateway.route;
+
+import nextf.nacos.gateway.config.RouteConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for HostRouteIndex
+ * Results must agree with a linear first-match scan over HostMatcher
+ */
+@DisplayName("HostRouteIndex Tests")
+class HostRouteIndexTest {
+
+    @Test
+    @DisplayName("Should match exact host ignoring case")
+    void testExactMatch() {
+        // Arrange
+        HostRouteIndex index = index("api.example.com", "Web.Example.Com");
+
+        // Act & Assert
+        assertThat(backendOf(index, "api.example.com")).isEqualTo("b0");
+        assertThat(backendOf(index, "API.EXAMPLE.COM")).isEqualTo("b0");
+        assertThat(backendOf(index, "web.example.com")).isEqualTo("b1");
+        assertThat(index.match("other.example.com")).isEmpty();
+        assertThat(index.match(null)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should match leading wildcard for a single label only")
+    void testLeadingWildcard() {
+        // Arrange
+        HostRouteIndex index = index("*.example.com");
+
+        // Act & Assert
+        assertThat(backendOf(index, "api.example.com")).isEqualTo("b0");
+        assertThat(index.match("deep.api.example.com")).isEmpty();
+        assertThat(index.match("example.com")).isEmpty();
+        assertThat(index.match(".example.com")).isEmpty();
+        assertThat(index.match("api.example.com:8080")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should keep wildcard matching case-sensitive")
+    void testWildcardCaseSensitive() {
+        // Arrange
+        HostRouteIndex index = index("*.Example.Com");
+
+        // Act & Assert
+        assertThat(backendOf(index, "API.Example.Com")).isEqualTo("b0");
+        assertThat(index.match("api.example.com")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should return first configured match across exact and wildcard routes")
+    void testFirstMatchWins() {
+        // Arrange
+        HostRouteIndex wildcardFirst = index("*.example.com", "api.example.com");
+        HostRouteIndex exactFirst = index("api.example.com", "*.example.com");
+        HostRouteIndex complexFirst = index("api-*.example.com", "*.example.com", "api-v1.example.com");
+
+        // Act & Assert
+        assertThat(backendOf(wildcardFirst, "api.example.com")).isEqualTo("b0");
+        assertThat(backendOf(exactFirst, "api.example.com")).isEqualTo("b0");
+        assertThat(backendOf(exactFirst, "web.example.com")).isEqualTo("b1");
+        assertThat(backendOf(complexFirst, "api-v1.example.com")).isEqualTo("b0");
+        assertThat(backendOf(complexFirst, "web.example.com")).isEqualTo("b1");
+    }
+
+    @Test
+    @DisplayName("Should match complex wildcard patterns")
+    void testComplexPatterns() {
+        // Arrange
+        HostRouteIndex index = index("*.*.example.com", "api.*.service.com", "*");
+
+        // Act & Assert
+        assertThat(backendOf(index, "api.v1.example.com")).isEqualTo("b0");
+        assertThat(backendOf(index, "api.prod.service.com")).isEqualTo("b1");
+        assertThat(backendOf(index, "localhost")).isEqualTo("b2");
+        assertThat(index.match("api.example.com")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should agree with linear scan for many tenant routes")
+    void testManyRoutesAgreeWithLinearScan() {
+        // Arrange
+        List<String> patterns = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            patterns.add("tenant" + i + ".example.com");
+            patterns.add("*.tenant" + i + ".example.com");
+        }
+        patterns.add("*.*.example.com");
+        patterns.add("*.example.com");
+        HostRouteIndex index = index(patterns.toArray(new String[0]));
+
+        List<String> hosts = List.of("tenant7.example.com", "TENANT7.EXAMPLE.COM", "api.tenant42.example.com",
+                "api.TENANT42.example.com", "a.b.example.com", "unknown.example.com", "example.com",
+                "a.b.c.example.com");
+
+        // Act & Assert
+        assertThat(index.size()).isEqualTo(patterns.size());
+        for (String host : hosts) {
+            assertThat(backendOf(index, host)).as(host).isEqualTo(linearScan(patterns, host));
+        }
+    }
+
+    @Test
+    @DisplayName("Should return the same Optional instance for repeated lookups")
+    void testNoAllocationPerLookup() {
+        // Arrange
+        HostRouteIndex index = index("api.example.com", "*.example.com");
+
+        // Act & Assert
+        assertThat(index.match("api.example.com")).isSameAs(index.match("API.example.com"));
+        assertThat(index.match("web.example.com")).isSameAs(index.match("www.example.com"));
+    }
+
+    @Test
+    @DisplayName("Should handle null and empty route list")
+    void testEmptyIndex() {
+        // Act & Assert
+        assertThat(new HostRouteIndex(null).match("api.example.com")).isEmpty();
+        assertThat(new HostRouteIndex(new ArrayList<>()).size()).isZero();
+    }
+
+    private static HostRouteIndex index(String... patterns) {
+        List<Route> routes = new ArrayList<>();
+        for (int i = 0; i < patterns.length; i++) {
+            RouteConfig config = new RouteConfig();
+            config.setHost(patterns[i]);
+            config.setBackend("b" + i);
+            routes.add(new Route(config));
+        }
+        return new HostRouteIndex(routes);
+    }
+
+    private static String backendOf(HostRouteIndex index, String host) {
+        Optional<Route> route = index.match(host);
+        return route.map(Route::getBackendName).orElse(null);
+    }
+
+    private static String linearScan(List<String> patterns, String host) {
+        for (int i = 0; i < patterns.size(); i++) {
+            if (new HostMatcher(patterns.get(i)).matches(host)) {
+                return "b" + i;
+            }
+        }
+        return null;
+    }
+}
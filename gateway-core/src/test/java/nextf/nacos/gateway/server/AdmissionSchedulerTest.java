@@ -0,0 +1,176 @@
+package nextf.nacos.gateway.server;
+
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.http.HttpServerResponse;
+import nextf.nacos.gateway.config.GatewayConfig;
+import nextf.nacos.gateway.config.RateLimitConfig;
+import nextf.nacos.gateway.config.RouteConfig;
+import nextf.nacos.gateway.config.ServerConfig;
+import nextf.nacos.gateway.ratelimit.AdmissionQueue;
+import nextf.nacos.gateway.ratelimit.RateLimitManager;
+import nextf.nacos.gateway.ratelimit.RejectionCounters;
+import nextf.nacos.gateway.route.Route;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for AdmissionScheduler
+ */
+@DisplayName("AdmissionScheduler Tests")
+class AdmissionSchedulerTest {
+
+    private Vertx vertx;
+    private Context context;
+
+    @BeforeEach
+    void setUp() {
+        vertx = Vertx.vertx();
+        context = vertx.getOrCreateContext();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        vertx.close().await(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    @DisplayName("Should admit a parked request once its limiter has a permit again")
+    void testAdmit() throws Exception {
+        // Arrange: 10 QPS, two requests back to back
+        RateLimitManager manager = new RateLimitManager(serverConfig(-1));
+        Route route = route(manager, "api.example.com", limit(10, -1, 500));
+        AdmissionScheduler scheduler = new AdmissionScheduler(vertx, manager);
+        HttpServerRequest request = request(mockResponse());
+        CompletableFuture<Long> admitted = new CompletableFuture<>();
+        long start = System.nanoTime();
+        boolean first = manager.tryAcquire(route, "10.0.0.1");
+        RejectionCounters.Tier refusedBy = manager.acquireQps(route, "10.0.0.1");
+
+        // Act
+        onContext(() -> scheduler.park(manager.getAdmissionQueue(route), request, route, "10.0.0.1", refusedBy,
+                () -> admitted.complete(System.nanoTime() - start)));
+
+        // Assert: admitted once the emission interval (100ms) after the first request has passed, well before the timeout
+        long waited = admitted.get(2, TimeUnit.SECONDS);
+        assertThat(first).isTrue();
+        assertThat(refusedBy).isEqualTo(RejectionCounters.Tier.ROUTE);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(waited)).isBetween(100L, 450L);
+        AdmissionQueue queue = manager.getAdmissionQueue(route);
+        assertThat(queue.getAdmittedCount()).isEqualTo(1);
+        assertThat(queue.getDepth()).isZero();
+        assertThat(manager.getRejectionCounters().getQpsRejections(RejectionCounters.Tier.ROUTE)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should answer 429 once a parked request reaches its timeout")
+    void testTimeout() {
+        // Arrange: next permit in one second, timeout after 50ms
+        RateLimitManager manager = new RateLimitManager(serverConfig(-1));
+        Route route = route(manager, "api.example.com", limit(1, -1, 50));
+        AdmissionScheduler scheduler = new AdmissionScheduler(vertx, manager);
+        HttpServerResponse response = mockResponse();
+        HttpServerRequest request = request(response);
+        CompletableFuture<Void> admitted = new CompletableFuture<>();
+        manager.tryAcquire(route, "10.0.0.1");
+        RejectionCounters.Tier refusedBy = manager.acquireQps(route, "10.0.0.1");
+
+        // Act
+        onContext(() -> scheduler.park(manager.getAdmissionQueue(route), request, route, "10.0.0.1", refusedBy,
+                () -> admitted.complete(null)));
+
+        // Assert: the rejection is reported once the request is answered with 429
+        verify(response, timeout(2000)).setStatusCode(429);
+        assertThat(admitted).isNotDone();
+        assertThat(manager.getAdmissionQueue(route).getTimedOutCount()).isEqualTo(1);
+        assertThat(manager.getRejectionCounters().getQpsRejections(RejectionCounters.Tier.ROUTE)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should not drain the global budget of other routes while a request waits on its client limit")
+    void testNoStarvation() {
+        // Arrange: 20 QPS globally, route A allows one request per client per second
+        RateLimitManager manager = new RateLimitManager(serverConfig(20));
+        Route limited = route(manager, "a.example.com", limit(-1, 1, 200));
+        Route other = route(manager, "b.example.com", null);
+        AdmissionScheduler scheduler = new AdmissionScheduler(vertx, manager);
+        HttpServerResponse response = mockResponse();
+        HttpServerRequest request = request(response);
+        manager.tryAcquire(limited, "10.0.0.1");
+        RejectionCounters.Tier refusedBy = manager.acquireQps(limited, "10.0.0.1");
+
+        // Act
+        onContext(() -> scheduler.park(manager.getAdmissionQueue(limited), request, limited, "10.0.0.1", refusedBy,
+                () -> { }));
+        verify(response, timeout(2000)).setStatusCode(429);
+        int admitted = 0;
+        for (int i = 0; i < 20; i++) {
+            if (manager.tryAcquire(other, "10.0.0.2")) {
+                admitted++;
+            }
+        }
+
+        // Assert: only the two requests of route A used global permits, retries were neither charged nor counted
+        assertThat(admitted).isGreaterThanOrEqualTo(18);
+        assertThat(manager.getRejectionCounters().getQpsRejections(RejectionCounters.Tier.CLIENT)).isEqualTo(1);
+    }
+
+    private void onContext(Runnable action) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        context.runOnContext(v -> {
+            action.run();
+            done.complete(null);
+        });
+        done.join();
+    }
+
+    private static HttpServerResponse mockResponse() {
+        return mock(HttpServerResponse.class, RETURNS_SELF);
+    }
+
+    private static HttpServerRequest request(HttpServerResponse response) {
+        HttpServerRequest request = mock(HttpServerRequest.class);
+        when(request.response()).thenReturn(response);
+        return request;
+    }
+
+    private static GatewayConfig serverConfig(int maxQps) {
+        RateLimitConfig rateLimit = new RateLimitConfig();
+        rateLimit.setMaxQps(maxQps);
+        ServerConfig server = new ServerConfig();
+        server.setRateLimit(rateLimit);
+        GatewayConfig config = new GatewayConfig();
+        config.setServer(server);
+        return config;
+    }
+
+    private static RateLimitConfig limit(int maxQps, int maxQpsPerClient, int queueTimeoutMillis) {
+        RateLimitConfig rateLimit = new RateLimitConfig();
+        rateLimit.setMaxQps(maxQps);
+        rateLimit.setBurst(1);
+        rateLimit.setMaxQpsPerClient(maxQpsPerClient);
+        rateLimit.setBurstPerClient(1);
+        rateLimit.setQueueDepth(5);
+        rateLimit.setQueueTimeoutMillis(queueTimeoutMillis);
+        return rateLimit;
+    }
+
+    private static Route route(RateLimitManager manager, String host, RateLimitConfig rateLimit) {
+        RouteConfig routeConfig = new RouteConfig();
+        routeConfig.setHost(host);
+        routeConfig.setBackend("backend");
+        routeConfig.setRateLimit(rateLimit);
+        Route route = new Route(routeConfig);
+        manager.updateRouteLimiter(route.getId(), routeConfig);
+        return route;
+    }
+}
@@ -0,0 +1,245 @@
+package nextf.nacos.gateway.server;
+
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.http.PoolOptions;
+import io.vertx.core.http.RequestOptions;
+import nextf.nacos.gateway.config.AccessLogConfig;
+import nextf.nacos.gateway.config.ConfigLoader;
+import nextf.nacos.gateway.config.GatewayConfig;
+import nextf.nacos.gateway.config.PortType;
+import nextf.nacos.gateway.config.RouteConfig;
+import nextf.nacos.gateway.loadbalance.EndpointSelector;
+import nextf.nacos.gateway.logging.AccessLogger;
+import nextf.nacos.gateway.metrics.PhaseMetrics;
+import nextf.nacos.gateway.proxy.ConnectionManager;
+import nextf.nacos.gateway.ratelimit.RateLimitManager;
+import nextf.nacos.gateway.registry.GatewayRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for GatewayServer
+ * Requests go through a deployed apiV1 server to local backends; each test client keeps a single
+ * connection, so consecutive requests of a client share the gateway's connection state.
+ */
+@DisplayName("GatewayServer Tests")
+class GatewayServerTest {
+
+    private Vertx vertx;
+    private GatewayRegistry registry;
+    private RateLimitManager rateLimitManager;
+    private ConnectionManager connectionManager;
+    private int port;
+    // Completes the response of a /hold request
+    private final Promise<Void> release = Promise.promise();
+    private final CompletableFuture<Void> holding = new CompletableFuture<>();
+
+    @BeforeEach
+    void setUp() {
+        vertx = Vertx.vertx();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        vertx.close().await(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    @DisplayName("Should charge a request for another route of the same backend to that route's connection limit")
+    void testRouteSwitchConnectionLimit() throws Exception {
+        // Arrange: routes A and B share a backend, B allows one connection
+        int backendPort = startBackend("one");
+        start(backendPort, startBackend("two"), """
+                  - host: a.example.com
+                    backend: one
+                  - host: b.example.com
+                    backend: one
+                    rateLimit:
+                      maxConnections: 1
+                """);
+        HttpClient first = client();
+        HttpClient second = client();
+        get(first, "a.example.com", "/");
+        get(second, "a.example.com", "/");
+
+        // Act: both connections switch to route B while the first one's request is held
+        CompletableFuture<HttpClientResponse> held = send(first, "b.example.com", "/hold");
+        holding.get(5, TimeUnit.SECONDS);
+        HttpClientResponse rejected = send(second, "b.example.com", "/").get(5, TimeUnit.SECONDS);
+        release.complete();
+        HttpClientResponse heldResponse = held.get(5, TimeUnit.SECONDS);
+        HttpClientResponse admitted = send(second, "b.example.com", "/").get(5, TimeUnit.SECONDS);
+
+        // Assert: the permit is held for the request only
+        assertThat(rejected.statusCode()).isEqualTo(429);
+        assertThat(heldResponse.statusCode()).isEqualTo(200);
+        assertThat(admitted.statusCode()).isEqualTo(200);
+        assertThat(connectionManager.getConnectionCount()).isEqualTo(2);
+        assertThat(rateLimitManager.getRateLimitChain(registry.getRoute("b.example.com"))
+                .getRouteLimiter().getCurrentConnections()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should route each request of a connection by its own host")
+    void testMixedHosts() throws Exception {
+        // Arrange
+        start(startBackend("one"), startBackend("two"), """
+                  - host: a.example.com
+                    backend: one
+                  - host: b.example.com
+                    backend: two
+                """);
+        HttpClient client = client();
+
+        // Act & Assert: the cached route of the previous host is not reused for another host
+        assertThat(get(client, "a.example.com", "/")).isEqualTo("one");
+        assertThat(get(client, "b.example.com", "/")).isEqualTo("two");
+        assertThat(get(client, "b.example.com", "/")).isEqualTo("two");
+        assertThat(get(client, "a.example.com", "/")).isEqualTo("one");
+        assertThat(connectionManager.getConnectionCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should match the host again once a reload changes the routes")
+    void testRouteReload() throws Exception {
+        // Arrange: the connection has cached route B
+        start(startBackend("one"), startBackend("two"), """
+                  - host: a.example.com
+                    backend: one
+                  - host: b.example.com
+                    backend: one
+                """);
+        HttpClient client = client();
+        get(client, "a.example.com", "/");
+        assertThat(get(client, "b.example.com", "/")).isEqualTo("one");
+
+        // Act
+        registry.updateRoutes(List.of(route("a.example.com", "one"), route("b.example.com", "two")));
+
+        // Assert
+        assertThat(get(client, "b.example.com", "/")).isEqualTo("two");
+        assertThat(connectionManager.getConnectionCount()).isEqualTo(1);
+    }
+
+    /**
+     * Start a backend answering its name, /hold is answered once the test releases it
+     * @return its port
+     */
+    private int startBackend(String name) throws Exception {
+        return vertx.createHttpServer(new HttpServerOptions().setHost("127.0.0.1").setPort(0))
+                .requestHandler(request -> {
+                    if ("/hold".equals(request.path())) {
+                        holding.complete(null);
+                        release.future().onComplete(v -> request.response().end(name));
+                    } else {
+                        request.response().end(name);
+                    }
+                })
+                .listen()
+                .await(5, TimeUnit.SECONDS)
+                .actualPort();
+    }
+
+    /**
+     * Deploy an apiV1 gateway server with backends "one" and "two" and the given routes
+     */
+    private void start(int onePort, int twoPort, String routes) throws Exception {
+        port = freePort();
+        GatewayConfig config = new ConfigLoader().loadFromString("""
+                server:
+                  ports:
+                    apiV1: %d
+                    apiV2: %d
+                    apiConsole: %d
+
+                routes:
+                %s
+                backends:
+                  - name: one
+                    ports:
+                      apiV1: %d
+                    endpoints:
+                      - host: 127.0.0.1
+                  - name: two
+                    ports:
+                      apiV1: %d
+                    endpoints:
+                      - host: 127.0.0.1
+                """.formatted(port, freePort(), freePort(), routes, onePort, twoPort));
+        rateLimitManager = new RateLimitManager(config);
+        connectionManager = new ConnectionManager(rateLimitManager);
+        registry = new GatewayRegistry();
+        registry.updateRoutes(config.getRoutes());
+        registry.updateBackends(config.getBackends());
+        for (RouteConfig routeConfig : config.getRoutes()) {
+            rateLimitManager.updateRouteLimiter(routeConfig.getHost(), routeConfig);
+        }
+        vertx.deployVerticle(new GatewayServer(config, PortType.API_V1, port, registry, new EndpointSelector(),
+                        connectionManager, rateLimitManager, new AccessLogger(new AccessLogConfig()), null,
+                        new PhaseMetrics(false)))
+                .await(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * A client that keeps a single connection to the gateway
+     */
+    private HttpClient client() {
+        return vertx.createHttpClient(new HttpClientOptions().setKeepAlive(true), new PoolOptions().setHttp1MaxSize(1));
+    }
+
+    private CompletableFuture<HttpClientResponse> send(HttpClient client, String host, String path) {
+        return client.request(new RequestOptions()
+                        .setMethod(HttpMethod.GET)
+                        .setHost("127.0.0.1")
+                        .setPort(port)
+                        .setURI(path)
+                        .putHeader(HttpHeaders.HOST, host))
+                .compose(request -> request.send())
+                .compose(response -> response.body().map(body -> response))
+                .toCompletionStage()
+                .toCompletableFuture();
+    }
+
+    private String get(HttpClient client, String host, String path) throws Exception {
+        return client.request(new RequestOptions()
+                        .setMethod(HttpMethod.GET)
+                        .setHost("127.0.0.1")
+                        .setPort(port)
+                        .setURI(path)
+                        .putHeader(HttpHeaders.HOST, host))
+                .compose(request -> request.send())
+                .compose(response -> response.body())
+                .await(5, TimeUnit.SECONDS)
+                .toString();
+    }
+
+    private static RouteConfig route(String host, String backend) {
+        RouteConfig routeConfig = new RouteConfig();
+        routeConfig.setHost(host);
+        routeConfig.setBackend(backend);
+        return routeConfig;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package nextf.nacos.gateway.server;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.json.JsonObject;
+import nextf.nacos.gateway.management.HealthEndpoint;
+import nextf.nacos.gateway.testutil.VertxTestHelper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for ManagementServer
+ */
+@DisplayName("ManagementServer Tests")
+class ManagementServerTest {
+
+    private Vertx vertx;
+    private HttpClient client;
+    private HealthEndpoint healthEndpoint;
+    private int port;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        vertx = VertxTestHelper.createVertx();
+        client = VertxTestHelper.createHttpClient(vertx);
+        healthEndpoint = new HealthEndpoint("/health");
+        port = freePort();
+        vertx.deployVerticle(new ManagementServer("127.0.0.1", port, List.of(healthEndpoint)))
+                .await(5, TimeUnit.SECONDS);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        vertx.close().await(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    @DisplayName("Should serve the health endpoint on the management port")
+    void testHealth() throws Exception {
+        // Act
+        String body = get("/health", 200);
+        healthEndpoint.setHealthy(false);
+
+        // Assert
+        assertThat(new JsonObject(body).getString("status")).isEqualTo("UP");
+        assertThat(new JsonObject(get("/health", 503)).getString("status")).isEqualTo("DOWN");
+    }
+
+    @Test
+    @DisplayName("Should answer 404 for paths without an endpoint")
+    void testUnknownPath() throws Exception {
+        // Act & Assert
+        assertThat(get("/nacos/v1/ns/instance/list", 404)).isEqualTo("Not Found");
+    }
+
+    private String get(String path, int expectedStatus) throws Exception {
+        return client.request(HttpMethod.GET, port, "127.0.0.1", path)
+                .compose(request -> request.send())
+                .compose(response -> {
+                    assertThat(response.statusCode()).isEqualTo(expectedStatus);
+                    return response.body();
+                })
+                .await(5, TimeUnit.SECONDS)
+                .toString();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}